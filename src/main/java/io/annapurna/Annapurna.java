@@ -1,10 +1,11 @@
 package io.annapurna;
 
-import io.annapurna.generator.EquitySwapGenerator;
-import io.annapurna.generator.TradeGenerator;
+import io.annapurna.generator.TradeBuffer;
 import io.annapurna.model.Trade;
+import io.annapurna.model.TradeType;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Main entry point for the Annapurna synthetic trade data generator.
@@ -23,8 +24,14 @@ import java.util.List;
  * // Generate a single trade
  * Trade trade = Annapurna.generateOne();
  *
+ * // Take a single trade of any asset class, in microseconds
+ * Trade forward = Annapurna.generateOne(TradeType.FX_FORWARD);
+ *
  * // Generate 10,000 trades with default distribution
  * List<Trade> trades = Annapurna.generate(10000);
+ *
+ * // Generate 10,000 trades of one asset class, typed
+ * List<FXForward> forwards = Annapurna.generate(FXForward.class, 10000);
  * }</pre>
  *
  * <p><b>Advanced Configuration:</b>
@@ -61,6 +68,9 @@ public class Annapurna {
      * <p>This is a convenience method for quick testing. For production use
      * or bulk generation, use {@link #generate(int)} or {@link #builder()}.
      *
+     * <p>The first call starts the background thread of the shared trade buffer,
+     * described at {@link #generateOne(TradeType)}.
+     *
      * <p>The generated trade will have:
      * <ul>
      *   <li>Realistic notional ($5M - $100M range)</li>
@@ -71,10 +81,44 @@ public class Annapurna {
      * </ul>
      *
      * @return A fully populated EquitySwap trade with realistic data
+     * @see #generateOne(TradeType)
      */
     public static Trade generateOne() {
-        TradeGenerator generator = new EquitySwapGenerator();
-        return generator.generate();
+        return generateOne(TradeType.EQUITY_SWAP);
+    }
+
+    /**
+     * Get a single trade of a type, fast enough to call on a request path.
+     *
+     * <p>Trades come from a shared {@link TradeBuffer} that a background thread keeps
+     * topped up, so a call usually costs one lock-free take from a ring. If callers
+     * drain the buffer faster than it refills, the trade is generated on the calling
+     * thread instead.
+     *
+     * <p>The first call starts the buffer: a daemon thread that generates up to
+     * {@value TradeBuffer#DEFAULT_CAPACITY} trades of each of the five types and holds
+     * them for the life of the JVM. Warm it up before a latency-sensitive run with
+     * {@code Annapurna.tradeBuffer().awaitFilled(...)}.
+     *
+     * <p><b>Thread Safety:</b> This method is thread-safe and can be called concurrently.
+     *
+     * @param type Type of trade to return
+     * @return A fully populated trade of {@code type}
+     * @throws IllegalArgumentException if type is null
+     */
+    public static Trade generateOne(TradeType type) {
+        return TradeBuffer.shared().next(type);
+    }
+
+    /**
+     * The buffer behind {@link #generateOne(TradeType)}, for its metrics or to wait
+     * until it has filled. It lives as long as the JVM and cannot be closed.
+     *
+     * @return The shared trade buffer, started if it was not already
+     * @see TradeBuffer#shared()
+     */
+    public static TradeBuffer tradeBuffer() {
+        return TradeBuffer.shared();
     }
 
     /**
@@ -101,6 +145,46 @@ public class Annapurna {
                 .generate();
     }
 
+    /**
+     * Generate trades of a single asset class as a list of that class.
+     *
+     * <p>No trade type is drawn and no element is cast: each chunk runs a loop over the
+     * asset class's own generator. See {@link AnnapurnaBuilder.BulkTradeGenerator#generate(Class)}.
+     *
+     * @param tradeClass Concrete trade class, such as {@code EquitySwap.class}
+     * @param count Number of trades to generate (must be positive)
+     * @return List of trades of {@code tradeClass}
+     * @throws IllegalArgumentException if count is not positive or the class is not a
+     *         concrete trade class
+     */
+    public static <T extends Trade> List<T> generate(Class<T> tradeClass, long count) {
+        return typedBuilder(tradeClass, count)
+                .build()
+                .generate(tradeClass);
+    }
+
+    /**
+     * Lazily generate trades of a single asset class as a stream of that class.
+     * Close the stream if it is abandoned early, to release the generation pool.
+     *
+     * @param tradeClass Concrete trade class, such as {@code EquitySwap.class}
+     * @param count Number of trades to generate (must be positive)
+     * @return Ordered stream of trades of {@code tradeClass}
+     * @throws IllegalArgumentException if count is not positive or the class is not a
+     *         concrete trade class
+     */
+    public static <T extends Trade> Stream<T> stream(Class<T> tradeClass, long count) {
+        return typedBuilder(tradeClass, count)
+                .build()
+                .stream(tradeClass);
+    }
+
+    private static AnnapurnaBuilder typedBuilder(Class<? extends Trade> tradeClass, long count) {
+        return builder()
+                .onlyTradeType(TradeType.of(tradeClass))
+                .count(count);
+    }
+
     /**
      * Create a builder for advanced configuration of trade generation.
      *
@@ -143,4 +227,4 @@ public class Annapurna {
     public static AnnapurnaBuilder builder() {
         return new AnnapurnaBuilder();
     }
-}
\ No newline at end of file
+}
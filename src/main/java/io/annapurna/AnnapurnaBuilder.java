@@ -1,19 +1,62 @@
 package io.annapurna;
 
 import io.annapurna.config.GeneratorConfig;
+import io.annapurna.config.Skew;
+import io.annapurna.config.SkewedField;
+import io.annapurna.execution.GenerationExecutor;
+import io.annapurna.execution.OutputBudget;
+import io.annapurna.execution.TradeIterator;
+import io.annapurna.execution.TradePublisher;
+import io.annapurna.feed.LoadShape;
+import io.annapurna.feed.TradeFeed;
+import io.annapurna.generator.CDSGenerator;
+import io.annapurna.generator.EquityOptionGenerator;
+import io.annapurna.generator.EquitySwapGenerator;
+import io.annapurna.generator.ExecutionClock;
+import io.annapurna.generator.FXForwardGenerator;
+import io.annapurna.generator.InterestRateSwapGenerator;
 import io.annapurna.generator.TradeFactory;
+import io.annapurna.generator.TradeGenerator;
+import io.annapurna.generator.TradeIdGenerator;
+import io.annapurna.job.Checkpoint;
+import io.annapurna.job.GenerationJob;
+import io.annapurna.job.GenerationScheduler;
+import io.annapurna.job.ScheduledJob;
 import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
+import io.annapurna.model.TradingVenue;
+import io.annapurna.pipeline.TradePipeline;
 import io.annapurna.profile.DataProfile;
 import io.annapurna.profile.ProfileApplier;
+import io.annapurna.serialization.TradeFormat;
+import io.annapurna.sink.FlyweightSink;
+import io.annapurna.sink.TradeSink;
+import io.annapurna.util.DayBuckets;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.SplitMixRandom;
+import io.annapurna.util.Strata;
+import io.annapurna.util.WeightedRandom;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
 import java.util.concurrent.ThreadLocalRandom;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Fluent builder for configuring bulk trade generation with advanced options.
@@ -64,13 +107,34 @@ import java.util.stream.IntStream;
  */
 public class AnnapurnaBuilder {
 
-    private int count = 1000;
+    // Largest array the JVM reliably allocates
+    private static final long MAX_LIST_SIZE = Integer.MAX_VALUE - 8;
+
+    private long count = 1000;
     private Map<TradeType, Integer> tradeTypeDistribution = new HashMap<>();
     private int parallelism = Runtime.getRuntime().availableProcessors();
     private LocalDate startDate = LocalDate.now().minusYears(1);
     private LocalDate endDate = LocalDate.now();
     private Map<DataProfile, Integer> profileDistribution = new HashMap<>();
     private boolean useProfiles = false;
+    private int chunkSize = GeneratorConfig.DEFAULT_CHUNK_SIZE;
+    private Executor executor;
+    private int maxInFlightChunks = 0;
+    private Long seed;
+    private String randomAlgorithm;
+    private boolean stratified = false;
+    private int shardIndex = 0;
+    private int shardCount = 1;
+    private boolean executionTimes = false;
+    private double[] intradayIntensity;
+    private boolean monotonicExecutionTimes = false;
+    private boolean timeOrdered = false;
+    private Map<SkewedField, Skew> skews = new EnumMap<>(SkewedField.class);
+    private int traderPool = GeneratorConfig.DEFAULT_TRADER_POOL;
+    private boolean countSet = false;
+    private long byteBudget = 0;
+    private TradeFormat byteBudgetFormat;
+    private Duration timeBudget;
 
     AnnapurnaBuilder() {
         // Package-private constructor
@@ -118,10 +182,94 @@ public class AnnapurnaBuilder {
      * Set total number of trades to generate.
      */
     public AnnapurnaBuilder count(int count) {
+        return count((long) count);
+    }
+
+    /**
+     * Set total number of trades to generate.
+     *
+     * <p>Counts above {@code Integer.MAX_VALUE} can only be consumed through
+     * {@link BulkTradeGenerator#stream()} or {@link BulkTradeGenerator#iterator()}.
+     *
+     * @param count Number of trades (must be positive)
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if count is less than or equal to 0
+     */
+    public AnnapurnaBuilder count(long count) {
         if (count <= 0) {
             throw new IllegalArgumentException("Count must be positive");
         }
         this.count = count;
+        this.countSet = true;
+        return this;
+    }
+
+    /**
+     * Generate trades until the consumer stops pulling them.
+     *
+     * <p>Only meaningful with {@link BulkTradeGenerator#stream()} or
+     * {@link BulkTradeGenerator#iterator()}; combine with {@code Stream.limit}
+     * or close the stream to stop generation.
+     *
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder unbounded() {
+        this.count = GeneratorConfig.UNBOUNDED;
+        this.countSet = true;
+        return this;
+    }
+
+    /**
+     * Stop streaming and sink runs once their output reaches {@code bytes} in {@code format}.
+     *
+     * <p>Applies to {@link BulkTradeGenerator#stream()}, {@link BulkTradeGenerator#iterator()}
+     * and {@link BulkTradeGenerator#generateInto(TradeSink)}. Every trade is sized in
+     * {@code format} on the worker that generated it, and the run delivers as many whole
+     * trades as fit: it never exceeds {@code bytes} and stops less than one trade short
+     * of it. A stream stops at the same trade on every seeded run; a sink receives the
+     * chunks that workers finished first.
+     *
+     * <p>Without an explicit {@link #count(long)} the run is otherwise unbounded; with
+     * one, it stops at whichever limit comes first.
+     *
+     * <pre>{@code
+     * Annapurna.builder()
+     *     .untilBytes(200L << 30, TradeFormat.CSV)   // 200 GiB of CSV rows
+     *     .build()
+     *     .generateInto(sink);
+     * }</pre>
+     *
+     * @param bytes Output size to stop at (must be positive)
+     * @param format Format the output is measured in
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder untilBytes(long bytes, TradeFormat format) {
+        if (bytes <= 0) {
+            throw new IllegalArgumentException("Byte budget must be positive, got: " + bytes);
+        }
+        if (format == null) {
+            throw new IllegalArgumentException("Format must not be null");
+        }
+        this.byteBudget = bytes;
+        this.byteBudgetFormat = format;
+        return this;
+    }
+
+    /**
+     * Stop streaming and sink runs once {@code duration} has passed since they started.
+     *
+     * <p>Applies to the same methods as {@link #untilBytes(long, TradeFormat)}. The clock
+     * is checked at chunk boundaries: no chunk starts after the deadline and none that
+     * finishes after it is delivered, so a run overruns by at most one chunk's sink call.
+     *
+     * @param duration Time the run may take (must be positive)
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder untilDuration(Duration duration) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive, got: " + duration);
+        }
+        this.timeBudget = duration;
         return this;
     }
 
@@ -131,6 +279,11 @@ public class AnnapurnaBuilder {
      * <p>Default is the number of available CPU cores. Higher parallelism
      * improves performance up to the number of physical cores.
      *
+     * <p>Generation runs on a dedicated pool of this size that is created for each
+     * run and shut down when it completes, so it never competes with work on the
+     * JVM-wide common pool. When an {@link #executor(Executor)} is supplied, at most
+     * this many tasks are submitted to it instead.
+     *
      * <p><b>Performance Guide:</b>
      * <ul>
      *   <li>1 thread: ~400K trades/sec</li>
@@ -150,15 +303,334 @@ public class AnnapurnaBuilder {
         return this;
     }
 
+    /**
+     * Set the number of trades each worker generates per unit of work.
+     *
+     * <p>Workers claim chunks one at a time, so smaller chunks balance load more
+     * evenly while larger chunks reduce coordination. Default is
+     * {@value GeneratorConfig#DEFAULT_CHUNK_SIZE}.
+     *
+     * @param chunkSize Trades per chunk (must be positive)
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if chunkSize is less than or equal to 0
+     */
+    public AnnapurnaBuilder chunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive");
+        }
+        this.chunkSize = chunkSize;
+        return this;
+    }
+
+    /**
+     * Run generation on a caller-supplied executor instead of a dedicated pool.
+     *
+     * <p>The executor is borrowed, not owned: Annapurna never shuts it down. At most
+     * {@link #parallelism(int)} tasks are submitted to it at a time.
+     *
+     * @param executor Executor to run generation work on
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder executor(Executor executor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Deliver trades to a blocking {@link TradeSink} from virtual threads, keeping up
+     * to {@value GeneratorConfig#DEFAULT_MAX_IN_FLIGHT_CHUNKS} chunks in flight.
+     *
+     * @return this builder for method chaining
+     * @see #virtualThreads(int)
+     */
+    public AnnapurnaBuilder virtualThreads() {
+        return virtualThreads(GeneratorConfig.DEFAULT_MAX_IN_FLIGHT_CHUNKS);
+    }
+
+    /**
+     * Deliver trades to a blocking {@link TradeSink} from virtual threads.
+     *
+     * <p>Sinks such as JDBC batch inserts, sockets or slow disks spend most of each call
+     * waiting. Normally that wait holds one of the {@link #parallelism(int)} generation
+     * threads. In this mode {@link BulkTradeGenerator#generateInto(TradeSink)} runs each
+     * chunk on a virtual thread of its own, so up to {@code maxInFlightChunks} sink calls
+     * can wait at once. The chunks are still generated on the {@code parallelism}
+     * generation threads. Memory grows to one batch per chunk in flight.
+     *
+     * <p>Virtual threads need Java 21. On Java 17 each in-flight chunk gets a platform
+     * thread instead, which works the same but costs more per chunk. Seeded output is
+     * unchanged; only the order in which the sink sees batches differs.
+     *
+     * @param maxInFlightChunks Maximum number of chunks generated or in the sink at once
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if maxInFlightChunks is not positive
+     */
+    public AnnapurnaBuilder virtualThreads(int maxInFlightChunks) {
+        if (maxInFlightChunks <= 0) {
+            throw new IllegalArgumentException("Maximum in-flight chunks must be positive");
+        }
+        this.maxInFlightChunks = maxInFlightChunks;
+        return this;
+    }
+
+    /**
+     * Make generation reproducible.
+     *
+     * <p>Every trade of a seeded run draws from its own random stream, derived by
+     * hashing the seed with the trade's index. The output therefore depends only on
+     * the seed and the configuration (distribution, profiles and date range), never
+     * on parallelism, chunk size, executor or thread scheduling: the same seeded run
+     * produces identical trades on 1 thread or 64, through
+     * {@link BulkTradeGenerator#generate()} or {@link BulkTradeGenerator#stream()},
+     * and any single trade can be re-derived with
+     * {@link BulkTradeGenerator#generateAt(long)}.
+     *
+     * <p>The default date range is relative to today, so pin it with
+     * {@link #dateRange(LocalDate, LocalDate)} to reproduce a dataset on another day.
+     *
+     * <p>Trade IDs are numbered by index, so they are unique within the dataset but
+     * repeat across datasets with different seeds. Unseeded runs number their trades
+     * from a range of their own, unique within the JVM.
+     *
+     * @param seed Run seed
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder seed(long seed) {
+        this.seed = seed;
+        return this;
+    }
+
+    /**
+     * Generate exact counts per trade type and data profile.
+     *
+     * <p>By default every trade draws its type and profile independently, so 20% CDS
+     * over 1,000 trades may come out as 170 or 230. In stratified mode the count is
+     * split by the largest-remainder method into exact per-type and per-profile counts
+     * (always summing to the total), which are then spread across the output by a
+     * keyed shuffle so the order still looks random. The counts are available up front
+     * from {@link BulkTradeGenerator#tradeTypeCounts()} and
+     * {@link BulkTradeGenerator#profileCounts()}.
+     *
+     * <p>Requires a bounded {@link #count(long)}.
+     *
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder stratified() {
+        this.stratified = true;
+        return this;
+    }
+
+    /**
+     * Generate trades in trade date order, and within a day in execution time order,
+     * without sorting the dataset.
+     *
+     * <p>The {@link #count(long)} is first split exactly over the business days of the
+     * date range (per-day counts differ by at most one and depend only on the range and
+     * count), and each position is dated by the day it falls in. Position order is
+     * therefore date order on every path, including random access, jobs and shards,
+     * which are cut at day boundaries. With {@link #executionTimes()},
+     * {@link BulkTradeGenerator#generate()}, {@link BulkTradeGenerator#iterator()},
+     * {@link BulkTradeGenerator#stream()} and {@link BulkTradeGenerator#publisher()}
+     * also order each day by execution time. The streaming paths generate each day in
+     * chunks of at most {@link #chunkSize(int)} trades, in parallel, sort every chunk
+     * as it is generated and merge a day's chunks as it is read. They hold the unread
+     * trades of the current day plus {@link #parallelism(int)} chunks ahead of it,
+     * however many days the range has. A whole day is held because a trade's time
+     * depends on the venue of its book, which is only known once the trade is generated.
+     *
+     * <p>Requires a bounded {@link #count(long)}.
+     *
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder timeOrdered() {
+        this.timeOrdered = true;
+        return this;
+    }
+
+    /**
+     * Generate one shard of the dataset, for spreading a run over several processes or
+     * machines.
+     *
+     * <p>The {@link #count(long)} trades of the seeded dataset are split into
+     * {@code total} contiguous ranges of near-equal size, and this generator produces
+     * only range {@code index}. Every trade keeps its position in the whole dataset, so
+     * its values, its trade ID and (in {@link #stratified()} mode) its type and profile
+     * are exactly those a single unsharded run gives it. The shards are therefore
+     * disjoint, IDs are unique across all of them, stratified counts add up exactly,
+     * and concatenating the shards' output in index order reproduces the unsharded
+     * run. No coordination between shards is needed beyond sharing the configuration.
+     *
+     * <p>Requires a bounded count and a {@link #seed(long)}.
+     *
+     * @param index This shard, from 0 to {@code total - 1}
+     * @param total Number of shards
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if index is outside {@code [0, total)}
+     */
+    public AnnapurnaBuilder shard(int index, int total) {
+        if (total <= 0 || index < 0 || index >= total) {
+            throw new IllegalArgumentException(
+                    "Shard index must be in [0, " + total + ") with a positive total, got: " + index
+            );
+        }
+        this.shardIndex = index;
+        this.shardCount = total;
+        return this;
+    }
+
+    /**
+     * Give every trade an execution timestamp within its trade date.
+     *
+     * <p>Each book trades during the session of the venue it is run from (New York,
+     * London or Hong Kong, see {@link TradingVenue#forBook(String)}), and times within
+     * the session follow a U-shaped intraday curve that is busiest at the open and
+     * close. Timestamps have nanosecond precision and, in seeded runs, are reproducible.
+     * They come from a stream of their own, so enabling them leaves every other field
+     * of a seeded dataset unchanged.
+     *
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder executionTimes() {
+        this.executionTimes = true;
+        return this;
+    }
+
+    /**
+     * Give every trade an execution timestamp, placed within the session by a custom
+     * intraday curve.
+     *
+     * @param intensity Relative activity over equal slices of the session, e.g. one
+     *                  weight per half hour
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if a weight is negative or all are zero
+     * @see #executionTimes()
+     */
+    public AnnapurnaBuilder executionTimes(double... intensity) {
+        ExecutionClock.validate(intensity);
+        this.executionTimes = true;
+        this.intradayIntensity = intensity.clone();
+        return this;
+    }
+
+    /**
+     * Make execution timestamps increase with dataset order within each book and
+     * trade date, for consumers that rely on in-order events per key. Different books
+     * still interleave out of order. Enables {@link #executionTimes()} and requires a
+     * bounded {@link #count(long)}.
+     *
+     * <p>With {@link #timeOrdered()}, a trade's place in the session is its rank within
+     * its trade date, so every day's trades cover the whole session and every output
+     * method applies. Otherwise the day a trade falls on is drawn per trade, and only
+     * {@code generate()} and {@code submit()}, which hold the whole dataset, can sort
+     * each book and day's times into index order; the other methods are rejected.
+     *
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder monotonicExecutionTimes() {
+        this.executionTimes = true;
+        this.monotonicExecutionTimes = true;
+        return this;
+    }
+
+    /**
+     * Skew the popularity of a field's keys, so a few counterparties, books, traders or
+     * underlyings carry most of the flow.
+     *
+     * <p>Hot keys are what make downstream partitions, caches and locks behave as they
+     * do in production, and uniform test data hides them. For example, to put 40% of
+     * each desk's trades on its busiest book and give counterparties a Zipf tail:
+     * <pre>{@code
+     * Annapurna.builder()
+     *     .skew(SkewedField.BOOK, Skew.topK(0.4))
+     *     .skew(SkewedField.COUNTERPARTY, Skew.zipf(1.1))
+     *     ...
+     * }</pre>
+     *
+     * <p>A skewed key is drawn in O(1) from a precomputed alias table. It replaces the
+     * generator's usual choice, which for books and counterparties follows the region
+     * and size of the trade; see {@link SkewedField} for the key pools. Fields that are
+     * not skewed keep their usual distribution.
+     *
+     * @param field Field to skew
+     * @param skew Popularity of the field's keys by rank
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder skew(SkewedField field, Skew skew) {
+        if (field == null || skew == null) {
+            throw new IllegalArgumentException("Skewed field and skew must not be null");
+        }
+        skews.put(field, skew);
+        return this;
+    }
+
+    /**
+     * Set the number of traders on the roster that a {@link SkewedField#TRADER} skew
+     * draws from. Defaults to {@value GeneratorConfig#DEFAULT_TRADER_POOL}.
+     *
+     * @param traders Roster size, at most {@value GeneratorConfig#MAX_TRADER_POOL}
+     * @return this builder for method chaining
+     */
+    public AnnapurnaBuilder traderPool(int traders) {
+        if (traders <= 0 || traders > GeneratorConfig.MAX_TRADER_POOL) {
+            throw new IllegalArgumentException(
+                    "Trader pool must be in [1, " + GeneratorConfig.MAX_TRADER_POOL + "], got: " + traders
+            );
+        }
+        this.traderPool = traders;
+        return this;
+    }
+
+    /**
+     * Choose the random number algorithm behind every generator.
+     *
+     * <p>Accepts {@value RandomSource#SPLIT_MIX_64} or any JDK
+     * {@link java.util.random.RandomGeneratorFactory} name, such as
+     * {@value RandomSource#L64X128_MIX_RANDOM} or {@value RandomSource#XOROSHIRO_128_PLUS_PLUS}.
+     * Seeded runs reseed before every trade, so they accept only those three and
+     * {@value RandomSource#JAVA_UTIL_RANDOM}, which reseed in place; {@link #build()}
+     * rejects any other algorithm with a seed. By
+     * default seeded runs use {@value RandomSource#SPLIT_MIX_64} and unseeded runs use
+     * {@value RandomSource#DEFAULT_ALGORITHM}. Seeded output differs between algorithms.
+     *
+     * @param algorithm Algorithm name
+     * @return this builder for method chaining
+     * @throws IllegalArgumentException if the algorithm is unknown
+     */
+    public AnnapurnaBuilder randomAlgorithm(String algorithm) {
+        RandomSource.validate(algorithm);
+        this.randomAlgorithm = algorithm;
+        return this;
+    }
+
     /**
      * Set date range for generated trades.
+     *
+     * <p>Trade dates are business days within {@code [startDate, endDate]}, and
+     * {@code endDate} is treated as "today" by data profile corruption.
      */
     public AnnapurnaBuilder dateRange(LocalDate startDate, LocalDate endDate) {
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException(
+                    "Date range must be non-null with start on or before end, got: " + startDate + " to " + endDate
+            );
+        }
         this.startDate = startDate;
         this.endDate = endDate;
         return this;
     }
 
+    /**
+     * Generate only trades of {@code type}.
+     */
+    AnnapurnaBuilder onlyTradeType(TradeType type) {
+        tradeTypeDistribution.clear();
+        tradeTypeDistribution.put(type, 100);
+        return this;
+    }
+
     /**
      * Build the generator and execute generation.
      */
@@ -174,13 +646,29 @@ public class AnnapurnaBuilder {
             );
         }
 
+        boolean budgeted = byteBudget > 0 || timeBudget != null;
         GeneratorConfig config = GeneratorConfig.builder()
-                .count(count)
+                .count(budgeted && !countSet ? GeneratorConfig.UNBOUNDED : count)
                 .tradeTypeDistribution(tradeTypeDistribution)
                 .parallelism(parallelism)
                 .dateRange(startDate, endDate)
                 .profileDistribution(profileDistribution)
                 .useProfiles(useProfiles)
+                .chunkSize(chunkSize)
+                .executor(executor)
+                .virtualThreads(maxInFlightChunks)
+                .seed(seed)
+                .randomAlgorithm(randomAlgorithm)
+                .stratified(stratified)
+                .shard(shardIndex, shardCount)
+                .executionTimes(executionTimes)
+                .intradayIntensity(intradayIntensity)
+                .monotonicExecutionTimes(monotonicExecutionTimes)
+                .timeOrdered(timeOrdered)
+                .skews(skews)
+                .traderPool(traderPool)
+                .byteBudget(byteBudget, byteBudgetFormat)
+                .timeBudget(timeBudget)
                 .build();
 
         return new BulkTradeGenerator(config);
@@ -243,6 +731,14 @@ public class AnnapurnaBuilder {
             return parent.count(count);
         }
 
+        public AnnapurnaBuilder count(long count) {
+            return parent.count(count);
+        }
+
+        public AnnapurnaBuilder unbounded() {
+            return parent.unbounded();
+        }
+
         public AnnapurnaBuilder parallelism(int parallelism) {
             return parent.parallelism(parallelism);
         }
@@ -255,6 +751,10 @@ public class AnnapurnaBuilder {
             return parent.dataProfile();
         }
 
+        public AnnapurnaBuilder stratified() {
+            return parent.stratified();
+        }
+
         public BulkTradeGenerator build() {
             return parent.build();
         }
@@ -314,10 +814,22 @@ public class AnnapurnaBuilder {
             return parent.count(count);
         }
 
+        public AnnapurnaBuilder count(long count) {
+            return parent.count(count);
+        }
+
+        public AnnapurnaBuilder unbounded() {
+            return parent.unbounded();
+        }
+
         public AnnapurnaBuilder parallelism(int parallelism) {
             return parent.parallelism(parallelism);
         }
 
+        public AnnapurnaBuilder stratified() {
+            return parent.stratified();
+        }
+
         public BulkTradeGenerator build() {
             return parent.build();
         }
@@ -327,51 +839,1069 @@ public class AnnapurnaBuilder {
      * Bulk trade generator that executes parallel generation.
      */
     public static class BulkTradeGenerator {
+        private static final Comparator<Trade> BY_EXECUTION_TIME =
+                Comparator.comparing(Trade::getExecutionTime, Comparator.nullsFirst(Comparator.naturalOrder()));
+
         private final GeneratorConfig config;
+        private final TradeFactory factory;
+        private final WeightedRandom<DataProfile> profiles;
+        private final Strata<TradeType> typeStrata;
+        private final Strata<DataProfile> profileStrata;
+        // The one type of a single-asset-class run, or null for a mix
+        private final TradeType onlyType;
+        private final long profileSeed;
+        private final ExecutionClock clock;
+        private final DayBuckets days;
+        // This shard's range of the dataset; every other index below is relative to firstIndex
+        private final long firstIndex;
+        private final long size;
+        // Trade ID sequence of position 0: 0 when seeded, a range of this run's own otherwise
+        private final long idStart;
 
         BulkTradeGenerator(GeneratorConfig config) {
             this.config = config;
+            this.factory = new TradeFactory(config);
+            this.firstIndex = config.getShardStart();
+            this.size = config.getShardSize();
+            this.idStart = config.hasSeed() ? 0 : TradeIdGenerator.reserveRun(config.getCount());
+            this.onlyType = config.getTradeTypeDistribution().entrySet().stream()
+                    .filter(entry -> entry.getValue() == 100)
+                    .map(Map.Entry::getKey)
+                    .findFirst()
+                    .orElse(null);
+            this.profileSeed = config.hasSeed() ? SplitMixRandom.seedFor(config.getSeed(), -3) : 0;
+            this.days = config.getDayBuckets();
+            if (config.hasExecutionTimes()) {
+                long clockSeed = config.hasSeed()
+                        ? SplitMixRandom.seedFor(config.getSeed(), -5)
+                        : ThreadLocalRandom.current().nextLong();
+                this.clock = new ExecutionClock(config.getIntradayIntensity(), clockSeed,
+                        config.isMonotonicExecutionTimes() ? days : null);
+            } else {
+                this.clock = null;
+            }
+            // EnumMap gives a stable order, so seeded runs select the same profiles on every JVM
+            Map<DataProfile, Integer> profileDistribution = new EnumMap<>(DataProfile.class);
+            profileDistribution.putAll(config.getProfileDistribution());
+            this.profiles = profileDistribution.isEmpty() ? null : WeightedRandom.of(profileDistribution);
+
+            if (config.isStratified()) {
+                // Seeded runs derive the shuffles from the seed so the layout is reproducible
+                long typeKey = config.hasSeed()
+                        ? SplitMixRandom.seedFor(config.getSeed(), -1)
+                        : ThreadLocalRandom.current().nextLong();
+                long profileKey = config.hasSeed()
+                        ? SplitMixRandom.seedFor(config.getSeed(), -2)
+                        : ThreadLocalRandom.current().nextLong();
+                Map<TradeType, Integer> typeDistribution = new EnumMap<>(config.getTradeTypeDistribution());
+                this.typeStrata = Strata.of(typeDistribution, config.getCount(), typeKey);
+                this.profileStrata = config.isUseProfiles() && !profileDistribution.isEmpty()
+                        ? Strata.of(profileDistribution, config.getCount(), profileKey)
+                        : null;
+            } else {
+                this.typeStrata = null;
+                this.profileStrata = null;
+            }
         }
 
         /**
          * Generate trades in parallel with optional profile corruption.
          *
+         * <p>The run is split into chunks of {@link GeneratorConfig#getChunkSize()} trades
+         * that are executed on the configured executor. Each chunk writes into its own
+         * slice of the result, so no intermediate lists are merged.
+         *
          * @return List of generated trades
+         * @throws IllegalStateException if the configured count does not fit in a List;
+         *         use {@link #stream()} or {@link #iterator()} for larger runs
          */
         public List<Trade> generate() {
-            TradeFactory factory = new TradeFactory(config.getTradeTypeDistribution());
+            requireNoBudget("generate()");
+            requireListSize();
+            Trade[] trades = new Trade[(int) size];
 
-            return IntStream.range(0, config.getCount())
-                    .parallel()
-                    .mapToObj(i -> {
-                        Trade trade = factory.createGenerator().generate();
+            try (GenerationExecutor executor = GenerationExecutor.forConfig(config)) {
+                executor.runChunks(chunkCount(), chunk -> fillListChunk(trades, chunk));
+                if (ordersExecutionTimes()) {
+                    sortDays(trades, executor);
+                } else if (ordersBookTimes()) {
+                    sortBookTimes(trades);
+                }
+            }
+
+            return new ArrayList<>(Arrays.asList(trades));
+        }
+
+        /**
+         * Generate a single-asset-class run as a list of its own trade class.
+         *
+         * <p>The trade type is fixed for the whole run, so no type is drawn per trade and
+         * each chunk runs a loop that calls the concrete generator directly, a call site
+         * the JIT sees only one receiver class at and can inline. No element is cast.
+         *
+         * <pre>{@code
+         * List<EquitySwap> swaps = Annapurna.builder()
+         *     .tradeTypes().equitySwap(100)
+         *     .count(1_000_000)
+         *     .build()
+         *     .generate(EquitySwap.class);
+         * }</pre>
+         *
+         * <p>Seeded typed runs produce exactly the trades of {@link #generate()} on the
+         * same configuration, independent of parallelism.
+         *
+         * @param tradeClass Class of the run's only trade type
+         * @return List of generated trades
+         * @throws IllegalStateException if the run is not 100% {@code tradeClass}, or the
+         *         count does not fit in a List
+         */
+        public <T extends Trade> List<T> generate(Class<T> tradeClass) {
+            requireNoBudget("generate(Class)");
+            TradeType type = requireOnlyType(tradeClass);
+            requireListSize();
+            int count = (int) size;
+            int chunkSize = config.getChunkSize();
+            Trade[] trades = new Trade[count];
 
-                        // Apply data profile corruption if configured
-                        if (config.isUseProfiles()) {
-                            DataProfile profile = selectProfile(config.getProfileDistribution());
-                            trade = ProfileApplier.apply(trade, profile);
-                        }
+            try (GenerationExecutor executor = GenerationExecutor.forConfig(config)) {
+                executor.runChunks(chunkCount(), chunk -> {
+                    int from = (int) (chunk * chunkSize);
+                    fillTypedChunk(type, trades, from, from, Math.min(chunkSize, count - from));
+                });
+                if (ordersExecutionTimes()) {
+                    sortDays(trades, executor);
+                } else if (ordersBookTimes()) {
+                    sortBookTimes(trades);
+                }
+            }
 
-                        return trade;
-                    })
-                    .collect(Collectors.toList());
+            return typed(new ArrayList<>(Arrays.asList(trades)));
         }
 
         /**
-         * Select a data profile based on weighted distribution.
+         * Generate this run as a job on a shared scheduler, with weight 1 and priority 0.
+         *
+         * @see #submit(GenerationScheduler, int, int)
+         */
+        public ScheduledJob<List<Trade>> submit(GenerationScheduler scheduler) {
+            return submit(scheduler, 1, 0);
+        }
+
+        /**
+         * Generate this run as a job on a shared scheduler, alongside other jobs.
+         *
+         * <p>The job's chunks run on the scheduler's pool instead of a pool of this run's
+         * own, interleaved with other jobs' by priority and weight, and its result holds
+         * the same trades as {@link #generate()}. This run's parallelism and executor
+         * settings are not used.
+         *
+         * @param scheduler Scheduler to run on
+         * @param weight Share of the scheduler's threads relative to jobs of equal priority
+         * @param priority Higher-priority jobs are served first
+         * @return Handle with the job's progress and its list of trades
+         * @throws IllegalStateException if the count does not fit in a List
+         */
+        public ScheduledJob<List<Trade>> submit(GenerationScheduler scheduler, int weight, int priority) {
+            requireNoBudget("submit()");
+            requireListSize();
+            Trade[] trades = new Trade[(int) size];
+            return scheduler.submit(new GenerationScheduler.Task<>() {
+                @Override
+                public long chunkCount() {
+                    return BulkTradeGenerator.this.chunkCount();
+                }
+
+                @Override
+                public long tradeCount() {
+                    return size;
+                }
+
+                @Override
+                public long runChunk(long chunk) {
+                    return fillListChunk(trades, chunk);
+                }
+
+                @Override
+                public List<Trade> finish() {
+                    if (ordersExecutionTimes()) {
+                        sortDays(trades);
+                    } else if (ordersBookTimes()) {
+                        sortBookTimes(trades);
+                    }
+                    return new ArrayList<>(Arrays.asList(trades));
+                }
+            }, weight, priority);
+        }
+
+        /**
+         * Generate this run into a sink as a job on a shared scheduler, with weight 1 and
+         * priority 0.
+         *
+         * @see #submitInto(GenerationScheduler, TradeSink, int, int)
+         */
+        public ScheduledJob<Void> submitInto(GenerationScheduler scheduler, TradeSink sink) {
+            return submitInto(scheduler, sink, 1, 0);
+        }
+
+        /**
+         * Generate this run into a sink as a job on a shared scheduler, for runs too large
+         * to collect. Each chunk is delivered to {@link TradeSink#acceptBatch(Trade[], int)}
+         * by the thread that generated it, as with {@link #generateInto(TradeSink)}.
+         *
+         * @param scheduler Scheduler to run on
+         * @param sink Thread-safe destination for the trades
+         * @param weight Share of the scheduler's threads relative to jobs of equal priority
+         * @param priority Higher-priority jobs are served first
+         * @return Handle with the job's progress, completed once every trade is delivered
+         * @throws IllegalStateException if the run is unbounded
+         */
+        public ScheduledJob<Void> submitInto(GenerationScheduler scheduler, TradeSink sink, int weight, int priority) {
+            if (sink == null) {
+                throw new IllegalArgumentException("Sink must not be null");
+            }
+            if (config.isUnbounded()) {
+                throw new IllegalStateException("Scheduled jobs require a bounded count");
+            }
+            requireNoBudget("submitInto()");
+            requireDayRanks("submitInto()");
+            int chunkSize = config.getChunkSize();
+            return scheduler.submit(new GenerationScheduler.Task<>() {
+                @Override
+                public long chunkCount() {
+                    return BulkTradeGenerator.this.chunkCount();
+                }
+
+                @Override
+                public long tradeCount() {
+                    return size;
+                }
+
+                @Override
+                public long runChunk(long chunk) {
+                    long from = chunk * chunkSize;
+                    int length = (int) Math.min(chunkSize, size - from);
+                    sink.acceptBatch(generateChunk(from, length), length);
+                    return length;
+                }
+
+                @Override
+                public Void finish() {
+                    return null;
+                }
+            }, weight, priority);
+        }
+
+        /**
+         * Exact number of trades of each type in a stratified run.
+         *
+         * <p>For a {@linkplain AnnapurnaBuilder#shard(int, int) shard}, these are the
+         * counts within the shard, tallied in time proportional to its size; they add
+         * up across all shards to the unsharded counts.
+         *
+         * @return Count per trade type, summing to the number of trades generated
+         * @throws IllegalStateException if the run is not stratified
+         */
+        public Map<TradeType, Long> tradeTypeCounts() {
+            if (typeStrata == null) {
+                throw new IllegalStateException("Exact counts require a stratified run; call AnnapurnaBuilder.stratified()");
+            }
+            return countsOf(typeStrata, new EnumMap<>(TradeType.class));
+        }
+
+        /**
+         * Exact number of trades of each data profile in a stratified run, or in this
+         * shard of one. Empty when no profile distribution is configured.
+         *
+         * @return Count per profile, summing to the number of trades generated
+         * @throws IllegalStateException if the run is not stratified
          */
-        private DataProfile selectProfile(Map<DataProfile, Integer> distribution) {
-            int random = ThreadLocalRandom.current().nextInt(100);
-            int cumulative = 0;
+        public Map<DataProfile, Long> profileCounts() {
+            if (typeStrata == null) {
+                throw new IllegalStateException("Exact counts require a stratified run; call AnnapurnaBuilder.stratified()");
+            }
+            Map<DataProfile, Long> counts = new EnumMap<>(DataProfile.class);
+            return profileStrata != null ? countsOf(profileStrata, counts) : counts;
+        }
 
-            for (Map.Entry<DataProfile, Integer> entry : distribution.entrySet()) {
-                cumulative += entry.getValue();
-                if (random < cumulative) {
-                    return entry.getKey();
+        private <T> Map<T, Long> countsOf(Strata<T> strata, Map<T, Long> counts) {
+            for (int i = 0; i < strata.size(); i++) {
+                counts.put(strata.get(i), config.isSharded() ? 0L : strata.count(i));
+            }
+            if (config.isSharded()) {
+                // The shuffle decides which categories fall in this shard's range
+                for (long index = 0; index < size; index++) {
+                    counts.merge(strata.at(firstIndex + index), 1L, Long::sum);
                 }
             }
+            return counts;
+        }
 
-            return DataProfile.CLEAN; // Fallback
+        /**
+         * Generate trades straight into a sink, without collecting them.
+         *
+         * <p>Each worker fills a reusable batch of up to {@link GeneratorConfig#getChunkSize()}
+         * trades (one chunk of consecutive indices) and passes it to
+         * {@link TradeSink#acceptBatch(Trade[], int)}. No list is built and nothing is
+         * merged, so memory stays at one batch per worker however many trades are
+         * generated. Blocks until every trade has been delivered.
+         *
+         * <p>With {@link AnnapurnaBuilder#virtualThreads(int)}, each chunk in flight runs
+         * on its own virtual thread and only its generation takes a worker, so a sink
+         * that blocks overlaps up to that many calls.
+         *
+         * <p>An unbounded run continues until the sink throws, or until its
+         * {@link AnnapurnaBuilder#untilBytes(long, TradeFormat) byte} or
+         * {@link AnnapurnaBuilder#untilDuration(Duration) time} budget is used up.
+         *
+         * @param sink Thread-safe destination for the trades
+         */
+        public void generateInto(TradeSink sink) {
+            if (sink == null) {
+                throw new IllegalArgumentException("Sink must not be null");
+            }
+            requireDayRanks("generateInto()");
+
+            long count = size;
+            int chunkSize = config.getChunkSize();
+            long chunkCount = count / chunkSize + (count % chunkSize == 0 ? 0 : 1);
+
+            OutputBudget budget = startBudget();
+            try (GenerationExecutor executor = GenerationExecutor.forConfig(config)) {
+                if (budget == null) {
+                    executor.runBlockingChunks(chunkCount, () -> new Trade[chunkSize], (batch, chunk) -> {
+                        long from = chunk * chunkSize;
+                        int length = (int) Math.min(chunkSize, count - from);
+                        executor.compute(() -> fillChunk(batch, 0, from, length));
+                        sink.acceptBatch(batch, length);
+                        Arrays.fill(batch, 0, length, null);
+                    });
+                    return;
+                }
+                // Each worker sizes its own chunks; the budget is only touched once per chunk
+                executor.runBlockingChunks(chunkCount, budget::isExhausted,
+                        () -> new MeasuredBatch(chunkSize, budget.limitsBytes()), (batch, chunk) -> {
+                            long from = chunk * chunkSize;
+                            int length = (int) Math.min(chunkSize, count - from);
+                            executor.compute(() -> {
+                                fillChunk(batch.trades, 0, from, length);
+                                budget.measure(batch.trades, length, batch.sizes);
+                            });
+                            int admitted = budget.reserve(batch.sizes, length);
+                            if (admitted > 0) {
+                                sink.acceptBatch(batch.trades, admitted);
+                            }
+                            Arrays.fill(batch.trades, 0, length, null);
+                        });
+            }
+        }
+
+        /**
+         * Generate trades into reused, worker-owned instances.
+         *
+         * <p>Each worker keeps one trade object per {@link TradeType} and refills it in place
+         * through {@link TradeGenerator#populate(Trade)} for every trade, so no trade or
+         * builder is allocated per trade; only the immutable field values themselves
+         * ({@code BigDecimal}, {@code String}, {@code LocalDate}) are. Intended for
+         * throughput and soak runs that serialize each trade and discard it.
+         *
+         * <p>The trade passed to the sink is overwritten by the worker's next trade of the
+         * same type and must not be retained. Seeded runs produce the same values as
+         * {@link #generate()}. An unbounded run continues until the sink throws.
+         *
+         * @param sink Thread-safe callback that must not retain the trades it receives
+         */
+        public void generateFlyweights(FlyweightSink sink) {
+            requireNoBudget("generateFlyweights()");
+            requireDayRanks("generateFlyweights()");
+            if (sink == null) {
+                throw new IllegalArgumentException("Sink must not be null");
+            }
+
+            long count = size;
+            int chunkSize = config.getChunkSize();
+            long chunkCount = count / chunkSize + (count % chunkSize == 0 ? 0 : 1);
+
+            try (GenerationExecutor executor = GenerationExecutor.forConfig(config)) {
+                executor.runChunks(chunkCount, chunk -> {
+                    long from = chunk * chunkSize;
+                    long to = Math.min(from + chunkSize, count);
+                    for (long index = from; index < to; index++) {
+                        sink.accept(generateTrade(index, strataGenerator(index), true));
+                    }
+                });
+            }
+        }
+
+        /**
+         * Lazily generate trades as an ordered iterator.
+         *
+         * <p>Trades are generated in chunks on the configured executor, with up to
+         * {@link GeneratorConfig#getParallelism()} chunks read ahead of the consumer.
+         * Memory use is proportional to the chunk size, not to the total count, so this
+         * supports counts beyond {@code Integer.MAX_VALUE} and {@link AnnapurnaBuilder#unbounded()}
+         * runs.
+         *
+         * <p>In a {@link AnnapurnaBuilder#timeOrdered()} run with execution times, each
+         * chunk is a whole business day, sorted by execution time.
+         *
+         * <p>Close the iterator if it is abandoned before the last trade.
+         *
+         * @return Iterator over the configured number of trades
+         */
+        public TradeIterator iterator() {
+            return iterator(this::generateChunk);
+        }
+
+        /**
+         * Lazily generate trades as an ordered, sequential stream.
+         *
+         * <p>Backed by {@link #iterator()}: generation is parallel and bounded-memory,
+         * while the stream itself is consumed in order. Closing the stream (for example
+         * with try-with-resources, or after a short-circuiting {@code limit}) releases
+         * the generation pool.
+         *
+         * <pre>{@code
+         * try (Stream<Trade> trades = Annapurna.builder()
+         *         .count(5_000_000_000L)
+         *         .build()
+         *         .stream()) {
+         *     trades.forEach(loader::load);
+         * }
+         * }</pre>
+         *
+         * @return Stream of the configured number of trades
+         */
+        public Stream<Trade> stream() {
+            return stream(iterator());
+        }
+
+        /**
+         * Lazily generate a single-asset-class run as a stream of its own trade class,
+         * with the monomorphic chunk loop of {@link #generate(Class)}.
+         *
+         * @param tradeClass Class of the run's only trade type
+         * @return Stream of the configured number of trades
+         * @throws IllegalStateException if the run is not 100% {@code tradeClass}
+         */
+        public <T extends Trade> Stream<T> stream(Class<T> tradeClass) {
+            TradeType type = requireOnlyType(tradeClass);
+            return typed(stream(iterator((from, length) -> {
+                Trade[] chunk = new Trade[length];
+                fillTypedChunk(type, chunk, 0, from, length);
+                return chunk;
+            })));
+        }
+
+        private Stream<Trade> stream(TradeIterator iterator) {
+            int characteristics = Spliterator.ORDERED | Spliterator.NONNULL;
+            Spliterator<Trade> spliterator = config.isUnbounded() || config.hasBudget()
+                    ? Spliterators.spliteratorUnknownSize(iterator, characteristics)
+                    : Spliterators.spliterator(iterator, size, characteristics);
+            return StreamSupport.stream(spliterator, false).onClose(iterator::close);
+        }
+
+        /**
+         * Iterator over chunks from {@code chunks}; in time-ordered runs with execution
+         * times, chunks stay within a business day, are sorted by execution time as they
+         * are generated, and are merged day by day.
+         */
+        private TradeIterator iterator(TradeIterator.ChunkGenerator chunks) {
+            requireDayRanks("stream() or iterator()");
+            OutputBudget budget = startBudget();
+            if (ordersExecutionTimes()) {
+                TradeIterator.ChunkGenerator sorted = (from, length) -> sortByExecutionTime(chunks.generate(from, length));
+                return new TradeIterator(
+                        GenerationExecutor.forConfig(config),
+                        budget != null ? budget.measured(sorted) : sorted,
+                        size,
+                        config.getChunkSize(),
+                        this::dayEnd,
+                        BY_EXECUTION_TIME,
+                        config.getParallelism(),
+                        budget
+                );
+            }
+            return new TradeIterator(
+                    GenerationExecutor.forConfig(config),
+                    budget != null ? budget.measured(chunks) : chunks,
+                    size,
+                    config.getChunkSize(),
+                    config.getParallelism(),
+                    budget
+            );
+        }
+
+        /**
+         * Generate trades on demand as a {@link Flow.Publisher}, for one subscriber.
+         *
+         * <p>Generation starts at the subscriber's first {@code request(n)} and only
+         * pulls trades that have been requested, so the generation rate follows the
+         * subscriber. Signals come from the common pool, never from the thread that
+         * called {@code request}. Each call returns a new publisher, with its own run of
+         * the dataset. Adapt to Reactor or RxJava with their {@code Flow} adapters:
+         *
+         * <pre>{@code
+         * Flux<Trade> trades = JdkFlowAdapter.flowPublisherToFlux(
+         *         Annapurna.builder().count(1_000_000).build().publisher());
+         * }</pre>
+         *
+         * @return Publisher of the configured number of trades
+         * @see TradePublisher
+         */
+        public Flow.Publisher<Trade> publisher() {
+            return publisher(1);
+        }
+
+        /**
+         * Generate trades on demand as a {@link Flow.Publisher} shared by several
+         * subscribers.
+         *
+         * <p>One generation run feeds every subscriber through a bounded buffer. It starts
+         * once {@code subscribers} subscribers have subscribed, so each receives the
+         * whole dataset, and is paced by the slowest of them: the fastest runs at most
+         * {@value TradePublisher#DEFAULT_BUFFER_SIZE} trades ahead.
+         *
+         * @param subscribers Number of subscribers to wait for before generating
+         * @return Publisher of the configured number of trades
+         * @see TradePublisher
+         */
+        public Flow.Publisher<Trade> publisher(int subscribers) {
+            requireDayRanks("publisher()");
+            return new TradePublisher(this::iterator, subscribers, TradePublisher.DEFAULT_BUFFER_SIZE,
+                    TradePublisher.defaultExecutor());
+        }
+
+        /**
+         * Configure a staged pipeline over this dataset.
+         *
+         * <p>Generation, data profile corruption and the sink each run on their own
+         * threads and hand trades over through a preallocated ring buffer, so writing
+         * overlaps with generation instead of following it. Generation defaults to
+         * {@link GeneratorConfig#getParallelism()} threads; the corruption stage is only
+         * present when a data profile distribution is configured. Seeded runs produce
+         * the same trades as {@link #generate()}.
+         *
+         * @return Pipeline builder; finish with {@link TradePipeline.Builder#run(TradeSink)}
+         */
+        public TradePipeline.Builder pipeline() {
+            requireNoBudget("pipeline()");
+            requireDayRanks("pipeline()");
+            TradePipeline.Builder pipeline = TradePipeline
+                    .builder(size, index -> generateCleanTrade(index, strataGenerator(index), false))
+                    .generationThreads(config.getParallelism());
+            return config.isUseProfiles() ? pipeline.corruption(this::applyProfile) : pipeline;
+        }
+
+        /**
+         * Configure a rate-paced feed of this dataset, for driving load into a system.
+         *
+         * <p>Trades are sent to the sink on a fixed schedule at {@code tradesPerSecond},
+         * shared by all feed threads, and the feed reports how far behind schedule each
+         * trade was sent and answered. Trades are generated just before they are due, so
+         * an {@link AnnapurnaBuilder#unbounded()} feed can run indefinitely.
+         *
+         * @param tradesPerSecond Target rate across all feed threads
+         * @return Feed to configure and {@link TradeFeed#run(TradeSink) run}
+         */
+        public TradeFeed feed(double tradesPerSecond) {
+            requireNoBudget("feed()");
+            requireDayRanks("feed()");
+            return new TradeFeed(config, this::generateTrade, size, tradesPerSecond);
+        }
+
+        /**
+         * Configure a feed of this dataset whose rate follows a {@link LoadShape}, such
+         * as a diurnal curve with bursts at the market opens.
+         *
+         * @param shape Target rate over the run
+         * @return Feed to configure and {@link TradeFeed#run(TradeSink) run}
+         * @see #feed(double)
+         */
+        public TradeFeed feed(LoadShape shape) {
+            requireNoBudget("feed()");
+            requireDayRanks("feed()");
+            return new TradeFeed(config, this::generateTrade, size, shape);
+        }
+
+        /**
+         * Configure a checkpointed job that writes this seeded dataset to a JSON Lines
+         * file, one trade per line in index order.
+         *
+         * <p>The job periodically forces the output to disk and records its progress in
+         * {@code checkpoint}. If the run is interrupted, {@link #resume(Path)} continues
+         * from the last checkpoint and produces the same file an uninterrupted run would.
+         *
+         * @param output JSON Lines file to write; replaced if it exists
+         * @param checkpoint File to record progress in
+         * @return Job to configure and {@link GenerationJob#run() run}
+         * @throws IllegalStateException if the run is unseeded or unbounded
+         */
+        public GenerationJob job(Path output, Path checkpoint) {
+            requireNoBudget("job()");
+            requireDayRanks("job()");
+            return GenerationJob.create(config, this::generateChunk, output, checkpoint);
+        }
+
+        /**
+         * Continue an interrupted {@link #job(Path, Path)} from its last checkpoint.
+         *
+         * <p>This generator must be configured as the interrupted one was (parallelism may
+         * differ). The output is truncated to the checkpointed size and the remaining
+         * chunks are appended.
+         *
+         * @param checkpoint Checkpoint file of the interrupted job
+         * @return The final checkpoint
+         * @throws IOException if the checkpoint or output cannot be read or written
+         * @throws IllegalStateException if the checkpoint was written for another configuration
+         */
+        public Checkpoint resume(Path checkpoint) throws IOException {
+            requireNoBudget("resume()");
+            requireDayRanks("resume()");
+            return GenerationJob.resume(config, this::generateChunk, checkpoint).run();
+        }
+
+        /**
+         * Regenerate the trade at a given index of this seeded dataset.
+         *
+         * <p>Each trade of a seeded run is a pure function of the seed and its index:
+         * its random stream is derived by hashing {@code (seed, index)} rather than by
+         * advancing a shared generator. Any trade can therefore be re-derived in O(1),
+         * without generating the trades before it, and is identical to the trade
+         * {@link #generate()} or {@link #stream()} produce at that position.
+         *
+         * @param index Zero-based position in the dataset, or in this shard of it
+         * @return The trade at that position
+         * @throws IllegalStateException if no seed is configured
+         * @throws IndexOutOfBoundsException if index is outside {@code [0, count)}
+         */
+        public Trade generateAt(long index) {
+            requireSeed();
+            requireDayRanks("generateAt()");
+            checkRange(index, index + 1);
+            return generateTrade(index);
+        }
+
+        /**
+         * Regenerate the trades at indices {@code [from, to)} of this seeded dataset.
+         *
+         * <p>The range is generated in parallel on the configured executor. Because every
+         * trade depends only on its index, disjoint ranges can be generated on different
+         * machines with no coordination and concatenated.
+         *
+         * @param from First index, inclusive
+         * @param to Last index, exclusive
+         * @return The trades at those positions, in index order
+         * @throws IllegalStateException if no seed is configured
+         * @throws IndexOutOfBoundsException if the range is outside {@code [0, count)}
+         */
+        public List<Trade> generateRange(long from, long to) {
+            requireSeed();
+            requireDayRanks("generateRange()");
+            checkRange(from, to);
+            if (to - from > MAX_LIST_SIZE) {
+                throw new IllegalArgumentException("Range of " + (to - from) + " trades is too large to materialise");
+            }
+
+            int length = (int) (to - from);
+            int chunkSize = config.getChunkSize();
+            long chunkCount = (length + (long) chunkSize - 1) / chunkSize;
+            Trade[] trades = new Trade[length];
+
+            try (GenerationExecutor executor = GenerationExecutor.forConfig(config)) {
+                executor.runChunks(chunkCount, chunk -> {
+                    int offset = (int) (chunk * chunkSize);
+                    fillChunk(trades, offset, from + offset, Math.min(chunkSize, length - offset));
+                });
+            }
+
+            return new ArrayList<>(Arrays.asList(trades));
+        }
+
+        private long chunkCount() {
+            int chunkSize = config.getChunkSize();
+            return size / chunkSize + (size % chunkSize == 0 ? 0 : 1);
+        }
+
+        private void requireListSize() {
+            if (size > MAX_LIST_SIZE) {
+                throw new IllegalStateException(
+                        "Count " + size + " is too large to materialise; use stream() or iterator()"
+                );
+            }
+        }
+
+        /**
+         * Generate one chunk of a materialised run into its slice of {@code trades}.
+         *
+         * @return Number of trades generated
+         */
+        private int fillListChunk(Trade[] trades, long chunk) {
+            int chunkSize = config.getChunkSize();
+            int from = (int) (chunk * chunkSize);
+            int length = Math.min(chunkSize, trades.length - from);
+            // Slots map to positions across the whole dataset, not just this shard
+            if (typeStrata != null && !config.isSharded()) {
+                fillStrataChunk(trades, from, length);
+            } else {
+                fillChunk(trades, from, from, length);
+            }
+            return length;
+        }
+
+        /**
+         * Generate the trades at indices {@code [from, from + length)} into a new array.
+         */
+        private Trade[] generateChunk(long from, int length) {
+            Trade[] chunk = new Trade[length];
+            fillChunk(chunk, 0, from, length);
+            return chunk;
+        }
+
+        /**
+         * Generate the trades at indices {@code [from, from + length)} into
+         * {@code target[offset, offset + length)}.
+         */
+        private void fillChunk(Trade[] target, int offset, long from, int length) {
+            for (int i = 0; i < length; i++) {
+                target[offset + i] = generateTrade(from + i);
+            }
+        }
+
+        /**
+         * Generate slots {@code [from, from + length)} of a stratified layout. Slots are
+         * grouped by trade type, so the chunk is processed as a few runs that each call
+         * one generator in a tight loop; every trade is written to the shuffled position
+         * its slot maps to.
+         */
+        private void fillStrataChunk(Trade[] target, long from, int length) {
+            long end = from + length;
+            long slot = from;
+            while (slot < end) {
+                int stratum = typeStrata.stratumOfSlot(slot);
+                long runEnd = Math.min(end, typeStrata.slotEnd(stratum));
+                TradeGenerator generator = factory.generatorFor(typeStrata.get(stratum));
+                for (; slot < runEnd; slot++) {
+                    long position = typeStrata.positionOfSlot(slot);
+                    target[(int) position] = generateTrade(position, generator, false);
+                }
+            }
+        }
+
+        /**
+         * Generate trades {@code [from, from + length)} of a single-type run into
+         * {@code target[offset, offset + length)}. Each case hands its concrete generator
+         * to {@link #fillTyped}; once that small loop is inlined into the case, the
+         * generator's exact class is known and its {@code generate()} call is bound
+         * directly, however many types other runs in the same JVM generate.
+         */
+        private void fillTypedChunk(TradeType type, Trade[] target, int offset, long from, int length) {
+            TradeGenerator generator = factory.generatorFor(type);
+            switch (type) {
+                case EQUITY_SWAP:
+                    fillTyped((EquitySwapGenerator) generator, target, offset, from, length);
+                    break;
+                case INTEREST_RATE_SWAP:
+                    fillTyped((InterestRateSwapGenerator) generator, target, offset, from, length);
+                    break;
+                case FX_FORWARD:
+                    fillTyped((FXForwardGenerator) generator, target, offset, from, length);
+                    break;
+                case EQUITY_OPTION:
+                    fillTyped((EquityOptionGenerator) generator, target, offset, from, length);
+                    break;
+                case CREDIT_DEFAULT_SWAP:
+                    fillTyped((CDSGenerator) generator, target, offset, from, length);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown trade type: " + type);
+            }
+        }
+
+        /**
+         * Loop of {@link #fillTypedChunk}. The type draw an untyped run makes is still
+         * consumed, unless the run is stratified and so draws no type, which keeps
+         * typed and untyped runs of one seed identical.
+         */
+        private <G extends TradeGenerator> void fillTyped(G generator, Trade[] target, int offset, long from, int length) {
+            boolean drawsType = typeStrata == null;
+            for (int i = 0; i < length; i++) {
+                long position = positionFactory(from + i);
+                if (drawsType) {
+                    factory.drawTradeType();
+                }
+                target[offset + i] = finishTrade(generator.generate(), from + i, position);
+            }
+        }
+
+        /**
+         * Generate the trade at {@code index} and apply data profile corruption if
+         * configured. All draws come from the calling thread's stream in the factory,
+         * which seeded runs first position at {@code (seed, index)}.
+         */
+        private Trade generateTrade(long index) {
+            return generateTrade(index, strataGenerator(index), false);
+        }
+
+        /**
+         * The calling thread's generator for a stratified position, or null when the
+         * type is drawn per trade.
+         */
+        private TradeGenerator strataGenerator(long index) {
+            return typeStrata != null ? factory.generatorFor(typeStrata.at(firstIndex + index)) : null;
+        }
+
+        /**
+         * Generate the trade at {@code index} with a fixed generator, or with a weighted
+         * random one when {@code generator} is null. With {@code reuse}, the calling
+         * thread's flyweight for the type is refilled instead of allocating a trade.
+         */
+        private Trade generateTrade(long index, TradeGenerator generator, boolean reuse) {
+            Trade trade = generateCleanTrade(index, generator, reuse);
+            return config.isUseProfiles() ? applyProfile(trade, index) : trade;
+        }
+
+        /**
+         * Generate the trade at {@code index} without data profile corruption.
+         */
+        private Trade generateCleanTrade(long index, TradeGenerator generator, boolean reuse) {
+            long position = positionFactory(index);
+
+            // createGenerator() draws the type exactly as factory.generate() would
+            TradeGenerator selected = generator != null ? generator : factory.createGenerator();
+            Trade trade = reuse
+                    ? selected.populate(factory.flyweight(selected.getTradeType()))
+                    : selected.generate();
+            return stampExecutionTime(trade, position);
+        }
+
+        /**
+         * Put the calling thread's stream, ID sequence and trade date at the trade at
+         * {@code index}.
+         *
+         * @return The trade's position in the whole dataset
+         */
+        private long positionFactory(long index) {
+            long position = firstIndex + index;
+            if (config.hasSeed()) {
+                factory.reseed(SplitMixRandom.seedFor(config.getSeed(), position));
+            }
+            factory.position(idStart + position);
+            if (days != null) {
+                factory.pinTradeDate(days.dateAt(position));
+            }
+            return position;
+        }
+
+        private Trade stampExecutionTime(Trade trade, long position) {
+            if (clock != null) {
+                trade.setExecutionTime(clock.executionTime(trade, position));
+            }
+            return trade;
+        }
+
+        /**
+         * Complete a trade generated after {@link #positionFactory(long)}: execution time,
+         * then data profile corruption if configured.
+         */
+        private Trade finishTrade(Trade trade, long index, long position) {
+            stampExecutionTime(trade, position);
+            return config.isUseProfiles() ? applyProfile(trade, index) : trade;
+        }
+
+        private TradeType requireOnlyType(Class<? extends Trade> tradeClass) {
+            TradeType type = TradeType.of(tradeClass);
+            if (type != onlyType) {
+                throw new IllegalStateException(
+                        "Typed generation of " + tradeClass.getSimpleName()
+                                + " requires a run of 100% " + type + ", got: " + config.getTradeTypeDistribution()
+                );
+            }
+            return type;
+        }
+
+        /**
+         * View a single-type run's trades as their own class; every element was checked
+         * by {@link #requireOnlyType(Class)} up front.
+         */
+        @SuppressWarnings("unchecked")
+        private static <T extends Trade> List<T> typed(List<Trade> trades) {
+            return (List<T>) (List<?>) trades;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T extends Trade> Stream<T> typed(Stream<Trade> trades) {
+            return (Stream<T>) (Stream<?>) trades;
+        }
+
+        /**
+         * Whether ordered output must also sort each day by execution time.
+         */
+        private boolean ordersExecutionTimes() {
+            return days != null && clock != null;
+        }
+
+        /**
+         * Whether list output must sort each book and trade date's execution times: the
+         * run is monotonic, but without {@link AnnapurnaBuilder#timeOrdered()} a trade's
+         * rank within its book and day is only known once the whole dataset exists.
+         */
+        private boolean ordersBookTimes() {
+            return days == null && clock != null && config.isMonotonicExecutionTimes();
+        }
+
+        /**
+         * Hand each book and day's execution times back to its trades sorted, in index
+         * order, so they never decrease along the list. Trades are grouped by the local
+         * date of their execution time rather than by trade date, which a stress profile
+         * may have moved, so every time stays within the session it was drawn in. Trades
+         * whose book was removed keep their own time.
+         */
+        private static void sortBookTimes(Trade[] trades) {
+            Map<String, Map<LocalDate, List<Trade>>> groups = new HashMap<>();
+            for (Trade trade : trades) {
+                Instant time = trade.getExecutionTime();
+                if (trade.getBook() == null || time == null) {
+                    continue;
+                }
+                LocalDate day = LocalDate.ofInstant(time, TradingVenue.forBook(trade.getBook()).getZone());
+                groups.computeIfAbsent(trade.getBook(), book -> new HashMap<>())
+                        .computeIfAbsent(day, date -> new ArrayList<>())
+                        .add(trade);
+            }
+            for (Map<LocalDate, List<Trade>> days : groups.values()) {
+                for (List<Trade> group : days.values()) {
+                    Instant[] times = new Instant[group.size()];
+                    for (int i = 0; i < times.length; i++) {
+                        times[i] = group.get(i).getExecutionTime();
+                    }
+                    Arrays.sort(times);
+                    for (int i = 0; i < times.length; i++) {
+                        group.get(i).setExecutionTime(times[i]);
+                    }
+                }
+            }
+        }
+
+        private void requireDayRanks(String method) {
+            if (ordersBookTimes()) {
+                throw new IllegalStateException(
+                        "Monotonic execution times without timeOrdered() need the whole dataset; use generate() "
+                                + "or submit(), or add timeOrdered() to use " + method
+                );
+            }
+        }
+
+        /**
+         * End (exclusive, shard-local) of the business day holding index {@code from}.
+         */
+        private long dayEnd(long from) {
+            return days.start(days.bucketOf(firstIndex + from) + 1) - firstIndex;
+        }
+
+        private static Trade[] sortByExecutionTime(Trade[] chunk) {
+            Arrays.sort(chunk, BY_EXECUTION_TIME);
+            return chunk;
+        }
+
+        /**
+         * Sort every business day of a generated shard by execution time, one day per task.
+         */
+        private void sortDays(Trade[] trades, GenerationExecutor executor) {
+            if (trades.length == 0) {
+                return;
+            }
+            int firstDay = days.bucketOf(firstIndex);
+            int lastDay = days.bucketOf(firstIndex + trades.length - 1);
+            executor.runChunks(lastDay - firstDay + 1, chunk -> sortDay(trades, firstDay + (int) chunk));
+        }
+
+        /**
+         * Sort every business day of a generated shard by execution time on the calling thread.
+         */
+        private void sortDays(Trade[] trades) {
+            if (trades.length == 0) {
+                return;
+            }
+            int lastDay = days.bucketOf(firstIndex + trades.length - 1);
+            for (int day = days.bucketOf(firstIndex); day <= lastDay; day++) {
+                sortDay(trades, day);
+            }
+        }
+
+        private void sortDay(Trade[] trades, int day) {
+            int from = (int) (days.start(day) - firstIndex);
+            int to = (int) (days.start(day + 1) - firstIndex);
+            Arrays.sort(trades, from, to, BY_EXECUTION_TIME);
+        }
+
+        /**
+         * Select and apply the data profile of the trade at {@code index}. Seeded runs
+         * draw from a stream of their own, derived from {@code (seed, index)}, so the
+         * result does not depend on which thread generated the trade and corruption can
+         * run as a separate pipeline stage.
+         */
+        private Trade applyProfile(Trade trade, long index) {
+            long position = firstIndex + index;
+            if (config.hasSeed()) {
+                factory.reseed(SplitMixRandom.seedFor(profileSeed, position));
+            }
+            Random random = factory.random();
+            DataProfile profile = profileStrata != null ? profileStrata.at(position) : selectProfile(random);
+            return ProfileApplier.apply(trade, profile, random, config.getEndDate());
+        }
+
+        private void requireNoBudget(String method) {
+            if (config.hasBudget()) {
+                throw new IllegalStateException(
+                        "Byte and time budgets apply to stream(), iterator(), publisher() and generateInto(), not to " + method
+                );
+            }
+        }
+
+        /**
+         * Start the byte and time budget of a streaming or sink run, or null if it has none.
+         */
+        private OutputBudget startBudget() {
+            if (!config.hasBudget()) {
+                return null;
+            }
+            TradeFormat format = config.getByteBudgetFormat();
+            return OutputBudget.start(config.getByteBudget(), format != null ? format::byteSize : null,
+                    config.getTimeBudget());
+        }
+
+        private void requireSeed() {
+            if (!config.hasSeed()) {
+                throw new IllegalStateException("Random access requires a seeded run; call AnnapurnaBuilder.seed(long)");
+            }
+        }
+
+        private void checkRange(long from, long to) {
+            if (from < 0 || to < from || to > size) {
+                throw new IndexOutOfBoundsException(
+                        "Range [" + from + ", " + to + ") is outside [0, " + size + ")"
+                );
+            }
+        }
+
+        /**
+         * Select a data profile based on weighted distribution.
+         */
+        private DataProfile selectProfile(Random random) {
+            return profiles != null ? profiles.next(random) : DataProfile.CLEAN;
+        }
+
+        /**
+         * A worker's reusable chunk buffer and the byte size of each trade in it.
+         */
+        private static final class MeasuredBatch {
+            final Trade[] trades;
+            final long[] sizes;
+
+            MeasuredBatch(int chunkSize, boolean sized) {
+                this.trades = new Trade[chunkSize];
+                this.sizes = sized ? new long[chunkSize] : null;
+            }
         }
     }
-}
\ No newline at end of file
+}
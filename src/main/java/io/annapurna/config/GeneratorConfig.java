@@ -2,23 +2,76 @@ package io.annapurna.config;
 
 import io.annapurna.model.TradeType;
 import io.annapurna.profile.DataProfile;
+import io.annapurna.serialization.TradeFormat;
+import io.annapurna.util.DayBuckets;
+import io.annapurna.util.RandomSource;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 /**
  * Configuration for trade generation.
  */
 public class GeneratorConfig {
 
-    private final int count;
+    /**
+     * Default number of trades per chunk of parallel work.
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 1024;
+
+    /**
+     * Count value meaning "generate until the consumer stops".
+     */
+    public static final long UNBOUNDED = Long.MAX_VALUE;
+
+    /**
+     * Default number of traders on the roster a {@link SkewedField#TRADER} skew draws from.
+     */
+    public static final int DEFAULT_TRADER_POOL = 250;
+
+    /**
+     * Largest trader roster; rosters are built once and kept for the life of the JVM.
+     */
+    public static final int MAX_TRADER_POOL = 100_000;
+
+    /**
+     * Default number of chunks a virtual-thread run keeps in flight.
+     */
+    public static final int DEFAULT_MAX_IN_FLIGHT_CHUNKS = 1024;
+
+    private final long count;
     private final Map<TradeType, Integer> tradeTypeDistribution;
     private final int parallelism;
     private final LocalDate startDate;
     private final LocalDate endDate;
     private final Map<DataProfile, Integer> profileDistribution;  // FIXED: Removed static
     private final boolean useProfiles;  // FIXED: Removed static
+    private final int chunkSize;
+    private final Executor executor;
+    private final int maxInFlightChunks;
+    private final Long seed;
+    private final String randomAlgorithm;
+    private final boolean stratified;
+    private final int shardIndex;
+    private final int shardCount;
+    private final boolean executionTimes;
+    private final double[] intradayIntensity;
+    private final boolean monotonicExecutionTimes;
+    private final DayBuckets dayBuckets;
+    private final Map<SkewedField, Skew> skews;
+    private final int traderPool;
+    private final long byteBudget;
+    private final TradeFormat byteBudgetFormat;
+    private final Duration timeBudget;
 
     private GeneratorConfig(Builder builder) {
         this.count = builder.count;
@@ -28,12 +81,37 @@ public class GeneratorConfig {
         this.endDate = builder.endDate;
         this.profileDistribution = new HashMap<>(builder.profileDistribution);
         this.useProfiles = builder.useProfiles;
+        this.chunkSize = builder.chunkSize;
+        this.executor = builder.executor;
+        this.maxInFlightChunks = builder.maxInFlightChunks;
+        this.seed = builder.seed;
+        this.randomAlgorithm = builder.randomAlgorithm;
+        this.stratified = builder.stratified;
+        this.shardIndex = builder.shardIndex;
+        this.shardCount = builder.shardCount;
+        this.executionTimes = builder.executionTimes;
+        this.intradayIntensity = builder.intradayIntensity != null ? builder.intradayIntensity.clone() : null;
+        this.monotonicExecutionTimes = builder.monotonicExecutionTimes;
+        this.dayBuckets = builder.timeOrdered ? DayBuckets.of(startDate, endDate, count) : null;
+        this.skews = new EnumMap<>(SkewedField.class);
+        this.skews.putAll(builder.skews);
+        this.traderPool = builder.traderPool;
+        this.byteBudget = builder.byteBudget;
+        this.byteBudgetFormat = builder.byteBudgetFormat;
+        this.timeBudget = builder.timeBudget;
     }
 
-    public int getCount() {
+    public long getCount() {
         return count;
     }
 
+    /**
+     * Whether generation continues until the consumer stops pulling trades.
+     */
+    public boolean isUnbounded() {
+        return count == UNBOUNDED;
+    }
+
     public Map<TradeType, Integer> getTradeTypeDistribution() {
         return new HashMap<>(tradeTypeDistribution);
     }
@@ -58,14 +136,271 @@ public class GeneratorConfig {
         return useProfiles;
     }
 
+    /**
+     * Number of trades each worker generates per unit of work.
+     */
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    /**
+     * Caller-supplied executor, or null to run on a dedicated pool owned by the generator.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Whether chunks delivered to a blocking sink run on virtual threads.
+     */
+    public boolean usesVirtualThreads() {
+        return maxInFlightChunks > 0;
+    }
+
+    /**
+     * Maximum number of chunks in flight to a blocking sink at once in a virtual-thread
+     * run, or 0 when sink calls are made from the generation threads.
+     */
+    public int getMaxInFlightChunks() {
+        return maxInFlightChunks;
+    }
+
+    /**
+     * Whether this run is seeded and therefore reproducible.
+     */
+    public boolean hasSeed() {
+        return seed != null;
+    }
+
+    /**
+     * Run seed; only meaningful when {@link #hasSeed()} is true.
+     */
+    public long getSeed() {
+        if (seed == null) {
+            throw new IllegalStateException("No seed configured");
+        }
+        return seed;
+    }
+
+    /**
+     * Algorithm of each worker's {@link RandomSource}: the configured one, otherwise
+     * {@value RandomSource#SPLIT_MIX_64} for seeded runs (reseeded before every trade)
+     * and {@value RandomSource#DEFAULT_ALGORITHM} for unseeded runs.
+     */
+    public String getRandomAlgorithm() {
+        if (randomAlgorithm != null) {
+            return randomAlgorithm;
+        }
+        return seed != null ? RandomSource.SPLIT_MIX_64 : RandomSource.DEFAULT_ALGORITHM;
+    }
+
+    /**
+     * Whether trade type and profile percentages are applied as exact counts
+     * rather than per-trade probabilities.
+     */
+    public boolean isStratified() {
+        return stratified;
+    }
+
+    /**
+     * Position of this generator's shard among {@link #getShardCount()} shards.
+     */
+    public int getShardIndex() {
+        return shardIndex;
+    }
+
+    /**
+     * Number of shards the dataset is split into; 1 when not sharded.
+     */
+    public int getShardCount() {
+        return shardCount;
+    }
+
+    public boolean isSharded() {
+        return shardCount > 1;
+    }
+
+    /**
+     * Index in the whole dataset of this shard's first trade.
+     *
+     * <p>The {@link #getCount()} trades are split into contiguous ranges, one per
+     * shard in index order, whose sizes differ by at most one. Time-ordered runs split
+     * by whole business days instead, so the day counts of the shards differ by at most one.
+     */
+    public long getShardStart() {
+        return shardStart(shardIndex);
+    }
+
+    /**
+     * Number of trades this generator produces: its shard of {@link #getCount()}, or
+     * the whole count when not sharded.
+     */
+    public long getShardSize() {
+        return shardStart(shardIndex + 1) - shardStart(shardIndex);
+    }
+
+    private long shardStart(int shard) {
+        if (dayBuckets != null) {
+            // Whole days per shard, so each day's trades are ordered within one shard
+            int days = dayBuckets.size();
+            return dayBuckets.start((days / shardCount) * shard + Math.min(shard, days % shardCount));
+        }
+        // The first (count % shardCount) shards take one extra trade
+        return (count / shardCount) * shard + Math.min(shard, count % shardCount);
+    }
+
+    /**
+     * Whether trades get an intraday execution timestamp.
+     */
+    public boolean hasExecutionTimes() {
+        return executionTimes;
+    }
+
+    /**
+     * Relative trading activity over equal slices of each venue's session, or null
+     * for the default intraday curve.
+     */
+    public double[] getIntradayIntensity() {
+        return intradayIntensity != null ? intradayIntensity.clone() : null;
+    }
+
+    /**
+     * Whether execution timestamps follow dataset order within each book and trade date.
+     */
+    public boolean isMonotonicExecutionTimes() {
+        return monotonicExecutionTimes;
+    }
+
+    /**
+     * Whether trades are generated in trade date order.
+     */
+    public boolean isTimeOrdered() {
+        return dayBuckets != null;
+    }
+
+    /**
+     * Allocation of the count to business days in a time-ordered run, or null.
+     */
+    public DayBuckets getDayBuckets() {
+        return dayBuckets;
+    }
+
+    /**
+     * Key skew of a field, or null when the field keeps its natural distribution.
+     */
+    public Skew getSkew(SkewedField field) {
+        return skews.get(field);
+    }
+
+    /**
+     * Number of traders on the roster used when traders are skewed.
+     */
+    public int getTraderPool() {
+        return traderPool;
+    }
+
+    /**
+     * Bytes of output after which streaming and sink runs stop, or 0 for no byte budget.
+     */
+    public long getByteBudget() {
+        return byteBudget;
+    }
+
+    /**
+     * Format the byte budget is measured in, or null without a byte budget.
+     */
+    public TradeFormat getByteBudgetFormat() {
+        return byteBudgetFormat;
+    }
+
+    /**
+     * Time after which streaming and sink runs stop, or null for no time budget.
+     */
+    public Duration getTimeBudget() {
+        return timeBudget;
+    }
+
+    /**
+     * Whether the run ends on a byte or time budget as well as its count.
+     */
+    public boolean hasBudget() {
+        return byteBudget > 0 || timeBudget != null;
+    }
+
+    /**
+     * Hash of every setting that determines which trades a seeded run produces.
+     *
+     * <p>Parallelism, chunk size, the executor and virtual threads are excluded: they change how a run
+     * is executed, not its output. So are byte and time budgets, which only decide where a
+     * run stops. Two configurations with equal fingerprints
+     * therefore generate the same dataset.
+     *
+     * @return 64-bit fingerprint of the dataset definition
+     */
+    public long fingerprint() {
+        // Enum-keyed maps give a canonical order regardless of how the maps were built
+        Map<TradeType, Integer> types = new EnumMap<>(TradeType.class);
+        types.putAll(tradeTypeDistribution);
+        Map<DataProfile, Integer> profiles = new EnumMap<>(DataProfile.class);
+        profiles.putAll(profileDistribution);
+
+        StringBuilder canonical = new StringBuilder()
+                .append("count=").append(count)
+                .append(";types=").append(types)
+                .append(";profiles=").append(useProfiles ? profiles : "none")
+                .append(";dates=").append(startDate).append('/').append(endDate)
+                .append(";seed=").append(seed)
+                .append(";random=").append(getRandomAlgorithm())
+                .append(";stratified=").append(stratified)
+                .append(";shard=").append(shardIndex).append('/').append(shardCount);
+        if (dayBuckets != null) {
+            canonical.append(";timeOrdered");
+        }
+        if (executionTimes) {
+            canonical.append(";executionTimes=")
+                    .append(intradayIntensity != null ? Arrays.toString(intradayIntensity) : "default")
+                    .append(monotonicExecutionTimes ? "/monotonic" : "");
+        }
+        if (!skews.isEmpty()) {
+            canonical.append(";skews=").append(skews);
+            if (skews.containsKey(SkewedField.TRADER)) {
+                canonical.append(";traders=").append(traderPool);
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
     public static class Builder {
-        private int count = 1000;
+        private long count = 1000;
         private Map<TradeType, Integer> tradeTypeDistribution = new HashMap<>();
         private int parallelism = Runtime.getRuntime().availableProcessors();
         private LocalDate startDate = LocalDate.now().minusYears(1);
         private LocalDate endDate = LocalDate.now();
         private Map<DataProfile, Integer> profileDistribution = new HashMap<>();  // ADDED
         private boolean useProfiles = false;  // ADDED
+        private int chunkSize = DEFAULT_CHUNK_SIZE;
+        private Executor executor;
+        private int maxInFlightChunks = 0;
+        private Long seed;
+        private String randomAlgorithm;
+        private boolean stratified = false;
+        private int shardIndex = 0;
+        private int shardCount = 1;
+        private boolean executionTimes = false;
+        private double[] intradayIntensity;
+        private boolean monotonicExecutionTimes = false;
+        private boolean timeOrdered = false;
+        private Map<SkewedField, Skew> skews = new EnumMap<>(SkewedField.class);
+        private int traderPool = DEFAULT_TRADER_POOL;
+        private long byteBudget = 0;
+        private TradeFormat byteBudgetFormat;
+        private Duration timeBudget;
 
         public Builder() {
             // Default distribution: equal weight
@@ -80,7 +415,7 @@ public class GeneratorConfig {
             tradeTypeDistribution.put(TradeType.CREDIT_DEFAULT_SWAP, 20);
         }
 
-        public Builder count(int count) {
+        public Builder count(long count) {
             if (count <= 0) {
                 throw new IllegalArgumentException("Count must be positive");
             }
@@ -102,6 +437,11 @@ public class GeneratorConfig {
         }
 
         public Builder dateRange(LocalDate startDate, LocalDate endDate) {
+            if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+                throw new IllegalArgumentException(
+                        "Date range must be non-null with start on or before end, got: " + startDate + " to " + endDate
+                );
+            }
             this.startDate = startDate;
             this.endDate = endDate;
             return this;
@@ -118,6 +458,139 @@ public class GeneratorConfig {
             return this;
         }
 
+        public Builder chunkSize(int chunkSize) {
+            if (chunkSize <= 0) {
+                throw new IllegalArgumentException("Chunk size must be positive");
+            }
+            this.chunkSize = chunkSize;
+            return this;
+        }
+
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Run blocking sink calls on virtual threads, with up to {@code maxInFlightChunks}
+         * chunks in flight; 0 turns virtual threads off.
+         */
+        public Builder virtualThreads(int maxInFlightChunks) {
+            if (maxInFlightChunks < 0) {
+                throw new IllegalArgumentException("Maximum in-flight chunks must not be negative");
+            }
+            this.maxInFlightChunks = maxInFlightChunks;
+            return this;
+        }
+
+        public Builder seed(Long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Builder randomAlgorithm(String randomAlgorithm) {
+            if (randomAlgorithm != null) {
+                RandomSource.validate(randomAlgorithm);
+            }
+            this.randomAlgorithm = randomAlgorithm;
+            return this;
+        }
+
+        public Builder stratified(boolean stratified) {
+            this.stratified = stratified;
+            return this;
+        }
+
+        public Builder shard(int index, int total) {
+            if (total <= 0 || index < 0 || index >= total) {
+                throw new IllegalArgumentException(
+                        "Shard index must be in [0, " + total + ") with a positive total, got: " + index
+                );
+            }
+            this.shardIndex = index;
+            this.shardCount = total;
+            return this;
+        }
+
+        public Builder executionTimes(boolean executionTimes) {
+            this.executionTimes = executionTimes;
+            return this;
+        }
+
+        public Builder intradayIntensity(double[] intensity) {
+            this.intradayIntensity = intensity != null ? intensity.clone() : null;
+            return this;
+        }
+
+        public Builder monotonicExecutionTimes(boolean monotonic) {
+            this.monotonicExecutionTimes = monotonic;
+            return this;
+        }
+
+        public Builder timeOrdered(boolean timeOrdered) {
+            this.timeOrdered = timeOrdered;
+            return this;
+        }
+
+        /**
+         * Skew a field's keys, or restore its natural distribution with null.
+         */
+        public Builder skew(SkewedField field, Skew skew) {
+            if (field == null) {
+                throw new IllegalArgumentException("Skewed field must not be null");
+            }
+            if (skew != null) {
+                skews.put(field, skew);
+            } else {
+                skews.remove(field);
+            }
+            return this;
+        }
+
+        public Builder skews(Map<SkewedField, Skew> skews) {
+            this.skews = new EnumMap<>(SkewedField.class);
+            this.skews.putAll(skews);
+            return this;
+        }
+
+        public Builder traderPool(int traders) {
+            if (traders <= 0 || traders > MAX_TRADER_POOL) {
+                throw new IllegalArgumentException(
+                        "Trader pool must be in [1, " + MAX_TRADER_POOL + "], got: " + traders
+                );
+            }
+            this.traderPool = traders;
+            return this;
+        }
+
+        /**
+         * Stop streaming and sink runs before their output in {@code format} exceeds
+         * {@code bytes}; 0 removes the byte budget.
+         */
+        public Builder byteBudget(long bytes, TradeFormat format) {
+            if (bytes < 0) {
+                throw new IllegalArgumentException("Byte budget must not be negative, got: " + bytes);
+            }
+            if (bytes > 0 && format == null) {
+                throw new IllegalArgumentException("Byte budget format must not be null");
+            }
+            this.byteBudget = bytes;
+            this.byteBudgetFormat = bytes > 0 ? format : null;
+            return this;
+        }
+
+        /**
+         * Stop streaming and sink runs once {@code duration} has passed; null removes the
+         * time budget.
+         */
+        public Builder timeBudget(Duration duration) {
+            if (duration != null && (duration.isNegative() || duration.isZero())) {
+                throw new IllegalArgumentException("Time budget must be positive, got: " + duration);
+            }
+            this.timeBudget = duration;
+            return this;
+        }
+
         public GeneratorConfig build() {
             // Validate distribution sums to 100
             int total = tradeTypeDistribution.values().stream()
@@ -143,6 +616,42 @@ public class GeneratorConfig {
                 }
             }
 
+            if (seed != null && randomAlgorithm != null && !RandomSource.isReseedable(randomAlgorithm)) {
+                throw new IllegalArgumentException("Seeded runs reseed before every trade, which "
+                        + randomAlgorithm + " cannot do in place; use " + RandomSource.SPLIT_MIX_64 + ", "
+                        + RandomSource.L64X128_MIX_RANDOM + ", " + RandomSource.XOROSHIRO_128_PLUS_PLUS
+                        + " or " + RandomSource.JAVA_UTIL_RANDOM);
+            }
+
+            if (stratified && count == UNBOUNDED) {
+                throw new IllegalArgumentException("Stratified generation requires a bounded count");
+            }
+
+            if (shardCount > 1) {
+                if (count == UNBOUNDED) {
+                    throw new IllegalArgumentException("Sharded generation requires a bounded count");
+                }
+                if (seed == null) {
+                    throw new IllegalArgumentException("Sharded generation requires a seed shared by all shards");
+                }
+            }
+
+            if (timeOrdered && count == UNBOUNDED) {
+                throw new IllegalArgumentException("Time-ordered generation requires a bounded count");
+            }
+
+            if (monotonicExecutionTimes) {
+                if (!executionTimes) {
+                    throw new IllegalArgumentException("Monotonic execution times require execution times to be enabled");
+                }
+                if (count == UNBOUNDED) {
+                    throw new IllegalArgumentException("Monotonic execution times require a bounded count");
+                }
+                if (shardCount > 1 && !timeOrdered) {
+                    throw new IllegalArgumentException("Sharded monotonic execution times require time-ordered generation");
+                }
+            }
+
             return new GeneratorConfig(this);
         }
     }
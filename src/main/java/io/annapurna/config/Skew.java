@@ -0,0 +1,165 @@
+package io.annapurna.config;
+
+import io.annapurna.util.WeightedRandom;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Popularity of the keys of a {@link SkewedField}, by rank.
+ *
+ * <p>Keys are ranked most popular first, in an order fixed by each generator, and the
+ * skew says what share of trades each rank gets:
+ * <ul>
+ *   <li>{@link #zipf(double)}: rank {@code r} (from 1) is weighted {@code 1 / r^s}, the
+ *       long-tailed popularity of real client and instrument flow.</li>
+ *   <li>{@link #topK(double...)}: explicit shares for the hottest keys, with the rest
+ *       spread evenly over the others, e.g. one counterparty taking 40% of flow.</li>
+ *   <li>{@link #uniform()}: every key equally likely.</li>
+ * </ul>
+ *
+ * <p>Each trade type has its own key pool where the keys belong to a desk, so a skew
+ * applies within each type. Books are ranked per desk: {@code topK(0.4)} on
+ * {@link SkewedField#BOOK} gives the busiest book of every desk 40% of that desk's
+ * trades, not one book 40% of a run that mixes trade types. For one book to take that
+ * share of the whole run, generate only its desk's trade type.
+ *
+ * <p>A skew is turned into a {@link #sampler(List) sampler} once per key pool, after
+ * which every draw is O(1) however many keys there are.
+ *
+ * <p><b>Thread Safety:</b> Immutable.
+ */
+public final class Skew {
+
+    private final double exponent;
+    private final double[] shares;
+
+    private Skew(double exponent, double[] shares) {
+        this.exponent = exponent;
+        this.shares = shares;
+    }
+
+    /**
+     * Zipf popularity: the key of rank {@code r} is {@code r^s} times rarer than the
+     * most popular one.
+     *
+     * @param exponent Skew exponent {@code s}; 0 is uniform, around 1 is typical of
+     *                 real flow, larger values concentrate trades on fewer keys
+     * @throws IllegalArgumentException if the exponent is negative or not finite
+     */
+    public static Skew zipf(double exponent) {
+        if (!(exponent >= 0) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException("Zipf exponent must be non-negative and finite, got: " + exponent);
+        }
+        return new Skew(exponent, null);
+    }
+
+    /**
+     * Explicit shares for the most popular keys, in rank order. Whatever the shares
+     * leave over is split evenly between the remaining keys.
+     *
+     * @param shares Fractions of all trades, e.g. {@code topK(0.4, 0.1)} for one key
+     *               with 40% and a second with 10%; must sum to at most 1
+     * @throws IllegalArgumentException if no share is given, a share is negative or
+     *         they sum to more than 1
+     */
+    public static Skew topK(double... shares) {
+        if (shares == null || shares.length == 0) {
+            throw new IllegalArgumentException("At least one top-k share is required");
+        }
+        double total = 0;
+        for (double share : shares) {
+            if (!(share >= 0) || share > 1) {
+                throw new IllegalArgumentException("Shares must be in [0, 1], got: " + share);
+            }
+            total += share;
+        }
+        // Tolerate rounding in shares written as decimals, e.g. 0.7 + 0.2 + 0.1
+        if (total > 1 + 1e-9) {
+            throw new IllegalArgumentException("Top-k shares must sum to at most 1, got: " + total);
+        }
+        return new Skew(0, shares.clone());
+    }
+
+    /**
+     * Every key equally likely. Useful for {@link SkewedField#TRADER}, to draw traders
+     * from a fixed roster without favouring any.
+     */
+    public static Skew uniform() {
+        return new Skew(0, null);
+    }
+
+    /**
+     * Relative weight of each rank among {@code keys} keys.
+     *
+     * <p>With top-k shares and fewer keys than shares, the shares of the missing keys are
+     * dropped and the rest scale up proportionally when sampled.
+     *
+     * @param keys Number of keys in the pool
+     * @return One weight per rank, most popular first
+     */
+    public double[] weights(int keys) {
+        if (keys <= 0) {
+            throw new IllegalArgumentException("Key count must be positive, got: " + keys);
+        }
+        double[] weights = new double[keys];
+        if (shares == null) {
+            for (int rank = 0; rank < keys; rank++) {
+                weights[rank] = exponent == 0 ? 1.0 : 1.0 / Math.pow(rank + 1, exponent);
+            }
+            return weights;
+        }
+
+        int top = Math.min(shares.length, keys);
+        double used = 0;
+        for (int rank = 0; rank < top; rank++) {
+            weights[rank] = shares[rank];
+            used += shares[rank];
+        }
+        if (keys > top) {
+            double rest = Math.max(0, 1 - used) / (keys - top);
+            Arrays.fill(weights, top, keys, rest);
+        }
+        return weights;
+    }
+
+    /**
+     * Build an O(1) sampler over a pool of keys, ranked in list order.
+     *
+     * @param keys Keys, most popular first
+     * @return Alias-table sampler drawing keys with this skew
+     * @throws IllegalArgumentException if the pool is empty or no key has any weight
+     */
+    public <T> WeightedRandom<T> sampler(List<T> keys) {
+        if (keys.isEmpty()) {
+            throw new IllegalArgumentException("Cannot skew an empty key pool");
+        }
+        double[] weights = weights(keys.size());
+        WeightedRandom.Builder<T> builder = WeightedRandom.builder();
+        for (int rank = 0; rank < weights.length; rank++) {
+            builder.add(keys.get(rank), weights[rank]);
+        }
+        return builder.build();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Skew)) return false;
+        Skew other = (Skew) o;
+        return exponent == other.exponent && Arrays.equals(shares, other.shares);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(exponent) + Arrays.hashCode(shares);
+    }
+
+    @Override
+    public String toString() {
+        if (shares != null) {
+            return "topK" + Arrays.toString(shares);
+        }
+        return exponent == 0 ? "uniform" : "zipf(" + exponent + ")";
+    }
+}
@@ -0,0 +1,34 @@
+package io.annapurna.config;
+
+/**
+ * Trade fields whose key distribution can be skewed with a {@link Skew}, to reproduce
+ * hot partitions, cache hit rates and lock contention in downstream systems.
+ */
+public enum SkewedField {
+
+    /**
+     * Counterparty, over the fourteen dealer banks with tier 1 banks ranked first.
+     * Replaces the notional-based tier selection.
+     */
+    COUNTERPARTY,
+
+    /**
+     * Book, over the books of each trade type's desk, ranked separately for each
+     * desk: shares apply to each type's own flow, never across types. Replaces the
+     * region-based booking of the underlying.
+     */
+    BOOK,
+
+    /**
+     * Trader, over a fixed roster of names (see
+     * {@link GeneratorConfig#getTraderPool()}) instead of a fresh name per trade.
+     */
+    TRADER,
+
+    /**
+     * Underlying: the option underlying, equity swap reference asset, CDS reference
+     * entity or FX currency pair, ranked by their usual popularity. Interest rate swaps
+     * have no underlying and are unaffected.
+     */
+    UNDERLYING
+}
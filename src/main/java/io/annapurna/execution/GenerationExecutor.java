@@ -0,0 +1,334 @@
+package io.annapurna.execution;
+
+import io.annapurna.config.GeneratorConfig;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Runs chunked generation work on a dedicated pool instead of the JVM-wide common pool.
+ *
+ * <p>Two modes are supported:
+ * <ul>
+ *   <li><b>Owned:</b> a private {@link ForkJoinPool} sized from
+ *       {@link GeneratorConfig#getParallelism()}, shut down by {@link #close()}</li>
+ *   <li><b>Shared:</b> a caller-supplied {@link Executor}; Annapurna submits at most
+ *       {@code parallelism} tasks to it and never shuts it down</li>
+ * </ul>
+ *
+ * <p>Either mode can add virtual threads for chunks that block on I/O
+ * ({@link #runBlockingChunks}). Each in-flight chunk then runs on a virtual thread of
+ * its own and hands its CPU work to the pool above through {@link #compute(Runnable)}.
+ * Thousands of chunks can wait on a slow sink while only {@code parallelism} threads
+ * generate. Virtual threads need Java 21; the multi-release jar falls back to a
+ * platform thread per in-flight chunk on Java 17 (see {@link #virtualThreadsSupported()}).
+ *
+ * <p>Work is split into fixed-size chunks. Each worker repeatedly claims the next
+ * unclaimed chunk index from a shared counter, so fast workers naturally take more
+ * chunks and no per-chunk future is allocated.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * try (GenerationExecutor executor = GenerationExecutor.forConfig(config)) {
+ *     executor.runChunks(chunkCount, chunk -> fillChunk(chunk));
+ * }
+ * }</pre>
+ */
+public final class GenerationExecutor implements AutoCloseable {
+
+    private static final AtomicInteger POOL_SEQUENCE = new AtomicInteger();
+    private static final BooleanSupplier NEVER = () -> false;
+
+    private final Executor executor;
+    private final ForkJoinPool ownedPool;
+    private final int parallelism;
+    // Thread per in-flight blocking chunk, or null to run blocking chunks like any other
+    private final ExecutorService blockingPool;
+    private final int maxInFlight;
+
+    private GenerationExecutor(Executor executor, ForkJoinPool ownedPool, int parallelism, int maxInFlight) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        if (maxInFlight < 0) {
+            throw new IllegalArgumentException("Maximum in-flight chunks must not be negative");
+        }
+        this.executor = executor;
+        this.ownedPool = ownedPool;
+        this.parallelism = parallelism;
+        this.blockingPool = maxInFlight > 0
+                ? VirtualThreads.newThreadPerTaskExecutor("annapurna-" + POOL_SEQUENCE.incrementAndGet() + "-io-")
+                : null;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Create an executor backed by a new, private ForkJoinPool.
+     *
+     * @param parallelism Number of worker threads
+     * @return Executor that owns its pool
+     */
+    public static GenerationExecutor owned(int parallelism) {
+        return virtual(parallelism, 0);
+    }
+
+    /**
+     * Create an executor backed by a new, private ForkJoinPool for generation, plus a
+     * virtual thread for each of up to {@code maxInFlight} concurrent blocking chunks.
+     *
+     * @param parallelism Number of generation threads
+     * @param maxInFlight Maximum number of chunks run at once by {@link #runBlockingChunks};
+     *                    0 to run them on the generation threads
+     * @return Executor that owns its pools
+     */
+    public static GenerationExecutor virtual(int parallelism, int maxInFlight) {
+        ForkJoinPool pool = new ForkJoinPool(parallelism, new WorkerThreadFactory(), null, false);
+        return new GenerationExecutor(pool, pool, parallelism, maxInFlight);
+    }
+
+    /**
+     * Wrap a caller-supplied executor. The executor is not shut down on {@link #close()}.
+     *
+     * @param executor Executor to submit work to
+     * @param parallelism Maximum number of concurrent tasks to submit
+     * @return Executor that borrows the caller's pool
+     */
+    public static GenerationExecutor shared(Executor executor, int parallelism) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        return new GenerationExecutor(executor, null, parallelism, 0);
+    }
+
+    /**
+     * Create the executor described by a generator configuration.
+     */
+    public static GenerationExecutor forConfig(GeneratorConfig config) {
+        if (config.getExecutor() != null) {
+            return new GenerationExecutor(config.getExecutor(), null, config.getParallelism(),
+                    config.getMaxInFlightChunks());
+        }
+        return virtual(config.getParallelism(), config.getMaxInFlightChunks());
+    }
+
+    /**
+     * Whether this JVM runs blocking chunks on virtual threads (Java 21 and later)
+     * rather than on one platform thread each.
+     */
+    public static boolean virtualThreadsSupported() {
+        return VirtualThreads.isSupported();
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * The underlying executor, for callers that schedule their own asynchronous work.
+     */
+    public Executor getExecutor() {
+        return executor;
+    }
+
+    /**
+     * Maximum number of chunks {@link #runBlockingChunks} runs at once; 0 when blocking
+     * chunks share the generation threads.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * Run {@code task} once for every chunk index in {@code [0, chunkCount)} and block
+     * until all chunks have finished.
+     *
+     * <p>If any chunk throws, remaining unclaimed chunks are skipped and the first
+     * failure is rethrown on the calling thread.
+     *
+     * @param chunkCount Number of chunks to run
+     * @param task Work to perform for each chunk
+     */
+    public void runChunks(long chunkCount, ChunkTask task) {
+        runChunks(chunkCount, () -> null, (state, chunk) -> task.run(chunk));
+    }
+
+    /**
+     * Like {@link #runChunks(long, ChunkTask)}, but each worker first creates its own
+     * state (for example a reusable buffer) and passes it to every chunk it runs.
+     * The state is confined to that worker and discarded when the run ends.
+     *
+     * @param chunkCount Number of chunks to run
+     * @param workerState Creates one state object per worker
+     * @param task Work to perform for each chunk
+     */
+    public <S> void runChunks(long chunkCount, Supplier<S> workerState, WorkerChunkTask<S> task) {
+        run(executor, parallelism, chunkCount, NEVER, workerState, task);
+    }
+
+    /**
+     * Like {@link #runChunks(long, Supplier, WorkerChunkTask)}, for chunks that spend
+     * most of their time blocked, such as writing to a database or socket.
+     *
+     * <p>With a {@link #getMaxInFlight() maximum in flight}, up to that many chunks run at
+     * once, each on its own virtual thread, and each wraps its CPU-bound part in
+     * {@link #compute(Runnable)}. Otherwise this is {@code runChunks}.
+     *
+     * @param chunkCount Number of chunks to run
+     * @param workerState Creates one state object per concurrent chunk runner
+     * @param task Work to perform for each chunk
+     */
+    public <S> void runBlockingChunks(long chunkCount, Supplier<S> workerState, WorkerChunkTask<S> task) {
+        runBlockingChunks(chunkCount, NEVER, workerState, task);
+    }
+
+    /**
+     * Like {@link #runBlockingChunks(long, Supplier, WorkerChunkTask)}, but chunks are
+     * only claimed while {@code stopped} returns false, checked before each claim. For
+     * runs that end on a condition, such as a byte or time budget, rather than a count.
+     *
+     * @param chunkCount Maximum number of chunks to run
+     * @param stopped Whether the run is over
+     * @param workerState Creates one state object per concurrent chunk runner
+     * @param task Work to perform for each chunk
+     */
+    public <S> void runBlockingChunks(long chunkCount, BooleanSupplier stopped,
+                                      Supplier<S> workerState, WorkerChunkTask<S> task) {
+        if (blockingPool == null) {
+            run(executor, parallelism, chunkCount, stopped, workerState, task);
+        } else {
+            run(blockingPool, maxInFlight, chunkCount, stopped, workerState, task);
+        }
+    }
+
+    /**
+     * Run the CPU-bound part of a blocking chunk. In virtual-thread mode the work is
+     * handed to the generation threads and the caller waits for it without occupying
+     * one, so at most {@code parallelism} chunks generate at a time and per-thread
+     * generator state stays bounded. Otherwise the work runs on the calling thread.
+     *
+     * @param work Work to run; its effects are visible to the caller on return
+     */
+    public void compute(Runnable work) {
+        if (blockingPool == null) {
+            work.run();
+            return;
+        }
+        try {
+            CompletableFuture.runAsync(work, executor).join();
+        } catch (CompletionException e) {
+            rethrow(e.getCause());
+        }
+    }
+
+    private <S> void run(Executor on, int concurrency, long chunkCount, BooleanSupplier stopped,
+                         Supplier<S> workerState, WorkerChunkTask<S> task) {
+        if (chunkCount <= 0) {
+            return;
+        }
+
+        int workers = (int) Math.min(concurrency, chunkCount);
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[workers];
+        for (int w = 0; w < workers; w++) {
+            futures[w] = CompletableFuture.runAsync(() -> {
+                S state;
+                try {
+                    state = workerState.get();
+                } catch (Throwable t) {
+                    failure.compareAndSet(null, t);
+                    return;
+                }
+                long chunk;
+                while (failure.get() == null && !stopped.getAsBoolean()
+                        && (chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                    try {
+                        task.run(state, chunk);
+                    } catch (Throwable t) {
+                        failure.compareAndSet(null, t);
+                    }
+                }
+            }, on);
+        }
+
+        CompletableFuture.allOf(futures).join();
+        rethrow(failure.get());
+    }
+
+    /**
+     * Run a single task asynchronously on this executor.
+     *
+     * @param task Work to run
+     * @return Future completed with the task's result
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        return CompletableFuture.supplyAsync(task, executor);
+    }
+
+    /**
+     * Shut down the owned pools, if any. Running chunks are allowed to finish.
+     */
+    @Override
+    public void close() {
+        if (blockingPool != null) {
+            blockingPool.shutdown();
+        }
+        if (ownedPool != null) {
+            ownedPool.shutdown();
+        }
+    }
+
+    static void rethrow(Throwable failure) {
+        if (failure == null) {
+            return;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        throw new IllegalStateException("Trade generation failed", failure);
+    }
+
+    /**
+     * Work performed for a single chunk.
+     */
+    @FunctionalInterface
+    public interface ChunkTask {
+        void run(long chunkIndex);
+    }
+
+    /**
+     * Work performed for a single chunk with the running worker's state.
+     */
+    @FunctionalInterface
+    public interface WorkerChunkTask<S> {
+        void run(S state, long chunkIndex);
+    }
+
+    /**
+     * Names pool threads so they are recognisable in thread dumps.
+     */
+    private static final class WorkerThreadFactory implements ForkJoinPool.ForkJoinWorkerThreadFactory {
+        private final int poolId = POOL_SEQUENCE.incrementAndGet();
+        private final AtomicInteger threadSequence = new AtomicInteger();
+
+        @Override
+        public ForkJoinWorkerThread newThread(ForkJoinPool pool) {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("annapurna-" + poolId + "-worker-" + threadSequence.incrementAndGet());
+            return thread;
+        }
+    }
+}
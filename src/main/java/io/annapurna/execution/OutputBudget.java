@@ -0,0 +1,182 @@
+package io.annapurna.execution;
+
+import io.annapurna.model.Trade;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Byte and time budget of one run: generation stops once either is used up.
+ *
+ * <p>The budget is checked at chunk boundaries only. A worker sizes each trade of its
+ * chunk into its own buffer, then reserves the chunk's total from the shared budget in
+ * one atomic step. A chunk that does not fit whole keeps the longest prefix that does,
+ * and ends the run, so a run never exceeds its byte budget and falls short of it by
+ * less than one trade rather than by a chunk per thread.
+ *
+ * <p>Runs consumed in order ({@link TradeIterator}) reserve chunks in index order on the
+ * consumer thread, so a seeded run always stops at the same trade. Runs delivered to a
+ * sink reserve chunks in the order workers finish them.
+ *
+ * <p>The deadline is also checked at chunk boundaries: no chunk starts after it, and a
+ * chunk that finishes after it is dropped.
+ *
+ * <p><b>Thread Safety:</b> Thread-safe.
+ */
+public final class OutputBudget {
+
+    private final long byteLimit;
+    private final ToLongFunction<Trade> sizer;
+    private final long deadline;
+    private final boolean hasDeadline;
+    private final AtomicLong remainingBytes;
+    private volatile boolean exhausted;
+
+    // Sizes measured by workers, until the consumer admits their chunk
+    private final Map<Long, long[]> chunkSizes = new ConcurrentHashMap<>();
+
+    private OutputBudget(long byteLimit, ToLongFunction<Trade> sizer, Duration duration) {
+        this.byteLimit = byteLimit;
+        this.sizer = sizer;
+        this.hasDeadline = duration != null;
+        this.deadline = hasDeadline ? System.nanoTime() + saturatedNanos(duration) : 0;
+        this.remainingBytes = new AtomicLong(byteLimit);
+    }
+
+    /**
+     * Start a run's budget; its clock starts now.
+     *
+     * @param byteLimit Bytes the run may produce, or 0 for no byte limit
+     * @param sizer Size of one trade in bytes; unused without a byte limit
+     * @param duration Time the run may take, or null for no time limit
+     * @return Budget to share between the run's workers
+     */
+    public static OutputBudget start(long byteLimit, ToLongFunction<Trade> sizer, Duration duration) {
+        if (byteLimit < 0) {
+            throw new IllegalArgumentException("Byte limit must not be negative, got: " + byteLimit);
+        }
+        if (byteLimit > 0 && sizer == null) {
+            throw new IllegalArgumentException("A byte limit requires a sizer");
+        }
+        return new OutputBudget(byteLimit, sizer, duration);
+    }
+
+    /**
+     * Whether the byte budget has run out or the deadline has passed.
+     */
+    public boolean isExhausted() {
+        if (exhausted) {
+            return true;
+        }
+        if (hasDeadline && System.nanoTime() - deadline >= 0) {
+            exhausted = true;
+        }
+        return exhausted;
+    }
+
+    /**
+     * Whether the run has a byte limit, and so needs its trades sized.
+     */
+    public boolean limitsBytes() {
+        return byteLimit > 0;
+    }
+
+    /**
+     * Bytes reserved so far.
+     */
+    public long getBytesUsed() {
+        return byteLimit - remainingBytes.get();
+    }
+
+    /**
+     * Size {@code chunk[0, length)} into {@code sizes}, on the calling worker thread.
+     * Does nothing without a byte limit.
+     */
+    public void measure(Trade[] chunk, int length, long[] sizes) {
+        if (!limitsBytes()) {
+            return;
+        }
+        for (int i = 0; i < length; i++) {
+            sizes[i] = sizer.applyAsLong(chunk[i]);
+        }
+    }
+
+    /**
+     * Reserve a measured chunk.
+     *
+     * @param sizes Sizes from {@link #measure}; ignored without a byte limit
+     * @param length Number of trades in the chunk
+     * @return Number of leading trades of the chunk the run may deliver; fewer than
+     *         {@code length} once the budget is used up
+     */
+    public int reserve(long[] sizes, int length) {
+        if (isExhausted()) {
+            return 0;
+        }
+        if (!limitsBytes()) {
+            return length;
+        }
+        long total = 0;
+        for (int i = 0; i < length; i++) {
+            total += sizes[i];
+        }
+        while (true) {
+            long left = remainingBytes.get();
+            if (total <= left) {
+                if (remainingBytes.compareAndSet(left, left - total)) {
+                    return length;
+                }
+                continue;
+            }
+            // Only a prefix fits, and it is the run's last
+            long used = 0;
+            int fit = 0;
+            while (fit < length && used + sizes[fit] <= left) {
+                used += sizes[fit++];
+            }
+            if (remainingBytes.compareAndSet(left, left - used)) {
+                exhausted = true;
+                return fit;
+            }
+        }
+    }
+
+    /**
+     * Wrap a chunk generator so that each chunk is sized on the thread that generated
+     * it, ready for {@link #admit(long, Trade[])}.
+     */
+    public TradeIterator.ChunkGenerator measured(TradeIterator.ChunkGenerator generator) {
+        if (!limitsBytes()) {
+            return generator;
+        }
+        return (from, length) -> {
+            Trade[] chunk = generator.generate(from, length);
+            long[] sizes = new long[chunk.length];
+            measure(chunk, chunk.length, sizes);
+            chunkSizes.put(from, sizes);
+            return chunk;
+        };
+    }
+
+    /**
+     * Reserve the chunk starting at {@code from}, generated by a {@link #measured}
+     * generator. Called by the consumer, in index order.
+     *
+     * @return Number of leading trades of the chunk to return
+     */
+    public int admit(long from, Trade[] chunk) {
+        long[] sizes = chunkSizes.remove(from);
+        return reserve(sizes, chunk.length);
+    }
+
+    private static long saturatedNanos(Duration duration) {
+        try {
+            return duration.toNanos();
+        } catch (ArithmeticException e) {
+            return Long.MAX_VALUE / 2;
+        }
+    }
+}
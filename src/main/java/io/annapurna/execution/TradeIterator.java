@@ -0,0 +1,384 @@
+package io.annapurna.execution;
+
+import io.annapurna.model.Trade;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Lazy, ordered iterator over generated trades with parallel read-ahead.
+ *
+ * <p>Trades are produced in fixed-size chunks. While the consumer drains the current
+ * chunk, up to {@code readAhead} further chunks are generated in parallel on the
+ * executor. A new chunk is only scheduled when the consumer takes one, so at most
+ * {@code (readAhead + 1) * chunkSize} trades are ever held in memory regardless of
+ * the total count.
+ *
+ * <p>Trades are returned in index order. The iterator closes its executor once the
+ * last trade has been returned; callers that stop early should call {@link #close()}.
+ *
+ * <p>Trades can instead be ordered within groups of consecutive indices, such as the
+ * trades of one business day. Chunks then never cross a group boundary, each chunk is
+ * sorted by its generator, and the chunks of a group are merged as the consumer reads
+ * it. A group is merged once all of its chunks have been generated, so the unread
+ * trades of the current group are held on top of the read-ahead.
+ *
+ * <p>With an {@link OutputBudget}, each chunk is admitted against the budget as the
+ * consumer reaches it, and iteration ends at the first chunk that is not admitted whole.
+ *
+ * <p><b>Thread Safety:</b> Not thread-safe. Consume from a single thread.
+ */
+public final class TradeIterator implements Iterator<Trade>, AutoCloseable {
+
+    private static final CompletableFuture<Void> READY = CompletableFuture.completedFuture(null);
+
+    private final GenerationExecutor executor;
+    private final ChunkGenerator generator;
+    private final long count;
+    private final int chunkSize;
+    private final LongUnaryOperator groupEnd;
+    private final Comparator<? super Trade> order;
+    private final int readAhead;
+    private final OutputBudget budget;
+    private final ArrayDeque<PendingChunk> pending = new ArrayDeque<>();
+
+    private long nextChunkStart;
+    private Trade[] current = new Trade[0];
+    private int position;
+    private boolean closed;
+
+    // Group being read: its sorted chunks, taken so far, and where it ends
+    private final List<Trade[]> runs = new ArrayList<>();
+    private long runsEnd;
+    private long currentGroupEnd;
+    private RunMerge merge;
+
+    /**
+     * @param executor Executor to generate chunks on; closed when iteration ends
+     * @param generator Produces the trades for a range of indices
+     * @param count Total number of trades to return
+     * @param chunkSize Trades per chunk
+     * @param readAhead Maximum number of chunks generated ahead of the consumer
+     */
+    public TradeIterator(GenerationExecutor executor, ChunkGenerator generator,
+                         long count, int chunkSize, int readAhead) {
+        this(executor, generator, count, chunkSize, null, null, readAhead, null);
+    }
+
+    /**
+     * @param executor Executor to generate chunks on; closed when iteration ends
+     * @param generator Produces the trades for a range of indices; with a byte limit,
+     *                  {@link OutputBudget#measured wrapped} by the budget
+     * @param count Maximum number of trades to return
+     * @param chunkSize Trades per chunk
+     * @param readAhead Maximum number of chunks generated ahead of the consumer
+     * @param budget Budget that ends the iteration early, or null
+     */
+    public TradeIterator(GenerationExecutor executor, ChunkGenerator generator,
+                         long count, int chunkSize, int readAhead, OutputBudget budget) {
+        this(executor, generator, count, chunkSize, null, null, readAhead, budget);
+    }
+
+    /**
+     * Iterator that orders trades within groups of consecutive indices.
+     *
+     * @param executor Executor to generate chunks on; closed when iteration ends
+     * @param generator Produces the trades for a range of indices within one group,
+     *                  sorted by {@code order}; with a byte limit,
+     *                  {@link OutputBudget#measured wrapped} by the budget
+     * @param count Maximum number of trades to return
+     * @param chunkSize Maximum trades per chunk
+     * @param groupEnd Maps an index to the index after the last of its group, or
+     *                 null to return trades in index order
+     * @param order Order of the trades within a group; required with {@code groupEnd}
+     * @param readAhead Maximum number of chunks generated ahead of the consumer
+     * @param budget Budget that ends the iteration early, or null
+     */
+    public TradeIterator(GenerationExecutor executor, ChunkGenerator generator, long count, int chunkSize,
+                         LongUnaryOperator groupEnd, Comparator<? super Trade> order, int readAhead,
+                         OutputBudget budget) {
+        if (chunkSize <= 0 || readAhead <= 0) {
+            throw new IllegalArgumentException("Chunk size and read-ahead must be positive");
+        }
+        if (groupEnd != null && order == null) {
+            throw new IllegalArgumentException("Grouped iteration needs an order within the group");
+        }
+        this.executor = executor;
+        this.generator = generator;
+        this.count = count;
+        this.chunkSize = chunkSize;
+        this.groupEnd = groupEnd;
+        this.order = order;
+        this.readAhead = readAhead;
+        this.budget = budget;
+
+        for (int i = 0; i < readAhead; i++) {
+            scheduleNextChunk();
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (position < current.length) {
+            return true;
+        }
+        if (groupEnd != null) {
+            return nextMergedBatch();
+        }
+        if (pending.isEmpty()) {
+            close();
+            return false;
+        }
+
+        current = take();
+        position = 0;
+        if (current.length == 0) {
+            close();
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public Trade next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Trade trade = current[position];
+        current[position++] = null; // Let the consumer own the only reference
+        return trade;
+    }
+
+    /**
+     * Future completed once {@link #hasNext()} can answer without waiting for a chunk
+     * to be generated, for consumers that must not block.
+     */
+    CompletableFuture<?> ready() {
+        if (position < current.length) {
+            return READY;
+        }
+        if (groupEnd == null) {
+            return pending.isEmpty() ? READY : pending.peek().trades;
+        }
+        if (merge != null && merge.hasNext()) {
+            return READY;
+        }
+        // Take the group's chunks that are already generated, so the rest get scheduled
+        takeGeneratedRuns();
+        return groupTaken() ? READY : pending.peek().trades;
+    }
+
+    /**
+     * Whether every trade has been returned, known without generating anything.
+     * False may still be followed by {@link #hasNext()} returning false, if a budget
+     * ends the run at the next chunk.
+     */
+    boolean isExhausted() {
+        return position >= current.length && (merge == null || !merge.hasNext()) && runs.isEmpty()
+                && pending.isEmpty();
+    }
+
+    /**
+     * Stop generation and release the executor. Chunks already running are allowed
+     * to finish but their trades are discarded.
+     */
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        cancelPending();
+        current = new Trade[0];
+        runs.clear();
+        merge = null;
+        executor.close();
+    }
+
+    /**
+     * Take the next chunk in index order, admitting it against the budget, and
+     * schedule the chunk after the read-ahead in its place.
+     *
+     * @return The chunk's trades, cut short if the budget ends within it
+     */
+    private Trade[] take() {
+        PendingChunk next = pending.poll();
+        Trade[] trades = await(next.trades);
+        if (budget != null) {
+            int admitted = budget.admit(next.from, trades);
+            if (admitted < trades.length) {
+                // The budget ends here; nothing generated after this chunk is returned
+                trades = Arrays.copyOf(trades, admitted);
+                cancelPending();
+            }
+        }
+        scheduleNextChunk();
+        return trades;
+    }
+
+    /**
+     * Refill {@link #current} with the next trades of the group being merged, waiting
+     * for the chunks of the next group once this one is used up.
+     *
+     * @return Whether any trade is left
+     */
+    private boolean nextMergedBatch() {
+        while (merge == null || !merge.hasNext()) {
+            merge = null;
+            if (runs.isEmpty() && pending.isEmpty()) {
+                close();
+                return false;
+            }
+            while (!groupTaken()) {
+                takeRun();
+            }
+            merge = new RunMerge(runs, order);
+            runs.clear();
+        }
+        current = merge.next(chunkSize);
+        position = 0;
+        return true;
+    }
+
+    /**
+     * Take chunks of the current group as long as they are already generated.
+     */
+    private void takeGeneratedRuns() {
+        while (!groupTaken() && pending.peek().trades.isDone()) {
+            takeRun();
+        }
+    }
+
+    /**
+     * Whether every chunk of the group being read has been taken; the budget or the
+     * end of the data may end a group early.
+     */
+    private boolean groupTaken() {
+        return !runs.isEmpty() && (runsEnd == currentGroupEnd || pending.isEmpty())
+                || runs.isEmpty() && pending.isEmpty();
+    }
+
+    private void takeRun() {
+        if (runs.isEmpty()) {
+            currentGroupEnd = groupEnd.applyAsLong(pending.peek().from);
+        }
+        long from = pending.peek().from;
+        Trade[] run = take();
+        runsEnd = from + run.length;
+        if (run.length > 0) {
+            runs.add(run);
+        }
+    }
+
+    private void cancelPending() {
+        for (PendingChunk chunk : pending) {
+            chunk.trades.cancel(false);
+        }
+        pending.clear();
+        // No chunk is scheduled after this
+        nextChunkStart = count;
+    }
+
+    private void scheduleNextChunk() {
+        if (closed || nextChunkStart >= count || (budget != null && budget.isExhausted())) {
+            return;
+        }
+        long from = nextChunkStart;
+        long end = Math.min(from + chunkSize, count);
+        if (groupEnd != null) {
+            end = Math.min(end, groupEnd.applyAsLong(from));
+        }
+        int length = (int) (end - from);
+        nextChunkStart += length;
+        pending.add(new PendingChunk(from, executor.submit(() -> generator.generate(from, length))));
+    }
+
+    private Trade[] await(CompletableFuture<Trade[]> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            close();
+            GenerationExecutor.rethrow(e.getCause());
+            throw e;
+        }
+    }
+
+    private static final class PendingChunk {
+        final long from;
+        final CompletableFuture<Trade[]> trades;
+
+        PendingChunk(long from, CompletableFuture<Trade[]> trades) {
+            this.from = from;
+            this.trades = trades;
+        }
+    }
+
+    /**
+     * K-way merge of sorted runs, releasing each trade as it is returned.
+     */
+    private static final class RunMerge {
+        private final Trade[][] runs;
+        private final int[] positions;
+        private final PriorityQueue<Integer> heads;
+        private long remaining;
+
+        RunMerge(List<Trade[]> runs, Comparator<? super Trade> order) {
+            this.runs = runs.toArray(new Trade[0][]);
+            this.positions = new int[this.runs.length];
+            for (Trade[] run : this.runs) {
+                remaining += run.length;
+            }
+            // Ties go to the earlier run, so equal trades keep their index order
+            this.heads = new PriorityQueue<>(Math.max(1, this.runs.length), (a, b) -> {
+                int compared = order.compare(this.runs[a][positions[a]], this.runs[b][positions[b]]);
+                return compared != 0 ? compared : Integer.compare(a, b);
+            });
+            for (int i = 0; i < this.runs.length; i++) {
+                heads.add(i);
+            }
+        }
+
+        boolean hasNext() {
+            return remaining > 0;
+        }
+
+        /**
+         * Remove and return up to {@code max} of the smallest remaining trades.
+         */
+        Trade[] next(int max) {
+            if (runs.length == 1 && positions[0] == 0 && runs[0].length <= max) {
+                // A group of one chunk is already in order
+                remaining = 0;
+                return runs[0];
+            }
+            Trade[] batch = new Trade[(int) Math.min(max, remaining)];
+            for (int i = 0; i < batch.length; i++) {
+                int run = heads.poll();
+                batch[i] = runs[run][positions[run]];
+                runs[run][positions[run]++] = null;
+                if (positions[run] < runs[run].length) {
+                    heads.add(run);
+                }
+            }
+            remaining -= batch.length;
+            return batch;
+        }
+    }
+
+    /**
+     * Produces the trades at indices {@code [from, from + length)}.
+     */
+    @FunctionalInterface
+    public interface ChunkGenerator {
+        Trade[] generate(long from, int length);
+    }
+}
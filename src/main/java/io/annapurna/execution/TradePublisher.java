@@ -0,0 +1,381 @@
+package io.annapurna.execution;
+
+import io.annapurna.model.Trade;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Reactive Streams publisher of generated trades, shared by its subscribers and paced
+ * by their demand.
+ *
+ * <p>A publisher generates its dataset once, through a single {@link TradeIterator}
+ * whose workers fill a bounded read-ahead of chunks in parallel. Trades are pulled from
+ * the iterator into a ring of {@code bufferSize} trades that all subscribers read from,
+ * each at its own position. A trade is pulled only once some subscriber has requested
+ * it, and never while the slowest subscriber is a full ring behind. Generation therefore
+ * follows the slowest subscriber, the fastest runs at most one ring ahead of it, and
+ * memory stays bounded however many subscribers there are. Trades are emitted in index
+ * order.
+ *
+ * <p>Generation waits until {@code subscribers} subscribers have subscribed, so each of
+ * them receives the whole dataset. A subscriber that joins later receives the trades
+ * pulled from then on, and one that subscribes after the run has ended receives its
+ * terminal signal at once. If every subscriber cancels, generation stops and the
+ * iterator's executor is released.
+ *
+ * <p>Signals are delivered from an {@link Executor}, never on the thread that calls
+ * {@code request} or {@code cancel}. One drain loop serves every subscriber in turn, so
+ * signals are serialized. A {@code request} made from inside {@code onNext} only adds to
+ * the demand the loop sees. While the next chunk is still being generated the loop
+ * returns, and resumes once the chunk completes, so no thread blocks on generation.
+ * Completion is signalled as soon as the iterator has nothing left, without generating
+ * ahead of demand to find out.
+ *
+ * <p>Only {@link Flow} from the JDK is used, so the publisher can be adapted to
+ * Reactor ({@code JdkFlowAdapter}), RxJava ({@code FlowAdapters}) or any other
+ * Reactive Streams library without Annapurna depending on it.
+ *
+ * <p><b>Thread Safety:</b> Thread-safe; {@link #subscribe} may be called concurrently.
+ */
+public final class TradePublisher implements Flow.Publisher<Trade> {
+
+    /**
+     * Default number of trades the fastest subscriber may be ahead of the slowest.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private final Supplier<TradeIterator> source;
+    private final int subscribersToStart;
+    private final Executor executor;
+    private final Trade[] ring;
+    private final int mask;
+
+    private final Queue<TradeSubscription> arrivals = new ConcurrentLinkedQueue<>();
+    // Number of pending drain requests; only the caller that raises it from 0 schedules the drain
+    private final AtomicInteger work = new AtomicInteger();
+
+    // Confined to the drain loop
+    private final List<TradeSubscription> subscriptions = new ArrayList<>();
+    private TradeIterator iterator;
+    private CompletableFuture<?> awaited;
+    private long tail;
+    private boolean started;
+    private boolean exhausted;
+    private boolean ended;
+    private Throwable failure;
+
+    /**
+     * Publisher that starts generating for its first subscriber, with the default
+     * buffer and the common pool.
+     *
+     * @param source Creates the iterator over the dataset, once
+     */
+    public TradePublisher(Supplier<TradeIterator> source) {
+        this(source, 1, DEFAULT_BUFFER_SIZE, defaultExecutor());
+    }
+
+    /**
+     * @param source Creates the iterator over the dataset, once
+     * @param subscribers Number of subscribers to wait for before generating
+     * @param bufferSize Trades the fastest subscriber may be ahead of the slowest;
+     *                   a power of two
+     * @param executor Runs the loop that signals subscribers
+     */
+    public TradePublisher(Supplier<TradeIterator> source, int subscribers, int bufferSize, Executor executor) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source must not be null");
+        }
+        if (subscribers <= 0) {
+            throw new IllegalArgumentException("Subscribers must be positive, got: " + subscribers);
+        }
+        if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("Buffer size must be a power of two, got: " + bufferSize);
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor must not be null");
+        }
+        this.source = source;
+        this.subscribersToStart = subscribers;
+        this.executor = executor;
+        this.ring = new Trade[bufferSize];
+        this.mask = bufferSize - 1;
+    }
+
+    /**
+     * The common pool, or a thread per drain where the common pool has a single thread,
+     * as {@link java.util.concurrent.SubmissionPublisher} does.
+     */
+    public static Executor defaultExecutor() {
+        if (ForkJoinPool.getCommonPoolParallelism() > 1) {
+            return ForkJoinPool.commonPool();
+        }
+        return task -> {
+            Thread thread = new Thread(task, "annapurna-publisher");
+            thread.setDaemon(true);
+            thread.start();
+        };
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Trade> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber must not be null");
+        }
+        TradeSubscription subscription = new TradeSubscription(subscriber);
+        subscriber.onSubscribe(subscription);
+        // Only visible to the drain loop once onSubscribe has returned
+        arrivals.add(subscription);
+        schedule();
+    }
+
+    private void schedule() {
+        if (work.getAndIncrement() == 0) {
+            executor.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            admitArrivals();
+            pump();
+            missed = work.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void admitArrivals() {
+        TradeSubscription arrival;
+        while ((arrival = arrivals.poll()) != null) {
+            if (ended) {
+                terminate(arrival);
+            } else {
+                arrival.cursor = tail;
+                subscriptions.add(arrival);
+            }
+        }
+    }
+
+    /**
+     * Deliver buffered trades and pull new ones until no subscriber can take more.
+     */
+    private void pump() {
+        while (!ended) {
+            dropCancelled();
+            if (!started) {
+                if (subscriptions.size() < subscribersToStart) {
+                    return;
+                }
+                started = true;
+            }
+            if (subscriptions.isEmpty()) {
+                end(exhausted ? null : new IllegalStateException("Generation was cancelled by every subscriber"));
+                return;
+            }
+
+            boolean emitted = emitBuffered();
+            if (!exhausted && iterator != null && iterator.isExhausted()) {
+                exhausted = true;
+            }
+            if (exhausted) {
+                completeCaughtUp();
+                if (subscriptions.isEmpty()) {
+                    end(null);
+                    return;
+                }
+            }
+            boolean wasExhausted = exhausted;
+            int pulled = pull();
+            // Go round again if anything changed: new trades, sent trades, or the end of the data
+            if (pulled == 0 && !emitted && exhausted == wasExhausted) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Send each subscriber the buffered trades it has requested.
+     *
+     * @return Whether any trade was sent
+     */
+    private boolean emitBuffered() {
+        boolean emitted = false;
+        for (TradeSubscription subscription : subscriptions) {
+            long demand = subscription.requested.get();
+            long sent = 0;
+            while (sent < demand && subscription.cursor < tail && !subscription.cancelled) {
+                Trade trade = ring[(int) subscription.cursor & mask];
+                subscription.cursor++;
+                sent++;
+                try {
+                    subscription.subscriber.onNext(trade);
+                } catch (Throwable e) {
+                    // A subscriber that throws is treated as cancelled (Reactive Streams rule 2.13)
+                    subscription.cancelled = true;
+                }
+            }
+            if (sent > 0) {
+                emitted = true;
+                if (demand != Long.MAX_VALUE) {
+                    subscription.requested.addAndGet(-sent);
+                }
+            }
+        }
+        return emitted;
+    }
+
+    /**
+     * Pull trades into the ring while some subscriber has requested them and the
+     * slowest subscriber leaves room. Returns without waiting if the next chunk is not
+     * generated yet; the drain is scheduled again once it is.
+     *
+     * @return Number of trades pulled
+     */
+    private int pull() {
+        long slowest = Long.MAX_VALUE;
+        long wanted = Long.MIN_VALUE;
+        for (TradeSubscription subscription : subscriptions) {
+            slowest = Math.min(slowest, subscription.cursor);
+            long demand = subscription.requested.get();
+            wanted = Math.max(wanted, demand > Long.MAX_VALUE - subscription.cursor
+                    ? Long.MAX_VALUE : subscription.cursor + demand);
+        }
+        long limit = Math.min(wanted, slowest + ring.length);
+
+        int pulled = 0;
+        try {
+            while (!exhausted && tail < limit) {
+                if (iterator == null) {
+                    iterator = source.get();
+                }
+                CompletableFuture<?> ready = iterator.ready();
+                if (!ready.isDone()) {
+                    if (ready != awaited) {
+                        awaited = ready;
+                        ready.whenComplete((trades, e) -> schedule());
+                    }
+                    break;
+                }
+                if (!iterator.hasNext()) {
+                    exhausted = true;
+                    break;
+                }
+                ring[(int) tail & mask] = iterator.next();
+                tail++;
+                pulled++;
+            }
+        } catch (Throwable e) {
+            end(e);
+        }
+        return pulled;
+    }
+
+    private void dropCancelled() {
+        for (Iterator<TradeSubscription> it = subscriptions.iterator(); it.hasNext(); ) {
+            TradeSubscription subscription = it.next();
+            Throwable invalid = subscription.invalidRequest;
+            if (invalid != null && !subscription.cancelled) {
+                subscription.cancelled = true;
+                signalError(subscription, invalid);
+            }
+            if (subscription.cancelled) {
+                it.remove();
+            }
+        }
+    }
+
+    private void completeCaughtUp() {
+        for (Iterator<TradeSubscription> it = subscriptions.iterator(); it.hasNext(); ) {
+            TradeSubscription subscription = it.next();
+            if (subscription.cursor == tail) {
+                it.remove();
+                terminate(subscription);
+            }
+        }
+    }
+
+    /**
+     * End the run: stop generation and send every remaining subscriber the outcome.
+     *
+     * @param cause Failure to signal, or null to complete
+     */
+    private void end(Throwable cause) {
+        ended = true;
+        failure = cause;
+        if (iterator != null) {
+            iterator.close();
+            iterator = null;
+        }
+        for (TradeSubscription subscription : subscriptions) {
+            terminate(subscription);
+        }
+        subscriptions.clear();
+        Arrays.fill(ring, null);
+    }
+
+    private void terminate(TradeSubscription subscription) {
+        if (subscription.cancelled) {
+            return;
+        }
+        subscription.cancelled = true;
+        if (failure != null) {
+            signalError(subscription, failure);
+            return;
+        }
+        try {
+            subscription.subscriber.onComplete();
+        } catch (Throwable ignored) {
+            // Nothing more is sent to this subscriber either way
+        }
+    }
+
+    private static void signalError(TradeSubscription subscription, Throwable error) {
+        try {
+            subscription.subscriber.onError(error);
+        } catch (Throwable ignored) {
+            // Nothing more is sent to this subscriber either way
+        }
+    }
+
+    private final class TradeSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super Trade> subscriber;
+        private final AtomicLong requested = new AtomicLong();
+
+        private volatile boolean cancelled;
+        private volatile Throwable invalidRequest;
+
+        // Index of the next trade to send, confined to the drain loop
+        private long cursor;
+
+        TradeSubscription(Flow.Subscriber<? super Trade> subscriber) {
+            this.subscriber = subscriber;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                invalidRequest = new IllegalArgumentException("Requested count must be positive, got: " + n);
+            } else {
+                requested.getAndUpdate(current -> current + n < 0 ? Long.MAX_VALUE : current + n);
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.annapurna.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Thread-per-task executors for chunks that block.
+ *
+ * <p>This is the Java 17 baseline. The multi-release jar carries a Java 21 version of
+ * this class under {@code META-INF/versions/21} (source in {@code src/main/java21}),
+ * which the JVM loads instead on Java 21 and later and which starts virtual threads.
+ * Here every task gets a daemon platform thread: blocking chunks still overlap, at the
+ * cost of a full thread stack each.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return false;
+    }
+
+    /**
+     * Executor that starts a new thread for every task, named {@code prefix} plus a sequence.
+     */
+    static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newCachedThreadPool(task -> {
+            Thread thread = new Thread(task, prefix + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,100 @@
+package io.annapurna.feed;
+
+import java.time.Duration;
+
+/**
+ * Outcome of a {@link TradeFeed} run.
+ *
+ * <p>Both distributions are measured from each trade's <i>intended</i> start on the
+ * feed's schedule, not from when it was actually sent:
+ * <ul>
+ *   <li><b>Lag:</b> intended start to the sink call. Non-zero when the feed fell
+ *       behind, for example because the sink blocked on earlier trades.</li>
+ *   <li><b>Response time:</b> intended start to the sink call returning. This is what
+ *       a client sending at the target rate would have observed, so a stall in the
+ *       system under test is charged to every trade it delayed rather than only to
+ *       the one that hit it (no coordinated omission).</li>
+ * </ul>
+ *
+ * <p><b>Thread Safety:</b> Immutable.
+ */
+public final class FeedReport {
+
+    private final double targetRate;
+    private final long elapsedNanos;
+    private final LatencyHistogram lag;
+    private final LatencyHistogram response;
+
+    FeedReport(double targetRate, long elapsedNanos, LatencyHistogram lag, LatencyHistogram response) {
+        this.targetRate = targetRate;
+        this.elapsedNanos = elapsedNanos;
+        this.lag = lag;
+        this.response = response;
+    }
+
+    /**
+     * Number of trades delivered to the sink.
+     */
+    public long getTrades() {
+        return response.count();
+    }
+
+    public Duration getElapsed() {
+        return Duration.ofNanos(elapsedNanos);
+    }
+
+    /**
+     * The constant rate the feed was asked for, or {@code NaN} when it followed a
+     * {@link LoadShape}.
+     */
+    public double getTargetRate() {
+        return targetRate;
+    }
+
+    /**
+     * Trades per second actually delivered, from the feed's start to the last trade.
+     */
+    public double getAchievedRate() {
+        return elapsedNanos == 0 ? 0 : getTrades() * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Scheduling lag at a percentile, in nanoseconds (within about 6%).
+     *
+     * @param percentile From 0 to 100, e.g. 99.9
+     */
+    public long getLagNanos(double percentile) {
+        return lag.percentile(percentile);
+    }
+
+    public long getMaxLagNanos() {
+        return lag.max();
+    }
+
+    public double getMeanLagNanos() {
+        return lag.mean();
+    }
+
+    /**
+     * Response time at a percentile, in nanoseconds (within about 6%).
+     *
+     * @param percentile From 0 to 100, e.g. 99.9
+     */
+    public long getResponseNanos(double percentile) {
+        return response.percentile(percentile);
+    }
+
+    public long getMaxResponseNanos() {
+        return response.max();
+    }
+
+    @Override
+    public String toString() {
+        String target = Double.isNaN(targetRate) ? "shaped" : String.format("target %.0f/s", targetRate);
+        return String.format("FeedReport{trades=%d, elapsed=%s, rate=%.0f/s (%s), "
+                        + "lag p50=%dus p99=%dus max=%dus, response p50=%dus p99=%dus max=%dus}",
+                getTrades(), getElapsed(), getAchievedRate(), target,
+                getLagNanos(50) / 1_000, getLagNanos(99) / 1_000, getMaxLagNanos() / 1_000,
+                getResponseNanos(50) / 1_000, getResponseNanos(99) / 1_000, getMaxResponseNanos() / 1_000);
+    }
+}
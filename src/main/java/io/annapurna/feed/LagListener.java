@@ -0,0 +1,18 @@
+package io.annapurna.feed;
+
+/**
+ * Per-trade timing callback of a {@link TradeFeed}.
+ *
+ * <p>Called on the feed thread right after the sink returns, so implementations must
+ * be thread-safe and quick; anything slow here delays the following trades.
+ */
+@FunctionalInterface
+public interface LagListener {
+
+    /**
+     * @param index Index of the trade in the dataset
+     * @param lagNanos Time from the trade's intended start to the sink call
+     * @param responseNanos Time from the trade's intended start to the sink returning
+     */
+    void onTrade(long index, long lagNanos, long responseNanos);
+}
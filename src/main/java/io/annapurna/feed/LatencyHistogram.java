@@ -0,0 +1,100 @@
+package io.annapurna.feed;
+
+/**
+ * Fixed-size log-linear histogram of nanosecond durations.
+ *
+ * <p>Values below {@value #LINEAR_LIMIT} ns are counted exactly; above that each power
+ * of two is split into 16 buckets, so every recorded value is reported to within about
+ * 6%. Recording is O(1) and never allocates, which keeps it cheap enough to call for
+ * every trade of a feed.
+ *
+ * <p><b>Thread Safety:</b> Not thread-safe. Keep one histogram per thread and
+ * {@link #add(LatencyHistogram) merge} them afterwards.
+ */
+final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS + SUB_BUCKETS;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+    private long sum;
+
+    /**
+     * Record one duration; negative values count as zero.
+     */
+    void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        total++;
+        sum += value;
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    long count() {
+        return total;
+    }
+
+    long max() {
+        return max;
+    }
+
+    double mean() {
+        return total == 0 ? 0 : (double) sum / total;
+    }
+
+    /**
+     * Smallest bucket bound that at least {@code percentile}% of values fall under.
+     *
+     * @param percentile From 0 to 100
+     */
+    long percentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("Percentile must be in [0, 100], got: " + percentile);
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(max, upperBoundOf(i));
+            }
+        }
+        return max;
+    }
+
+    static int bucketOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        // Keep the top SUB_BUCKET_BITS + 1 bits; the shift selects the power of two
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < LINEAR_LIMIT) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        long subBucket = bucket - shift * SUB_BUCKETS;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,152 @@
+package io.annapurna.feed;
+
+import java.time.Duration;
+
+/**
+ * Target rate of a {@link TradeFeed} over time.
+ *
+ * <p>A shape maps the time since the feed started to a rate in trades per wall-clock
+ * second. The feed samples it once per trade to space out arrivals, so implementations
+ * must be cheap and must not allocate. A rate of zero (or below) pauses the feed until
+ * the shape turns positive again.
+ *
+ * <p>Shapes compose: start from {@link #constant(double)}, {@link #diurnal} or
+ * {@link #piecewise()}, add scripted events with {@link #withBurst} and fit a whole
+ * trading day into a short test with {@link #compressed(Duration, Duration)}.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * // A 9-hour session in 9 minutes: quiet midday, spikes at the London and New York opens
+ * LoadShape session = LoadShape.diurnal(20_000, 80_000, Duration.ofHours(9), Duration.ZERO)
+ *     .withBurst(Duration.ZERO, Duration.ofMinutes(5), 20)
+ *     .withBurst(Duration.ofMinutes(390), Duration.ofMinutes(5), 10)
+ *     .compressed(Duration.ofHours(9), Duration.ofMinutes(9));
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> Implementations must be thread-safe; the built-in shapes are
+ * immutable.
+ */
+@FunctionalInterface
+public interface LoadShape {
+
+    /**
+     * @param nanos Time since the feed started
+     * @return Target rate in trades per second at that time
+     */
+    double rateAt(long nanos);
+
+    /**
+     * The same rate throughout.
+     *
+     * @param tradesPerSecond Rate (must be positive and finite)
+     */
+    static LoadShape constant(double tradesPerSecond) {
+        requireRate(tradesPerSecond);
+        return nanos -> tradesPerSecond;
+    }
+
+    /**
+     * A daily cycle: a cosine between {@code troughRate} and {@code peakRate} that
+     * peaks at {@code peakAt} and repeats every {@code period}.
+     *
+     * @param troughRate Lowest rate (must be non-negative)
+     * @param peakRate Highest rate (must be at least {@code troughRate})
+     * @param period Length of one cycle, typically a day or a trading session
+     * @param peakAt Offset of the peak from the start of the feed
+     */
+    static LoadShape diurnal(double troughRate, double peakRate, Duration period, Duration peakAt) {
+        if (!(troughRate >= 0) || !(peakRate >= troughRate) || Double.isInfinite(peakRate)) {
+            throw new IllegalArgumentException(
+                    "Rates must satisfy 0 <= trough <= peak < infinity, got: " + troughRate + ", " + peakRate);
+        }
+        if (period == null || period.isNegative() || period.isZero()) {
+            throw new IllegalArgumentException("Period must be positive");
+        }
+        if (peakAt == null) {
+            throw new IllegalArgumentException("Peak offset must not be null");
+        }
+        double radiansPerNano = 2 * Math.PI / period.toNanos();
+        long peakNanos = peakAt.toNanos();
+        double mid = (peakRate + troughRate) / 2;
+        double amplitude = (peakRate - troughRate) / 2;
+        return nanos -> mid + amplitude * Math.cos((nanos - peakNanos) * radiansPerNano);
+    }
+
+    /**
+     * Start a curve that interpolates linearly between rates at points in time.
+     */
+    static PiecewiseLoadShape.Builder piecewise() {
+        return new PiecewiseLoadShape.Builder();
+    }
+
+    /**
+     * Multiply the rate by {@code multiplier} for {@code length} starting at {@code at},
+     * for scripted events such as a market open or month-end. Bursts stack, so
+     * overlapping bursts multiply.
+     *
+     * @param at Start of the burst, from the start of the feed (on this shape's clock)
+     * @param length How long the burst lasts
+     * @param multiplier Rate factor during the burst (must be non-negative)
+     */
+    default LoadShape withBurst(Duration at, Duration length, double multiplier) {
+        if (at == null || at.isNegative()) {
+            throw new IllegalArgumentException("Burst start must be non-negative");
+        }
+        if (length == null || length.isNegative() || length.isZero()) {
+            throw new IllegalArgumentException("Burst length must be positive");
+        }
+        if (!(multiplier >= 0) || Double.isInfinite(multiplier)) {
+            throw new IllegalArgumentException("Burst multiplier must be non-negative and finite, got: " + multiplier);
+        }
+        long from = at.toNanos();
+        long until = from + length.toNanos();
+        return nanos -> {
+            double rate = rateAt(nanos);
+            return nanos >= from && nanos < until ? rate * multiplier : rate;
+        };
+    }
+
+    /**
+     * Add another shape's rate to this one, e.g. a constant floor under a curve.
+     */
+    default LoadShape plus(LoadShape other) {
+        if (other == null) {
+            throw new IllegalArgumentException("Shape must not be null");
+        }
+        return nanos -> rateAt(nanos) + other.rateAt(nanos);
+    }
+
+    /**
+     * Multiply every rate by {@code factor}.
+     */
+    default LoadShape scaled(double factor) {
+        if (!(factor >= 0) || Double.isInfinite(factor)) {
+            throw new IllegalArgumentException("Scale must be non-negative and finite, got: " + factor);
+        }
+        return nanos -> rateAt(nanos) * factor;
+    }
+
+    /**
+     * Play {@code span} of this shape in {@code into} of wall-clock time.
+     *
+     * <p>Only the clock is sped up: rates stay in trades per wall-clock second, so a day
+     * compressed into minutes keeps its peak rate and sends proportionally fewer trades.
+     * Combine with {@link #scaled(double)} to keep the day's volume instead.
+     *
+     * @param span Length of the shape to replay, e.g. {@code Duration.ofDays(1)}
+     * @param into Wall-clock time to replay it in
+     */
+    default LoadShape compressed(Duration span, Duration into) {
+        if (span == null || span.isNegative() || span.isZero() || into == null || into.isNegative() || into.isZero()) {
+            throw new IllegalArgumentException("Durations must be positive");
+        }
+        double factor = (double) span.toNanos() / into.toNanos();
+        return nanos -> rateAt((long) (nanos * factor));
+    }
+
+    private static void requireRate(double tradesPerSecond) {
+        if (!(tradesPerSecond > 0) || Double.isInfinite(tradesPerSecond)) {
+            throw new IllegalArgumentException("Rate must be positive and finite, got: " + tradesPerSecond);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package io.annapurna.feed;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * Load shape defined by rates at points in time, interpolated linearly in between.
+ *
+ * <p>The rate before the first point is the first point's rate and after the last point
+ * the last point's rate. Two points at the same time make a step. Lookups are a binary
+ * search over primitive arrays, so sampling the shape never allocates.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * LoadShape ramp = LoadShape.piecewise()
+ *     .point(Duration.ZERO, 1_000)
+ *     .point(Duration.ofMinutes(10), 50_000)   // ramp up
+ *     .point(Duration.ofMinutes(10), 5_000)    // then drop straight down
+ *     .build();
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> Immutable.
+ */
+public final class PiecewiseLoadShape implements LoadShape {
+
+    private final long[] times;
+    private final double[] rates;
+
+    private PiecewiseLoadShape(long[] times, double[] rates) {
+        this.times = times;
+        this.rates = rates;
+    }
+
+    @Override
+    public double rateAt(long nanos) {
+        int last = times.length - 1;
+        if (nanos < times[0]) {
+            return rates[0];
+        }
+        if (nanos >= times[last]) {
+            return rates[last];
+        }
+
+        // Last point at or before nanos; steps resolve to their later rate
+        int low = 0;
+        int high = last;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (times[mid] <= nanos) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        double fraction = (double) (nanos - times[low]) / (times[high] - times[low]);
+        return rates[low] + (rates[high] - rates[low]) * fraction;
+    }
+
+    public static final class Builder {
+        private long[] times = new long[8];
+        private double[] rates = new double[8];
+        private int size;
+
+        Builder() {
+        }
+
+        /**
+         * Add a point. Points must be added in time order.
+         *
+         * @param at Time from the start of the feed
+         * @param tradesPerSecond Rate at that time (must be non-negative)
+         * @return this builder for method chaining
+         */
+        public Builder point(Duration at, double tradesPerSecond) {
+            if (at == null || at.isNegative()) {
+                throw new IllegalArgumentException("Point time must be non-negative");
+            }
+            if (!(tradesPerSecond >= 0) || Double.isInfinite(tradesPerSecond)) {
+                throw new IllegalArgumentException("Rate must be non-negative and finite, got: " + tradesPerSecond);
+            }
+            long nanos = at.toNanos();
+            if (size > 0 && nanos < times[size - 1]) {
+                throw new IllegalArgumentException("Points must be in time order, got " + at + " after "
+                        + Duration.ofNanos(times[size - 1]));
+            }
+            if (size == times.length) {
+                times = Arrays.copyOf(times, size * 2);
+                rates = Arrays.copyOf(rates, size * 2);
+            }
+            times[size] = nanos;
+            rates[size] = tradesPerSecond;
+            size++;
+            return this;
+        }
+
+        public PiecewiseLoadShape build() {
+            if (size == 0) {
+                throw new IllegalArgumentException("A piecewise shape needs at least one point");
+            }
+            return new PiecewiseLoadShape(Arrays.copyOf(times, size), Arrays.copyOf(rates, size));
+        }
+    }
+}
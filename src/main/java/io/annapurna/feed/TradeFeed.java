@@ -0,0 +1,317 @@
+package io.annapurna.feed;
+
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.execution.GenerationExecutor;
+import io.annapurna.model.Trade;
+import io.annapurna.sink.TradeSink;
+import io.annapurna.util.SplitMixRandom;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+
+/**
+ * Emits trades to a sink at a target rate, for driving load into a system.
+ *
+ * <p>The feed follows a fixed schedule, measured with {@link System#nanoTime()} from the
+ * start of the run. At a constant rate trade {@code i} is due at {@code start + i / rate};
+ * with a {@link LoadShape} each trade is due one interval of the shape's current rate
+ * after the previous one, or an exponentially distributed interval with
+ * {@link #poissonArrivals()}. Feed threads claim the next few due times from the shared
+ * schedule, generate each trade, wait until it is due and hand it to the sink. All
+ * threads work through one schedule, so the rate holds in total regardless of the thread
+ * count; more threads only help when a single sink call takes longer than the interval
+ * between trades.
+ *
+ * <p>Threads claim due times in runs of at most {@value #CLAIM_SIZE} trades spanning at
+ * most {@value #CLAIM_WINDOW_NANOS} ns, written into a buffer each thread reuses, so the
+ * schedule neither allocates nor contends per trade even at hundreds of thousands of
+ * trades per second.
+ *
+ * <p>The feed never slows the schedule down to match the sink. If the sink blocks, the
+ * trades behind it are sent late, and the delay is recorded against each of them (see
+ * {@link FeedReport}). Waiting parks until shortly before a trade is due and spins for
+ * the remainder, for sub-microsecond precision without burning a core between trades.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * FeedReport report = Annapurna.builder()
+ *     .unbounded()
+ *     .build()
+ *     .feed(25_000)
+ *     .duration(Duration.ofMinutes(5))
+ *     .run(trade -> client.submit(trade));
+ * }</pre>
+ */
+public final class TradeFeed {
+
+    // Park until this close to a trade's intended start, then spin
+    private static final long SPIN_THRESHOLD_NANOS = 100_000;
+    private static final int CLAIM_SIZE = 64;
+    private static final long CLAIM_WINDOW_NANOS = 1_000_000;
+    // While the shape's rate is zero, look for it to turn positive at this resolution
+    private static final long IDLE_STEP_NANOS = 1_000_000;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private final GeneratorConfig config;
+    private final LongFunction<Trade> trades;
+    private final long count;
+    private final LoadShape shape;
+    private final double targetRate;
+    private int threads;
+    private boolean poisson;
+    private long durationNanos = Long.MAX_VALUE;
+    private LagListener listener;
+
+    /**
+     * @param config Configuration supplying the executor and default thread count
+     * @param trades Produces the trade at an index of the dataset
+     * @param count Number of trades to send
+     * @param tradesPerSecond Target rate (must be positive)
+     */
+    public TradeFeed(GeneratorConfig config, LongFunction<Trade> trades, long count, double tradesPerSecond) {
+        this(config, trades, count, LoadShape.constant(tradesPerSecond), tradesPerSecond);
+    }
+
+    /**
+     * @param config Configuration supplying the executor and default thread count
+     * @param trades Produces the trade at an index of the dataset
+     * @param count Number of trades to send
+     * @param shape Target rate over time
+     */
+    public TradeFeed(GeneratorConfig config, LongFunction<Trade> trades, long count, LoadShape shape) {
+        this(config, trades, count, shape, Double.NaN);
+    }
+
+    private TradeFeed(GeneratorConfig config, LongFunction<Trade> trades, long count, LoadShape shape,
+                      double targetRate) {
+        if (shape == null) {
+            throw new IllegalArgumentException("Load shape must not be null");
+        }
+        this.config = config;
+        this.trades = trades;
+        this.count = count;
+        this.shape = shape;
+        this.targetRate = targetRate;
+        this.threads = config.getParallelism();
+    }
+
+    /**
+     * Set the number of feed threads. Default is {@link GeneratorConfig#getParallelism()}.
+     *
+     * @return this feed for method chaining
+     */
+    public TradeFeed threads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Threads must be positive");
+        }
+        this.threads = threads;
+        return this;
+    }
+
+    /**
+     * Stop after this long, even if trades remain. Only trades due within the duration
+     * are sent.
+     *
+     * @return this feed for method chaining
+     */
+    public TradeFeed duration(Duration duration) {
+        if (duration == null || duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("Duration must be positive");
+        }
+        this.durationNanos = duration.toNanos();
+        return this;
+    }
+
+    /**
+     * Space trades as a Poisson process at the shape's rate instead of evenly, so
+     * arrivals cluster and gap the way independent order flow does. The intervals are
+     * derived from the run seed when there is one, making the schedule reproducible.
+     *
+     * @return this feed for method chaining
+     */
+    public TradeFeed poissonArrivals() {
+        this.poisson = true;
+        return this;
+    }
+
+    /**
+     * Receive each trade's lag and response time as it is sent.
+     *
+     * @return this feed for method chaining
+     */
+    public TradeFeed lagListener(LagListener listener) {
+        this.listener = listener;
+        return this;
+    }
+
+    /**
+     * Run the feed until every trade has been sent, the duration has elapsed or the
+     * sink throws.
+     *
+     * @param sink Thread-safe destination, called from up to {@code threads} threads
+     * @return Rate and lag statistics of the run
+     */
+    public FeedReport run(TradeSink sink) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink must not be null");
+        }
+
+        Queue<LatencyHistogram[]> histograms = new ConcurrentLinkedQueue<>();
+        AtomicLong lastCompletion = new AtomicLong();
+        Run run = new Run(sink, lastCompletion, histograms);
+
+        GenerationExecutor executor = config.getExecutor() != null
+                ? GenerationExecutor.shared(config.getExecutor(), threads)
+                : GenerationExecutor.owned(threads);
+        try (executor) {
+            executor.runChunks(threads, worker -> run.feed());
+        }
+
+        LatencyHistogram lag = new LatencyHistogram();
+        LatencyHistogram response = new LatencyHistogram();
+        for (LatencyHistogram[] pair : histograms) {
+            lag.add(pair[0]);
+            response.add(pair[1]);
+        }
+        long elapsed = lag.count() == 0 ? 0 : lastCompletion.get() - run.start;
+        return new FeedReport(targetRate, elapsed, lag, response);
+    }
+
+    private final class Run {
+        private final TradeSink sink;
+        private final AtomicLong lastCompletion;
+        private final Queue<LatencyHistogram[]> histograms;
+        private final Schedule schedule = new Schedule();
+        private final long start = System.nanoTime();
+        private volatile boolean stopped;
+
+        Run(TradeSink sink, AtomicLong lastCompletion, Queue<LatencyHistogram[]> histograms) {
+            this.sink = sink;
+            this.lastCompletion = lastCompletion;
+            this.histograms = histograms;
+        }
+
+        void feed() {
+            LatencyHistogram lag = new LatencyHistogram();
+            LatencyHistogram response = new LatencyHistogram();
+            histograms.add(new LatencyHistogram[]{lag, response});
+            Claim claim = new Claim();
+
+            try {
+                while (!stopped && schedule.claim(claim)) {
+                    for (int i = 0; i < claim.size && !stopped; i++) {
+                        long index = claim.firstIndex + i;
+                        long intendedStart = start + claim.offsets[i];
+
+                        Trade trade = trades.apply(index);
+                        awaitIntendedStart(intendedStart);
+
+                        long sendStart = System.nanoTime();
+                        sink.accept(trade);
+                        long sendEnd = System.nanoTime();
+
+                        lag.record(sendStart - intendedStart);
+                        response.record(sendEnd - intendedStart);
+                        lastCompletion.accumulateAndGet(sendEnd, Math::max);
+                        if (listener != null) {
+                            listener.onTrade(index, sendStart - intendedStart, sendEnd - intendedStart);
+                        }
+                    }
+                    if (claim.size == 0) {
+                        // The shape is idle; check again once the schedule has caught up
+                        awaitIntendedStart(start + claim.resumeOffset);
+                    }
+                }
+            } catch (Throwable t) {
+                stopped = true;
+                throw t;
+            }
+        }
+
+        private void awaitIntendedStart(long intendedStart) {
+            long remaining;
+            while ((remaining = intendedStart - System.nanoTime()) > 0) {
+                if (remaining > SPIN_THRESHOLD_NANOS) {
+                    LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+                } else {
+                    Thread.onSpinWait();
+                }
+            }
+        }
+    }
+
+    /**
+     * A run of consecutive trades claimed by one feed thread, reused for every claim.
+     */
+    private static final class Claim {
+        final long[] offsets = new long[CLAIM_SIZE];
+        long firstIndex;
+        int size;
+        long resumeOffset;
+    }
+
+    /**
+     * The arrival schedule shared by all feed threads. Offsets are nanoseconds from the
+     * start of the run, kept as a double so that sub-nanosecond intervals at high rates
+     * do not round away.
+     */
+    private final class Schedule {
+        private final long poissonSeed = config.hasSeed()
+                ? SplitMixRandom.seedFor(config.getSeed(), -4)
+                : ThreadLocalRandom.current().nextLong();
+        private long nextIndex;
+        private double nextOffset;
+        // While the rate holds, offsets are computed from the point it last changed
+        // rather than accumulated, so a constant rate has no rounding drift
+        private double anchorRate = Double.NaN;
+        private long anchorIndex;
+        private double anchorOffset;
+
+        /**
+         * Claim the next run of trades that fall within the count and duration.
+         *
+         * @return false once the schedule is exhausted; true with {@code claim.size}
+         *         trades, or with none when the shape is idle until {@code claim.resumeOffset}
+         */
+        synchronized boolean claim(Claim claim) {
+            claim.firstIndex = nextIndex;
+            claim.size = 0;
+            double windowEnd = nextOffset + CLAIM_WINDOW_NANOS;
+
+            while (claim.size < CLAIM_SIZE && nextIndex < count && nextOffset < durationNanos
+                    && nextOffset < windowEnd) {
+                double rate = shape.rateAt((long) nextOffset);
+                if (!(rate > 0)) {
+                    nextOffset += IDLE_STEP_NANOS;
+                    anchorRate = Double.NaN;
+                    continue;
+                }
+
+                double offset = nextOffset;
+                claim.offsets[claim.size++] = (long) offset;
+                nextIndex++;
+
+                if (poisson) {
+                    // Exponential interval; 1 - u lies in (0, 1] so the log is finite
+                    double u = (SplitMixRandom.seedFor(poissonSeed, nextIndex) >>> 11) * DOUBLE_UNIT;
+                    nextOffset = offset - Math.log(1 - u) * 1e9 / rate;
+                } else {
+                    if (rate != anchorRate) {
+                        anchorRate = rate;
+                        anchorIndex = nextIndex - 1;
+                        anchorOffset = offset;
+                    }
+                    nextOffset = anchorOffset + (nextIndex - anchorIndex) * (1e9 / rate);
+                }
+            }
+
+            claim.resumeOffset = (long) nextOffset;
+            return claim.size > 0 || (nextIndex < count && nextOffset < durationNanos);
+        }
+    }
+}
@@ -1,22 +1,35 @@
 package io.annapurna.generator;
 
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.config.SkewedField;
 import net.datafaker.Faker;
 import io.annapurna.model.CreditDefaultSwap;
 import io.annapurna.model.Currency;
 import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
+import io.annapurna.util.BusinessDayCalculator;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.WeightedRandom;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class CDSGenerator implements TradeGenerator {
 
-    private final Random random;
-    private final boolean useThreadLocal;
+    private final RandomSource random;
     private final Faker faker;
+    private final TradeIdGenerator ids;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final TradeDatePin tradeDatePin;
+
+    // Samplers for skewed keys; null where the config leaves the usual selection
+    private final WeightedRandom<String> counterparties;
+    private final WeightedRandom<String> books;
+    private final WeightedRandom<String> traders;
+    private final WeightedRandom<ReferenceEntityConfig> underlyings;
 
     private static final String[] TIER1_BANKS = {
             "JP Morgan", "Goldman Sachs", "Morgan Stanley", "Bank of America",
@@ -46,47 +59,98 @@ public class CDSGenerator implements TradeGenerator {
             new ReferenceEntityConfig("Republic of Argentina", "ARG", "SOVEREIGN", "CC", 1500, 3000, 5)
     };
 
+    // O(1) weighted pick, so the entity universe can grow without slowing generation
+    private static final WeightedRandom<ReferenceEntityConfig> ENTITY_SELECTOR = buildSelector();
+
     // Standard CDS Tenors
     private static final int[] TENORS_YEARS = { 1, 3, 5, 5, 5, 5, 10 }; // Heavily weighted to 5Y
 
     // Restructuring Clauses
     private static final String[] RESTRUCTURING_CLAUSES = { "CR", "MM", "XR" };
 
+    // Every book of the desk, busiest first; the ranking a book skew applies to
+    private static final String[] BOOKS = { "CREDIT_IG_NY", "CREDIT_HY_NY", "CREDIT_EM" };
+
     // Default constructor: Production mode (ThreadLocalRandom)
     public CDSGenerator() {
-        this.random = null;
-        this.useThreadLocal = true;
+        this.random = RandomSource.threadLocal();
         this.faker = new Faker();
+        this.ids = TradeIdGenerator.shared();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
     }
 
-    // Seeded constructor: Test mode (deterministic)
+    // Seeded constructor: Test mode (deterministic), on the java.util.Random streams seeds have always selected
     public CDSGenerator(long seed) {
-        this.random = new Random(seed);
-        this.useThreadLocal = false;
+        this.random = RandomSource.of(RandomSource.JAVA_UTIL_RANDOM, seed);
         this.faker = new Faker(new Random(seed));
+        this.ids = new TradeIdGenerator();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
+    }
+
+    // Shared-stream constructor: draws (including Faker's) come from the caller's RandomSource,
+    // trade dates fall within the configured date range
+    public CDSGenerator(RandomSource random, GeneratorConfig config) {
+        this(random, config, TradeIdGenerator.shared());
+    }
+
+    // As above, with trade IDs taken from the caller's ID generator
+    public CDSGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids) {
+        this(random, config, ids, new TradeDatePin());
+    }
+
+    // As above, with trade dates pinned by the caller's worker
+    CDSGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids, TradeDatePin tradeDatePin) {
+        this.random = random;
+        this.faker = new Faker(random);
+        this.ids = ids;
+        this.startDate = config.getStartDate();
+        this.endDate = config.getEndDate();
+        this.tradeDatePin = tradeDatePin;
+        this.counterparties = SkewedKeys.counterparties(config, TIER1_BANKS, TIER2_BANKS);
+        this.books = SkewedKeys.sampler(config, SkewedField.BOOK, BOOKS);
+        this.traders = SkewedKeys.traders(config);
+        this.underlyings = SkewedKeys.sampler(config, SkewedField.UNDERLYING, REFERENCE_ENTITIES);
     }
 
     // Helper methods for random generation
     private int nextInt(int bound) {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextInt(bound) :
-                random.nextInt(bound);
+        return random.nextInt(bound);
     }
 
     private double nextDouble() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextDouble() :
-                random.nextDouble();
+        return random.nextDouble();
     }
 
     private boolean nextBoolean() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextBoolean() :
-                random.nextBoolean();
+        return random.nextBoolean();
+    }
+
+    @Override
+    public CreditDefaultSwap generate() {
+        return populate(newTrade());
+    }
+
+    @Override
+    public CreditDefaultSwap newTrade() {
+        return new CreditDefaultSwap();
     }
 
     @Override
-    public Trade generate() {
+    public CreditDefaultSwap populate(Trade target) {
+        CreditDefaultSwap cds = (CreditDefaultSwap) target;
+
         LocalDate tradeDate = generateTradeDate();
         int tenorYears = TENORS_YEARS[nextInt(TENORS_YEARS.length)];
 
@@ -105,28 +169,27 @@ public class CDSGenerator implements TradeGenerator {
         // 4. Calculate Upfront (For distressed names)
         BigDecimal upfrontPayment = generateUpfrontPayment(entity.creditRating, notional);
 
-        return CreditDefaultSwap.builder()
-                .tradeId(generateTradeId(tradeDate))
-                .tradeDate(tradeDate)
-                .settlementDate(tradeDate.plusDays(1)) // T+1 is standard for CDS today
-                .maturityDate(tradeDate.plusYears(tenorYears))
-                .notional(notional)
-                .currency(Currency.USD)
-                .counterparty(counterparty)
-                .book(generateBook(entity)) // Book depends on Rating/Sector
-                .trader(generateTrader())
-                .referenceEntity(entity.name)
-                .referenceTicker(entity.ticker)
-                .sector(entity.sector)
-                .creditRating(entity.creditRating)
-                .spreadBps(spreadBps)
-                .upfrontPayment(upfrontPayment)
-                .recoveryRate(recoveryRate)
-                .paymentFrequency("QUARTERLY")
-                .position(nextBoolean() ? "PROTECTION_BUYER" : "PROTECTION_SELLER")
-                .restructuringClause(RESTRUCTURING_CLAUSES[nextInt(RESTRUCTURING_CLAUSES.length)])
-                .seniority(seniority)
-                .build();
+        cds.setTradeId(generateTradeId(tradeDate));
+        cds.setTradeDate(tradeDate);
+        cds.setSettlementDate(tradeDate.plusDays(1)); // T+1 is standard for CDS today
+        cds.setMaturityDate(tradeDate.plusYears(tenorYears));
+        cds.setNotional(notional);
+        cds.setCurrency(Currency.USD);
+        cds.setCounterparty(counterparty);
+        cds.setBook(generateBook(entity)); // Book depends on Rating/Sector
+        cds.setTrader(generateTrader());
+        cds.setReferenceEntity(entity.name);
+        cds.setReferenceTicker(entity.ticker);
+        cds.setSector(entity.sector);
+        cds.setCreditRating(entity.creditRating);
+        cds.setSpreadBps(spreadBps);
+        cds.setUpfrontPayment(upfrontPayment);
+        cds.setRecoveryRate(recoveryRate);
+        cds.setPaymentFrequency("QUARTERLY");
+        cds.setPosition(nextBoolean() ? "PROTECTION_BUYER" : "PROTECTION_SELLER");
+        cds.setRestructuringClause(RESTRUCTURING_CLAUSES[nextInt(RESTRUCTURING_CLAUSES.length)]);
+        cds.setSeniority(seniority);
+        return cds;
     }
 
     @Override
@@ -135,17 +198,12 @@ public class CDSGenerator implements TradeGenerator {
     }
 
     private String generateTradeId(LocalDate tradeDate) {
-        String date = tradeDate.toString().replace("-", "");
-        int sequence = nextInt(100000);
-        return String.format("ANNAPURNA-CDS-%s-%05d", date, sequence);
+        return ids.next(TradeType.CREDIT_DEFAULT_SWAP, tradeDate);
     }
 
     private LocalDate generateTradeDate() {
-        LocalDate date = LocalDate.now().minusDays(nextInt(365));
-        while (date.getDayOfWeek().getValue() >= 6) {
-            date = date.minusDays(1);
-        }
-        return date;
+        LocalDate date = endDate.minusDays(nextInt(BusinessDayCalculator.daysInclusive(startDate, endDate)));
+        return tradeDatePin.apply(BusinessDayCalculator.rollToBusinessDay(date, startDate));
     }
 
     private BigDecimal generateNotional() {
@@ -157,6 +215,9 @@ public class CDSGenerator implements TradeGenerator {
     }
 
     private String selectCounterparty(BigDecimal notional) {
+        if (counterparties != null) {
+            return counterparties.next(random);
+        }
         if (notional.compareTo(BigDecimal.valueOf(50_000_000)) > 0) {
             return TIER1_BANKS[nextInt(TIER1_BANKS.length)];
         } else {
@@ -167,16 +228,18 @@ public class CDSGenerator implements TradeGenerator {
     }
 
     private ReferenceEntityConfig selectReferenceEntity() {
-        int totalWeight = 0;
-        for (ReferenceEntityConfig e : REFERENCE_ENTITIES) totalWeight += e.weight;
+        if (underlyings != null) {
+            return underlyings.next(random);
+        }
+        return ENTITY_SELECTOR.next(random);
+    }
 
-        int r = nextInt(totalWeight);
-        int current = 0;
+    private static WeightedRandom<ReferenceEntityConfig> buildSelector() {
+        WeightedRandom.Builder<ReferenceEntityConfig> builder = WeightedRandom.builder();
         for (ReferenceEntityConfig e : REFERENCE_ENTITIES) {
-            current += e.weight;
-            if (r < current) return e;
+            builder.add(e, e.weight);
         }
-        return REFERENCE_ENTITIES[0];
+        return builder.build();
     }
 
     private Integer generateSpread(ReferenceEntityConfig entity) {
@@ -219,6 +282,9 @@ public class CDSGenerator implements TradeGenerator {
     }
 
     private String generateBook(ReferenceEntityConfig entity) {
+        if (books != null) {
+            return books.next(random);
+        }
         if ("SOVEREIGN".equals(entity.sector)) return "CREDIT_EM"; // Emerging Markets
 
         String r = entity.creditRating;
@@ -230,6 +296,9 @@ public class CDSGenerator implements TradeGenerator {
     }
 
     private String generateTrader() {
+        if (traders != null) {
+            return traders.next(random);
+        }
         return faker.name().firstName() + " " + faker.name().lastName();
     }
 
@@ -1,22 +1,35 @@
 package io.annapurna.generator;
 
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.config.SkewedField;
 import net.datafaker.Faker;
 import io.annapurna.model.Currency;
 import io.annapurna.model.EquityOption;
 import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
+import io.annapurna.util.BusinessDayCalculator;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.WeightedRandom;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class EquityOptionGenerator implements TradeGenerator {
 
-    private final Random random;
-    private final boolean useThreadLocal;
+    private final RandomSource random;
     private final Faker faker;
+    private final TradeIdGenerator ids;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final TradeDatePin tradeDatePin;
+
+    // Samplers for skewed keys; null where the config leaves the usual selection
+    private final WeightedRandom<String> counterparties;
+    private final WeightedRandom<String> books;
+    private final WeightedRandom<String> traders;
+    private final WeightedRandom<String> underlyings;
 
     private static final String[] TIER1_BANKS = {
             "JP Morgan", "Goldman Sachs", "Morgan Stanley", "Bank of America",
@@ -49,41 +62,92 @@ public class EquityOptionGenerator implements TradeGenerator {
             new ExpiryConfig("LEAPS", 365, 10)
     };
 
+    // Expiry bucket sampler
+    private static final WeightedRandom<ExpiryConfig> EXPIRY_SELECTOR = buildSelector();
+
+    // Every book of the desk, busiest first; the ranking a book skew applies to
+    private static final String[] BOOKS = { "EQ_OPTIONS_NY", "EQ_OPTIONS_US", "EQ_OPTIONS_LON" };
+
     // Default constructor: Production mode (ThreadLocalRandom)
     public EquityOptionGenerator() {
-        this.random = null;
-        this.useThreadLocal = true;
+        this.random = RandomSource.threadLocal();
         this.faker = new Faker();
+        this.ids = TradeIdGenerator.shared();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
     }
 
-    // Seeded constructor: Test mode (deterministic)
+    // Seeded constructor: Test mode (deterministic), on the java.util.Random streams seeds have always selected
     public EquityOptionGenerator(long seed) {
-        this.random = new Random(seed);
-        this.useThreadLocal = false;
+        this.random = RandomSource.of(RandomSource.JAVA_UTIL_RANDOM, seed);
         this.faker = new Faker(new Random(seed));
+        this.ids = new TradeIdGenerator();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
+    }
+
+    // Shared-stream constructor: draws (including Faker's) come from the caller's RandomSource,
+    // trade dates fall within the configured date range
+    public EquityOptionGenerator(RandomSource random, GeneratorConfig config) {
+        this(random, config, TradeIdGenerator.shared());
+    }
+
+    // As above, with trade IDs taken from the caller's ID generator
+    public EquityOptionGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids) {
+        this(random, config, ids, new TradeDatePin());
+    }
+
+    // As above, with trade dates pinned by the caller's worker
+    EquityOptionGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids, TradeDatePin tradeDatePin) {
+        this.random = random;
+        this.faker = new Faker(random);
+        this.ids = ids;
+        this.startDate = config.getStartDate();
+        this.endDate = config.getEndDate();
+        this.tradeDatePin = tradeDatePin;
+        this.counterparties = SkewedKeys.counterparties(config, TIER1_BANKS, TIER2_BANKS);
+        this.books = SkewedKeys.sampler(config, SkewedField.BOOK, BOOKS);
+        this.traders = SkewedKeys.traders(config);
+        this.underlyings = SkewedKeys.sampler(config, SkewedField.UNDERLYING, SkewedKeys.distinct(UNDERLYING_ASSETS));
     }
 
     // Helper methods for random generation
     private int nextInt(int bound) {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextInt(bound) :
-                random.nextInt(bound);
+        return random.nextInt(bound);
     }
 
     private double nextDouble() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextDouble() :
-                random.nextDouble();
+        return random.nextDouble();
     }
 
     private boolean nextBoolean() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextBoolean() :
-                random.nextBoolean();
+        return random.nextBoolean();
+    }
+
+    @Override
+    public EquityOption generate() {
+        return populate(newTrade());
     }
 
     @Override
-    public Trade generate() {
+    public EquityOption newTrade() {
+        return new EquityOption();
+    }
+
+    @Override
+    public EquityOption populate(Trade target) {
+        EquityOption option = (EquityOption) target;
+
         LocalDate tradeDate = generateTradeDate();
         String underlying = selectUnderlying();
 
@@ -112,29 +176,28 @@ public class EquityOptionGenerator implements TradeGenerator {
 
         String counterparty = selectCounterparty(notional);
 
-        return EquityOption.builder()
-                .tradeId(generateTradeId(tradeDate))
-                .tradeDate(tradeDate)
-                .settlementDate(tradeDate.plusDays(1)) // Options settle T+1
-                .maturityDate(expiryDate)
-                .notional(notional)
-                .currency(Currency.USD)
-                .counterparty(counterparty)
-                .book(generateBook(underlying)) // Book matches Asset Region
-                .trader(generateTrader())
-                .underlyingAsset(underlying)
-                .optionType(optionType)
-                .strikePrice(strikePrice)
-                .spotPrice(spotPrice)
-                .premium(premium)
-                .contracts(contracts)
-                .quantity(quantity)
-                .expiryDate(expiryDate)
-                .exerciseStyle(selectExerciseStyle(underlying))
-                .moneyness(moneyness)
-                .position(nextBoolean() ? "LONG" : "SHORT")
-                .impliedVolatility(impliedVol)
-                .build();
+        option.setTradeId(generateTradeId(tradeDate));
+        option.setTradeDate(tradeDate);
+        option.setSettlementDate(tradeDate.plusDays(1)); // Options settle T+1
+        option.setMaturityDate(expiryDate);
+        option.setNotional(notional);
+        option.setCurrency(Currency.USD);
+        option.setCounterparty(counterparty);
+        option.setBook(generateBook(underlying)); // Book matches Asset Region
+        option.setTrader(generateTrader());
+        option.setUnderlyingAsset(underlying);
+        option.setOptionType(optionType);
+        option.setStrikePrice(strikePrice);
+        option.setSpotPrice(spotPrice);
+        option.setPremium(premium);
+        option.setContracts(contracts);
+        option.setQuantity(quantity);
+        option.setExpiryDate(expiryDate);
+        option.setExerciseStyle(selectExerciseStyle(underlying));
+        option.setMoneyness(moneyness);
+        option.setPosition(nextBoolean() ? "LONG" : "SHORT");
+        option.setImpliedVolatility(impliedVol);
+        return option;
     }
 
     @Override
@@ -143,20 +206,18 @@ public class EquityOptionGenerator implements TradeGenerator {
     }
 
     private String generateTradeId(LocalDate tradeDate) {
-        String date = tradeDate.toString().replace("-", "");
-        int sequence = nextInt(100000);
-        return String.format("ANNAPURNA-OPT-%s-%05d", date, sequence);
+        return ids.next(TradeType.EQUITY_OPTION, tradeDate);
     }
 
     private LocalDate generateTradeDate() {
-        LocalDate date = LocalDate.now().minusDays(nextInt(365));
-        while (date.getDayOfWeek().getValue() >= 6) {
-            date = date.minusDays(1);
-        }
-        return date;
+        LocalDate date = endDate.minusDays(nextInt(BusinessDayCalculator.daysInclusive(startDate, endDate)));
+        return tradeDatePin.apply(BusinessDayCalculator.rollToBusinessDay(date, startDate));
     }
 
     private String selectUnderlying() {
+        if (underlyings != null) {
+            return underlyings.next(random);
+        }
         return UNDERLYING_ASSETS[nextInt(UNDERLYING_ASSETS.length)];
     }
 
@@ -169,15 +230,15 @@ public class EquityOptionGenerator implements TradeGenerator {
     }
 
     private ExpiryConfig selectExpiry() {
-        int totalWeight = 0;
-        for (ExpiryConfig c : EXPIRY_CONFIGS) totalWeight += c.weight;
-        int r = nextInt(totalWeight);
-        int current = 0;
+        return EXPIRY_SELECTOR.next(random);
+    }
+
+    private static WeightedRandom<ExpiryConfig> buildSelector() {
+        WeightedRandom.Builder<ExpiryConfig> builder = WeightedRandom.builder();
         for (ExpiryConfig c : EXPIRY_CONFIGS) {
-            current += c.weight;
-            if (r < current) return c;
+            builder.add(c, c.weight);
         }
-        return EXPIRY_CONFIGS[1];
+        return builder.build();
     }
 
     private LocalDate calculateExpiryDate(LocalDate tradeDate, ExpiryConfig config) {
@@ -260,6 +321,9 @@ public class EquityOptionGenerator implements TradeGenerator {
     }
 
     private String selectCounterparty(BigDecimal notional) {
+        if (counterparties != null) {
+            return counterparties.next(random);
+        }
         if (notional.compareTo(BigDecimal.valueOf(10_000_000)) > 0) {
             return TIER1_BANKS[nextInt(TIER1_BANKS.length)];
         } else {
@@ -270,6 +334,9 @@ public class EquityOptionGenerator implements TradeGenerator {
     }
 
     private String generateBook(String underlying) {
+        if (books != null) {
+            return books.next(random);
+        }
         String[] usBooks = { "EQ_OPTIONS_NY", "EQ_OPTIONS_NY", "EQ_OPTIONS_US" };
 
         if ("SPX".equals(underlying) || "NDX".equals(underlying)) {
@@ -281,6 +348,9 @@ public class EquityOptionGenerator implements TradeGenerator {
     }
 
     private String generateTrader() {
+        if (traders != null) {
+            return traders.next(random);
+        }
         return faker.name().firstName() + " " + faker.name().lastName();
     }
 
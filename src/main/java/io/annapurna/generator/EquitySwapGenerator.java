@@ -1,22 +1,35 @@
 package io.annapurna.generator;
 
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.config.SkewedField;
 import net.datafaker.Faker;
 import io.annapurna.model.Currency;
 import io.annapurna.model.EquitySwap;
 import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
+import io.annapurna.util.BusinessDayCalculator;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.WeightedRandom;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class EquitySwapGenerator implements TradeGenerator {
 
-    private final Random random;
-    private final boolean useThreadLocal;
+    private final RandomSource random;
     private final Faker faker;
+    private final TradeIdGenerator ids;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final TradeDatePin tradeDatePin;
+
+    // Samplers for skewed keys; null where the config leaves the usual selection
+    private final WeightedRandom<String> counterparties;
+    private final WeightedRandom<String> books;
+    private final WeightedRandom<String> traders;
+    private final WeightedRandom<String> underlyings;
 
     private static final String[] REFERENCE_ASSETS = {
             "AAPL", "AAPL", "AAPL",
@@ -43,41 +56,89 @@ public class EquitySwapGenerator implements TradeGenerator {
     private static final String[] RETURN_TYPES = { "TOTAL_RETURN", "PRICE_RETURN" };
     private static final int[] TENORS = { 3, 6, 12, 24 };
 
+    // Every book of the desk, busiest first; the ranking a book skew applies to
+    private static final String[] BOOKS = { "EQ_DERIV_NY", "EQUITY_SWAPS_US", "EQ_DERIV_LON", "EQ_DERIV_HK" };
+
     // Default constructor: Production mode (ThreadLocalRandom)
     public EquitySwapGenerator() {
-        this.random = null;
-        this.useThreadLocal = true;
+        this.random = RandomSource.threadLocal();
         this.faker = new Faker();
+        this.ids = TradeIdGenerator.shared();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
     }
 
-    // Seeded constructor: Test mode (deterministic)
+    // Seeded constructor: Test mode (deterministic), on the java.util.Random streams seeds have always selected
     public EquitySwapGenerator(long seed) {
-        this.random = new Random(seed);
-        this.useThreadLocal = false;
+        this.random = RandomSource.of(RandomSource.JAVA_UTIL_RANDOM, seed);
         this.faker = new Faker(new Random(seed));
+        this.ids = new TradeIdGenerator();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
+    }
+
+    // Shared-stream constructor: draws (including Faker's) come from the caller's RandomSource,
+    // trade dates fall within the configured date range
+    public EquitySwapGenerator(RandomSource random, GeneratorConfig config) {
+        this(random, config, TradeIdGenerator.shared());
+    }
+
+    // As above, with trade IDs taken from the caller's ID generator
+    public EquitySwapGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids) {
+        this(random, config, ids, new TradeDatePin());
+    }
+
+    // As above, with trade dates pinned by the caller's worker
+    EquitySwapGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids, TradeDatePin tradeDatePin) {
+        this.random = random;
+        this.faker = new Faker(random);
+        this.ids = ids;
+        this.startDate = config.getStartDate();
+        this.endDate = config.getEndDate();
+        this.tradeDatePin = tradeDatePin;
+        this.counterparties = SkewedKeys.counterparties(config, TIER1_BANKS, TIER2_BANKS);
+        this.books = SkewedKeys.sampler(config, SkewedField.BOOK, BOOKS);
+        this.traders = SkewedKeys.traders(config);
+        this.underlyings = SkewedKeys.sampler(config, SkewedField.UNDERLYING, SkewedKeys.distinct(REFERENCE_ASSETS));
     }
 
     // Helper methods for random generation
     private int nextInt(int bound) {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextInt(bound) :
-                random.nextInt(bound);
+        return random.nextInt(bound);
     }
 
     private double nextDouble() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextDouble() :
-                random.nextDouble();
+        return random.nextDouble();
     }
 
     private boolean nextBoolean() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextBoolean() :
-                random.nextBoolean();
+        return random.nextBoolean();
+    }
+
+    @Override
+    public EquitySwap generate() {
+        return populate(newTrade());
     }
 
     @Override
-    public Trade generate() {
+    public EquitySwap newTrade() {
+        return new EquitySwap();
+    }
+
+    @Override
+    public EquitySwap populate(Trade target) {
+        EquitySwap swap = (EquitySwap) target;
+
         LocalDate tradeDate = generateTradeDate();
 
         BigDecimal targetNotional = generateNotional();
@@ -90,25 +151,24 @@ public class EquitySwapGenerator implements TradeGenerator {
         int tenorMonths = TENORS[nextInt(TENORS.length)];
         Integer fundingSpreadBps = generateFundingSpread(finalNotional);
 
-        return EquitySwap.builder()
-                .tradeId(generateTradeId(tradeDate))
-                .tradeDate(tradeDate)
-                .settlementDate(tradeDate.plusDays(2))
-                .maturityDate(tradeDate.plusMonths(tenorMonths))
-                .notional(finalNotional)
-                .currency(Currency.USD)
-                .counterparty(counterparty)
-                .book(generateBook(referenceAsset))
-                .trader(generateTrader())
-                .referenceAsset(referenceAsset)
-                .returnType(RETURN_TYPES[nextInt(RETURN_TYPES.length)])
-                .fundingLeg(generateFundingLeg(fundingSpreadBps))
-                .fundingSpreadBps(fundingSpreadBps)
-                .settlementFrequency(SETTLEMENT_FREQUENCIES[nextInt(SETTLEMENT_FREQUENCIES.length)])
-                .initialPrice(initialPrice)
-                .quantity(quantity)
-                .direction(nextBoolean() ? "LONG" : "SHORT")
-                .build();
+        swap.setTradeId(generateTradeId(tradeDate));
+        swap.setTradeDate(tradeDate);
+        swap.setSettlementDate(tradeDate.plusDays(2));
+        swap.setMaturityDate(tradeDate.plusMonths(tenorMonths));
+        swap.setNotional(finalNotional);
+        swap.setCurrency(Currency.USD);
+        swap.setCounterparty(counterparty);
+        swap.setBook(generateBook(referenceAsset));
+        swap.setTrader(generateTrader());
+        swap.setReferenceAsset(referenceAsset);
+        swap.setReturnType(RETURN_TYPES[nextInt(RETURN_TYPES.length)]);
+        swap.setFundingLeg(generateFundingLeg(fundingSpreadBps));
+        swap.setFundingSpreadBps(fundingSpreadBps);
+        swap.setSettlementFrequency(SETTLEMENT_FREQUENCIES[nextInt(SETTLEMENT_FREQUENCIES.length)]);
+        swap.setInitialPrice(initialPrice);
+        swap.setQuantity(quantity);
+        swap.setDirection(nextBoolean() ? "LONG" : "SHORT");
+        return swap;
     }
 
     @Override
@@ -117,17 +177,12 @@ public class EquitySwapGenerator implements TradeGenerator {
     }
 
     private String generateTradeId(LocalDate tradeDate) {
-        String date = tradeDate.toString().replace("-", "");
-        int sequence = nextInt(100000);
-        return String.format("ANNAPURNA-EQS-%s-%05d", date, sequence);
+        return ids.next(TradeType.EQUITY_SWAP, tradeDate);
     }
 
     private LocalDate generateTradeDate() {
-        LocalDate date = LocalDate.now().minusDays(nextInt(365));
-        while (date.getDayOfWeek().getValue() >= 6) {
-            date = date.minusDays(1);
-        }
-        return date;
+        LocalDate date = endDate.minusDays(nextInt(BusinessDayCalculator.daysInclusive(startDate, endDate)));
+        return tradeDatePin.apply(BusinessDayCalculator.rollToBusinessDay(date, startDate));
     }
 
     private BigDecimal generateNotional() {
@@ -140,6 +195,9 @@ public class EquitySwapGenerator implements TradeGenerator {
     }
 
     private String selectCounterparty(BigDecimal notional) {
+        if (counterparties != null) {
+            return counterparties.next(random);
+        }
         if (notional.compareTo(BigDecimal.valueOf(50_000_000)) > 0) {
             return TIER1_BANKS[nextInt(TIER1_BANKS.length)];
         } else {
@@ -150,6 +208,9 @@ public class EquitySwapGenerator implements TradeGenerator {
     }
 
     private String selectReferenceAsset() {
+        if (underlyings != null) {
+            return underlyings.next(random);
+        }
         return REFERENCE_ASSETS[nextInt(REFERENCE_ASSETS.length)];
     }
 
@@ -181,6 +242,9 @@ public class EquitySwapGenerator implements TradeGenerator {
     }
 
     private String generateBook(String referenceAsset) {
+        if (books != null) {
+            return books.next(random);
+        }
         if (isUSStock(referenceAsset)) {
             String[] usBooks = { "EQ_DERIV_NY", "EQUITY_SWAPS_US" };
             return usBooks[nextInt(usBooks.length)];
@@ -197,6 +261,9 @@ public class EquitySwapGenerator implements TradeGenerator {
     }
 
     private String generateTrader() {
+        if (traders != null) {
+            return traders.next(random);
+        }
         return faker.name().firstName() + " " + faker.name().lastName();
     }
 }
\ No newline at end of file
@@ -0,0 +1,137 @@
+package io.annapurna.generator;
+
+import io.annapurna.model.Trade;
+import io.annapurna.model.TradingVenue;
+import io.annapurna.util.DayBuckets;
+import io.annapurna.util.SplitMixRandom;
+
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * Assigns intraday execution timestamps to trades.
+ *
+ * <p>A trade executes on its trade date, during the session of the venue its book is
+ * run from (see {@link TradingVenue#forBook(String)}). Where in the session is drawn
+ * from an intraday intensity curve: relative trading activity over equal slices of the
+ * session, by default the U shape of a typical equity day, busiest at the open and
+ * into the close. The curve is sampled by inverting its precomputed cumulative table,
+ * in O(log slices) without allocating.
+ *
+ * <p>The draw for each trade comes from {@code (seed, position)} alone, so timestamps
+ * are reproducible, independent of threads and do not disturb the trade's other
+ * fields. Given the {@link DayBuckets} of a time-ordered run, the clock is monotonic:
+ * a trade's quantile is its rank within its trade date,
+ * {@code (position - start(day) + u) / count(day)}, so each day's trades spread over
+ * the whole session in index order and timestamps never decrease within a book and
+ * date, while the curve still shapes how they are distributed. Without day buckets
+ * each trade's quantile is drawn on its own.
+ *
+ * <p><b>Thread Safety:</b> Immutable.
+ */
+public final class ExecutionClock {
+
+    // Half-hour slices of a 6.5 hour session: heavy open, quiet lunch, rising into the close
+    private static final double[] DEFAULT_INTENSITY = {
+            2.4, 1.6, 1.25, 1.05, 0.9, 0.8, 0.75, 0.75, 0.8, 0.9, 1.05, 1.4, 2.2
+    };
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    // cumulative[i] is the share of activity before slice i; cumulative[slices] == 1
+    private final double[] cumulative;
+    private final long seed;
+    private final DayBuckets days;
+
+    /**
+     * @param intensity Relative activity per equal slice of the session, or null for
+     *                  the default curve
+     * @param seed Seed of the timestamp stream
+     * @param days Trade dates of the dataset's positions, to spread each day's trades
+     *             over the session in index order; null to draw every trade's time on
+     *             its own
+     */
+    public ExecutionClock(double[] intensity, long seed, DayBuckets days) {
+        double[] weights = intensity != null ? intensity : DEFAULT_INTENSITY;
+        validate(weights);
+
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        this.cumulative = new double[weights.length + 1];
+        double sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i + 1] = sum / total;
+        }
+        cumulative[weights.length] = 1.0;
+
+        this.seed = seed;
+        this.days = days;
+    }
+
+    /**
+     * Check an intensity curve: at least one slice, no negative or non-finite weights
+     * and some activity overall.
+     *
+     * @throws IllegalArgumentException if the curve is unusable
+     */
+    public static void validate(double[] intensity) {
+        if (intensity == null || intensity.length == 0) {
+            throw new IllegalArgumentException("Intraday intensity needs at least one slice");
+        }
+        double total = 0;
+        for (double weight : intensity) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Intensity weights must be non-negative and finite, got: " + weight);
+            }
+            total += weight;
+        }
+        if (!(total > 0)) {
+            throw new IllegalArgumentException("Intraday intensity must have some positive weight");
+        }
+    }
+
+    /**
+     * Execution timestamp of the trade at a dataset position, on its trade date.
+     *
+     * @param trade Generated trade; its book picks the venue
+     * @param position Position of the trade in the dataset
+     * @return Timestamp with nanosecond precision
+     */
+    public Instant executionTime(Trade trade, long position) {
+        TradingVenue venue = TradingVenue.forBook(trade.getBook());
+        double u = (SplitMixRandom.seedFor(seed, position) >>> 11) * DOUBLE_UNIT;
+        double quantile = u;
+        if (days != null) {
+            int day = days.bucketOf(position);
+            quantile = (position - days.start(day) + u) / days.count(day);
+        }
+
+        LocalDate date = trade.getTradeDate();
+        Instant open = date.atTime(venue.getOpen()).atZone(venue.getZone()).toInstant();
+        return open.plusNanos((long) (sessionFraction(quantile) * venue.getSessionNanos()));
+    }
+
+    /**
+     * Inverse of the curve's cumulative distribution: the fraction of the session
+     * by which {@code quantile} of the day's activity has happened.
+     */
+    double sessionFraction(double quantile) {
+        int slices = cumulative.length - 1;
+        int low = 0;
+        int high = slices;
+        // Last slice starting at or below the quantile
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (cumulative[mid] <= quantile) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        double width = cumulative[low + 1] - cumulative[low];
+        double within = width > 0 ? (quantile - cumulative[low]) / width : 0;
+        return (low + Math.min(within, 1.0)) / slices;
+    }
+}
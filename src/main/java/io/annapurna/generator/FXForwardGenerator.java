@@ -1,22 +1,35 @@
 package io.annapurna.generator;
 
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.config.SkewedField;
 import net.datafaker.Faker;
 import io.annapurna.model.Currency;
 import io.annapurna.model.FXForward;
 import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
+import io.annapurna.util.BusinessDayCalculator;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.WeightedRandom;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class FXForwardGenerator implements TradeGenerator {
 
-    private final Random random;
-    private final boolean useThreadLocal;
+    private final RandomSource random;
     private final Faker faker;
+    private final TradeIdGenerator ids;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final TradeDatePin tradeDatePin;
+
+    // Samplers for skewed keys; null where the config leaves the usual selection
+    private final WeightedRandom<String> counterparties;
+    private final WeightedRandom<String> books;
+    private final WeightedRandom<String> traders;
+    private final WeightedRandom<CurrencyPairConfig> underlyings;
 
     private static final String[] TIER1_BANKS = {
             "JP Morgan", "Goldman Sachs", "Morgan Stanley", "Bank of America",
@@ -43,43 +56,94 @@ public class FXForwardGenerator implements TradeGenerator {
             new CurrencyPairConfig("GBP/JPY", Currency.GBP, Currency.JPY, 180.0, 195.0, 5)
     };
 
+    // Weighted pair selection, built once rather than re-summing weights per trade
+    private static final WeightedRandom<CurrencyPairConfig> PAIR_SELECTOR = buildSelector();
+
     private static final int[] TENORS_MONTHS = { 1, 3, 3, 3, 6, 12 };
 
+    // Every book of the desk, busiest first; the ranking a book skew applies to
+    private static final String[] BOOKS = { "FX_LON", "FX_EMEA", "FX_NY", "FX_APAC" };
+
     // Default constructor: Production mode (ThreadLocalRandom)
     public FXForwardGenerator() {
-        this.random = null;
-        this.useThreadLocal = true;
+        this.random = RandomSource.threadLocal();
         this.faker = new Faker();
+        this.ids = TradeIdGenerator.shared();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
     }
 
-    // Seeded constructor: Test mode (deterministic)
+    // Seeded constructor: Test mode (deterministic), on the java.util.Random streams seeds have always selected
     public FXForwardGenerator(long seed) {
-        this.random = new Random(seed);
-        this.useThreadLocal = false;
+        this.random = RandomSource.of(RandomSource.JAVA_UTIL_RANDOM, seed);
         this.faker = new Faker(new Random(seed));
+        this.ids = new TradeIdGenerator();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+        this.underlyings = null;
+    }
+
+    // Shared-stream constructor: draws (including Faker's) come from the caller's RandomSource,
+    // trade dates fall within the configured date range
+    public FXForwardGenerator(RandomSource random, GeneratorConfig config) {
+        this(random, config, TradeIdGenerator.shared());
+    }
+
+    // As above, with trade IDs taken from the caller's ID generator
+    public FXForwardGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids) {
+        this(random, config, ids, new TradeDatePin());
+    }
+
+    // As above, with trade dates pinned by the caller's worker
+    FXForwardGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids, TradeDatePin tradeDatePin) {
+        this.random = random;
+        this.faker = new Faker(random);
+        this.ids = ids;
+        this.startDate = config.getStartDate();
+        this.endDate = config.getEndDate();
+        this.tradeDatePin = tradeDatePin;
+        this.counterparties = SkewedKeys.counterparties(config, TIER1_BANKS, TIER2_BANKS);
+        this.books = SkewedKeys.sampler(config, SkewedField.BOOK, BOOKS);
+        this.traders = SkewedKeys.traders(config);
+        this.underlyings = SkewedKeys.sampler(config, SkewedField.UNDERLYING, CURRENCY_PAIRS);
     }
 
     // Helper methods for random generation
     private int nextInt(int bound) {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextInt(bound) :
-                random.nextInt(bound);
+        return random.nextInt(bound);
     }
 
     private double nextDouble() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextDouble() :
-                random.nextDouble();
+        return random.nextDouble();
     }
 
     private boolean nextBoolean() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextBoolean() :
-                random.nextBoolean();
+        return random.nextBoolean();
+    }
+
+    @Override
+    public FXForward generate() {
+        return populate(newTrade());
     }
 
     @Override
-    public Trade generate() {
+    public FXForward newTrade() {
+        return new FXForward();
+    }
+
+    @Override
+    public FXForward populate(Trade target) {
+        FXForward forward = (FXForward) target;
+
         LocalDate tradeDate = generateTradeDate();
         int tenorMonths = TENORS_MONTHS[nextInt(TENORS_MONTHS.length)];
 
@@ -100,27 +164,26 @@ public class FXForwardGenerator implements TradeGenerator {
         LocalDate spotDate = tradeDate.plusDays(2);
         LocalDate maturityDate = spotDate.plusMonths(tenorMonths);
 
-        return FXForward.builder()
-                .tradeId(generateTradeId(tradeDate))
-                .tradeDate(tradeDate)
-                // In Forwards, Settlement happens at Maturity
-                .settlementDate(maturityDate)
-                .maturityDate(maturityDate)
-                .notional(notional)
-                .currency(pair.baseCurrency)
-                .counterparty(counterparty)
-                .book(generateBook(pair))
-                .trader(generateTrader())
-                .currencyPair(pair.pairName)
-                .baseCurrency(pair.baseCurrency)
-                .quoteCurrency(pair.quoteCurrency)
-                .spotRate(spotRate)
-                .forwardRate(forwardRate)
-                .forwardPoints(forwardPoints)
-                .direction(nextBoolean() ? "BUY" : "SELL")
-                // FIX: All these pairs are Physical. NDFs are only for restricted currencies.
-                .settlementType("PHYSICAL")
-                .build();
+        forward.setTradeId(generateTradeId(tradeDate));
+        forward.setTradeDate(tradeDate);
+        // In Forwards, Settlement happens at Maturity
+        forward.setSettlementDate(maturityDate);
+        forward.setMaturityDate(maturityDate);
+        forward.setNotional(notional);
+        forward.setCurrency(pair.baseCurrency);
+        forward.setCounterparty(counterparty);
+        forward.setBook(generateBook(pair));
+        forward.setTrader(generateTrader());
+        forward.setCurrencyPair(pair.pairName);
+        forward.setBaseCurrency(pair.baseCurrency);
+        forward.setQuoteCurrency(pair.quoteCurrency);
+        forward.setSpotRate(spotRate);
+        forward.setForwardRate(forwardRate);
+        forward.setForwardPoints(forwardPoints);
+        forward.setDirection(nextBoolean() ? "BUY" : "SELL");
+        // FIX: All these pairs are Physical. NDFs are only for restricted currencies.
+        forward.setSettlementType("PHYSICAL");
+        return forward;
     }
 
     @Override
@@ -129,17 +192,12 @@ public class FXForwardGenerator implements TradeGenerator {
     }
 
     private String generateTradeId(LocalDate tradeDate) {
-        String date = tradeDate.toString().replace("-", "");
-        int sequence = nextInt(100000);
-        return String.format("ANNAPURNA-FXF-%s-%05d", date, sequence);
+        return ids.next(TradeType.FX_FORWARD, tradeDate);
     }
 
     private LocalDate generateTradeDate() {
-        LocalDate date = LocalDate.now().minusDays(nextInt(365));
-        while (date.getDayOfWeek().getValue() >= 6) {
-            date = date.minusDays(1);
-        }
-        return date;
+        LocalDate date = endDate.minusDays(nextInt(BusinessDayCalculator.daysInclusive(startDate, endDate)));
+        return tradeDatePin.apply(BusinessDayCalculator.rollToBusinessDay(date, startDate));
     }
 
     private BigDecimal generateNotional() {
@@ -152,6 +210,9 @@ public class FXForwardGenerator implements TradeGenerator {
     }
 
     private String selectCounterparty(BigDecimal notional) {
+        if (counterparties != null) {
+            return counterparties.next(random);
+        }
         if (notional.compareTo(BigDecimal.valueOf(50_000_000)) > 0) {
             return TIER1_BANKS[nextInt(TIER1_BANKS.length)];
         } else {
@@ -162,17 +223,18 @@ public class FXForwardGenerator implements TradeGenerator {
     }
 
     private CurrencyPairConfig selectCurrencyPair() {
-        int totalWeight = 0;
-        for (CurrencyPairConfig pair : CURRENCY_PAIRS) totalWeight += pair.weight;
-
-        int randomWeight = nextInt(totalWeight);
-        int currentWeight = 0;
+        if (underlyings != null) {
+            return underlyings.next(random);
+        }
+        return PAIR_SELECTOR.next(random);
+    }
 
+    private static WeightedRandom<CurrencyPairConfig> buildSelector() {
+        WeightedRandom.Builder<CurrencyPairConfig> builder = WeightedRandom.builder();
         for (CurrencyPairConfig pair : CURRENCY_PAIRS) {
-            currentWeight += pair.weight;
-            if (randomWeight < currentWeight) return pair;
+            builder.add(pair, pair.weight);
         }
-        return CURRENCY_PAIRS[0];
+        return builder.build();
     }
 
     private BigDecimal generateSpotRate(CurrencyPairConfig pair) {
@@ -206,6 +268,9 @@ public class FXForwardGenerator implements TradeGenerator {
     }
 
     private String generateBook(CurrencyPairConfig pair) {
+        if (books != null) {
+            return books.next(random);
+        }
         if (pair.baseCurrency == Currency.EUR || pair.quoteCurrency == Currency.EUR) {
             return nextBoolean() ? "FX_EMEA" : "FX_LON";
         } else if (isJPYPair(pair) || pair.baseCurrency == Currency.AUD) {
@@ -216,6 +281,9 @@ public class FXForwardGenerator implements TradeGenerator {
     }
 
     private String generateTrader() {
+        if (traders != null) {
+            return traders.next(random);
+        }
         return faker.name().firstName() + " " + faker.name().lastName();
     }
 
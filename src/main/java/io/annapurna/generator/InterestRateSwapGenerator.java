@@ -1,22 +1,34 @@
 package io.annapurna.generator;
 
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.config.SkewedField;
 import net.datafaker.Faker;
 import io.annapurna.model.Currency;
 import io.annapurna.model.InterestRateSwap;
 import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
+import io.annapurna.util.BusinessDayCalculator;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.WeightedRandom;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.time.LocalDate;
 import java.util.Random;
-import java.util.concurrent.ThreadLocalRandom;
 
 public class InterestRateSwapGenerator implements TradeGenerator {
 
-    private final Random random;
-    private final boolean useThreadLocal;
+    private final RandomSource random;
     private final Faker faker;
+    private final TradeIdGenerator ids;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final TradeDatePin tradeDatePin;
+
+    // Samplers for skewed keys; null where the config leaves the usual selection
+    private final WeightedRandom<String> counterparties;
+    private final WeightedRandom<String> books;
+    private final WeightedRandom<String> traders;
 
     private static final String[] TIER1_BANKS = {
             "JP Morgan", "Goldman Sachs", "Morgan Stanley", "Bank of America",
@@ -31,41 +43,86 @@ public class InterestRateSwapGenerator implements TradeGenerator {
     private static final int[] TENORS_YEARS = { 2, 2, 5, 5, 5, 10, 10, 10, 30, 30 };
     private static final String[] FLOATING_INDICES = { "SOFR", "SOFR", "SOFR", "SOFR", "EURIBOR" };
 
+    // Every book of the desk, busiest first; the ranking a book skew applies to
+    private static final String[] BOOKS = { "RATES_NY", "RATES_DERIV_EMEA", "RATES_DERIV_US", "RATES_LON" };
+
     // Default constructor: Production mode (ThreadLocalRandom)
     public InterestRateSwapGenerator() {
-        this.random = null;
-        this.useThreadLocal = true;
+        this.random = RandomSource.threadLocal();
         this.faker = new Faker();
+        this.ids = TradeIdGenerator.shared();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
     }
 
-    // Seeded constructor: Test mode (deterministic)
+    // Seeded constructor: Test mode (deterministic), on the java.util.Random streams seeds have always selected
     public InterestRateSwapGenerator(long seed) {
-        this.random = new Random(seed);
-        this.useThreadLocal = false;
+        this.random = RandomSource.of(RandomSource.JAVA_UTIL_RANDOM, seed);
         this.faker = new Faker(new Random(seed));
+        this.ids = new TradeIdGenerator();
+        this.startDate = LocalDate.now().minusYears(1);
+        this.endDate = LocalDate.now();
+        this.tradeDatePin = new TradeDatePin();
+        this.counterparties = null;
+        this.books = null;
+        this.traders = null;
+    }
+
+    // Shared-stream constructor: draws (including Faker's) come from the caller's RandomSource,
+    // trade dates fall within the configured date range
+    public InterestRateSwapGenerator(RandomSource random, GeneratorConfig config) {
+        this(random, config, TradeIdGenerator.shared());
+    }
+
+    // As above, with trade IDs taken from the caller's ID generator
+    public InterestRateSwapGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids) {
+        this(random, config, ids, new TradeDatePin());
+    }
+
+    // As above, with trade dates pinned by the caller's worker
+    InterestRateSwapGenerator(RandomSource random, GeneratorConfig config, TradeIdGenerator ids, TradeDatePin tradeDatePin) {
+        this.random = random;
+        this.faker = new Faker(random);
+        this.ids = ids;
+        this.startDate = config.getStartDate();
+        this.endDate = config.getEndDate();
+        this.tradeDatePin = tradeDatePin;
+        this.counterparties = SkewedKeys.counterparties(config, TIER1_BANKS, TIER2_BANKS);
+        this.books = SkewedKeys.sampler(config, SkewedField.BOOK, BOOKS);
+        this.traders = SkewedKeys.traders(config);
     }
 
     // Helper methods for random generation
     private int nextInt(int bound) {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextInt(bound) :
-                random.nextInt(bound);
+        return random.nextInt(bound);
     }
 
     private double nextDouble() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextDouble() :
-                random.nextDouble();
+        return random.nextDouble();
     }
 
     private boolean nextBoolean() {
-        return useThreadLocal ?
-                ThreadLocalRandom.current().nextBoolean() :
-                random.nextBoolean();
+        return random.nextBoolean();
     }
 
     @Override
-    public Trade generate() {
+    public InterestRateSwap generate() {
+        return populate(newTrade());
+    }
+
+    @Override
+    public InterestRateSwap newTrade() {
+        return new InterestRateSwap();
+    }
+
+    @Override
+    public InterestRateSwap populate(Trade target) {
+        InterestRateSwap swap = (InterestRateSwap) target;
+
         LocalDate tradeDate = generateTradeDate();
         int tenorYears = TENORS_YEARS[nextInt(TENORS_YEARS.length)];
 
@@ -80,25 +137,24 @@ public class InterestRateSwapGenerator implements TradeGenerator {
         BigDecimal fixedRate = generateFixedRate(tenorYears);
         Integer floatingSpreadBps = generateFloatingSpread();
 
-        return InterestRateSwap.builder()
-                .tradeId(generateTradeId(tradeDate))
-                .tradeDate(tradeDate)
-                .settlementDate(tradeDate.plusDays(2))
-                .effectiveDate(tradeDate.plusDays(2))
-                .maturityDate(tradeDate.plusYears(tenorYears))
-                .notional(notional)
-                .currency(currency)
-                .counterparty(counterparty)
-                .book(generateBook(currency)) // Book depends on Currency
-                .trader(generateTrader())
-                .fixedRate(fixedRate)
-                .floatingRateIndex(floatingIndex)
-                .floatingSpreadBps(floatingSpreadBps)
-                .fixedLegFrequency(generateFixedFrequency(currency)) // Standard per currency
-                .floatingLegFrequency("QUARTERLY") // Standard for almost all modern swaps
-                .dayCountConvention(generateDayCount(currency)) // Standard per currency
-                .direction(nextBoolean() ? "PAY_FIXED" : "RECEIVE_FIXED")
-                .build();
+        swap.setTradeId(generateTradeId(tradeDate));
+        swap.setTradeDate(tradeDate);
+        swap.setSettlementDate(tradeDate.plusDays(2));
+        swap.setEffectiveDate(tradeDate.plusDays(2));
+        swap.setMaturityDate(tradeDate.plusYears(tenorYears));
+        swap.setNotional(notional);
+        swap.setCurrency(currency);
+        swap.setCounterparty(counterparty);
+        swap.setBook(generateBook(currency)); // Book depends on Currency
+        swap.setTrader(generateTrader());
+        swap.setFixedRate(fixedRate);
+        swap.setFloatingRateIndex(floatingIndex);
+        swap.setFloatingSpreadBps(floatingSpreadBps);
+        swap.setFixedLegFrequency(generateFixedFrequency(currency)); // Standard per currency
+        swap.setFloatingLegFrequency("QUARTERLY"); // Standard for almost all modern swaps
+        swap.setDayCountConvention(generateDayCount(currency)); // Standard per currency
+        swap.setDirection(nextBoolean() ? "PAY_FIXED" : "RECEIVE_FIXED");
+        return swap;
     }
 
     @Override
@@ -107,17 +163,12 @@ public class InterestRateSwapGenerator implements TradeGenerator {
     }
 
     private String generateTradeId(LocalDate tradeDate) {
-        String date = tradeDate.toString().replace("-", "");
-        int sequence = nextInt(100000);
-        return String.format("ANNAPURNA-IRS-%s-%05d", date, sequence);
+        return ids.next(TradeType.INTEREST_RATE_SWAP, tradeDate);
     }
 
     private LocalDate generateTradeDate() {
-        LocalDate date = LocalDate.now().minusDays(nextInt(365));
-        while (date.getDayOfWeek().getValue() >= 6) {
-            date = date.minusDays(1);
-        }
-        return date;
+        LocalDate date = endDate.minusDays(nextInt(BusinessDayCalculator.daysInclusive(startDate, endDate)));
+        return tradeDatePin.apply(BusinessDayCalculator.rollToBusinessDay(date, startDate));
     }
 
     private BigDecimal generateNotional() {
@@ -130,6 +181,9 @@ public class InterestRateSwapGenerator implements TradeGenerator {
     }
 
     private String selectCounterparty(BigDecimal notional) {
+        if (counterparties != null) {
+            return counterparties.next(random);
+        }
         if (notional.compareTo(BigDecimal.valueOf(100_000_000)) > 0) {
             return TIER1_BANKS[nextInt(TIER1_BANKS.length)];
         } else {
@@ -165,6 +219,9 @@ public class InterestRateSwapGenerator implements TradeGenerator {
 
     // Select Booking region based on Currency
     private String generateBook(Currency currency) {
+        if (books != null) {
+            return books.next(random);
+        }
         if (currency == Currency.USD) {
             String[] usBooks = { "RATES_NY", "RATES_NY", "RATES_DERIV_US" };
             return usBooks[nextInt(usBooks.length)];
@@ -196,6 +253,9 @@ public class InterestRateSwapGenerator implements TradeGenerator {
     }
 
     private String generateTrader() {
+        if (traders != null) {
+            return traders.next(random);
+        }
         return faker.name().firstName() + " " + faker.name().lastName();
     }
 }
\ No newline at end of file
@@ -0,0 +1,83 @@
+package io.annapurna.generator;
+
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.config.Skew;
+import io.annapurna.config.SkewedField;
+import io.annapurna.util.WeightedRandom;
+import net.datafaker.Faker;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Builds the samplers generators use for {@link SkewedField skewed} keys.
+ *
+ * <p>Each generator asks for a sampler per field when it is constructed and keeps it,
+ * so skewing costs one alias-table draw per key instead of the generator's usual
+ * selection. Fields without a skew get no sampler, and the generator's selection, and
+ * with it every seeded dataset, stays exactly as before.
+ */
+final class SkewedKeys {
+
+    // Fixed so the roster is the same in every run, seeded or not
+    private static final long ROSTER_SEED = 0x7EADE125L;
+
+    private static final Map<Integer, List<String>> ROSTERS = new ConcurrentHashMap<>();
+
+    private SkewedKeys() {
+    }
+
+    /**
+     * Sampler over a pool ranked most popular first.
+     *
+     * @return The sampler, or null when the config (if any) leaves the field unskewed
+     */
+    static <T> WeightedRandom<T> sampler(GeneratorConfig config, SkewedField field, T[] ranked) {
+        Skew skew = config != null ? config.getSkew(field) : null;
+        return skew != null ? skew.sampler(Arrays.asList(ranked)) : null;
+    }
+
+    /**
+     * Counterparty sampler: tier 1 banks ranked ahead of tier 2.
+     */
+    static WeightedRandom<String> counterparties(GeneratorConfig config, String[] tier1, String[] tier2) {
+        String[] banks = Arrays.copyOf(tier1, tier1.length + tier2.length);
+        System.arraycopy(tier2, 0, banks, tier1.length, tier2.length);
+        return sampler(config, SkewedField.COUNTERPARTY, banks);
+    }
+
+    /**
+     * Trader sampler over the roster of {@link GeneratorConfig#getTraderPool()} names.
+     */
+    static WeightedRandom<String> traders(GeneratorConfig config) {
+        Skew skew = config != null ? config.getSkew(SkewedField.TRADER) : null;
+        return skew != null ? skew.sampler(roster(config.getTraderPool())) : null;
+    }
+
+    /**
+     * Distinct keys of a pool that repeats keys as weights, in order of first appearance.
+     */
+    static String[] distinct(String[] weighted) {
+        return new LinkedHashSet<>(Arrays.asList(weighted)).toArray(new String[0]);
+    }
+
+    /**
+     * The same distinct trader names for a given size on every call; built with Faker
+     * once per size and shared by all generators.
+     */
+    static List<String> roster(int size) {
+        return ROSTERS.computeIfAbsent(size, n -> {
+            Faker faker = new Faker(new Random(ROSTER_SEED));
+            Set<String> names = new LinkedHashSet<>();
+            while (names.size() < n) {
+                names.add(faker.name().firstName() + " " + faker.name().lastName());
+            }
+            return List.copyOf(names);
+        });
+    }
+}
@@ -0,0 +1,468 @@
+package io.annapurna.generator;
+
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.model.Trade;
+import io.annapurna.model.TradeType;
+import io.annapurna.util.RandomSource;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Pre-generated trades of every type, for callers that need one trade at a time on a
+ * latency-sensitive path.
+ *
+ * <p>Each trade type has a ring of {@code capacity} trades. One background thread
+ * generates trades into the rings and keeps them topped up. {@link #next(TradeType)}
+ * takes the oldest trade of its type with a single CAS, without locks or allocation,
+ * so a hit costs well under a microsecond. When a ring is empty because callers are
+ * outpacing the refill thread, the trade is generated inline on the calling thread
+ * instead. The buffer holds one generator per trade type, shared by the refill thread
+ * and every caller that misses, each guarded by its own lock, so a miss costs one
+ * trade's generation and the buffer's footprint does not grow with the number of
+ * calling threads.
+ *
+ * <p>The refill thread parks once every ring is full. The caller that takes a ring down
+ * to half wakes it, and it wakes on its own every few milliseconds to top up rings
+ * that are merely below full. {@link #getMetrics()} reports hits, misses and the
+ * refill rate.
+ *
+ * <p>Every trade is handed out once. Trades are unseeded, clean, and of the default
+ * date range, the year up to today. The refill thread notices when the date changes,
+ * within a few milliseconds, and then builds new generators for the new range and drops
+ * the trades still buffered from the day before, so a long-lived buffer never serves a
+ * stale "today".
+ *
+ * <p>{@link #shared()} is the buffer behind {@code Annapurna.generateOne()}: a
+ * {@link #DEFAULT_CAPACITY} buffer started on first use, whose refill thread is a
+ * daemon that lives as long as the JVM. It cannot be closed.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * try (TradeBuffer buffer = TradeBuffer.start(4096)) {
+ *     buffer.awaitFilled(5, TimeUnit.SECONDS);
+ *     Trade trade = buffer.next(TradeType.FX_FORWARD);
+ * }
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> Thread-safe; any number of threads may take trades at once.
+ */
+public final class TradeBuffer implements AutoCloseable {
+
+    /**
+     * Default number of trades buffered per trade type.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    // Trades the refill thread adds to one ring before moving to the next
+    private static final int REFILL_BATCH = 64;
+
+    // Upper bound on a park, in case a wake-up races with the refill thread going to sleep
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private static final AtomicInteger BUFFER_SEQUENCE = new AtomicInteger();
+
+    private final int capacity;
+    private final int lowWater;
+    private final boolean shared;
+    private final Clock clock;
+    private final Ring[] rings;
+    private final Thread refiller;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    // Replaced as a whole when the date changes; callers that miss read it too
+    private volatile TradeGenerator[] generators;
+    // Start of the day after the generators' end date, in clock millis; confined to the refill thread
+    private long nextDayMillis;
+
+    private volatile boolean sleeping;
+    private volatile boolean closed;
+
+    private TradeBuffer(int capacity, boolean shared, Clock clock) {
+        this.capacity = capacity;
+        this.lowWater = capacity / 2;
+        this.shared = shared;
+        this.clock = clock;
+        this.rings = new Ring[TradeType.values().length];
+        for (int i = 0; i < rings.length; i++) {
+            rings[i] = new Ring(capacity);
+        }
+        this.generators = createGenerators(LocalDate.now(clock));
+        this.refiller = new Thread(this::refill, "annapurna-buffer-" + BUFFER_SEQUENCE.incrementAndGet() + "-refill");
+        refiller.setDaemon(true);
+    }
+
+    /**
+     * Create a buffer and start filling it in the background.
+     *
+     * @param capacity Trades buffered per trade type; a power of two
+     * @return Buffer to take trades from; close it to stop the refill thread
+     */
+    public static TradeBuffer start(int capacity) {
+        return start(capacity, Clock.systemDefaultZone());
+    }
+
+    /**
+     * As {@link #start(int)}, with the trade date range following {@code clock}.
+     */
+    static TradeBuffer start(int capacity, Clock clock) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two of at least 2, got: " + capacity);
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock must not be null");
+        }
+        return start(capacity, false, clock);
+    }
+
+    /**
+     * The buffer shared by the whole JVM, started by the first call.
+     *
+     * <p>Starting it launches a daemon refill thread that keeps up to
+     * {@link #DEFAULT_CAPACITY} trades of each type in memory for the life of the JVM.
+     *
+     * @return The shared buffer; {@link #close()} on it is rejected
+     */
+    public static TradeBuffer shared() {
+        return SharedBuffer.INSTANCE;
+    }
+
+    private static TradeBuffer start(int capacity, boolean shared, Clock clock) {
+        TradeBuffer buffer = new TradeBuffer(capacity, shared, clock);
+        buffer.refiller.start();
+        return buffer;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Take the next trade of a type: a buffered one if any is left, otherwise one
+     * generated on the calling thread.
+     *
+     * @param type Type of trade to return
+     * @return A trade of {@code type}, never returned to any other caller
+     */
+    public Trade next(TradeType type) {
+        if (type == null) {
+            throw new IllegalArgumentException("Trade type must not be null");
+        }
+        Ring ring = rings[type.ordinal()];
+        Trade trade = ring.poll();
+        if (trade == null) {
+            misses.increment();
+            trade = generate(type.ordinal());
+        }
+        if (sleeping && !closed && ring.size() <= lowWater) {
+            sleeping = false;
+            LockSupport.unpark(refiller);
+        }
+        return trade;
+    }
+
+    /**
+     * Wait until every ring is full, for example before a latency-sensitive run starts.
+     *
+     * @return Whether the buffer filled up before the timeout
+     */
+    public boolean awaitFilled(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        while (!isFilled()) {
+            if (closed || System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    /**
+     * Snapshot of the buffer's counters since it started.
+     */
+    public Metrics getMetrics() {
+        long taken = 0;
+        long refilled = 0;
+        for (Ring ring : rings) {
+            // Every trade taken from a ring is a hit or was dropped, and every trade put in one was refilled
+            long head = ring.head();
+            long tail = ring.tail();
+            taken += head;
+            refilled += tail;
+        }
+        long discarded = dropped.sum();
+        return new Metrics(taken - discarded, misses.sum(), refilled, discarded,
+                Math.max(0, refilled - taken), System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Stop the refill thread and wait for it to exit. Trades still buffered are handed
+     * out; after that every trade is generated inline.
+     *
+     * @throws UnsupportedOperationException if this is the {@link #shared()} buffer
+     */
+    @Override
+    public void close() {
+        if (shared) {
+            throw new UnsupportedOperationException("The shared trade buffer cannot be closed");
+        }
+        closed = true;
+        LockSupport.unpark(refiller);
+        try {
+            refiller.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private boolean isFilled() {
+        for (Ring ring : rings) {
+            if (ring.size() < capacity) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Refill loop: top the rings up in turn, a batch at a time so that a drained type
+     * never waits for the others to fill, and park once all are full.
+     */
+    private void refill() {
+        while (!closed) {
+            if (clock.millis() >= nextDayMillis) {
+                rollOver();
+            }
+            boolean added = false;
+            for (int i = 0; i < rings.length; i++) {
+                Ring ring = rings[i];
+                for (int n = 0; n < REFILL_BATCH && ring.size() < capacity; n++) {
+                    ring.offer(generate(i));
+                    added = true;
+                }
+            }
+            if (added) {
+                continue;
+            }
+            // Announce the park first, then recheck, so a caller draining a ring meanwhile is not missed
+            sleeping = true;
+            if (!anyAtLowWater() && !closed) {
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+            sleeping = false;
+        }
+    }
+
+    /**
+     * Generators of every trade type for the default date range ending on {@code today}.
+     */
+    private TradeGenerator[] createGenerators(LocalDate today) {
+        GeneratorConfig config = GeneratorConfig.builder()
+                .dateRange(today.minusYears(1), today)
+                .build();
+        TradeType[] types = TradeType.values();
+        TradeGenerator[] created = new TradeGenerator[types.length];
+        for (TradeType type : types) {
+            RandomSource random = RandomSource.of(config.getRandomAlgorithm(), ThreadLocalRandom.current().nextLong());
+            created[type.ordinal()] = TradeFactory.createGeneratorForType(
+                    type, random, config, TradeIdGenerator.shared(), new TradeDatePin());
+        }
+        nextDayMillis = today.plusDays(1).atStartOfDay(clock.getZone()).toInstant().toEpochMilli();
+        return created;
+    }
+
+    /**
+     * Move to the clock's current date: new generators, then drop every trade buffered
+     * for the old date range so the refill loop regenerates it.
+     */
+    private void rollOver() {
+        generators = createGenerators(LocalDate.now(clock));
+        for (Ring ring : rings) {
+            while (ring.poll() != null) {
+                dropped.increment();
+            }
+        }
+    }
+
+    /**
+     * Generate a trade with the type's generator, which callers that miss share with
+     * the refill thread. The lock is almost always uncontended.
+     */
+    private Trade generate(int type) {
+        TradeGenerator generator = generators[type];
+        synchronized (generator) {
+            return generator.generate();
+        }
+    }
+
+    private boolean anyAtLowWater() {
+        for (Ring ring : rings) {
+            if (ring.size() <= lowWater) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Holder of the shared buffer, so its refill thread starts only once it is asked for.
+     */
+    private static final class SharedBuffer {
+        static final TradeBuffer INSTANCE = start(DEFAULT_CAPACITY, true, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Ring of one trade type, written by the refill thread only and read by any number
+     * of callers.
+     *
+     * <p>Slot {@code i & mask} holds the trade at sequence {@code i}. The refill thread
+     * fills a slot, then publishes it by advancing the tail; callers claim a trade by
+     * advancing the head with a CAS. A slot is only refilled once the head has moved
+     * past it, so a claimed trade is never overwritten before its caller has read it.
+     */
+    private static final class Ring {
+
+        // Longs between head and tail, so callers and the refill thread write to different cache lines
+        private static final int PADDING = 16;
+        private static final int HEAD = PADDING;
+        private static final int TAIL = 2 * PADDING;
+
+        private final Trade[] slots;
+        private final int mask;
+        private final AtomicLongArray cursors = new AtomicLongArray(3 * PADDING);
+
+        Ring(int capacity) {
+            this.slots = new Trade[capacity];
+            this.mask = capacity - 1;
+        }
+
+        long head() {
+            return cursors.get(HEAD);
+        }
+
+        long tail() {
+            return cursors.get(TAIL);
+        }
+
+        int size() {
+            return (int) (tail() - head());
+        }
+
+        /**
+         * Append a trade. Only called by the refill thread, when the ring is not full.
+         */
+        void offer(Trade trade) {
+            long tail = tail();
+            slots[(int) tail & mask] = trade;
+            cursors.set(TAIL, tail + 1);
+        }
+
+        /**
+         * Claim the oldest trade, or return null if the ring is empty.
+         */
+        Trade poll() {
+            while (true) {
+                long head = head();
+                if (head >= tail()) {
+                    return null;
+                }
+                // Read before claiming: once the head moves on the slot may be refilled
+                Trade trade = slots[(int) head & mask];
+                if (cursors.compareAndSet(HEAD, head, head + 1)) {
+                    return trade;
+                }
+            }
+        }
+    }
+
+    /**
+     * Counters of a {@link TradeBuffer}, from its start to when the snapshot was taken.
+     *
+     * <p><b>Thread Safety:</b> Immutable.
+     */
+    public static final class Metrics {
+
+        private final long hits;
+        private final long misses;
+        private final long refilled;
+        private final long dropped;
+        private final long buffered;
+        private final long elapsedNanos;
+
+        Metrics(long hits, long misses, long refilled, long dropped, long buffered, long elapsedNanos) {
+            this.hits = hits;
+            this.misses = misses;
+            this.refilled = refilled;
+            this.dropped = dropped;
+            this.buffered = buffered;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        /**
+         * Trades served from the buffer.
+         */
+        public long getHits() {
+            return hits;
+        }
+
+        /**
+         * Trades generated inline because their ring was empty.
+         */
+        public long getMisses() {
+            return misses;
+        }
+
+        /**
+         * Fraction of trades served from the buffer, or 1 before any trade was taken.
+         */
+        public double getHitRate() {
+            long total = hits + misses;
+            return total == 0 ? 1.0 : (double) hits / total;
+        }
+
+        /**
+         * Trades generated by the refill thread.
+         */
+        public long getRefilled() {
+            return refilled;
+        }
+
+        /**
+         * Trades discarded unserved because the date changed while they were buffered.
+         */
+        public long getDropped() {
+            return dropped;
+        }
+
+        /**
+         * Trades generated by the refill thread per second, averaged since the start.
+         */
+        public double getRefillRate() {
+            return elapsedNanos == 0 ? 0.0 : refilled * 1e9 / elapsedNanos;
+        }
+
+        /**
+         * Trades buffered across all types when the snapshot was taken.
+         */
+        public long getBuffered() {
+            return buffered;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("TradeBuffer.Metrics{hits=%d, misses=%d, hitRate=%.3f, refilled=%d, refillRate=%.0f/s, dropped=%d, buffered=%d}",
+                    hits, misses, getHitRate(), refilled, getRefillRate(), dropped, buffered);
+        }
+    }
+}
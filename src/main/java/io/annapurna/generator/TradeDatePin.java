@@ -0,0 +1,26 @@
+package io.annapurna.generator;
+
+import java.time.LocalDate;
+
+/**
+ * Optional fixed trade date for one worker's generators.
+ *
+ * <p>When a date is set, generators use it in place of the trade date they draw. The
+ * draw itself is still made, so every later draw, and with it the rest of the trade,
+ * comes out as it would have on the drawn date. Confined to the worker's thread.
+ */
+final class TradeDatePin {
+
+    private LocalDate date;
+
+    /**
+     * @param date Date to use for the following trades, or null to draw dates again
+     */
+    void set(LocalDate date) {
+        this.date = date;
+    }
+
+    LocalDate apply(LocalDate drawn) {
+        return date != null ? date : drawn;
+    }
+}
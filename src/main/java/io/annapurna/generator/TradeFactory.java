@@ -1,19 +1,37 @@
 package io.annapurna.generator;
 
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.SplitMixRandom;
+import io.annapurna.util.WeightedRandom;
 
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.Map;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
  * Factory for creating trade generators based on configured distribution.
  * Thread-safe for parallel execution.
+ *
+ * <p>Generators are expensive to build (each one owns a {@code Faker}, which loads
+ * locale data on construction), so every thread that touches the factory gets its own
+ * set of five generators, built once and reused for every subsequent trade.
+ *
+ * <p>All of a thread's generators, and the trade type selection itself, draw from one
+ * per-thread random stream. For deterministic runs the caller {@link #reseed(long) reseeds}
+ * that stream before each trade, making the trade a pure function of the seed it
+ * was given; otherwise it is seeded once from {@link ThreadLocalRandom}. The stream's
+ * algorithm is {@link GeneratorConfig#getRandomAlgorithm()}.
  */
 public class TradeFactory {
 
-    private final Map<TradeType, Integer> distribution;
-    private final int totalWeight;
+    private final WeightedRandom<TradeType> tradeTypes;
+    private final GeneratorConfig config;
+
+    private final ThreadLocal<Worker> workers = ThreadLocal.withInitial(this::createWorker);
 
     /**
      * Create factory with trade type distribution.
@@ -21,8 +39,18 @@ public class TradeFactory {
      * @param distribution Map of TradeType to percentage (0-100)
      */
     public TradeFactory(Map<TradeType, Integer> distribution) {
-        this.distribution = new HashMap<>(distribution);
-        this.totalWeight = distribution.values().stream()
+        this(GeneratorConfig.builder().tradeTypeDistribution(distribution).build());
+    }
+
+    /**
+     * Create factory from a full generator configuration.
+     *
+     * @param config Distribution and date range to generate with
+     */
+    public TradeFactory(GeneratorConfig config) {
+        // EnumMap gives a stable iteration order, so selection is reproducible across JVMs
+        Map<TradeType, Integer> distribution = new EnumMap<>(config.getTradeTypeDistribution());
+        int totalWeight = distribution.values().stream()
                 .mapToInt(Integer::intValue)
                 .sum();
 
@@ -31,46 +59,175 @@ public class TradeFactory {
                     "Trade type percentages must sum to 100, got: " + totalWeight
             );
         }
+
+        this.tradeTypes = WeightedRandom.of(distribution);
+        this.config = config;
+    }
+
+    /**
+     * Select a trade type and generate one trade of that type.
+     * Uses the calling thread's cached generators, so no generator is allocated.
+     *
+     * @return A fully populated trade
+     */
+    public Trade generate() {
+        Worker worker = workers.get();
+        return worker.generators[selectTradeType(worker.random).ordinal()].generate();
     }
 
     /**
-     * Create a generator based on weighted random selection.
-     * Thread-safe - uses ThreadLocalRandom.
+     * Draw a trade type from the calling thread's stream, as {@link #generate()} does
+     * before generating. A caller that already knows the type uses this to consume the
+     * same draws as a mixed run, so both produce the same trades.
      *
-     * @return A new TradeGenerator instance
+     * @return The drawn trade type
+     */
+    public TradeType drawTradeType() {
+        return selectTradeType(workers.get().random);
+    }
+
+    /**
+     * Select a generator based on weighted random selection.
+     *
+     * <p>The returned generator is cached for the calling thread and must not be
+     * handed to other threads.
+     *
+     * @return The calling thread's TradeGenerator for the selected type
      */
     public TradeGenerator createGenerator() {
-        int random = ThreadLocalRandom.current().nextInt(100);
-        int cumulative = 0;
-
-        for (Map.Entry<TradeType, Integer> entry : distribution.entrySet()) {
-            cumulative += entry.getValue();
-            if (random < cumulative) {
-                return createGeneratorForType(entry.getKey());
-            }
+        Worker worker = workers.get();
+        return worker.generators[selectTradeType(worker.random).ordinal()];
+    }
+
+    /**
+     * Get the calling thread's cached generator for a trade type.
+     *
+     * @param type The trade type to generate
+     * @return The cached TradeGenerator for that type
+     */
+    public TradeGenerator generatorFor(TradeType type) {
+        return workers.get().generators[type.ordinal()];
+    }
+
+    /**
+     * Get the calling thread's reusable instance of a trade type, for
+     * {@link TradeGenerator#populate(Trade)}. The same object is returned on every call
+     * from this thread, so it must not be retained across trades.
+     *
+     * @param type The trade type
+     * @return The calling thread's flyweight for that type
+     */
+    public Trade flyweight(TradeType type) {
+        Worker worker = workers.get();
+        int index = type.ordinal();
+        Trade trade = worker.flyweights[index];
+        if (trade == null) {
+            trade = worker.generators[index].newTrade();
+            worker.flyweights[index] = trade;
         }
+        return trade;
+    }
 
-        // Fallback (should never happen)
-        return new EquitySwapGenerator();
+    /**
+     * Reset the calling thread's random stream. Every draw made afterwards on this
+     * thread, by the factory or its generators, is a pure function of {@code seed}.
+     *
+     * @param seed Stream seed, typically {@link SplitMixRandom#seedFor(long, long)}
+     */
+    public void reseed(long seed) {
+        workers.get().random.reseed(seed);
+    }
+
+    /**
+     * Set the sequence of the next trade ID generated on the calling thread,
+     * normally the trade's index in the dataset.
+     *
+     * @param index Non-negative sequence for the next ID
+     */
+    public void position(long index) {
+        workers.get().ids.position(index);
+    }
+
+    /**
+     * Fix the trade date of the following trades generated on the calling thread, or
+     * return to drawing dates with null. Every draw is still made, so a pinned trade
+     * differs from an unpinned one only in the fields derived from its trade date.
+     *
+     * @param date Business day to use as the trade date, or null
+     */
+    public void pinTradeDate(LocalDate date) {
+        workers.get().tradeDatePin.set(date);
+    }
+
+    /**
+     * The calling thread's random stream, shared with its generators.
+     * Use it for any follow-up draws that must stay reproducible.
+     */
+    public RandomSource random() {
+        return workers.get().random;
+    }
+
+    /**
+     * Select a trade type based on the configured weights.
+     */
+    private TradeType selectTradeType(RandomSource random) {
+        return tradeTypes.next(random);
+    }
+
+    /**
+     * Build the calling thread's random stream and one generator of every type.
+     */
+    private Worker createWorker() {
+        RandomSource random = RandomSource.of(config.getRandomAlgorithm(), ThreadLocalRandom.current().nextLong());
+        TradeIdGenerator.Positioned ids = TradeIdGenerator.positioned();
+        TradeDatePin tradeDatePin = new TradeDatePin();
+        TradeType[] types = TradeType.values();
+        TradeGenerator[] generators = new TradeGenerator[types.length];
+        for (TradeType type : types) {
+            generators[type.ordinal()] = createGeneratorForType(type, random, config, ids, tradeDatePin);
+        }
+        return new Worker(random, ids, tradeDatePin, generators);
     }
 
     /**
      * Create a specific generator for a trade type.
      */
-    private TradeGenerator createGeneratorForType(TradeType type) {
+    static TradeGenerator createGeneratorForType(TradeType type, RandomSource random, GeneratorConfig config,
+                                                 TradeIdGenerator ids, TradeDatePin tradeDatePin) {
         switch (type) {
             case EQUITY_SWAP:
-                return new EquitySwapGenerator();
+                return new EquitySwapGenerator(random, config, ids, tradeDatePin);
             case INTEREST_RATE_SWAP:
-                return new InterestRateSwapGenerator();
+                return new InterestRateSwapGenerator(random, config, ids, tradeDatePin);
             case FX_FORWARD:
-                return new FXForwardGenerator();
+                return new FXForwardGenerator(random, config, ids, tradeDatePin);
             case EQUITY_OPTION:
-                return new EquityOptionGenerator();
+                return new EquityOptionGenerator(random, config, ids, tradeDatePin);
             case CREDIT_DEFAULT_SWAP:
-                return new CDSGenerator();
+                return new CDSGenerator(random, config, ids, tradeDatePin);
             default:
                 throw new IllegalArgumentException("Unknown trade type: " + type);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Per-thread state: one random stream, ID sequence and trade date pin, the generators
+     * that use them and, in flyweight mode, one reusable trade per type.
+     */
+    private static final class Worker {
+        final RandomSource random;
+        final TradeIdGenerator.Positioned ids;
+        final TradeDatePin tradeDatePin;
+        final TradeGenerator[] generators;
+        final Trade[] flyweights;
+
+        Worker(RandomSource random, TradeIdGenerator.Positioned ids, TradeDatePin tradeDatePin,
+               TradeGenerator[] generators) {
+            this.random = random;
+            this.ids = ids;
+            this.tradeDatePin = tradeDatePin;
+            this.generators = generators;
+            this.flyweights = new Trade[generators.length];
+        }
+    }
+}
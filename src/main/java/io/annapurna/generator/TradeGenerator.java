@@ -15,6 +15,26 @@ public interface TradeGenerator {
      */
     Trade generate();
 
+    /**
+     * Create an empty instance of the trade class this generator produces, for
+     * later use with {@link #populate(Trade)}.
+     *
+     * @return A new, unpopulated trade
+     */
+    Trade newTrade();
+
+    /**
+     * Refill an existing trade in place instead of allocating a new one.
+     *
+     * <p>Every field is overwritten, so values left by a previous trade (or by data
+     * profile corruption) never leak into the next one. Draws the same random values
+     * as {@link #generate()}, so both produce identical trades from the same stream.
+     *
+     * @param target A trade created by {@link #newTrade()}
+     * @return {@code target}, populated
+     */
+    Trade populate(Trade target);
+
     /**
      * Get the trade type this generator produces.
      *
@@ -0,0 +1,255 @@
+package io.annapurna.generator;
+
+import io.annapurna.model.TradeType;
+
+import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Assigns collision-free trade IDs of the form {@code ANNAPURNA-EQS-20240115-00000042}.
+ *
+ * <p>The trailing sequence, not the date, is what makes an ID unique. Each thread
+ * reserves a block of {@value #BLOCK_SIZE} sequence numbers from a shared counter and
+ * hands them out without further synchronisation, so threads never contend per trade
+ * and never produce the same ID.
+ *
+ * <p>Bulk runs use a {@link Positioned} instance per worker instead, which takes the
+ * trade's index in the dataset as its sequence. IDs are then unique across the whole
+ * dataset, including across shards of it, and a seeded trade's ID does not depend on
+ * which thread generated it. They are only unique within one dataset, though: two
+ * seeded datasets both number their trades from 0. Unseeded runs
+ * {@link #reserveRun(long) reserve} a range of their own instead, so their IDs never
+ * repeat within the JVM.
+ *
+ * <p>The sequence space is split so the different sources never meet:
+ * <ul>
+ *   <li>below {@value #UNSEEDED_RUNS_START}: positions in seeded datasets</li>
+ *   <li>from {@value #UNSEEDED_RUNS_START}: unseeded bulk runs, one range each</li>
+ *   <li>from {@value #OWN_SPACE_START}: generators created with
+ *       {@link #TradeIdGenerator()}, each counting from there</li>
+ *   <li>from {@value #SHARED_START}: the {@link #shared()} generator</li>
+ * </ul>
+ *
+ * <p>IDs are written straight into a {@code char[]}; no {@code Formatter} or
+ * intermediate strings are involved.
+ *
+ * <p><b>Thread Safety:</b> Thread-safe, except {@link Positioned}, which must be
+ * confined to one thread.
+ */
+public class TradeIdGenerator {
+
+    /**
+     * Sequence numbers reserved by a thread at a time.
+     */
+    public static final int BLOCK_SIZE = 1024;
+
+    /**
+     * Sequences are zero-padded to at least this many digits.
+     */
+    public static final int MIN_SEQUENCE_DIGITS = 8;
+
+    /**
+     * First sequence of the ranges reserved by unseeded bulk runs.
+     */
+    public static final long UNSEEDED_RUNS_START = 8_000_000_000_000_000_000L;
+
+    /**
+     * First sequence of a generator created with {@link #TradeIdGenerator()}.
+     */
+    public static final long OWN_SPACE_START = 8_500_000_000_000_000_000L;
+
+    /**
+     * First sequence of the {@link #shared()} generator.
+     */
+    public static final long SHARED_START = 9_000_000_000_000_000_000L;
+
+    // Range reserved by an unseeded run without a count
+    private static final long UNBOUNDED_RUN_SPAN = 1_000_000_000_000L;
+
+    private static final AtomicLong NEXT_RUN_START = new AtomicLong(UNSEEDED_RUNS_START);
+
+    private static final TradeIdGenerator SHARED = new TradeIdGenerator(SHARED_START);
+
+    // "ANNAPURNA-XXX-" per trade type, indexed by ordinal
+    private static final char[][] PREFIXES = new char[TradeType.values().length][];
+
+    static {
+        for (TradeType type : TradeType.values()) {
+            PREFIXES[type.ordinal()] = ("ANNAPURNA-" + codeOf(type) + "-").toCharArray();
+        }
+    }
+
+    private final long start;
+    private final AtomicLong nextBlock = new AtomicLong();
+    private final ThreadLocal<long[]> blocks = ThreadLocal.withInitial(() -> new long[2]);
+
+    /**
+     * Create an ID generator with its own sequence space, starting at
+     * {@value #OWN_SPACE_START}. Used from one thread, it hands out the same IDs on
+     * every run, so seeded generators stay reproducible; its IDs are unique among
+     * themselves but may repeat those of another such generator.
+     */
+    public TradeIdGenerator() {
+        this(OWN_SPACE_START);
+    }
+
+    private TradeIdGenerator(long start) {
+        this.start = start;
+    }
+
+    /**
+     * The JVM-wide generator used by generators that are not part of a bulk run.
+     */
+    public static TradeIdGenerator shared() {
+        return SHARED;
+    }
+
+    /**
+     * Create a thread-confined generator whose sequence is set per trade.
+     */
+    public static Positioned positioned() {
+        return new Positioned();
+    }
+
+    /**
+     * Reserve the sequences of an unseeded bulk run, which then positions each trade at
+     * the returned start plus its index, so its IDs differ from those of every other
+     * run in this JVM.
+     *
+     * @param count Trades in the whole dataset, or {@code Long.MAX_VALUE} if unbounded,
+     *              in which case a range of a trillion sequences is reserved
+     * @return Sequence of the run's trade at index 0
+     */
+    public static long reserveRun(long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("Count must be non-negative, got: " + count);
+        }
+        return NEXT_RUN_START.getAndAdd(count == Long.MAX_VALUE ? UNBOUNDED_RUN_SPAN : count);
+    }
+
+    /**
+     * Next ID for a trade.
+     *
+     * @param type Trade type, encoded as a three-letter code
+     * @param tradeDate Trade date, encoded as {@code yyyyMMdd}
+     * @return A unique trade ID
+     */
+    public String next(TradeType type, LocalDate tradeDate) {
+        return format(type, tradeDate, nextSequence());
+    }
+
+    /**
+     * Next unused sequence number, reserved from this thread's current block.
+     */
+    protected long nextSequence() {
+        long[] block = blocks.get();
+        if (block[0] == block[1]) {
+            long first = start + nextBlock.getAndIncrement() * BLOCK_SIZE;
+            block[0] = first;
+            block[1] = first + BLOCK_SIZE;
+        }
+        return block[0]++;
+    }
+
+    /**
+     * Format an ID from its parts.
+     *
+     * @param type Trade type
+     * @param tradeDate Trade date (year 0 to 9999)
+     * @param sequence Non-negative sequence number
+     * @return The formatted ID
+     */
+    public static String format(TradeType type, LocalDate tradeDate, long sequence) {
+        if (sequence < 0) {
+            throw new IllegalArgumentException("Sequence must be non-negative, got: " + sequence);
+        }
+        int year = tradeDate.getYear();
+        if (year < 0 || year > 9999) {
+            throw new IllegalArgumentException("Trade date year must have four digits, got: " + year);
+        }
+
+        char[] prefix = PREFIXES[type.ordinal()];
+        int digits = Math.max(MIN_SEQUENCE_DIGITS, digitCount(sequence));
+        char[] id = new char[prefix.length + 9 + digits];
+
+        System.arraycopy(prefix, 0, id, 0, prefix.length);
+        int pos = prefix.length;
+        writeDigits(id, pos, 4, year);
+        writeDigits(id, pos + 4, 2, tradeDate.getMonthValue());
+        writeDigits(id, pos + 6, 2, tradeDate.getDayOfMonth());
+        id[pos + 8] = '-';
+        writeDigits(id, pos + 9, digits, sequence);
+
+        return new String(id);
+    }
+
+    private static void writeDigits(char[] target, int offset, int width, long value) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int digitCount(long value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static String codeOf(TradeType type) {
+        switch (type) {
+            case EQUITY_SWAP:
+                return "EQS";
+            case INTEREST_RATE_SWAP:
+                return "IRS";
+            case FX_FORWARD:
+                return "FXF";
+            case EQUITY_OPTION:
+                return "OPT";
+            case CREDIT_DEFAULT_SWAP:
+                return "CDS";
+            default:
+                throw new IllegalArgumentException("Unknown trade type: " + type);
+        }
+    }
+
+    /**
+     * ID generator for bulk runs: the caller sets each trade's sequence, normally its
+     * index in the dataset, before generating it.
+     *
+     * <p>A position is used for one ID only. If none was set, the next sequence comes
+     * from {@link #shared()}, so IDs stay unique for callers that never position.
+     */
+    public static final class Positioned extends TradeIdGenerator {
+        private long position = -1;
+
+        private Positioned() {
+            super(SHARED_START);
+        }
+
+        /**
+         * Set the sequence of the next ID.
+         *
+         * @param position Non-negative sequence, typically the trade's index
+         */
+        public void position(long position) {
+            if (position < 0) {
+                throw new IllegalArgumentException("Position must be non-negative, got: " + position);
+            }
+            this.position = position;
+        }
+
+        @Override
+        protected long nextSequence() {
+            long sequence = position;
+            if (sequence < 0) {
+                return SHARED.nextSequence();
+            }
+            position = -1;
+            return sequence;
+        }
+    }
+}
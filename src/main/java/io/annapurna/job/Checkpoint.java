@@ -0,0 +1,183 @@
+package io.annapurna.job;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Properties;
+
+/**
+ * Durable progress of a {@link GenerationJob}.
+ *
+ * <p>A checkpoint identifies the dataset (configuration fingerprint, seed, count and
+ * chunk size) and records how much of it is safely on disk: the number of leading
+ * chunks whose trades have been written and flushed, and the byte offset in the output
+ * file where they end. Anything in the output beyond that offset is discarded on
+ * resume.
+ *
+ * <p>Stored as a small properties file. {@link #write(Path)} replaces the previous
+ * checkpoint atomically, so a crash while checkpointing leaves the last one intact.
+ *
+ * <p><b>Thread Safety:</b> Immutable.
+ */
+public final class Checkpoint {
+
+    private static final int VERSION = 1;
+
+    private final long fingerprint;
+    private final long seed;
+    private final long count;
+    private final int chunkSize;
+    private final long completedChunks;
+    private final long outputOffset;
+    private final Path output;
+
+    /**
+     * @param fingerprint Fingerprint of the generator configuration
+     * @param seed Seed of the run
+     * @param count Total number of trades in the dataset
+     * @param chunkSize Trades per chunk
+     * @param completedChunks Number of leading chunks durably written
+     * @param outputOffset Size of the output file covering those chunks, in bytes
+     * @param output Output file
+     */
+    public Checkpoint(long fingerprint, long seed, long count, int chunkSize,
+                      long completedChunks, long outputOffset, Path output) {
+        if (count <= 0 || chunkSize <= 0) {
+            throw new IllegalArgumentException("Count and chunk size must be positive");
+        }
+        if (completedChunks < 0 || completedChunks > chunkCount(count, chunkSize) || outputOffset < 0) {
+            throw new IllegalArgumentException("Invalid progress: " + completedChunks + " chunks, " + outputOffset + " bytes");
+        }
+        this.fingerprint = fingerprint;
+        this.seed = seed;
+        this.count = count;
+        this.chunkSize = chunkSize;
+        this.completedChunks = completedChunks;
+        this.outputOffset = outputOffset;
+        this.output = output.toAbsolutePath();
+    }
+
+    /**
+     * Read a checkpoint written by {@link #write(Path)}.
+     *
+     * @throws IOException if the file cannot be read or is not a checkpoint
+     */
+    public static Checkpoint read(Path path) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        }
+        try {
+            int version = Integer.parseInt(required(properties, "version"));
+            if (version != VERSION) {
+                throw new IOException("Unsupported checkpoint version " + version + " in " + path);
+            }
+            return new Checkpoint(
+                    Long.parseUnsignedLong(required(properties, "fingerprint"), 16),
+                    Long.parseLong(required(properties, "seed")),
+                    Long.parseLong(required(properties, "count")),
+                    Integer.parseInt(required(properties, "chunkSize")),
+                    Long.parseLong(required(properties, "completedChunks")),
+                    Long.parseLong(required(properties, "outputOffset")),
+                    Paths.get(required(properties, "output"))
+            );
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed checkpoint " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Durably replace the checkpoint at {@code path} with this one.
+     */
+    public void write(Path path) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty("version", Integer.toString(VERSION));
+        properties.setProperty("fingerprint", Long.toHexString(fingerprint));
+        properties.setProperty("seed", Long.toString(seed));
+        properties.setProperty("count", Long.toString(count));
+        properties.setProperty("chunkSize", Integer.toString(chunkSize));
+        properties.setProperty("completedChunks", Long.toString(completedChunks));
+        properties.setProperty("outputOffset", Long.toString(outputOffset));
+        properties.setProperty("output", output.toString());
+
+        Path absolute = path.toAbsolutePath();
+        Path temp = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            OutputStream out = Channels.newOutputStream(channel);
+            properties.store(out, "Annapurna generation checkpoint");
+            out.flush();
+            channel.force(true);
+        }
+        Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * This checkpoint advanced to {@code completedChunks} chunks ending at {@code outputOffset}.
+     */
+    Checkpoint advance(long completedChunks, long outputOffset) {
+        return new Checkpoint(fingerprint, seed, count, chunkSize, completedChunks, outputOffset, output);
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getCompletedChunks() {
+        return completedChunks;
+    }
+
+    /**
+     * Number of trades durably written.
+     */
+    public long getCompletedTrades() {
+        return Math.min(count, completedChunks * chunkSize);
+    }
+
+    public long getOutputOffset() {
+        return outputOffset;
+    }
+
+    public Path getOutput() {
+        return output;
+    }
+
+    /**
+     * Whether every chunk of the dataset has been written.
+     */
+    public boolean isComplete() {
+        return completedChunks == chunkCount(count, chunkSize);
+    }
+
+    static long chunkCount(long count, int chunkSize) {
+        return count / chunkSize + (count % chunkSize == 0 ? 0 : 1);
+    }
+
+    private static String required(Properties properties, String key) throws IOException {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            throw new IOException("Checkpoint is missing '" + key + "'");
+        }
+        return value;
+    }
+}
@@ -0,0 +1,234 @@
+package io.annapurna.job;
+
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.execution.GenerationExecutor;
+import io.annapurna.execution.TradeIterator;
+import io.annapurna.model.Trade;
+import io.annapurna.serialization.JsonSerializer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Long-running, restartable generation of a seeded dataset to a JSON Lines file.
+ *
+ * <p>Chunks are generated and serialized in parallel, with up to
+ * {@link GeneratorConfig#getParallelism()} chunks ahead of the writer, and appended to
+ * the output in index order. At most once per checkpoint interval, and at the end, the
+ * output is forced to disk and a {@link Checkpoint} recording the written chunks and
+ * the output size is saved.
+ *
+ * <p>If the process dies, {@code BulkTradeGenerator.resume(checkpointPath)} with the same
+ * configuration truncates the output to the last checkpoint and continues from the next
+ * chunk. Because every seeded trade depends only on the seed and its index, the resumed
+ * file is byte-for-byte the file an uninterrupted run would have written.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * Annapurna.builder()
+ *     .count(5_000_000_000L)
+ *     .seed(42L)
+ *     .build()
+ *     .job(Paths.get("trades.jsonl"), Paths.get("trades.checkpoint"))
+ *     .checkpointInterval(Duration.ofMinutes(1))
+ *     .run();
+ * }</pre>
+ */
+public final class GenerationJob {
+
+    /**
+     * Default time between checkpoints.
+     */
+    public static final Duration DEFAULT_CHECKPOINT_INTERVAL = Duration.ofSeconds(30);
+
+    private final GeneratorConfig config;
+    private final TradeIterator.ChunkGenerator chunks;
+    private final Checkpoint start;
+    private final Path checkpointPath;
+    private final JsonSerializer serializer = new JsonSerializer();
+    private Duration checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+    private GenerationJob(GeneratorConfig config, TradeIterator.ChunkGenerator chunks,
+                          Checkpoint start, Path checkpointPath) {
+        this.config = config;
+        this.chunks = chunks;
+        this.start = start;
+        this.checkpointPath = checkpointPath;
+    }
+
+    /**
+     * Create a job that writes the whole dataset, replacing any existing output.
+     *
+     * @param config Seeded, bounded configuration
+     * @param chunks Produces the trades for a range of indices
+     * @param output JSON Lines file to write
+     * @param checkpointPath File to keep the checkpoint in
+     */
+    public static GenerationJob create(GeneratorConfig config, TradeIterator.ChunkGenerator chunks,
+                                       Path output, Path checkpointPath) {
+        requireReproducible(config);
+        if (output == null || checkpointPath == null) {
+            throw new IllegalArgumentException("Output and checkpoint paths must not be null");
+        }
+        Checkpoint start = new Checkpoint(config.fingerprint(), config.getSeed(), config.getShardSize(),
+                config.getChunkSize(), 0, 0, output);
+        return new GenerationJob(config, chunks, start, checkpointPath);
+    }
+
+    /**
+     * Create a job that continues from a saved checkpoint.
+     *
+     * <p>The checkpoint's chunk size is kept, whatever the configuration's is; any other
+     * difference from the configuration that wrote it is rejected.
+     *
+     * @param config Configuration equal to the interrupted run's
+     * @param chunks Produces the trades for a range of indices
+     * @param checkpointPath Checkpoint written by the interrupted run
+     * @throws IOException if the checkpoint cannot be read
+     * @throws IllegalStateException if the checkpoint belongs to a different dataset
+     */
+    public static GenerationJob resume(GeneratorConfig config, TradeIterator.ChunkGenerator chunks,
+                                       Path checkpointPath) throws IOException {
+        requireReproducible(config);
+        Checkpoint checkpoint = Checkpoint.read(checkpointPath);
+        if (checkpoint.getFingerprint() != config.fingerprint()) {
+            throw new IllegalStateException(
+                    "Checkpoint " + checkpointPath + " was written for a different configuration");
+        }
+        return new GenerationJob(config, chunks, checkpoint, checkpointPath);
+    }
+
+    /**
+     * Set the minimum time between checkpoints. Shorter intervals lose less work on a
+     * crash but force the output to disk more often; {@link Duration#ZERO} checkpoints
+     * after every chunk.
+     *
+     * @return this job for method chaining
+     */
+    public GenerationJob checkpointInterval(Duration interval) {
+        if (interval == null || interval.isNegative()) {
+            throw new IllegalArgumentException("Checkpoint interval must not be negative");
+        }
+        this.checkpointInterval = interval;
+        return this;
+    }
+
+    /**
+     * Run the job to completion.
+     *
+     * @return The final checkpoint, covering the whole dataset
+     * @throws IOException if the output or checkpoint cannot be written, or the output
+     *         is shorter than the checkpoint it is resumed from
+     */
+    public Checkpoint run() throws IOException {
+        long chunkCount = Checkpoint.chunkCount(start.getCount(), start.getChunkSize());
+        long intervalNanos = checkpointInterval.toNanos();
+        Checkpoint progress = start;
+        ArrayDeque<CompletableFuture<byte[]>> pending = new ArrayDeque<>();
+
+        try (GenerationExecutor executor = GenerationExecutor.forConfig(config);
+             FileChannel channel = FileChannel.open(start.getOutput(),
+                     StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            long offset = start.getOutputOffset();
+            if (channel.size() < offset) {
+                throw new IOException("Output " + start.getOutput() + " is shorter than its checkpoint ("
+                        + channel.size() + " < " + offset + " bytes)");
+            }
+            // Record the starting point before touching the output, so a stale checkpoint
+            // from an earlier run can never describe this file
+            progress.write(checkpointPath);
+            // Bytes after the checkpoint belong to chunks that were never confirmed durable
+            channel.truncate(offset);
+            channel.position(offset);
+
+            long nextChunk = progress.getCompletedChunks();
+            for (int i = 0; i < executor.getParallelism() && nextChunk < chunkCount; i++) {
+                pending.add(submitChunk(executor, nextChunk++));
+            }
+
+            long lastCheckpoint = System.nanoTime();
+            for (long chunk = progress.getCompletedChunks(); chunk < chunkCount; chunk++) {
+                byte[] bytes = await(pending.poll());
+                if (nextChunk < chunkCount) {
+                    pending.add(submitChunk(executor, nextChunk++));
+                }
+
+                ByteBuffer buffer = ByteBuffer.wrap(bytes);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                offset += bytes.length;
+
+                if (System.nanoTime() - lastCheckpoint >= intervalNanos && chunk + 1 < chunkCount) {
+                    channel.force(false);
+                    progress = progress.advance(chunk + 1, offset);
+                    progress.write(checkpointPath);
+                    lastCheckpoint = System.nanoTime();
+                }
+            }
+
+            channel.force(false);
+            progress = progress.advance(chunkCount, offset);
+            progress.write(checkpointPath);
+            return progress;
+        } finally {
+            for (CompletableFuture<byte[]> future : pending) {
+                future.cancel(false);
+            }
+        }
+    }
+
+    private CompletableFuture<byte[]> submitChunk(GenerationExecutor executor, long chunk) {
+        int chunkSize = start.getChunkSize();
+        long from = chunk * chunkSize;
+        int length = (int) Math.min(chunkSize, start.getCount() - from);
+        return executor.submit(() -> {
+            Trade[] trades = chunks.generate(from, length);
+            StringBuilder lines = new StringBuilder(length * 512);
+            try {
+                for (Trade trade : trades) {
+                    lines.append(serializer.toJsonLine(trade)).append('\n');
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return lines.toString().getBytes(StandardCharsets.UTF_8);
+        });
+    }
+
+    private static byte[] await(CompletableFuture<byte[]> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) cause).getCause();
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw e;
+        }
+    }
+
+    private static void requireReproducible(GeneratorConfig config) {
+        if (!config.hasSeed()) {
+            throw new IllegalStateException("Resumable jobs require a seeded run; call AnnapurnaBuilder.seed(long)");
+        }
+        if (config.isUnbounded()) {
+            throw new IllegalStateException("Resumable jobs require a bounded count");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package io.annapurna.job;
+
+import io.annapurna.execution.GenerationExecutor;
+
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.concurrent.Executor;
+
+/**
+ * Runs many generation jobs on one shared pool, chunk by chunk.
+ *
+ * <p>Launching dozens of runs at once, each with its own pool, oversubscribes the
+ * machine and lets whichever run grabs the threads first starve the rest. A scheduler
+ * owns a single work-stealing pool of {@code parallelism} threads. Each job is split
+ * into its chunks, and every time a thread finishes a chunk it claims the next one:
+ * <ul>
+ *   <li><b>Priority:</b> chunks of a higher-priority job always go first.</li>
+ *   <li><b>Weighted fair share:</b> jobs of equal priority share the threads in
+ *       proportion to their weights, in trades. Each job has a virtual time that
+ *       advances by the trades of each chunk it claims divided by its weight, and the
+ *       job furthest behind is served next (stride scheduling). A new job starts at the
+ *       current virtual time, so a small job submitted behind a billion-trade job gets
+ *       its share straight away and finishes in proportion to its own size.</li>
+ * </ul>
+ *
+ * <p>Threads are only busy while some job has an unclaimed chunk, so throughput stays at
+ * the pool's capacity whatever the mix. Claiming is one short critical section per chunk.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * try (GenerationScheduler scheduler = GenerationScheduler.create(8)) {
+ *     ScheduledJob<Void> soak = Annapurna.builder().count(1_000_000_000L).build()
+ *             .submitInto(scheduler, sink, 1, 0);
+ *     ScheduledJob<List<Trade>> fixture = Annapurna.builder().count(10_000).build()
+ *             .submit(scheduler);
+ *     List<Trade> trades = fixture.result().join();   // not stuck behind the soak run
+ * }
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> Thread-safe; jobs may be submitted from any thread.
+ */
+public final class GenerationScheduler implements AutoCloseable {
+
+    // Higher priority first, then the job furthest behind in virtual time, then submission order
+    private static final Comparator<ScheduledJob<?>> DISPATCH_ORDER = Comparator
+            .comparingInt((ScheduledJob<?> job) -> -job.getPriority())
+            .thenComparingDouble(job -> job.pass)
+            .thenComparingLong(job -> job.sequence);
+
+    private final GenerationExecutor executor;
+    private final Executor pool;
+    private final int parallelism;
+
+    // Guarded by this
+    private final PriorityQueue<ScheduledJob<?>> runnable = new PriorityQueue<>(DISPATCH_ORDER);
+    private double virtualTime;
+    private long submitted;
+    private int runningWorkers;
+    private boolean closed;
+
+    private GenerationScheduler(int parallelism) {
+        this.executor = GenerationExecutor.owned(parallelism);
+        this.pool = executor.getExecutor();
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Create a scheduler with its own pool.
+     *
+     * @param parallelism Number of generation threads shared by all jobs
+     * @return Scheduler to submit jobs to; close it when done
+     */
+    public static GenerationScheduler create(int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Parallelism must be positive");
+        }
+        return new GenerationScheduler(parallelism);
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Queue a job with weight 1 and priority 0.
+     */
+    public <T> ScheduledJob<T> submit(Task<T> task) {
+        return submit(task, 1, 0);
+    }
+
+    /**
+     * Queue a job. It starts as soon as a thread is free and no higher-priority chunk
+     * is waiting.
+     *
+     * @param task Chunks to run and how to assemble the result
+     * @param weight Share of the threads relative to other jobs of the same priority
+     *               (must be positive)
+     * @param priority Jobs of higher priority are served first; any int
+     * @return Handle with the job's progress and result
+     * @throws IllegalStateException if the scheduler is closed
+     */
+    public <T> ScheduledJob<T> submit(Task<T> task, int weight, int priority) {
+        if (task == null) {
+            throw new IllegalArgumentException("Task must not be null");
+        }
+        if (weight <= 0) {
+            throw new IllegalArgumentException("Weight must be positive, got: " + weight);
+        }
+        long chunks = task.chunkCount();
+        long trades = task.tradeCount();
+        if (chunks < 0 || trades < 0) {
+            throw new IllegalArgumentException("Task has a negative size: " + chunks + " chunks, " + trades + " trades");
+        }
+
+        ScheduledJob<T> job;
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Scheduler is closed");
+            }
+            job = new ScheduledJob<>(this, task, weight, priority, submitted++);
+            job.pass = virtualTime;
+            if (chunks > 0) {
+                runnable.add(job);
+                // Workers exit when the queue runs dry, so top them back up to parallelism
+                int workersToStart = (int) Math.min(parallelism - runningWorkers, chunks);
+                runningWorkers += workersToStart;
+                for (int i = 0; i < workersToStart; i++) {
+                    pool.execute(this::work);
+                }
+            }
+        }
+        if (chunks == 0) {
+            job.finish();
+        }
+        return job;
+    }
+
+    /**
+     * Stop accepting jobs and release the pool once the queued jobs have finished.
+     * Does not wait for them; use their {@link ScheduledJob#result() results} to.
+     */
+    @Override
+    public synchronized void close() {
+        closed = true;
+        executor.close();
+    }
+
+    /**
+     * Worker loop: run chunks in dispatch order until none is left unclaimed.
+     */
+    private void work() {
+        ScheduledJob<?> job;
+        long chunk;
+        while (true) {
+            synchronized (this) {
+                job = runnable.poll();
+                if (job == null) {
+                    runningWorkers--;
+                    return;
+                }
+                chunk = job.claim();
+                // The job's virtual time moves on by the trades it just claimed, in proportion to its weight
+                virtualTime = job.pass;
+                job.pass += job.tradesPerChunk() / job.getWeight();
+                if (job.hasUnclaimed()) {
+                    runnable.add(job);
+                }
+            }
+            job.run(chunk);
+        }
+    }
+
+    /**
+     * Remove a job's unclaimed chunks from the queue.
+     */
+    synchronized void withdraw(ScheduledJob<?> job) {
+        runnable.remove(job);
+    }
+
+    /**
+     * A job as the scheduler sees it: a number of independent chunks, then a final step
+     * that assembles the result.
+     *
+     * @param <T> Type of the job's result
+     */
+    public interface Task<T> {
+
+        /**
+         * Number of chunks, each run exactly once, in any order and concurrently.
+         */
+        long chunkCount();
+
+        /**
+         * Total number of trades across all chunks, for progress and fair sharing.
+         */
+        long tradeCount();
+
+        /**
+         * Run one chunk.
+         *
+         * @param chunk Chunk index in {@code [0, chunkCount())}
+         * @return Number of trades the chunk generated
+         */
+        long runChunk(long chunk);
+
+        /**
+         * Assemble the result once every chunk has run. Called once, on the thread that
+         * ran the last chunk.
+         */
+        T finish();
+    }
+}
@@ -0,0 +1,228 @@
+package io.annapurna.job;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A job submitted to a {@link GenerationScheduler}: its progress and its result.
+ *
+ * <p>{@link #result()} completes with the job's output once every chunk has run, or
+ * exceptionally with the first failure. {@link #progress(double)} gives a future per
+ * milestone, completed as soon as that fraction of the job's trades has been
+ * generated. Use it to start consumers early or to report progress without polling.
+ *
+ * <p><b>Thread Safety:</b> Thread-safe.
+ *
+ * @param <T> Type of the job's result
+ */
+public final class ScheduledJob<T> {
+
+    private final GenerationScheduler.Task<T> task;
+    private final int weight;
+    private final int priority;
+    private final long chunkCount;
+    private final long tradeCount;
+    private final CompletableFuture<T> result = new CompletableFuture<>();
+
+    // Scheduler state, guarded by the scheduler
+    final long sequence;
+    double pass;
+    private long nextChunk;
+
+    private final AtomicLong completedChunks = new AtomicLong();
+    private final AtomicLong completedTrades = new AtomicLong();
+
+    // Pending milestones, guarded by this; nextMilestone is the lowest, read without the lock
+    private final List<Milestone> milestones = new ArrayList<>();
+    private volatile long nextMilestone = Long.MAX_VALUE;
+
+    ScheduledJob(GenerationScheduler scheduler, GenerationScheduler.Task<T> task,
+                 int weight, int priority, long sequence) {
+        this.task = task;
+        this.weight = weight;
+        this.priority = priority;
+        this.sequence = sequence;
+        this.chunkCount = task.chunkCount();
+        this.tradeCount = task.tradeCount();
+        // However the job ends early, by failure or by cancelling the result, stop its work
+        result.whenComplete((value, failure) -> {
+            if (failure != null) {
+                scheduler.withdraw(this);
+                settleMilestones(failure);
+            }
+        });
+    }
+
+    /**
+     * Future of the job's output, completed when the last chunk has run. Cancelling it
+     * cancels the job.
+     */
+    public CompletableFuture<T> result() {
+        return result;
+    }
+
+    /**
+     * Future completed once at least {@code fraction} of the job's trades have been
+     * generated, or exceptionally if the job fails or is cancelled first.
+     *
+     * @param fraction Milestone in {@code [0, 1]}
+     */
+    public CompletableFuture<Void> progress(double fraction) {
+        if (!(fraction >= 0 && fraction <= 1)) {
+            throw new IllegalArgumentException("Progress fraction must be in [0, 1], got: " + fraction);
+        }
+        long threshold = (long) Math.ceil(fraction * tradeCount);
+        CompletableFuture<Void> reached = new CompletableFuture<>();
+        synchronized (this) {
+            milestones.add(new Milestone(threshold, reached));
+            nextMilestone = Math.min(nextMilestone, threshold);
+        }
+        // The job may already be past the milestone, or over
+        if (!result.isDone()) {
+            reachMilestones(completedTrades.get());
+        } else if (result.isCompletedExceptionally()) {
+            settleMilestones(result.handle((value, failure) -> failure).join());
+        } else {
+            reachMilestones(Long.MAX_VALUE);
+        }
+        return reached;
+    }
+
+    /**
+     * Cancel the job. Chunks already running finish, no further chunks start and
+     * {@link #result()} completes with a {@link CancellationException}.
+     *
+     * @return Whether this call cancelled the job
+     */
+    public boolean cancel() {
+        return result.cancel(false);
+    }
+
+    public boolean isDone() {
+        return result.isDone();
+    }
+
+    public int getWeight() {
+        return weight;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public long getTotalTrades() {
+        return tradeCount;
+    }
+
+    public long getCompletedTrades() {
+        return completedTrades.get();
+    }
+
+    /**
+     * Fraction of the job's trades generated so far, from 0 to 1.
+     */
+    public double getProgress() {
+        return tradeCount == 0 ? (result.isDone() ? 1.0 : 0.0) : (double) completedTrades.get() / tradeCount;
+    }
+
+    // Scheduler side, called with the scheduler's lock held
+
+    long claim() {
+        return nextChunk++;
+    }
+
+    boolean hasUnclaimed() {
+        return nextChunk < chunkCount;
+    }
+
+    double tradesPerChunk() {
+        return (double) tradeCount / chunkCount;
+    }
+
+    // Scheduler side, called by worker threads without the lock
+
+    void run(long chunk) {
+        if (result.isDone()) {
+            // Failed or cancelled while the chunk was queued
+            return;
+        }
+        try {
+            long trades = task.runChunk(chunk);
+            reachMilestones(completedTrades.addAndGet(trades));
+            if (completedChunks.incrementAndGet() == chunkCount) {
+                finish();
+            }
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+    }
+
+    void finish() {
+        try {
+            result.complete(task.finish());
+            // Chunks may have generated fewer trades than estimated; every milestone is now met
+            reachMilestones(Long.MAX_VALUE);
+        } catch (Throwable t) {
+            result.completeExceptionally(t);
+        }
+    }
+
+    /**
+     * Fail every pending milestone with the failure that ended the job.
+     */
+    private void settleMilestones(Throwable failure) {
+        List<Milestone> pending;
+        synchronized (this) {
+            pending = new ArrayList<>(milestones);
+            milestones.clear();
+            nextMilestone = Long.MAX_VALUE;
+        }
+        for (Milestone milestone : pending) {
+            milestone.reached.completeExceptionally(failure);
+        }
+    }
+
+    private void reachMilestones(long completed) {
+        if (completed < nextMilestone) {
+            return;
+        }
+        List<CompletableFuture<Void>> reached = new ArrayList<>();
+        synchronized (this) {
+            long lowest = Long.MAX_VALUE;
+            for (Iterator<Milestone> it = milestones.iterator(); it.hasNext(); ) {
+                Milestone milestone = it.next();
+                if (milestone.threshold <= completed) {
+                    reached.add(milestone.reached);
+                    it.remove();
+                } else {
+                    lowest = Math.min(lowest, milestone.threshold);
+                }
+            }
+            nextMilestone = lowest;
+        }
+        // Complete outside the lock, since callers' continuations run here
+        for (CompletableFuture<Void> future : reached) {
+            future.complete(null);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ScheduledJob[weight=%d, priority=%d, %,d/%,d trades%s]",
+                weight, priority, completedTrades.get(), tradeCount, result.isDone() ? ", done" : "");
+    }
+
+    private static final class Milestone {
+        final long threshold;
+        final CompletableFuture<Void> reached;
+
+        Milestone(long threshold, CompletableFuture<Void> reached) {
+            this.threshold = threshold;
+            this.reached = reached;
+        }
+    }
+}
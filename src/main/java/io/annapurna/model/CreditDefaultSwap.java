@@ -1,6 +1,7 @@
 package io.annapurna.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -84,6 +85,7 @@ public class CreditDefaultSwap extends Trade {
 
     public CreditDefaultSwap() {
         super();
+        setTradeType(TradeType.CREDIT_DEFAULT_SWAP);
     }
 
     // Getters and Setters
@@ -209,6 +211,11 @@ public class CreditDefaultSwap extends Trade {
             return this;
         }
 
+        public Builder executionTime(Instant executionTime) {
+            cds.setExecutionTime(executionTime);
+            return this;
+        }
+
         public Builder settlementDate(LocalDate settlementDate) {
             cds.setSettlementDate(settlementDate);
             return this;
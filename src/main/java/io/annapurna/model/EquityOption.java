@@ -1,6 +1,7 @@
 package io.annapurna.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -88,6 +89,7 @@ public class EquityOption extends Trade {
 
     public EquityOption() {
         super();
+        setTradeType(TradeType.EQUITY_OPTION);
     }
 
     // Getters and Setters
@@ -223,6 +225,11 @@ public class EquityOption extends Trade {
             return this;
         }
 
+        public Builder executionTime(Instant executionTime) {
+            option.setExecutionTime(executionTime);
+            return this;
+        }
+
         public Builder settlementDate(LocalDate settlementDate) {
             option.setSettlementDate(settlementDate);
             return this;
@@ -1,6 +1,7 @@
 package io.annapurna.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -163,6 +164,11 @@ public class EquitySwap extends Trade {
             return this;
         }
 
+        public Builder executionTime(Instant executionTime) {
+            swap.setExecutionTime(executionTime);
+            return this;
+        }
+
         public Builder settlementDate(LocalDate settlementDate) {
             swap.setSettlementDate(settlementDate);
             return this;
@@ -1,6 +1,7 @@
 package io.annapurna.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -62,6 +63,7 @@ public class FXForward extends Trade {
 
     public FXForward() {
         super();
+        setTradeType(TradeType.FX_FORWARD);
     }
 
     // Getters and Setters
@@ -163,6 +165,11 @@ public class FXForward extends Trade {
             return this;
         }
 
+        public Builder executionTime(Instant executionTime) {
+            forward.setExecutionTime(executionTime);
+            return this;
+        }
+
         public Builder settlementDate(LocalDate settlementDate) {
             forward.setSettlementDate(settlementDate);
             return this;
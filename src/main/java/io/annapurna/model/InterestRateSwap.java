@@ -1,6 +1,7 @@
 package io.annapurna.model;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 
 /**
@@ -63,6 +64,7 @@ public class InterestRateSwap extends Trade {
 
     public InterestRateSwap() {
         super();
+        setTradeType(TradeType.INTEREST_RATE_SWAP);
     }
 
     // Getters and Setters
@@ -164,6 +166,11 @@ public class InterestRateSwap extends Trade {
             return this;
         }
 
+        public Builder executionTime(Instant executionTime) {
+            swap.setExecutionTime(executionTime);
+            return this;
+        }
+
         public Builder settlementDate(LocalDate settlementDate) {
             swap.setSettlementDate(settlementDate);
             return this;
@@ -2,10 +2,12 @@ package io.annapurna.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.fasterxml.jackson.annotation.JsonSubTypes;
 import com.fasterxml.jackson.annotation.JsonTypeInfo;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
 
@@ -14,7 +16,7 @@ import java.util.Objects;
  *
  * <p>Provides common fields shared across all financial instruments:
  * <ul>
- *   <li>Trade identification and dates</li>
+ *   <li>Trade identification and dates, with an optional intraday execution timestamp</li>
  *   <li>Notional amount and currency</li>
  *   <li>Counterparty and booking information</li>
  * </ul>
@@ -54,6 +56,10 @@ public abstract class Trade {
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate tradeDate;
 
+    // Optional; left out of JSON when not generated
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Instant executionTime;
+
     @JsonFormat(pattern = "yyyy-MM-dd")
     private LocalDate settlementDate;
 
@@ -109,6 +115,18 @@ public abstract class Trade {
         this.tradeDate = tradeDate;
     }
 
+    /**
+     * When the trade executed, on its trade date, or null if execution times were not
+     * generated.
+     */
+    public Instant getExecutionTime() {
+        return executionTime;
+    }
+
+    public void setExecutionTime(Instant executionTime) {
+        this.executionTime = executionTime;
+    }
+
     public LocalDate getSettlementDate() {
         return settlementDate;
     }
@@ -7,25 +7,54 @@ public enum TradeType {
     /**
      * Interest Rate Swap - Fixed ↔ Floating interest rate swaps
      */
-    INTEREST_RATE_SWAP,
+    INTEREST_RATE_SWAP(InterestRateSwap.class),
 
     /**
      * Equity Swap (ESTRD) - Equity returns ↔ Funding rate
      */
-    EQUITY_SWAP,
+    EQUITY_SWAP(EquitySwap.class),
 
     /**
      * FX Forward - Currency forwards
      */
-    FX_FORWARD,
+    FX_FORWARD(FXForward.class),
 
     /**
      * Equity Option - Call/Put options on stocks/indices
      */
-    EQUITY_OPTION,
+    EQUITY_OPTION(EquityOption.class),
 
     /**
      * Credit Default Swap - Credit protection instruments
      */
-    CREDIT_DEFAULT_SWAP
-}
\ No newline at end of file
+    CREDIT_DEFAULT_SWAP(CreditDefaultSwap.class);
+
+    private final Class<? extends Trade> tradeClass;
+
+    TradeType(Class<? extends Trade> tradeClass) {
+        this.tradeClass = tradeClass;
+    }
+
+    /**
+     * Get the model class of trades of this type.
+     */
+    public Class<? extends Trade> getTradeClass() {
+        return tradeClass;
+    }
+
+    /**
+     * Get the trade type of a model class.
+     *
+     * @param tradeClass One of the concrete trade classes
+     * @return The type whose trades are instances of {@code tradeClass}
+     * @throws IllegalArgumentException if the class is not a concrete trade class
+     */
+    public static TradeType of(Class<? extends Trade> tradeClass) {
+        for (TradeType type : values()) {
+            if (type.tradeClass == tradeClass) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Not a concrete trade class: " + tradeClass);
+    }
+}
@@ -0,0 +1,68 @@
+package io.annapurna.model;
+
+import java.time.Duration;
+import java.time.LocalTime;
+import java.time.ZoneId;
+
+/**
+ * Trading locations and their regular session hours, used to place execution
+ * timestamps within the day.
+ *
+ * <p>Every generated book is run out of one location, named by its suffix
+ * ({@code EQ_DERIV_LON}, {@code FX_APAC}, ...), so all trades of a book share a session.
+ */
+public enum TradingVenue {
+    NEW_YORK(ZoneId.of("America/New_York"), LocalTime.of(9, 30), LocalTime.of(16, 0)),
+    LONDON(ZoneId.of("Europe/London"), LocalTime.of(8, 0), LocalTime.of(16, 30)),
+    HONG_KONG(ZoneId.of("Asia/Hong_Kong"), LocalTime.of(9, 30), LocalTime.of(16, 0));
+
+    private final ZoneId zone;
+    private final LocalTime open;
+    private final LocalTime close;
+    private final long sessionNanos;
+
+    TradingVenue(ZoneId zone, LocalTime open, LocalTime close) {
+        this.zone = zone;
+        this.open = open;
+        this.close = close;
+        this.sessionNanos = Duration.between(open, close).toNanos();
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public LocalTime getOpen() {
+        return open;
+    }
+
+    public LocalTime getClose() {
+        return close;
+    }
+
+    /**
+     * Length of the session in nanoseconds.
+     */
+    public long getSessionNanos() {
+        return sessionNanos;
+    }
+
+    /**
+     * The location a book is run from. Books without a recognised regional suffix,
+     * including a missing book, default to {@link #NEW_YORK}.
+     *
+     * @param book Book name, e.g. {@code RATES_DERIV_EMEA}
+     */
+    public static TradingVenue forBook(String book) {
+        if (book == null) {
+            return NEW_YORK;
+        }
+        if (book.endsWith("_LON") || book.endsWith("_EMEA")) {
+            return LONDON;
+        }
+        if (book.endsWith("_HK") || book.endsWith("_APAC")) {
+            return HONG_KONG;
+        }
+        return NEW_YORK;
+    }
+}
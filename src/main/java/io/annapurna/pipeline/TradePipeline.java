@@ -0,0 +1,379 @@
+package io.annapurna.pipeline;
+
+import io.annapurna.model.Trade;
+import io.annapurna.sink.TradeSink;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Staged generation pipeline: generation, then profile corruption, then a sink, each on
+ * its own threads, connected by one preallocated ring of trade slots.
+ *
+ * <p>Trade {@code i} always lives in slot {@code i & (bufferSize - 1)}. The sequence is
+ * divided into batches of {@code batchSize} trades, and batch {@code b} of a stage is
+ * handled by that stage's worker {@code b % threads}. Each worker publishes its
+ * progress in a sequence that only it writes, so there are no locks and no CAS loops:
+ * a worker starts a batch once the previous stage has published past it (generation
+ * instead waits for the sink to free the slots), processes the whole batch, then
+ * publishes once. CPU-bound generation and I/O-bound sinks therefore overlap, and a
+ * slow sink holds generation back by at most one ring of trades.
+ *
+ * <p>The sink receives each batch through {@link TradeSink#acceptBatch(Trade[], int)}.
+ * Batches hold consecutive trades; with one sink thread they also arrive in index
+ * order, which suits writing a file.
+ *
+ * <p>If any stage throws, all workers stop and the first failure is rethrown by
+ * {@link #run(TradeSink)}.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * Annapurna.builder()
+ *     .count(10_000_000)
+ *     .dataProfile().clean(80).stress(20)
+ *     .build()
+ *     .pipeline()
+ *     .generationThreads(6)
+ *     .corruptionThreads(1)
+ *     .sinkThreads(1)
+ *     .run(writer);
+ * }</pre>
+ */
+public final class TradePipeline {
+
+    /**
+     * Default number of slots in the ring.
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    /**
+     * Default number of trades a worker handles per batch.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    // Longs between two workers' progress counters, so each sits on its own cache line
+    private static final int PADDING = 16;
+
+    private static final AtomicInteger PIPELINE_SEQUENCE = new AtomicInteger();
+
+    private final long count;
+    private final Generation generation;
+    private final Corruption corruption;
+    private final int generationThreads;
+    private final int corruptionThreads;
+    private final int sinkThreads;
+    private final int bufferSize;
+    private final int batchSize;
+    private final WaitStrategy waitStrategy;
+
+    private TradePipeline(Builder builder) {
+        this.count = builder.count;
+        this.generation = builder.generation;
+        this.corruption = builder.corruption;
+        this.generationThreads = builder.generationThreads;
+        this.corruptionThreads = builder.corruptionThreads;
+        this.sinkThreads = builder.sinkThreads;
+        this.bufferSize = builder.bufferSize;
+        this.batchSize = builder.batchSize;
+        this.waitStrategy = builder.waitStrategy;
+    }
+
+    /**
+     * Create a builder for a pipeline over trades {@code [0, count)}.
+     *
+     * @param count Number of trades to generate
+     * @param generation Produces the trade at an index
+     */
+    public static Builder builder(long count, Generation generation) {
+        return new Builder(count, generation);
+    }
+
+    /**
+     * Run the pipeline into a sink and block until every trade has been delivered.
+     *
+     * @param sink Destination; called from {@code sinkThreads} threads at once
+     */
+    public void run(TradeSink sink) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink must not be null");
+        }
+        new Run(sink).execute();
+    }
+
+    /**
+     * Produces the trade at an index of the dataset.
+     */
+    @FunctionalInterface
+    public interface Generation {
+        Trade generate(long index);
+    }
+
+    /**
+     * Corrupts the trade at an index, returning the trade to pass on.
+     */
+    @FunctionalInterface
+    public interface Corruption {
+        Trade apply(Trade trade, long index);
+    }
+
+    /**
+     * State of one execution: the ring, the stages and their worker threads.
+     */
+    private final class Run {
+        private final TradeSink sink;
+        private final Trade[] ring = new Trade[bufferSize];
+        private final int mask = bufferSize - 1;
+        private final Stage first;
+        private final Stage last;
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private volatile boolean halted;
+
+        Run(TradeSink sink) {
+            this.sink = sink;
+            this.first = new Stage("generate", generationThreads, null);
+            Stage middle = corruption != null ? new Stage("corrupt", corruptionThreads, first) : first;
+            this.last = new Stage("sink", sinkThreads, middle);
+        }
+
+        void execute() {
+            int id = PIPELINE_SEQUENCE.incrementAndGet();
+            Thread[] threads = new Thread[generationThreads + (corruption != null ? corruptionThreads : 0) + sinkThreads];
+            int t = 0;
+            for (Stage stage = last; stage != null; stage = stage.upstream) {
+                for (int worker = 0; worker < stage.threads; worker++) {
+                    Stage owner = stage;
+                    int ordinal = worker;
+                    threads[t] = new Thread(() -> work(owner, ordinal),
+                            "annapurna-pipeline-" + id + "-" + stage.name + "-" + (worker + 1));
+                    threads[t].setDaemon(true);
+                    threads[t++].start();
+                }
+            }
+
+            try {
+                for (Thread thread : threads) {
+                    thread.join();
+                }
+            } catch (InterruptedException e) {
+                halted = true;
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while running pipeline", e);
+            }
+
+            Throwable error = failure.get();
+            if (error instanceof RuntimeException) {
+                throw (RuntimeException) error;
+            }
+            if (error instanceof Error) {
+                throw (Error) error;
+            }
+            if (error != null) {
+                throw new IllegalStateException("Trade generation failed", error);
+            }
+        }
+
+        private void work(Stage stage, int worker) {
+            Trade[] batch = stage == last ? new Trade[batchSize] : null;
+            // Highest value seen for the sequence this worker waits on; avoids re-reading it per batch
+            long available = 0;
+            try {
+                for (long start = (long) worker * batchSize; start < count; ) {
+                    int length = (int) Math.min(batchSize, count - start);
+                    long end = start + length;
+
+                    if (stage == first) {
+                        available = awaitAtLeast(last, end - bufferSize, available);
+                    } else {
+                        available = awaitAtLeast(stage.upstream, end, available);
+                    }
+                    if (halted) {
+                        return;
+                    }
+
+                    process(stage, batch, start, length);
+
+                    long next = start + (long) stage.threads * batchSize;
+                    if (next >= count || next < 0) {
+                        break;
+                    }
+                    stage.publish(worker, next);
+                    start = next;
+                }
+                stage.publish(worker, Long.MAX_VALUE);
+            } catch (Throwable e) {
+                failure.compareAndSet(null, e);
+                halted = true;
+            }
+        }
+
+        private void process(Stage stage, Trade[] batch, long start, int length) {
+            int offset = (int) (start & mask);
+            if (stage == first) {
+                for (int i = 0; i < length; i++) {
+                    ring[offset + i] = generation.generate(start + i);
+                }
+            } else if (stage != last) {
+                for (int i = 0; i < length; i++) {
+                    ring[offset + i] = corruption.apply(ring[offset + i], start + i);
+                }
+            } else {
+                System.arraycopy(ring, offset, batch, 0, length);
+                // Drop the ring's references so delivered trades can be collected
+                Arrays.fill(ring, offset, offset + length, null);
+                sink.acceptBatch(batch, length);
+                Arrays.fill(batch, 0, length, null);
+            }
+        }
+
+        private long awaitAtLeast(Stage stage, long target, long available) {
+            int attempts = 0;
+            while (available < target && !halted) {
+                available = stage.minimum();
+                if (available < target) {
+                    attempts = waitStrategy.idle(attempts);
+                }
+            }
+            return available;
+        }
+    }
+
+    /**
+     * A stage's workers and their progress. Worker {@code w}'s progress is the start of
+     * the next batch it will handle, so every trade below the minimum across workers
+     * has passed through the stage.
+     */
+    private final class Stage {
+        final String name;
+        final int threads;
+        final Stage upstream;
+        final AtomicLongArray progress;
+
+        Stage(String name, int threads, Stage upstream) {
+            this.name = name;
+            this.threads = threads;
+            this.upstream = upstream;
+            this.progress = new AtomicLongArray(threads * PADDING);
+            for (int worker = 0; worker < threads; worker++) {
+                progress.set(worker * PADDING, (long) worker * batchSize);
+            }
+        }
+
+        void publish(int worker, long value) {
+            progress.lazySet(worker * PADDING, value);
+        }
+
+        long minimum() {
+            long minimum = Long.MAX_VALUE;
+            for (int worker = 0; worker < threads; worker++) {
+                minimum = Math.min(minimum, progress.get(worker * PADDING));
+            }
+            return minimum;
+        }
+    }
+
+    /**
+     * Builder for {@link TradePipeline}.
+     */
+    public static final class Builder {
+        private final long count;
+        private final Generation generation;
+        private Corruption corruption;
+        private int generationThreads = Runtime.getRuntime().availableProcessors();
+        private int corruptionThreads = 1;
+        private int sinkThreads = 1;
+        private int bufferSize = DEFAULT_BUFFER_SIZE;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private WaitStrategy waitStrategy = WaitStrategy.PARK;
+
+        private Builder(long count, Generation generation) {
+            if (count <= 0) {
+                throw new IllegalArgumentException("Count must be positive");
+            }
+            if (generation == null) {
+                throw new IllegalArgumentException("Generation must not be null");
+            }
+            this.count = count;
+            this.generation = generation;
+        }
+
+        /**
+         * Add a corruption stage between generation and the sink. Without one,
+         * generated trades go straight to the sink.
+         */
+        public Builder corruption(Corruption corruption) {
+            this.corruption = corruption;
+            return this;
+        }
+
+        public Builder generationThreads(int threads) {
+            this.generationThreads = requirePositive(threads, "Generation threads");
+            return this;
+        }
+
+        public Builder corruptionThreads(int threads) {
+            this.corruptionThreads = requirePositive(threads, "Corruption threads");
+            return this;
+        }
+
+        public Builder sinkThreads(int threads) {
+            this.sinkThreads = requirePositive(threads, "Sink threads");
+            return this;
+        }
+
+        /**
+         * Number of ring slots: a power of two, and a multiple of the batch size.
+         */
+        public Builder bufferSize(int bufferSize) {
+            if (bufferSize <= 0 || Integer.bitCount(bufferSize) != 1) {
+                throw new IllegalArgumentException("Buffer size must be a power of two, got: " + bufferSize);
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * Trades handled per batch: a power of two, so batches never wrap the ring.
+         */
+        public Builder batchSize(int batchSize) {
+            if (batchSize <= 0 || Integer.bitCount(batchSize) != 1) {
+                throw new IllegalArgumentException("Batch size must be a power of two, got: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        public Builder waitStrategy(WaitStrategy waitStrategy) {
+            if (waitStrategy == null) {
+                throw new IllegalArgumentException("Wait strategy must not be null");
+            }
+            this.waitStrategy = waitStrategy;
+            return this;
+        }
+
+        public TradePipeline build() {
+            if (bufferSize < batchSize) {
+                throw new IllegalArgumentException(
+                        "Buffer size " + bufferSize + " must hold at least one batch of " + batchSize);
+            }
+            return new TradePipeline(this);
+        }
+
+        /**
+         * Build the pipeline and run it into a sink.
+         *
+         * @see TradePipeline#run(TradeSink)
+         */
+        public void run(TradeSink sink) {
+            build().run(sink);
+        }
+
+        private static int requirePositive(int value, String name) {
+            if (value <= 0) {
+                throw new IllegalArgumentException(name + " must be positive");
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package io.annapurna.pipeline;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * How a pipeline worker waits for the stage before it (or, for generation, for free
+ * ring slots).
+ *
+ * <p>Workers poll the sequences they depend on; the strategy decides what a worker
+ * does between polls. It trades latency against the CPU burned while idle:
+ * <ul>
+ *   <li>{@link #BUSY_SPIN}: lowest latency, keeps a core fully busy; only use with at
+ *       least as many free cores as pipeline threads</li>
+ *   <li>{@link #YIELD}: spins briefly, then yields the core to other runnable threads</li>
+ *   <li>{@link #PARK}: spins, yields, then sleeps in short parks; the default, and the
+ *       right choice when stages have more threads than there are cores</li>
+ * </ul>
+ */
+public enum WaitStrategy {
+
+    BUSY_SPIN {
+        @Override
+        int idle(int attempts) {
+            Thread.onSpinWait();
+            return attempts + 1;
+        }
+    },
+
+    YIELD {
+        @Override
+        int idle(int attempts) {
+            if (attempts < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+            return attempts + 1;
+        }
+    },
+
+    PARK {
+        @Override
+        int idle(int attempts) {
+            if (attempts < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (attempts < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+            return attempts + 1;
+        }
+    };
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 50_000;
+
+    /**
+     * Wait once.
+     *
+     * @param attempts Number of times this wait has already idled
+     * @return The updated attempt count to pass to the next call
+     */
+    abstract int idle(int attempts);
+}
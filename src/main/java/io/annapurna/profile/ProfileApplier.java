@@ -4,6 +4,7 @@ import io.annapurna.model.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
 
 /**
@@ -14,7 +15,8 @@ import java.util.concurrent.ThreadLocalRandom;
  * - EDGE_CASE: 1 corruption (missing optional field or extreme value)
  * - STRESS: 2-4 corruptions (broken data, invalid state)
  *
- * Thread-safe: Uses ThreadLocalRandom for parallel generation.
+ * Thread-safe: Uses ThreadLocalRandom for parallel generation, or a caller-supplied
+ * random stream (and "today" date) when corruption must be reproducible.
  */
 public class ProfileApplier {
 
@@ -27,15 +29,32 @@ public class ProfileApplier {
      * @return Corrupted trade (or original if CLEAN)
      */
     public static Trade apply(Trade trade, DataProfile profile) {
+        return apply(trade, profile, ThreadLocalRandom.current(), LocalDate.now());
+    }
+
+    /**
+     * Apply corruption using a caller-supplied random stream.
+     *
+     * <p>All choices are drawn from {@code random} and dates that are relative to
+     * "today" (future trade dates, expired options) are relative to {@code asOf},
+     * so the result is reproducible for a given stream state.
+     *
+     * @param trade Original trade
+     * @param profile Data quality profile
+     * @param random Random stream to draw corruption choices from
+     * @param asOf Date treated as today
+     * @return Corrupted trade (or original if CLEAN)
+     */
+    public static Trade apply(Trade trade, DataProfile profile, Random random, LocalDate asOf) {
         if (profile == DataProfile.CLEAN) {
             return trade; // No corruption
         }
 
         // Apply general corruption
-        trade = applyGeneralCorruption(trade, profile);
+        trade = applyGeneralCorruption(trade, profile, random, asOf);
 
         // Apply type-specific corruption
-        trade = applyTypeSpecificCorruption(trade, profile);
+        trade = applyTypeSpecificCorruption(trade, profile, random, asOf);
 
         return trade;
     }
@@ -43,13 +62,13 @@ public class ProfileApplier {
     /**
      * Apply general corruptions that work for all trade types.
      */
-    private static Trade applyGeneralCorruption(Trade trade, DataProfile profile) {
+    private static Trade applyGeneralCorruption(Trade trade, DataProfile profile, Random random, LocalDate asOf) {
         if (profile == DataProfile.EDGE_CASE) {
-            return applyEdgeCaseCorruption(trade);
+            return applyEdgeCaseCorruption(trade, random);
         }
 
         if (profile == DataProfile.STRESS) {
-            return applyStressCorruption(trade);
+            return applyStressCorruption(trade, random, asOf);
         }
 
         return trade;
@@ -58,8 +77,8 @@ public class ProfileApplier {
     /**
      * Apply edge case corruption - ONE issue, still technically valid.
      */
-    private static Trade applyEdgeCaseCorruption(Trade trade) {
-        int corruption = ThreadLocalRandom.current().nextInt(5);
+    private static Trade applyEdgeCaseCorruption(Trade trade, Random random) {
+        int corruption = random.nextInt(5);
 
         switch (corruption) {
             case 0:
@@ -94,11 +113,11 @@ public class ProfileApplier {
     /**
      * Apply stress corruption - MULTIPLE issues, completely broken.
      */
-    private static Trade applyStressCorruption(Trade trade) {
-        int numCorruptions = 2 + ThreadLocalRandom.current().nextInt(3); // 2-4 corruptions
+    private static Trade applyStressCorruption(Trade trade, Random random, LocalDate asOf) {
+        int numCorruptions = 2 + random.nextInt(3); // 2-4 corruptions
 
         for (int i = 0; i < numCorruptions; i++) {
-            int corruption = ThreadLocalRandom.current().nextInt(10);
+            int corruption = random.nextInt(10);
 
             switch (corruption) {
                 case 0:
@@ -137,7 +156,7 @@ public class ProfileApplier {
 
                 case 6:
                     // Future trade date (INVALID)
-                    trade.setTradeDate(LocalDate.now().plusYears(1));
+                    trade.setTradeDate(asOf.plusYears(1));
                     break;
 
                 case 7:
@@ -163,17 +182,17 @@ public class ProfileApplier {
     /**
      * Apply trade-type specific corruptions.
      */
-    private static Trade applyTypeSpecificCorruption(Trade trade, DataProfile profile) {
+    private static Trade applyTypeSpecificCorruption(Trade trade, DataProfile profile, Random random, LocalDate asOf) {
         if (trade instanceof EquitySwap) {
-            return corruptEquitySwap((EquitySwap) trade, profile);
+            return corruptEquitySwap((EquitySwap) trade, profile, random);
         } else if (trade instanceof InterestRateSwap) {
-            return corruptInterestRateSwap((InterestRateSwap) trade, profile);
+            return corruptInterestRateSwap((InterestRateSwap) trade, profile, random);
         } else if (trade instanceof FXForward) {
-            return corruptFXForward((FXForward) trade, profile);
+            return corruptFXForward((FXForward) trade, profile, random);
         } else if (trade instanceof EquityOption) {
-            return corruptEquityOption((EquityOption) trade, profile);
+            return corruptEquityOption((EquityOption) trade, profile, random, asOf);
         } else if (trade instanceof CreditDefaultSwap) {
-            return corruptCDS((CreditDefaultSwap) trade, profile);
+            return corruptCDS((CreditDefaultSwap) trade, profile, random);
         }
 
         return trade;
@@ -182,9 +201,9 @@ public class ProfileApplier {
     /**
      * Corrupt Equity Swap specific fields.
      */
-    private static EquitySwap corruptEquitySwap(EquitySwap swap, DataProfile profile) {
+    private static EquitySwap corruptEquitySwap(EquitySwap swap, DataProfile profile, Random random) {
         if (profile == DataProfile.EDGE_CASE) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Missing reference asset
@@ -200,7 +219,7 @@ public class ProfileApplier {
                     break;
             }
         } else if (profile == DataProfile.STRESS) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Broken math: quantity * price != notional
@@ -224,9 +243,9 @@ public class ProfileApplier {
     /**
      * Corrupt Interest Rate Swap specific fields.
      */
-    private static InterestRateSwap corruptInterestRateSwap(InterestRateSwap swap, DataProfile profile) {
+    private static InterestRateSwap corruptInterestRateSwap(InterestRateSwap swap, DataProfile profile, Random random) {
         if (profile == DataProfile.EDGE_CASE) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Missing floating rate index
@@ -242,7 +261,7 @@ public class ProfileApplier {
                     break;
             }
         } else if (profile == DataProfile.STRESS) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Negative fixed rate
@@ -265,9 +284,9 @@ public class ProfileApplier {
     /**
      * Corrupt FX Forward specific fields.
      */
-    private static FXForward corruptFXForward(FXForward forward, DataProfile profile) {
+    private static FXForward corruptFXForward(FXForward forward, DataProfile profile, Random random) {
         if (profile == DataProfile.EDGE_CASE) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Missing currency pair
@@ -283,7 +302,7 @@ public class ProfileApplier {
                     break;
             }
         } else if (profile == DataProfile.STRESS) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Forward rate = spot rate (no forward points, invalid)
@@ -307,9 +326,9 @@ public class ProfileApplier {
     /**
      * Corrupt Equity Option specific fields.
      */
-    private static EquityOption corruptEquityOption(EquityOption option, DataProfile profile) {
+    private static EquityOption corruptEquityOption(EquityOption option, DataProfile profile, Random random, LocalDate asOf) {
         if (profile == DataProfile.EDGE_CASE) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Missing strike price
@@ -325,11 +344,11 @@ public class ProfileApplier {
                     break;
             }
         } else if (profile == DataProfile.STRESS) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Expiry in the past (expired option being traded)
-                    option.setExpiryDate(LocalDate.now().minusYears(1));
+                    option.setExpiryDate(asOf.minusYears(1));
                     break;
                 case 1:
                     // Negative strike price
@@ -348,9 +367,9 @@ public class ProfileApplier {
     /**
      * Corrupt Credit Default Swap specific fields.
      */
-    private static CreditDefaultSwap corruptCDS(CreditDefaultSwap cds, DataProfile profile) {
+    private static CreditDefaultSwap corruptCDS(CreditDefaultSwap cds, DataProfile profile, Random random) {
         if (profile == DataProfile.EDGE_CASE) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Missing reference entity
@@ -366,7 +385,7 @@ public class ProfileApplier {
                     break;
             }
         } else if (profile == DataProfile.STRESS) {
-            int corruption = ThreadLocalRandom.current().nextInt(3);
+            int corruption = random.nextInt(3);
             switch (corruption) {
                 case 0:
                     // Negative spread (impossible)
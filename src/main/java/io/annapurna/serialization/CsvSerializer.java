@@ -5,13 +5,20 @@ import io.annapurna.model.*;
 import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.List;
 
 /**
  * Serializer for exporting trades to CSV format.
  *
  * Creates separate CSV files for each trade type with appropriate columns.
- * Common fields appear first, followed by type-specific fields.
+ * Common fields appear first, followed by type-specific fields. The
+ * {@code executionTime} column comes last, so files written before it existed keep
+ * their column positions, and is empty for trades generated without execution times.
+ *
+ * Files are UTF-8 with {@code '\n'} line endings on every platform, so a trade takes
+ * the bytes {@link TradeFormat#CSV} counts for it.
  */
 public class CsvSerializer {
 
@@ -32,7 +39,7 @@ public class CsvSerializer {
         // Determine trade type from first trade
         Trade firstTrade = trades.get(0);
 
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filepath))) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(filepath, StandardCharsets.UTF_8))) {
             if (firstTrade instanceof EquitySwap) {
                 writeEquitySwaps(trades, writer);
             } else if (firstTrade instanceof InterestRateSwap) {
@@ -49,6 +56,28 @@ public class CsvSerializer {
         }
     }
 
+    /**
+     * Format one trade as a CSV row of its type's file, without the line terminator.
+     *
+     * @param trade Trade to format
+     * @return The row {@link #write(List, String)} would write for the trade
+     * @throws IllegalArgumentException if the trade type is unknown
+     */
+    public String toCsvLine(Trade trade) {
+        if (trade instanceof EquitySwap) {
+            return equitySwapRow((EquitySwap) trade);
+        } else if (trade instanceof InterestRateSwap) {
+            return interestRateSwapRow((InterestRateSwap) trade);
+        } else if (trade instanceof FXForward) {
+            return fxForwardRow((FXForward) trade);
+        } else if (trade instanceof EquityOption) {
+            return equityOptionRow((EquityOption) trade);
+        } else if (trade instanceof CreditDefaultSwap) {
+            return cdsRow((CreditDefaultSwap) trade);
+        }
+        throw new IllegalArgumentException("Unknown trade type: " + trade.getClass());
+    }
+
     /**
      * Write trades grouped by type to separate CSV files.
      *
@@ -110,32 +139,13 @@ public class CsvSerializer {
         // Header
         writer.write("tradeId,tradeDate,settlementDate,maturityDate,notional,currency,counterparty,book,trader," +
                 "referenceAsset,returnType,fundingLeg,fundingSpreadBps,settlementFrequency," +
-                "initialPrice,quantity,direction");
-        writer.newLine();
+                "initialPrice,quantity,direction,executionTime");
+        writer.write('\n');
 
         // Data
         for (Trade trade : trades) {
-            EquitySwap swap = (EquitySwap) trade;
-            writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
-                    csvEscape(swap.getTradeId()),
-                    swap.getTradeDate(),
-                    swap.getSettlementDate(),
-                    swap.getMaturityDate(),
-                    swap.getNotional(),
-                    swap.getCurrency(),
-                    csvEscape(swap.getCounterparty()),
-                    csvEscape(swap.getBook()),
-                    csvEscape(swap.getTrader()),
-                    csvEscape(swap.getReferenceAsset()),
-                    swap.getReturnType(),
-                    csvEscape(swap.getFundingLeg()),
-                    swap.getFundingSpreadBps(),
-                    swap.getSettlementFrequency(),
-                    swap.getInitialPrice(),
-                    swap.getQuantity(),
-                    swap.getDirection()
-            ));
-            writer.newLine();
+            writer.write(equitySwapRow((EquitySwap) trade));
+            writer.write('\n');
         }
     }
 
@@ -143,32 +153,13 @@ public class CsvSerializer {
         // Header
         writer.write("tradeId,tradeDate,settlementDate,maturityDate,notional,currency,counterparty,book,trader," +
                 "fixedRate,floatingRateIndex,floatingSpreadBps,fixedLegFrequency,floatingLegFrequency," +
-                "dayCountConvention,direction,effectiveDate");
-        writer.newLine();
+                "dayCountConvention,direction,effectiveDate,executionTime");
+        writer.write('\n');
 
         // Data
         for (Trade trade : trades) {
-            InterestRateSwap swap = (InterestRateSwap) trade;
-            writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
-                    csvEscape(swap.getTradeId()),
-                    swap.getTradeDate(),
-                    swap.getSettlementDate(),
-                    swap.getMaturityDate(),
-                    swap.getNotional(),
-                    swap.getCurrency(),
-                    csvEscape(swap.getCounterparty()),
-                    csvEscape(swap.getBook()),
-                    csvEscape(swap.getTrader()),
-                    swap.getFixedRate(),
-                    csvEscape(swap.getFloatingRateIndex()),
-                    swap.getFloatingSpreadBps(),
-                    swap.getFixedLegFrequency(),
-                    swap.getFloatingLegFrequency(),
-                    csvEscape(swap.getDayCountConvention()),
-                    swap.getDirection(),
-                    swap.getEffectiveDate()
-            ));
-            writer.newLine();
+            writer.write(interestRateSwapRow((InterestRateSwap) trade));
+            writer.write('\n');
         }
     }
 
@@ -176,32 +167,13 @@ public class CsvSerializer {
         // Header
         writer.write("tradeId,tradeDate,settlementDate,maturityDate,notional,currency,counterparty,book,trader," +
                 "currencyPair,baseCurrency,quoteCurrency,spotRate,forwardRate,forwardPoints," +
-                "direction,settlementType");
-        writer.newLine();
+                "direction,settlementType,executionTime");
+        writer.write('\n');
 
         // Data
         for (Trade trade : trades) {
-            FXForward forward = (FXForward) trade;
-            writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
-                    csvEscape(forward.getTradeId()),
-                    forward.getTradeDate(),
-                    forward.getSettlementDate(),
-                    forward.getMaturityDate(),
-                    forward.getNotional(),
-                    forward.getCurrency(),
-                    csvEscape(forward.getCounterparty()),
-                    csvEscape(forward.getBook()),
-                    csvEscape(forward.getTrader()),
-                    csvEscape(forward.getCurrencyPair()),
-                    forward.getBaseCurrency(),
-                    forward.getQuoteCurrency(),
-                    forward.getSpotRate(),
-                    forward.getForwardRate(),
-                    forward.getForwardPoints(),
-                    forward.getDirection(),
-                    forward.getSettlementType()
-            ));
-            writer.newLine();
+            writer.write(fxForwardRow((FXForward) trade));
+            writer.write('\n');
         }
     }
 
@@ -209,36 +181,13 @@ public class CsvSerializer {
         // Header
         writer.write("tradeId,tradeDate,settlementDate,maturityDate,notional,currency,counterparty,book,trader," +
                 "underlyingAsset,optionType,strikePrice,spotPrice,premium,contracts,quantity," +
-                "expiryDate,exerciseStyle,moneyness,position,impliedVolatility");
-        writer.newLine();
+                "expiryDate,exerciseStyle,moneyness,position,impliedVolatility,executionTime");
+        writer.write('\n');
 
         // Data
         for (Trade trade : trades) {
-            EquityOption option = (EquityOption) trade;
-            writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
-                    csvEscape(option.getTradeId()),
-                    option.getTradeDate(),
-                    option.getSettlementDate(),
-                    option.getMaturityDate(),
-                    option.getNotional(),
-                    option.getCurrency(),
-                    csvEscape(option.getCounterparty()),
-                    csvEscape(option.getBook()),
-                    csvEscape(option.getTrader()),
-                    csvEscape(option.getUnderlyingAsset()),
-                    option.getOptionType(),
-                    option.getStrikePrice(),
-                    option.getSpotPrice(),
-                    option.getPremium(),
-                    option.getContracts(),
-                    option.getQuantity(),
-                    option.getExpiryDate(),
-                    option.getExerciseStyle(),
-                    option.getMoneyness(),
-                    option.getPosition(),
-                    option.getImpliedVolatility()
-            ));
-            writer.newLine();
+            writer.write(equityOptionRow((EquityOption) trade));
+            writer.write('\n');
         }
     }
 
@@ -246,38 +195,145 @@ public class CsvSerializer {
         // Header
         writer.write("tradeId,tradeDate,settlementDate,maturityDate,notional,currency,counterparty,book,trader," +
                 "referenceEntity,referenceTicker,sector,creditRating,spreadBps,upfrontPayment," +
-                "recoveryRate,paymentFrequency,position,restructuringClause,seniority");
-        writer.newLine();
+                "recoveryRate,paymentFrequency,position,restructuringClause,seniority,executionTime");
+        writer.write('\n');
 
         // Data
         for (Trade trade : trades) {
-            CreditDefaultSwap cds = (CreditDefaultSwap) trade;
-            writer.write(String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
-                    csvEscape(cds.getTradeId()),
-                    cds.getTradeDate(),
-                    cds.getSettlementDate(),
-                    cds.getMaturityDate(),
-                    cds.getNotional(),
-                    cds.getCurrency(),
-                    csvEscape(cds.getCounterparty()),
-                    csvEscape(cds.getBook()),
-                    csvEscape(cds.getTrader()),
-                    csvEscape(cds.getReferenceEntity()),
-                    csvEscape(cds.getReferenceTicker()),
-                    csvEscape(cds.getSector()),
-                    csvEscape(cds.getCreditRating()),
-                    cds.getSpreadBps(),
-                    cds.getUpfrontPayment(),
-                    cds.getRecoveryRate(),
-                    cds.getPaymentFrequency(),
-                    cds.getPosition(),
-                    csvEscape(cds.getRestructuringClause()),
-                    csvEscape(cds.getSeniority())
-            ));
-            writer.newLine();
+            writer.write(cdsRow((CreditDefaultSwap) trade));
+            writer.write('\n');
         }
     }
 
+    private String equitySwapRow(EquitySwap swap) {
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
+                csvEscape(swap.getTradeId()),
+                swap.getTradeDate(),
+                swap.getSettlementDate(),
+                swap.getMaturityDate(),
+                swap.getNotional(),
+                swap.getCurrency(),
+                csvEscape(swap.getCounterparty()),
+                csvEscape(swap.getBook()),
+                csvEscape(swap.getTrader()),
+                csvEscape(swap.getReferenceAsset()),
+                swap.getReturnType(),
+                csvEscape(swap.getFundingLeg()),
+                swap.getFundingSpreadBps(),
+                swap.getSettlementFrequency(),
+                swap.getInitialPrice(),
+                swap.getQuantity(),
+                swap.getDirection(),
+                formatInstant(swap.getExecutionTime())
+        );
+    }
+
+    private String interestRateSwapRow(InterestRateSwap swap) {
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
+                csvEscape(swap.getTradeId()),
+                swap.getTradeDate(),
+                swap.getSettlementDate(),
+                swap.getMaturityDate(),
+                swap.getNotional(),
+                swap.getCurrency(),
+                csvEscape(swap.getCounterparty()),
+                csvEscape(swap.getBook()),
+                csvEscape(swap.getTrader()),
+                swap.getFixedRate(),
+                csvEscape(swap.getFloatingRateIndex()),
+                swap.getFloatingSpreadBps(),
+                swap.getFixedLegFrequency(),
+                swap.getFloatingLegFrequency(),
+                csvEscape(swap.getDayCountConvention()),
+                swap.getDirection(),
+                swap.getEffectiveDate(),
+                formatInstant(swap.getExecutionTime())
+        );
+    }
+
+    private String fxForwardRow(FXForward forward) {
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
+                csvEscape(forward.getTradeId()),
+                forward.getTradeDate(),
+                forward.getSettlementDate(),
+                forward.getMaturityDate(),
+                forward.getNotional(),
+                forward.getCurrency(),
+                csvEscape(forward.getCounterparty()),
+                csvEscape(forward.getBook()),
+                csvEscape(forward.getTrader()),
+                csvEscape(forward.getCurrencyPair()),
+                forward.getBaseCurrency(),
+                forward.getQuoteCurrency(),
+                forward.getSpotRate(),
+                forward.getForwardRate(),
+                forward.getForwardPoints(),
+                forward.getDirection(),
+                forward.getSettlementType(),
+                formatInstant(forward.getExecutionTime())
+        );
+    }
+
+    private String equityOptionRow(EquityOption option) {
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
+                csvEscape(option.getTradeId()),
+                option.getTradeDate(),
+                option.getSettlementDate(),
+                option.getMaturityDate(),
+                option.getNotional(),
+                option.getCurrency(),
+                csvEscape(option.getCounterparty()),
+                csvEscape(option.getBook()),
+                csvEscape(option.getTrader()),
+                csvEscape(option.getUnderlyingAsset()),
+                option.getOptionType(),
+                option.getStrikePrice(),
+                option.getSpotPrice(),
+                option.getPremium(),
+                option.getContracts(),
+                option.getQuantity(),
+                option.getExpiryDate(),
+                option.getExerciseStyle(),
+                option.getMoneyness(),
+                option.getPosition(),
+                option.getImpliedVolatility(),
+                formatInstant(option.getExecutionTime())
+        );
+    }
+
+    private String cdsRow(CreditDefaultSwap cds) {
+        return String.format("%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s,%s",
+                csvEscape(cds.getTradeId()),
+                cds.getTradeDate(),
+                cds.getSettlementDate(),
+                cds.getMaturityDate(),
+                cds.getNotional(),
+                cds.getCurrency(),
+                csvEscape(cds.getCounterparty()),
+                csvEscape(cds.getBook()),
+                csvEscape(cds.getTrader()),
+                csvEscape(cds.getReferenceEntity()),
+                csvEscape(cds.getReferenceTicker()),
+                csvEscape(cds.getSector()),
+                csvEscape(cds.getCreditRating()),
+                cds.getSpreadBps(),
+                cds.getUpfrontPayment(),
+                cds.getRecoveryRate(),
+                cds.getPaymentFrequency(),
+                cds.getPosition(),
+                csvEscape(cds.getRestructuringClause()),
+                csvEscape(cds.getSeniority()),
+                formatInstant(cds.getExecutionTime())
+        );
+    }
+
+    /**
+     * ISO-8601 timestamp, or an empty field when the trade has none.
+     */
+    private String formatInstant(Instant instant) {
+        return instant == null ? "" : instant.toString();
+    }
+
     /**
      * Escape CSV special characters.
      */
@@ -1,6 +1,7 @@
 package io.annapurna.serialization;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.annapurna.model.Trade;
@@ -18,12 +19,14 @@ import java.util.List;
 public class JsonSerializer {
 
     private final ObjectMapper mapper;
+    private final ObjectWriter lineWriter;
 
     public JsonSerializer() {
         this.mapper = new ObjectMapper();
         this.mapper.registerModule(new JavaTimeModule());
         this.mapper.enable(SerializationFeature.INDENT_OUTPUT);
         this.mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        this.lineWriter = mapper.writer().without(SerializationFeature.INDENT_OUTPUT);
     }
 
     /**
@@ -61,6 +64,17 @@ public class JsonSerializer {
         return mapper.writeValueAsString(trade);
     }
 
+    /**
+     * Convert a trade to single-line JSON, for JSON Lines output (one trade per line).
+     *
+     * @param trade The trade to serialize
+     * @return JSON string without line breaks or indentation
+     * @throws IOException if serialization fails
+     */
+    public String toJsonLine(Trade trade) throws IOException {
+        return lineWriter.writeValueAsString(trade);
+    }
+
     /**
      * Convert multiple trades to JSON string.
      *
@@ -0,0 +1,86 @@
+package io.annapurna.serialization;
+
+import io.annapurna.model.Trade;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Line-oriented output formats, for sizing generated data in bytes.
+ *
+ * <p>Each trade is one line: the line's UTF-8 bytes plus a single {@code '\n'} is
+ * the trade's size on disk. CSV headers, one per file, are not counted.
+ */
+public enum TradeFormat {
+
+    /**
+     * JSON Lines: one single-line JSON object per trade, as written by resumable jobs.
+     */
+    JSON_LINES {
+        @Override
+        public String format(Trade trade) {
+            try {
+                return Serializers.JSON.toJsonLine(trade);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+
+    /**
+     * CSV: one row per trade, as written by {@link CsvSerializer}.
+     */
+    CSV {
+        @Override
+        public String format(Trade trade) {
+            return Serializers.CSV.toCsvLine(trade);
+        }
+    };
+
+    /**
+     * Format a trade as one line, without the line terminator.
+     *
+     * @param trade Trade to format
+     * @return The trade's line
+     */
+    public abstract String format(Trade trade);
+
+    /**
+     * Size of a trade's line in UTF-8, including its {@code '\n'}.
+     *
+     * @param trade Trade to size
+     * @return Bytes the trade takes in this format
+     */
+    public long byteSize(Trade trade) {
+        return utf8Length(format(trade)) + 1;
+    }
+
+    /**
+     * UTF-8 length of a string, without encoding it.
+     */
+    static long utf8Length(String line) {
+        long bytes = 0;
+        for (int i = 0, n = line.length(); i < n; i++) {
+            char c = line.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < n && Character.isLowSurrogate(line.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Shared, thread-safe serializers, created on first use.
+     */
+    private static final class Serializers {
+        static final JsonSerializer JSON = new JsonSerializer();
+        static final CsvSerializer CSV = new CsvSerializer();
+    }
+}
@@ -0,0 +1,30 @@
+package io.annapurna.sink;
+
+import io.annapurna.model.Trade;
+
+/**
+ * Callback for allocation-free generation with reused trade instances.
+ *
+ * <p>Used with {@code BulkTradeGenerator.generateFlyweights(FlyweightSink)}. Each worker
+ * owns one instance per trade type and refills it in place for every trade, so the
+ * trade passed to {@link #accept(Trade)} is only valid until the call returns.
+ *
+ * <p><b>Contract:</b>
+ * <ul>
+ *   <li>Never retain the trade, or any reference to it, after {@code accept} returns.
+ *       Serialize or copy what is needed; the same object is overwritten by the
+ *       worker's next trade of that type.</li>
+ *   <li>Called concurrently from up to {@code parallelism} worker threads.</li>
+ *   <li>An exception stops generation and is rethrown to the caller.</li>
+ * </ul>
+ */
+@FunctionalInterface
+public interface FlyweightSink {
+
+    /**
+     * Receive a trade that is only valid for the duration of this call.
+     *
+     * @param trade Worker-owned instance, refilled after this call returns
+     */
+    void accept(Trade trade);
+}
@@ -0,0 +1,59 @@
+package io.annapurna.sink;
+
+import io.annapurna.model.Trade;
+
+/**
+ * Destination for generated trades, fed directly by generation workers.
+ *
+ * <p>Used with {@code BulkTradeGenerator.generateInto(TradeSink)} to write trades to a
+ * file, queue or socket as they are produced, without collecting them into a list
+ * first. Each worker fills its own batch array and hands it over with
+ * {@link #acceptBatch(Trade[], int)}; the default implementation forwards every trade
+ * to {@link #accept(Trade)}.
+ *
+ * <p><b>Contract:</b>
+ * <ul>
+ *   <li>Methods are called concurrently from up to {@code parallelism} worker threads,
+ *       so implementations must be thread-safe.</li>
+ *   <li>A batch holds consecutive trades of the dataset, but batches arrive in no
+ *       particular order.</li>
+ *   <li>The batch array is reused by its worker once the call returns; copy what must
+ *       be kept. The trades themselves may be retained.</li>
+ *   <li>An exception thrown by the sink stops generation and is rethrown to the
+ *       caller of {@code generateInto}.</li>
+ * </ul>
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * BlockingQueue<Trade> queue = new LinkedBlockingQueue<>();
+ * Annapurna.builder()
+ *     .count(10_000_000)
+ *     .build()
+ *     .generateInto(queue::offer);
+ * }</pre>
+ *
+ * <p>{@link #accept(Trade)} cannot throw checked exceptions, so a sink that blocks on
+ * {@code put} must catch {@code InterruptedException} itself.
+ */
+@FunctionalInterface
+public interface TradeSink {
+
+    /**
+     * Receive one trade.
+     *
+     * @param trade Generated trade
+     */
+    void accept(Trade trade);
+
+    /**
+     * Receive a batch of trades from one worker. Override to write a batch at once.
+     *
+     * @param batch Worker's batch buffer; only {@code [0, length)} is valid
+     * @param length Number of trades in the batch
+     */
+    default void acceptBatch(Trade[] batch, int length) {
+        for (int i = 0; i < length; i++) {
+            accept(batch[i]);
+        }
+    }
+}
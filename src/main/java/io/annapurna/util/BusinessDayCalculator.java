@@ -0,0 +1,50 @@
+package io.annapurna.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Weekend-aware date helpers shared by the generators.
+ *
+ * <p>Holidays are not modelled; every Monday-Friday is a business day.
+ */
+public final class BusinessDayCalculator {
+
+    private BusinessDayCalculator() {
+    }
+
+    public static boolean isBusinessDay(LocalDate date) {
+        DayOfWeek day = date.getDayOfWeek();
+        return day != DayOfWeek.SATURDAY && day != DayOfWeek.SUNDAY;
+    }
+
+    /**
+     * Roll a weekend date back to the preceding Friday, unless that would fall before
+     * {@code floor}, in which case roll forward to the following Monday instead.
+     *
+     * @param date Candidate date
+     * @param floor Earliest acceptable date
+     * @return A business day on or near {@code date}
+     */
+    public static LocalDate rollToBusinessDay(LocalDate date, LocalDate floor) {
+        LocalDate rolled = date;
+        while (!isBusinessDay(rolled)) {
+            rolled = rolled.minusDays(1);
+        }
+        if (rolled.isBefore(floor)) {
+            rolled = date;
+            while (!isBusinessDay(rolled)) {
+                rolled = rolled.plusDays(1);
+            }
+        }
+        return rolled;
+    }
+
+    /**
+     * Number of calendar days in {@code [start, end]}, inclusive of both ends.
+     */
+    public static int daysInclusive(LocalDate start, LocalDate end) {
+        return (int) ChronoUnit.DAYS.between(start, end) + 1;
+    }
+}
@@ -0,0 +1,111 @@
+package io.annapurna.util;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Exact allocation of a dataset's positions to the business days of a date range, in
+ * date order.
+ *
+ * <p>The total is split evenly over the business days with
+ * {@link Strata#apportion(long, int[])}, so the per-day counts always sum to the total,
+ * differ by at most one and depend only on the range and the total. Day {@code d}
+ * takes the contiguous positions {@code [start(d), start(d + 1))}, which makes position
+ * order date order, and the day of any position is a binary search away.
+ *
+ * <p><b>Thread Safety:</b> Immutable; safe to share between threads.
+ */
+public final class DayBuckets {
+
+    private final LocalDate[] days;
+    // starts[d] is the first position of day d; starts[days.length] is the total
+    private final long[] starts;
+
+    private DayBuckets(LocalDate[] days, long[] starts) {
+        this.days = days;
+        this.starts = starts;
+    }
+
+    /**
+     * Allocate {@code total} positions over the business days in {@code [startDate, endDate]}.
+     *
+     * @throws IllegalArgumentException if the total is not positive or the range has no
+     *         business day
+     */
+    public static DayBuckets of(LocalDate startDate, LocalDate endDate, long total) {
+        if (total <= 0) {
+            throw new IllegalArgumentException("Total must be positive");
+        }
+        List<LocalDate> businessDays = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (BusinessDayCalculator.isBusinessDay(day)) {
+                businessDays.add(day);
+            }
+        }
+        if (businessDays.isEmpty()) {
+            throw new IllegalArgumentException(
+                    "Date range " + startDate + " to " + endDate + " contains no business day"
+            );
+        }
+
+        int[] weights = new int[businessDays.size()];
+        Arrays.fill(weights, 1);
+        long[] counts = Strata.apportion(total, weights);
+        long[] starts = new long[counts.length + 1];
+        for (int d = 0; d < counts.length; d++) {
+            starts[d + 1] = starts[d] + counts[d];
+        }
+        return new DayBuckets(businessDays.toArray(new LocalDate[0]), starts);
+    }
+
+    public int size() {
+        return days.length;
+    }
+
+    public LocalDate day(int bucket) {
+        return days[bucket];
+    }
+
+    /**
+     * First position of a day; {@code start(size())} is the total.
+     */
+    public long start(int bucket) {
+        return starts[bucket];
+    }
+
+    public long count(int bucket) {
+        return starts[bucket + 1] - starts[bucket];
+    }
+
+    /**
+     * The day holding a position.
+     *
+     * @param position Position in {@code [0, total)}
+     */
+    public int bucketOf(long position) {
+        if (position < 0 || position >= starts[days.length]) {
+            throw new IndexOutOfBoundsException("Position " + position + " is outside [0, " + starts[days.length] + ")");
+        }
+        // Last day starting at or before the position; days with no trades share a start
+        int low = 0;
+        int high = days.length;
+        while (high - low > 1) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] <= position) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Trade date of a position.
+     */
+    public LocalDate dateAt(long position) {
+        return days[bucketOf(position)];
+    }
+}
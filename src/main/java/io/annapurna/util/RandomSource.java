@@ -0,0 +1,660 @@
+package io.annapurna.util;
+
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * The single source of randomness injected into every trade generator.
+ *
+ * <p>Each algorithm is a final subclass, created by name:
+ * <ul>
+ *   <li>{@value #SPLIT_MIX_64}: the stream of {@link SplitMixRandom}. The default for
+ *       seeded runs, which reseed before every trade.</li>
+ *   <li>{@value #L64X128_MIX_RANDOM} (the default for unseeded runs) and
+ *       {@value #XOROSHIRO_128_PLUS_PLUS}: the JDK algorithms of those names,
+ *       reimplemented here so that they can be reseeded in place. A seed gives exactly
+ *       the stream of {@code RandomGeneratorFactory.of(name).create(seed)}.</li>
+ *   <li>{@value #JAVA_UTIL_RANDOM}: a {@link Random}, the stream the generators'
+ *       seeded constructors have always drawn from.</li>
+ *   <li>Any other algorithm known to {@link RandomGeneratorFactory}, for unseeded runs
+ *       only: the JDK can only reseed those by creating a new instance.</li>
+ *   <li>{@link #threadLocal()}: draws from the calling thread's
+ *       {@link ThreadLocalRandom}; used by the generators' no-arg constructors.</li>
+ * </ul>
+ * Reseeding never allocates, so a seeded run costs the same per trade whichever
+ * reseedable algorithm it uses.
+ *
+ * <p>The reseedable algorithms hold their state in the subclass itself and implement
+ * {@link #nextLong()} directly; the other draws are built on it in this class. A
+ * generator whose draws only ever see one algorithm, as in any run that does not mix
+ * algorithms, therefore has monomorphic call sites: the JIT inlines the draw, and
+ * inside it the source's exact class is known, so {@code nextLong} binds without a
+ * type check. Running several algorithms through the same generator class makes those
+ * call sites polymorphic again.
+ *
+ * <p>Extends {@link Random} so the same instance can also drive {@code Faker}.
+ *
+ * <p><b>Thread Safety:</b> {@link #threadLocal()} is safe to share between threads;
+ * every other source must be confined to one thread.
+ */
+public abstract class RandomSource extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Counter-friendly SplitMix64; smallest state.
+     */
+    public static final String SPLIT_MIX_64 = "SplitMix64";
+
+    /**
+     * JDK LXM generator with 64-bit LCG and 128-bit xorshift state.
+     */
+    public static final String L64X128_MIX_RANDOM = "L64X128MixRandom";
+
+    /**
+     * JDK xoroshiro128++ generator; smallest state of the JDK algorithms.
+     */
+    public static final String XOROSHIRO_128_PLUS_PLUS = "Xoroshiro128PlusPlus";
+
+    /**
+     * The JDK's {@link Random}: a 48-bit LCG, kept for compatibility with existing seeds.
+     */
+    public static final String JAVA_UTIL_RANDOM = "Random";
+
+    /**
+     * Algorithm used for unseeded runs.
+     */
+    public static final String DEFAULT_ALGORITHM = L64X128_MIX_RANDOM;
+
+    private static final String THREAD_LOCAL = "ThreadLocalRandom";
+
+    // Seed-scrambling constants of the JDK's LXM and xoroshiro generators
+    private static final long GOLDEN_RATIO_64 = 0x9e3779b97f4a7c15L;
+    private static final long SILVER_RATIO_64 = 0x6A09E667F3BCC909L;
+
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final float FLOAT_UNIT = 0x1.0p-24f;
+
+    private static final RandomSource THREAD_LOCAL_SOURCE = new ThreadLocalSource();
+
+    private final String algorithm;
+
+    private RandomSource(String algorithm) {
+        super(0L);
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Create a source for the named algorithm.
+     *
+     * @param algorithm {@value #SPLIT_MIX_64} or a {@link RandomGeneratorFactory} name
+     * @param seed Initial seed
+     * @return A new, single-threaded source
+     * @throws IllegalArgumentException if the algorithm is unknown
+     */
+    public static RandomSource of(String algorithm, long seed) {
+        if (SPLIT_MIX_64.equals(algorithm)) {
+            return new SplitMix64(seed);
+        }
+        if (L64X128_MIX_RANDOM.equals(algorithm)) {
+            return new L64X128Mix(seed);
+        }
+        if (XOROSHIRO_128_PLUS_PLUS.equals(algorithm)) {
+            return new Xoroshiro128PlusPlus(seed);
+        }
+        if (JAVA_UTIL_RANDOM.equals(algorithm)) {
+            return new LegacyRandom(seed);
+        }
+        return new JdkSource(algorithm, factoryFor(algorithm).create(seed));
+    }
+
+    /**
+     * Whether sources of an algorithm can be {@link #reseed(long) reseeded}, as
+     * seeded runs require.
+     */
+    public static boolean isReseedable(String algorithm) {
+        return SPLIT_MIX_64.equals(algorithm)
+                || L64X128_MIX_RANDOM.equals(algorithm)
+                || XOROSHIRO_128_PLUS_PLUS.equals(algorithm)
+                || JAVA_UTIL_RANDOM.equals(algorithm);
+    }
+
+    /**
+     * The shared source backed by {@link ThreadLocalRandom}. Cannot be reseeded.
+     */
+    public static RandomSource threadLocal() {
+        return THREAD_LOCAL_SOURCE;
+    }
+
+    /**
+     * Check that an algorithm name can be passed to {@link #of(String, long)}.
+     *
+     * @throws IllegalArgumentException if the algorithm is unknown
+     */
+    public static void validate(String algorithm) {
+        if (!isReseedable(algorithm)) {
+            factoryFor(algorithm);
+        }
+    }
+
+    private static RandomGeneratorFactory<RandomGenerator> factoryFor(String algorithm) {
+        if (algorithm == null) {
+            throw new IllegalArgumentException("Random algorithm must not be null");
+        }
+        try {
+            return RandomGeneratorFactory.of(algorithm);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown random algorithm: " + algorithm, e);
+        }
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Restart the stream from {@code seed}, in place. Every draw made afterwards is a
+     * pure function of the seed and the algorithm.
+     *
+     * @param seed Stream seed, typically {@link SplitMixRandom#seedFor(long, long)}
+     * @throws UnsupportedOperationException if the algorithm is not
+     *         {@link #isReseedable(String) reseedable}, or for {@link #threadLocal()}
+     */
+    public void reseed(long seed) {
+        throw new UnsupportedOperationException("A " + algorithm + " source cannot be reseeded");
+    }
+
+    /**
+     * Same as {@link #reseed(long)}. Ignored while {@link Random}'s constructor runs,
+     * before the source exists.
+     */
+    @Override
+    public void setSeed(long seed) {
+        if (algorithm != null) {
+            reseed(seed);
+        }
+    }
+
+    // The draws below are the RandomGenerator defaults, so each algorithm gives the JDK's values
+
+    @Override
+    public abstract long nextLong();
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        int m = bound - 1;
+        int r = nextInt();
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        // Reject the over-represented top of the range
+        for (int u = r >>> 1; u + m - (r = u % bound) < 0; u = nextInt() >>> 1) {
+        }
+        return r;
+    }
+
+    @Override
+    public int nextInt(int origin, int bound) {
+        if (origin >= bound) {
+            throw new IllegalArgumentException("bound must be greater than origin");
+        }
+        int r = nextInt();
+        int n = bound - origin;
+        int m = n - 1;
+        if ((n & m) == 0) {
+            return (r & m) + origin;
+        }
+        if (n > 0) {
+            for (int u = r >>> 1; u + m - (r = u % n) < 0; u = nextInt() >>> 1) {
+            }
+            return r + origin;
+        }
+        // The range does not fit in an int
+        while (r < origin || r >= bound) {
+            r = nextInt();
+        }
+        return r;
+    }
+
+    @Override
+    public long nextLong(long bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        long m = bound - 1;
+        long r = nextLong();
+        if ((bound & m) == 0) {
+            return r & m;
+        }
+        for (long u = r >>> 1; u + m - (r = u % bound) < 0; u = nextLong() >>> 1) {
+        }
+        return r;
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public float nextFloat() {
+        return (nextInt() >>> 8) * FLOAT_UNIT;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextInt() < 0;
+    }
+
+    @Override
+    public double nextGaussian() {
+        // Rare enough to reuse the JDK's ziggurat over this source's longs
+        RandomGenerator longs = this::nextLong;
+        return longs.nextGaussian();
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        int i = 0;
+        int length = bytes.length;
+        for (int words = length >> 3; words-- > 0; ) {
+            long rnd = nextLong();
+            for (int n = 8; n-- > 0; rnd >>>= Byte.SIZE) {
+                bytes[i++] = (byte) rnd;
+            }
+        }
+        if (i < length) {
+            for (long rnd = nextLong(); i < length; rnd >>>= Byte.SIZE) {
+                bytes[i++] = (byte) rnd;
+            }
+        }
+    }
+
+    /**
+     * Sources are not serializable: the JDK generators some delegate to are not, and the
+     * thread-local source has no state of its own to restore. Recreate one with
+     * {@link #of(String, long)} instead.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        throw new NotSerializableException(RandomSource.class.getName());
+    }
+
+    /**
+     * The stream of {@link SplitMixRandom}, which keeps {@link Random}'s algorithms
+     * for bounded ints, floats, Gaussians and bytes.
+     */
+    private static final class SplitMix64 extends RandomSource {
+        private static final long serialVersionUID = 1L;
+
+        private long state;
+
+        SplitMix64(long seed) {
+            super(SPLIT_MIX_64);
+            this.state = seed;
+        }
+
+        @Override
+        public void reseed(long seed) {
+            state = seed;
+        }
+
+        @Override
+        public long nextLong() {
+            return SplitMixRandom.mix64(state += GOLDEN_RATIO_64);
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            if (bound <= 0) {
+                throw new IllegalArgumentException("bound must be positive");
+            }
+            int r = next(31);
+            int m = bound - 1;
+            if ((bound & m) == 0) {
+                return (int) ((bound * (long) r) >> 31);
+            }
+            for (int u = r; u - (r = u % bound) + m < 0; u = next(31)) {
+            }
+            return r;
+        }
+
+        @Override
+        public float nextFloat() {
+            return next(24) / ((float) (1 << 24));
+        }
+
+        /**
+         * Marsaglia polar method without caching the second value, so a reseed
+         * never leaks a value from the previous stream.
+         */
+        @Override
+        public double nextGaussian() {
+            double v1, v2, s;
+            do {
+                v1 = 2 * nextDouble() - 1;
+                v2 = 2 * nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+            return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            for (int i = 0, length = bytes.length; i < length; ) {
+                for (int rnd = nextInt(), n = Math.min(length - i, Integer.BYTES); n-- > 0; rnd >>= Byte.SIZE) {
+                    bytes[i++] = (byte) rnd;
+                }
+            }
+        }
+    }
+
+    /**
+     * The JDK's {@code L64X128MixRandom}: same seeding, same output. Only
+     * {@code nextLong} is implemented, as in the JDK class.
+     */
+    private static final class L64X128Mix extends RandomSource {
+        private static final long serialVersionUID = 1L;
+        private static final long M = 0xd1342543de82ef95L;
+
+        private long a;
+        private long s;
+        private long x0;
+        private long x1;
+
+        L64X128Mix(long seed) {
+            super(L64X128_MIX_RANDOM);
+            reseed(seed);
+        }
+
+        @Override
+        public void reseed(long seed) {
+            seed ^= SILVER_RATIO_64;
+            a = mixMurmur64(seed) | 1;
+            s = 1;
+            x0 = SplitMixRandom.mix64(seed);
+            x1 = SplitMixRandom.mix64(seed + GOLDEN_RATIO_64);
+            if ((x0 | x1) == 0) {
+                x0 = SplitMixRandom.mix64(s + GOLDEN_RATIO_64);
+                x1 = SplitMixRandom.mix64(s + 2 * GOLDEN_RATIO_64);
+            }
+        }
+
+        @Override
+        public long nextLong() {
+            long result = mixLea64(s + x0);
+            s = M * s + a;
+            long q0 = x0;
+            long q1 = x1;
+            q1 ^= q0;
+            q0 = Long.rotateLeft(q0, 24);
+            q0 = q0 ^ q1 ^ (q1 << 16);
+            q1 = Long.rotateLeft(q1, 37);
+            x0 = q0;
+            x1 = q1;
+            return result;
+        }
+
+        private static long mixMurmur64(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+
+        private static long mixLea64(long z) {
+            z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+            z = (z ^ (z >>> 32)) * 0xdaba0b6eb09322e3L;
+            return z ^ (z >>> 32);
+        }
+    }
+
+    /**
+     * The JDK's {@code Xoroshiro128PlusPlus}: same seeding, same output.
+     */
+    private static final class Xoroshiro128PlusPlus extends RandomSource {
+        private static final long serialVersionUID = 1L;
+
+        private long x0;
+        private long x1;
+
+        Xoroshiro128PlusPlus(long seed) {
+            super(XOROSHIRO_128_PLUS_PLUS);
+            reseed(seed);
+        }
+
+        @Override
+        public void reseed(long seed) {
+            seed ^= SILVER_RATIO_64;
+            x0 = SplitMixRandom.mix64(seed);
+            x1 = SplitMixRandom.mix64(seed + GOLDEN_RATIO_64);
+            if ((x0 | x1) == 0) {
+                x0 = GOLDEN_RATIO_64;
+                x1 = SILVER_RATIO_64;
+            }
+        }
+
+        @Override
+        public long nextLong() {
+            long s0 = x0;
+            long s1 = x1;
+            long result = Long.rotateLeft(s0 + s1, 17) + s0;
+            s1 ^= s0;
+            x0 = Long.rotateLeft(s0, 49) ^ s1 ^ (s1 << 21);
+            x1 = Long.rotateLeft(s1, 28);
+            return result;
+        }
+    }
+
+    /**
+     * A {@link Random} with every draw its own, reseeded with {@link Random#setSeed(long)}.
+     */
+    private static final class LegacyRandom extends RandomSource {
+        private static final long serialVersionUID = 1L;
+
+        private final Random random;
+
+        LegacyRandom(long seed) {
+            super(JAVA_UTIL_RANDOM);
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public void reseed(long seed) {
+            random.setSeed(seed);
+        }
+
+        @Override
+        public long nextLong() {
+            return random.nextLong();
+        }
+
+        @Override
+        public int nextInt() {
+            return random.nextInt();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return random.nextInt(bound);
+        }
+
+        @Override
+        public int nextInt(int origin, int bound) {
+            return random.nextInt(origin, bound);
+        }
+
+        @Override
+        public long nextLong(long bound) {
+            return random.nextLong(bound);
+        }
+
+        @Override
+        public double nextDouble() {
+            return random.nextDouble();
+        }
+
+        @Override
+        public float nextFloat() {
+            return random.nextFloat();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return random.nextBoolean();
+        }
+
+        @Override
+        public double nextGaussian() {
+            return random.nextGaussian();
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            random.nextBytes(bytes);
+        }
+    }
+
+    /**
+     * Any other JDK algorithm, which can only be reseeded by creating a new instance.
+     */
+    private static final class JdkSource extends RandomSource {
+        private static final long serialVersionUID = 1L;
+
+        private final RandomGenerator generator;
+
+        JdkSource(String algorithm, RandomGenerator generator) {
+            super(algorithm);
+            this.generator = generator;
+        }
+
+        @Override
+        public long nextLong() {
+            return generator.nextLong();
+        }
+
+        @Override
+        public int nextInt() {
+            return generator.nextInt();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return generator.nextInt(bound);
+        }
+
+        @Override
+        public int nextInt(int origin, int bound) {
+            return generator.nextInt(origin, bound);
+        }
+
+        @Override
+        public long nextLong(long bound) {
+            return generator.nextLong(bound);
+        }
+
+        @Override
+        public double nextDouble() {
+            return generator.nextDouble();
+        }
+
+        @Override
+        public float nextFloat() {
+            return generator.nextFloat();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return generator.nextBoolean();
+        }
+
+        @Override
+        public double nextGaussian() {
+            return generator.nextGaussian();
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            generator.nextBytes(bytes);
+        }
+    }
+
+    /**
+     * Looks up the calling thread's {@link ThreadLocalRandom} on every draw.
+     * Caching {@code ThreadLocalRandom.current()} would skip the per-thread seed
+     * initialisation on threads that never called it themselves.
+     */
+    private static final class ThreadLocalSource extends RandomSource {
+        private static final long serialVersionUID = 1L;
+
+        ThreadLocalSource() {
+            super(THREAD_LOCAL);
+        }
+
+        @Override
+        public long nextLong() {
+            return ThreadLocalRandom.current().nextLong();
+        }
+
+        @Override
+        public int nextInt() {
+            return ThreadLocalRandom.current().nextInt();
+        }
+
+        @Override
+        public int nextInt(int bound) {
+            return ThreadLocalRandom.current().nextInt(bound);
+        }
+
+        @Override
+        public int nextInt(int origin, int bound) {
+            return ThreadLocalRandom.current().nextInt(origin, bound);
+        }
+
+        @Override
+        public long nextLong(long bound) {
+            return ThreadLocalRandom.current().nextLong(bound);
+        }
+
+        @Override
+        public double nextDouble() {
+            return ThreadLocalRandom.current().nextDouble();
+        }
+
+        @Override
+        public float nextFloat() {
+            return ThreadLocalRandom.current().nextFloat();
+        }
+
+        @Override
+        public boolean nextBoolean() {
+            return ThreadLocalRandom.current().nextBoolean();
+        }
+
+        @Override
+        public double nextGaussian() {
+            return ThreadLocalRandom.current().nextGaussian();
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes) {
+            ThreadLocalRandom.current().nextBytes(bytes);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package io.annapurna.util;
+
+import java.util.Random;
+
+/**
+ * Fast, reseedable {@link Random} backed by the SplitMix64 algorithm.
+ *
+ * <p>Used as a counter-based generator for deterministic runs: before each trade the
+ * worker's stream is reseeded with {@link #seedFor(long, long)} of the run seed and
+ * the trade's index. A trade therefore never depends on which thread generated it or
+ * what that thread generated before, and any index can be regenerated in O(1).
+ *
+ * <p>Extends {@link Random} (rather than implementing only {@code RandomGenerator})
+ * so the same instance can drive both the generators and their {@code Faker}.
+ * Unlike {@code java.util.Random}, draws are not synchronized and no state is
+ * cached between calls, so reseeding fully resets the stream.
+ *
+ * <p><b>Thread Safety:</b> Not thread-safe. Use one instance per thread.
+ */
+public final class SplitMixRandom extends Random {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+    private long state;
+
+    public SplitMixRandom(long seed) {
+        super(0L);
+        this.state = seed;
+    }
+
+    /**
+     * Derive an independent stream seed from a run seed and a position in the run.
+     *
+     * @param seed Run seed
+     * @param index Position (trade or chunk index) within the run
+     * @return Well-mixed seed for that position
+     */
+    public static long seedFor(long seed, long index) {
+        return mix64(seed ^ mix64(index * GOLDEN_GAMMA + GOLDEN_GAMMA));
+    }
+
+    /**
+     * SplitMix64 finalizer: a bijective 64-bit hash with good avalanche behaviour.
+     */
+    public static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Reset the stream. Called by {@link Random}'s constructor before this
+     * class's fields are initialised, which is harmless here.
+     */
+    @Override
+    public void setSeed(long seed) {
+        this.state = seed;
+    }
+
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+
+    @Override
+    public long nextLong() {
+        return mix64(state += GOLDEN_GAMMA);
+    }
+
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    /**
+     * Marsaglia polar method without caching the second value, so a reseed
+     * never leaks a value from the previous stream.
+     */
+    @Override
+    public double nextGaussian() {
+        double v1, v2, s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        return v1 * StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+    }
+}
@@ -0,0 +1,154 @@
+package io.annapurna.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Exact allocation of a fixed number of positions to weighted categories, spread
+ * across the positions in shuffled order.
+ *
+ * <p>Counts are apportioned with the largest-remainder method, so they always sum to
+ * the total and each differs from its exact share by less than one. Categories are
+ * laid out in contiguous <i>slots</i>, in the order they were given, and an
+ * {@link IndexPermutation} maps each slot to a position. The category of any
+ * position, and the position of any slot, are therefore O(1) to compute without
+ * materialising the shuffle.
+ *
+ * <p><b>Thread Safety:</b> Immutable; safe to share between threads.
+ *
+ * @param <T> Type of the categories
+ */
+public final class Strata<T> {
+
+    private final Object[] items;
+    private final long[] counts;
+    private final long[] slotEnds;
+    private final IndexPermutation permutation;
+
+    private Strata(Object[] items, long[] counts, long key) {
+        this.items = items;
+        this.counts = counts;
+        this.slotEnds = new long[counts.length];
+        long end = 0;
+        for (int i = 0; i < counts.length; i++) {
+            end += counts[i];
+            slotEnds[i] = end;
+        }
+        this.permutation = new IndexPermutation(end, key);
+    }
+
+    /**
+     * Apportion {@code total} positions by weight and shuffle them with {@code key}.
+     *
+     * @param weights Category weights in a stable iteration order (e.g. an {@code EnumMap})
+     * @param total Number of positions (must be positive)
+     * @param key Shuffle key; equal keys give equal layouts
+     * @return Strata over the map's keys
+     */
+    public static <T> Strata<T> of(Map<T, Integer> weights, long total, long key) {
+        if (total <= 0) {
+            throw new IllegalArgumentException("Total must be positive");
+        }
+        Object[] items = weights.keySet().toArray();
+        int[] itemWeights = new int[items.length];
+        int i = 0;
+        for (int weight : weights.values()) {
+            if (weight < 0) {
+                throw new IllegalArgumentException("Weights must be non-negative, got: " + weight);
+            }
+            itemWeights[i++] = weight;
+        }
+        return new Strata<>(items, apportion(total, itemWeights), key);
+    }
+
+    /**
+     * Largest-remainder apportionment of {@code total} by {@code weights}. Ties go to
+     * the earlier weight. Never overflows, whatever the total.
+     *
+     * @return Per-weight counts summing exactly to {@code total}
+     */
+    public static long[] apportion(long total, int[] weights) {
+        long weightSum = 0;
+        for (int weight : weights) {
+            weightSum += weight;
+        }
+        if (weightSum <= 0) {
+            throw new IllegalArgumentException("Weights must have a positive sum");
+        }
+
+        // total * w / W computed as (q * W + r) * w / W = q * w + r * w / W
+        long quotient = total / weightSum;
+        long remainder = total % weightSum;
+        long[] counts = new long[weights.length];
+        long[] fractions = new long[weights.length];
+        long assigned = 0;
+        for (int i = 0; i < weights.length; i++) {
+            counts[i] = quotient * weights[i] + remainder * weights[i] / weightSum;
+            fractions[i] = remainder * weights[i] % weightSum;
+            assigned += counts[i];
+        }
+
+        for (long left = total - assigned; left > 0; left--) {
+            int best = -1;
+            for (int i = 0; i < weights.length; i++) {
+                if (fractions[i] >= 0 && (best < 0 || fractions[i] > fractions[best])) {
+                    best = i;
+                }
+            }
+            counts[best]++;
+            fractions[best] = -1;
+        }
+        return counts;
+    }
+
+    /**
+     * Category at a position of the shuffled layout.
+     */
+    public T at(long position) {
+        return get(stratumOfSlot(permutation.apply(position)));
+    }
+
+    /**
+     * Position that a slot of the unshuffled layout is moved to.
+     */
+    public long positionOfSlot(long slot) {
+        return permutation.inverse(slot);
+    }
+
+    /**
+     * Index of the category owning a slot of the unshuffled layout.
+     */
+    public int stratumOfSlot(long slot) {
+        int index = Arrays.binarySearch(slotEnds, slot);
+        // Slot ends are exclusive, so an exact match belongs to the next non-empty stratum
+        int stratum = index >= 0 ? index + 1 : -index - 1;
+        while (counts[stratum] == 0) {
+            stratum++;
+        }
+        return stratum;
+    }
+
+    /**
+     * Exclusive end of a category's slots in the unshuffled layout.
+     */
+    public long slotEnd(int stratum) {
+        return slotEnds[stratum];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int stratum) {
+        return (T) items[stratum];
+    }
+
+    public long count(int stratum) {
+        return counts[stratum];
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    public long total() {
+        return permutation.size();
+    }
+}
@@ -0,0 +1,186 @@
+package io.annapurna.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Immutable weighted sampler using Vose's alias method.
+ *
+ * <p>The alias table is built once in O(n). Each {@link #next(Random)} then costs a
+ * single random draw, one array lookup and one comparison, however many items there
+ * are and however skewed their weights.
+ *
+ * <p>Items keep the order they were added in, and that order together with the random
+ * stream fully determines the selection, so seeded runs stay reproducible.
+ *
+ * <p><b>Usage:</b>
+ * <pre>{@code
+ * WeightedRandom<String> tenor = WeightedRandom.<String>builder()
+ *     .add("1Y", 10)
+ *     .add("5Y", 70)
+ *     .add("10Y", 20)
+ *     .build();
+ * String selected = tenor.next(random);
+ * }</pre>
+ *
+ * <p><b>Thread Safety:</b> Immutable; safe to share between threads.
+ *
+ * @param <T> Type of the items sampled
+ */
+public final class WeightedRandom<T> {
+
+    private final Object[] items;
+    private final double[] probability;
+    private final int[] alias;
+
+    private WeightedRandom(List<T> items, List<Double> weights) {
+        int n = items.size();
+        if (n == 0) {
+            throw new IllegalArgumentException("At least one weighted item is required");
+        }
+
+        double total = 0;
+        for (double weight : weights) {
+            total += weight;
+        }
+        if (!(total > 0) || Double.isInfinite(total)) {
+            throw new IllegalArgumentException("Weights must have a positive, finite sum, got: " + total);
+        }
+
+        this.items = items.toArray();
+        this.probability = new double[n];
+        this.alias = new int[n];
+
+        // Scale so the average weight is 1, then pair each under-full column with an over-full one
+        double[] scaled = new double[n];
+        int[] small = new int[n];
+        int[] large = new int[n];
+        int smallCount = 0;
+        int largeCount = 0;
+
+        for (int i = 0; i < n; i++) {
+            scaled[i] = weights.get(i) * n / total;
+            if (scaled[i] < 1.0) {
+                small[smallCount++] = i;
+            } else {
+                large[largeCount++] = i;
+            }
+        }
+
+        while (smallCount > 0 && largeCount > 0) {
+            int less = small[--smallCount];
+            int more = large[--largeCount];
+
+            probability[less] = scaled[less];
+            alias[less] = more;
+
+            scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+            if (scaled[more] < 1.0) {
+                small[smallCount++] = more;
+            } else {
+                large[largeCount++] = more;
+            }
+        }
+
+        // Whatever remains is full up to rounding error
+        while (largeCount > 0) {
+            int i = large[--largeCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+        while (smallCount > 0) {
+            int i = small[--smallCount];
+            probability[i] = 1.0;
+            alias[i] = i;
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * Build a sampler from a map of item to weight, in the map's iteration order.
+     * Pass an {@code EnumMap} or {@code LinkedHashMap} for reproducible selection.
+     *
+     * @param weights Item weights; must be non-negative with a positive sum
+     * @return Sampler over the map's keys
+     */
+    public static <T> WeightedRandom<T> of(Map<T, ? extends Number> weights) {
+        Builder<T> builder = builder();
+        for (Map.Entry<T, ? extends Number> entry : weights.entrySet()) {
+            builder.add(entry.getKey(), entry.getValue().doubleValue());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Select an item with probability proportional to its weight.
+     *
+     * @param random Stream to draw from; exactly one {@code nextDouble()} is consumed
+     * @return The selected item
+     */
+    @SuppressWarnings("unchecked")
+    public T next(Random random) {
+        return (T) items[nextIndex(random)];
+    }
+
+    /**
+     * Select the index of an item, in insertion order, with probability proportional
+     * to its weight.
+     *
+     * @param random Stream to draw from; exactly one {@code nextDouble()} is consumed
+     * @return Index of the selected item
+     */
+    public int nextIndex(Random random) {
+        // Integer part picks the column, fractional part decides between it and its alias
+        double u = random.nextDouble() * items.length;
+        int column = Math.min((int) u, items.length - 1);
+        return u - column < probability[column] ? column : alias[column];
+    }
+
+    /**
+     * Item at an insertion-order index.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) items[index];
+    }
+
+    public int size() {
+        return items.length;
+    }
+
+    /**
+     * Collects items and weights for a {@link WeightedRandom}.
+     */
+    public static final class Builder<T> {
+        private final List<T> items = new ArrayList<>();
+        private final List<Double> weights = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        /**
+         * Add an item. Items with weight 0 are kept but never selected.
+         *
+         * @param item Item to sample
+         * @param weight Relative weight (must be non-negative and finite)
+         * @return this builder for method chaining
+         */
+        public Builder<T> add(T item, double weight) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Weight must be non-negative and finite, got: " + weight);
+            }
+            items.add(item);
+            weights.add(weight);
+            return this;
+        }
+
+        public WeightedRandom<T> build() {
+            return new WeightedRandom<>(items, weights);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package io.annapurna.execution;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Thread-per-task executors for chunks that block, on virtual threads.
+ *
+ * <p>Java 21 version of the baseline class in {@code src/main/java}, packaged under
+ * {@code META-INF/versions/21} of the multi-release jar. A virtual thread blocked in a
+ * sink releases its carrier, so in-flight chunks cost a small heap-allocated stack each
+ * rather than an OS thread.
+ */
+final class VirtualThreads {
+
+    private VirtualThreads() {
+    }
+
+    static boolean isSupported() {
+        return true;
+    }
+
+    /**
+     * Executor that starts a new virtual thread for every task, named {@code prefix}
+     * plus a sequence.
+     */
+    static ExecutorService newThreadPerTaskExecutor(String prefix) {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 1).factory());
+    }
+}
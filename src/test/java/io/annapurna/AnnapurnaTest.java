@@ -3,12 +3,16 @@ package io.annapurna;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.annapurna.generator.TradeBuffer;
+import io.annapurna.model.CreditDefaultSwap;
 import io.annapurna.model.EquitySwap;
 import io.annapurna.model.Trade;
 import io.annapurna.model.TradeType;
 import org.junit.jupiter.api.Test;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -123,4 +127,34 @@ class AnnapurnaTest {
 
         System.out.println(" Successfully generated 10 equity swaps");
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGenerateTypedAssetClass() {
+        List<CreditDefaultSwap> swaps = Annapurna.generate(CreditDefaultSwap.class, 500);
+        assertEquals(500, swaps.size());
+        for (CreditDefaultSwap swap : swaps) {
+            assertNotNull(swap.getReferenceEntity(), "Reference entity should not be null");
+        }
+
+        try (Stream<EquitySwap> streamed = Annapurna.stream(EquitySwap.class, 300)) {
+            assertEquals(300, streamed.filter(swap -> swap.getReferenceAsset() != null).count());
+        }
+    }
+
+    @Test
+    void testGenerateOneOfEachType() {
+        for (TradeType type : TradeType.values()) {
+            Trade trade = Annapurna.generateOne(type);
+            assertEquals(type, trade.getTradeType());
+            assertInstanceOf(type.getTradeClass(), trade);
+            assertNotNull(trade.getTradeId(), "Trade ID should not be null");
+        }
+        TradeBuffer.Metrics metrics = Annapurna.tradeBuffer().getMetrics();
+        assertTrue(metrics.getHits() + metrics.getMisses() >= TradeType.values().length);
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.generateOne(null));
+
+        assertSame(TradeBuffer.shared(), Annapurna.tradeBuffer());
+        assertThrows(UnsupportedOperationException.class, () -> Annapurna.tradeBuffer().close());
+        assertEquals(TradeType.FX_FORWARD, Annapurna.generateOne(TradeType.FX_FORWARD).getTradeType());
+    }
+}
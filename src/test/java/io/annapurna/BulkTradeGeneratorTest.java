@@ -0,0 +1,1000 @@
+package io.annapurna;
+
+import io.annapurna.execution.TradeIterator;
+import io.annapurna.execution.TradePublisher;
+import io.annapurna.model.EquityOption;
+import io.annapurna.model.EquitySwap;
+import io.annapurna.model.FXForward;
+import io.annapurna.model.Trade;
+import io.annapurna.model.TradeType;
+import io.annapurna.profile.DataProfile;
+import io.annapurna.serialization.JsonSerializer;
+import io.annapurna.serialization.TradeFormat;
+import io.annapurna.sink.TradeSink;
+import io.annapurna.util.RandomSource;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static io.annapurna.SeededRuns.seeded;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for bulk generation execution.
+ */
+class BulkTradeGeneratorTest {
+
+    @Test
+    void testGenerateExactCountAcrossChunks() {
+        List<Trade> trades = Annapurna.builder()
+                .count(2_500)
+                .chunkSize(100)
+                .parallelism(3)
+                .build()
+                .generate();
+
+        assertEquals(2_500, trades.size());
+        assertTrue(trades.stream().allMatch(t -> t != null), "Every slot should be filled");
+    }
+
+    @Test
+    void testCallerSuppliedExecutorIsUsedAndNotShutDown() throws InterruptedException {
+        AtomicInteger submitted = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Trade> trades = Annapurna.builder()
+                    .count(1_000)
+                    .parallelism(2)
+                    .executor(task -> {
+                        submitted.incrementAndGet();
+                        pool.execute(task);
+                    })
+                    .build()
+                    .generate();
+
+            assertEquals(1_000, trades.size());
+            assertTrue(submitted.get() > 0 && submitted.get() <= 2,
+                    "At most parallelism tasks should be submitted, got: " + submitted.get());
+            assertFalse(pool.isShutdown(), "Caller-supplied executor must not be shut down");
+        } finally {
+            pool.shutdown();
+            pool.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void testRepeatedRunsDoNotLeakThreads() throws InterruptedException {
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .count(500)
+                .parallelism(4)
+                .build();
+
+        generator.generate();
+        Thread.sleep(200);
+        long before = countWorkerThreads();
+
+        for (int i = 0; i < 10; i++) {
+            generator.generate();
+        }
+
+        // Owned pools are shut down after each run; give idle workers time to exit
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (countWorkerThreads() > before && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+        assertTrue(countWorkerThreads() <= before,
+                "Worker threads should not accumulate across runs");
+    }
+
+    @Test
+    void testStreamProducesExactCount() {
+        try (Stream<Trade> trades = Annapurna.builder()
+                .count(10_007)
+                .chunkSize(500)
+                .parallelism(4)
+                .build()
+                .stream()) {
+            assertEquals(10_007, trades.filter(t -> t.getTradeId() != null).count());
+        }
+    }
+
+    @Test
+    void testUnboundedStreamStopsAtLimit() {
+        try (Stream<Trade> trades = Annapurna.builder()
+                .unbounded()
+                .chunkSize(256)
+                .build()
+                .stream()) {
+            assertEquals(3_000, trades.limit(3_000).count());
+        }
+    }
+
+    @Test
+    void testIteratorIsExhaustedAfterCount() {
+        TradeIterator iterator = Annapurna.builder()
+                .count(1_500)
+                .chunkSize(400)
+                .build()
+                .iterator();
+
+        int seen = 0;
+        while (iterator.hasNext()) {
+            assertNotNull(iterator.next());
+            seen++;
+        }
+
+        assertEquals(1_500, seen);
+        assertThrows(NoSuchElementException.class, iterator::next);
+    }
+
+    @Test
+    void testLongCountRejectedForList() {
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .count(3_000_000_000L)
+                .build();
+
+        assertThrows(IllegalStateException.class, generator::generate);
+    }
+
+    @Test
+    void testSeededRunIsIndependentOfParallelism() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+
+        String singleThreaded = serializer.toJson(seeded(42L).parallelism(1).build().generate());
+        String multiThreaded = serializer.toJson(seeded(42L).parallelism(8).build().generate());
+
+        assertEquals(singleThreaded, multiThreaded,
+                "Seeded output must not depend on the number of threads");
+    }
+
+    @Test
+    void testSeededStreamMatchesSeededList() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+
+        List<Trade> list = seeded(7L).parallelism(3).build().generate();
+        List<Trade> streamed;
+        try (Stream<Trade> trades = seeded(7L).parallelism(5).build().stream()) {
+            streamed = trades.collect(Collectors.toList());
+        }
+
+        assertEquals(serializer.toJson(list), serializer.toJson(streamed));
+    }
+
+    @Test
+    void testDifferentSeedsProduceDifferentData() {
+        List<Trade> first = seeded(1L).build().generate();
+        List<Trade> second = seeded(2L).build().generate();
+
+        assertNotEquals(
+                first.stream().map(Trade::getTradeId).collect(Collectors.toList()),
+                second.stream().map(Trade::getTradeId).collect(Collectors.toList())
+        );
+    }
+
+    @Test
+    void testTradeDatesRespectDateRange() {
+        LocalDate start = LocalDate.of(2024, 3, 1);
+        LocalDate end = LocalDate.of(2024, 3, 31);
+
+        List<Trade> trades = Annapurna.builder()
+                .count(2_000)
+                .dateRange(start, end)
+                .build()
+                .generate();
+
+        for (Trade trade : trades) {
+            assertFalse(trade.getTradeDate().isBefore(start), "Trade date before range: " + trade.getTradeDate());
+            assertFalse(trade.getTradeDate().isAfter(end), "Trade date after range: " + trade.getTradeDate());
+            assertTrue(trade.getTradeDate().getDayOfWeek().getValue() < 6, "Trade date should be a weekday");
+        }
+    }
+
+    @Test
+    void testGenerateAtMatchesBulkPosition() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        AnnapurnaBuilder.BulkTradeGenerator generator = seeded(99L).build();
+        List<Trade> all = generator.generate();
+
+        for (long index : new long[]{0, 1, 255, 256, 3_141, 4_999}) {
+            assertEquals(serializer.toJson(all.get((int) index)), serializer.toJson(generator.generateAt(index)),
+                    "Trade " + index + " should be re-derivable in isolation");
+        }
+    }
+
+    @Test
+    void testGenerateRangeMatchesSubList() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        AnnapurnaBuilder.BulkTradeGenerator generator = seeded(5L).build();
+
+        List<Trade> all = generator.generate();
+        List<Trade> range = generator.generateRange(1_000, 1_700);
+
+        assertEquals(serializer.toJson(all.subList(1_000, 1_700)), serializer.toJson(range));
+    }
+
+    @Test
+    void testSeededRunIsIndependentOfChunkSize() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+
+        String small = serializer.toJson(seeded(11L).chunkSize(7).build().generate());
+        String large = serializer.toJson(seeded(11L).chunkSize(4_096).build().generate());
+
+        assertEquals(small, large);
+    }
+
+    @Test
+    void testRandomAccessRequiresSeedAndValidIndex() {
+        AnnapurnaBuilder.BulkTradeGenerator unseeded = Annapurna.builder().count(10).build();
+        assertThrows(IllegalStateException.class, () -> unseeded.generateAt(0));
+
+        AnnapurnaBuilder.BulkTradeGenerator generator = seeded(1L).build();
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.generateAt(5_000));
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.generateAt(-1));
+        assertThrows(IndexOutOfBoundsException.class, () -> generator.generateRange(10, 5));
+    }
+
+    @Test
+    void testGenerateAtFarIntoUnboundedDataset() {
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .unbounded()
+                .seed(3L)
+                .build();
+
+        Trade trade = generator.generateAt(734_221_009L);
+        assertEquals(trade.getTradeId(), generator.generateAt(734_221_009L).getTradeId());
+    }
+
+    @Test
+    void testSeededRunWithJdkAlgorithmIsReproducible() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+
+        String first = serializer.toJson(seeded(8L)
+                .randomAlgorithm(RandomSource.XOROSHIRO_128_PLUS_PLUS).parallelism(1).build().generate());
+        String second = serializer.toJson(seeded(8L)
+                .randomAlgorithm(RandomSource.XOROSHIRO_128_PLUS_PLUS).parallelism(6).build().generate());
+        String splitMix = serializer.toJson(seeded(8L).build().generate());
+
+        assertEquals(first, second);
+        assertNotEquals(first, splitMix, "Seeded output should depend on the algorithm");
+    }
+
+    @Test
+    void testUnknownRandomAlgorithmRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().randomAlgorithm("NoSuchRandom"));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().randomAlgorithm(null));
+        // Valid unseeded, but cannot be reseeded per trade without a new instance
+        assertThrows(IllegalArgumentException.class,
+                () -> Annapurna.builder().randomAlgorithm("L128X256MixRandom").seed(1L).build());
+        assertEquals(10, Annapurna.builder().randomAlgorithm("L128X256MixRandom").count(10).build().generate().size());
+    }
+
+    @Test
+    void testStratifiedRunHasExactTypeCounts() {
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .tradeTypes()
+                    .equitySwap(35)
+                    .interestRateSwap(25)
+                    .fxForward(20)
+                    .option(15)
+                    .cds(5)
+                .count(1_003)
+                .chunkSize(64)
+                .stratified()
+                .build();
+
+        Map<TradeType, Long> expected = generator.tradeTypeCounts();
+        assertEquals(1_003, expected.values().stream().mapToLong(Long::longValue).sum());
+        assertEquals(50L, expected.get(TradeType.CREDIT_DEFAULT_SWAP), "5% of 1,003 rounds to 50");
+
+        Map<TradeType, Long> actual = new EnumMap<>(TradeType.class);
+        for (Trade trade : generator.generate()) {
+            actual.merge(trade.getTradeType(), 1L, Long::sum);
+        }
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void testStratifiedRunHasExactProfileCounts() {
+        AnnapurnaBuilder.BulkTradeGenerator generator = seeded(21L).stratified().build();
+
+        Map<DataProfile, Long> counts = generator.profileCounts();
+        assertEquals(3_500L, counts.get(DataProfile.CLEAN));
+        assertEquals(1_000L, counts.get(DataProfile.EDGE_CASE));
+        assertEquals(500L, counts.get(DataProfile.STRESS));
+        assertEquals(1_500L, generator.tradeTypeCounts().get(TradeType.EQUITY_SWAP));
+    }
+
+    @Test
+    void testStratifiedRunIsShuffled() {
+        List<Trade> trades = seeded(4L).stratified().build().generate();
+
+        // A contiguous layout would put the first 1,000 trades in one or two types
+        long typesInFirstHundred = trades.subList(0, 100).stream()
+                .map(Trade::getTradeType)
+                .distinct()
+                .count();
+        assertEquals(5, typesInFirstHundred);
+    }
+
+    @Test
+    void testStratifiedSeededRunMatchesStreamAndRandomAccess() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        AnnapurnaBuilder.BulkTradeGenerator generator = seeded(17L).stratified().parallelism(4).build();
+
+        List<Trade> list = generator.generate();
+        List<Trade> streamed;
+        try (Stream<Trade> trades = seeded(17L).stratified().parallelism(2).build().stream()) {
+            streamed = trades.collect(Collectors.toList());
+        }
+
+        assertEquals(serializer.toJson(list), serializer.toJson(streamed));
+        assertEquals(serializer.toJson(list.get(2_718)), serializer.toJson(generator.generateAt(2_718)));
+    }
+
+    @Test
+    void testStratifiedRejectsUnboundedAndCountsRequireStratified() {
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().unbounded().stratified().build());
+        assertThrows(IllegalStateException.class, () -> Annapurna.builder().count(10).build().tradeTypeCounts());
+    }
+
+    @Test
+    void testTradeIdsAreUniqueAcrossDataset() {
+        List<Trade> trades = Annapurna.builder()
+                .count(200_000)
+                .parallelism(4)
+                .dateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31))
+                .build()
+                .generate();
+
+        long distinct = trades.stream().map(Trade::getTradeId).distinct().count();
+        assertEquals(200_000, distinct, "Bulk runs must not produce duplicate trade IDs");
+    }
+
+    @Test
+    void testGenerateIntoDeliversEveryTradeInWorkerBatches() {
+        Set<String> ids = ConcurrentHashMap.newKeySet();
+        AtomicInteger batches = new AtomicInteger();
+
+        Annapurna.builder()
+                .count(10_050)
+                .chunkSize(500)
+                .parallelism(4)
+                .build()
+                .generateInto(new TradeSink() {
+                    @Override
+                    public void accept(Trade trade) {
+                        ids.add(trade.getTradeId());
+                    }
+
+                    @Override
+                    public void acceptBatch(Trade[] batch, int length) {
+                        assertTrue(length > 0 && length <= 500);
+                        batches.incrementAndGet();
+                        TradeSink.super.acceptBatch(batch, length);
+                    }
+                });
+
+        assertEquals(10_050, ids.size());
+        assertEquals(21, batches.get(), "One batch per chunk");
+    }
+
+    @Test
+    void testSeededGenerateIntoMatchesGenerate() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        Map<String, String> expected = new ConcurrentHashMap<>();
+        // No profiles: stress corruption may null the trade ID used as the key
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .count(3_000)
+                .chunkSize(256)
+                .dateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))
+                .seed(12L)
+                .build();
+        for (Trade trade : generator.generate()) {
+            expected.put(trade.getTradeId(), serializer.toJson(trade));
+        }
+
+        Map<String, String> delivered = new ConcurrentHashMap<>();
+        generator.generateInto(trade -> {
+            try {
+                delivered.put(trade.getTradeId(), serializer.toJson(trade));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(expected, delivered);
+    }
+
+    @Test
+    void testVirtualThreadsOverlapBlockingSink() {
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .count(3_200)
+                .chunkSize(50)
+                .parallelism(2)
+                .seed(14L)
+                .virtualThreads(64)
+                .build();
+        Set<String> expected = generator.generate().stream().map(Trade::getTradeId).collect(Collectors.toSet());
+
+        Set<String> delivered = ConcurrentHashMap.newKeySet();
+        AtomicInteger inSink = new AtomicInteger();
+        AtomicInteger maxInSink = new AtomicInteger();
+        generator.generateInto(new TradeSink() {
+            @Override
+            public void accept(Trade trade) {
+                assertTrue(delivered.add(trade.getTradeId()), "Delivered twice: " + trade.getTradeId());
+            }
+
+            @Override
+            public void acceptBatch(Trade[] batch, int length) {
+                maxInSink.accumulateAndGet(inSink.incrementAndGet(), Math::max);
+                try {
+                    // Simulated round trip to a database
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(e);
+                }
+                TradeSink.super.acceptBatch(batch, length);
+                inSink.decrementAndGet();
+            }
+        });
+
+        assertEquals(expected, delivered);
+        assertTrue(maxInSink.get() > 2, "Sink calls should overlap beyond the 2 generation threads, max was "
+                + maxInSink.get());
+    }
+
+    @Test
+    void testSinkFailureStopsGeneration() {
+        AtomicInteger accepted = new AtomicInteger();
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .unbounded()
+                .chunkSize(100)
+                .parallelism(2)
+                .build();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () ->
+                generator.generateInto(trade -> {
+                    if (accepted.incrementAndGet() == 5_000) {
+                        throw new IllegalStateException("sink full");
+                    }
+                }));
+        assertEquals("sink full", failure.getMessage());
+    }
+
+    @Test
+    void testFlyweightsMatchGeneratedTradesIncludingProfiles() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        List<String> expected = new ArrayList<>();
+        for (Trade trade : seeded(31L).build().generate()) {
+            expected.add(serializer.toJson(trade));
+        }
+
+        // One worker delivers trades in index order
+        List<String> flyweights = new ArrayList<>();
+        seeded(31L).parallelism(1).build().generateFlyweights(trade -> {
+            try {
+                flyweights.add(serializer.toJson(trade));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(expected, flyweights, "Refilled trades must not carry values over from earlier trades");
+    }
+
+    @Test
+    void testFlyweightsReuseOneInstancePerTypePerWorker() {
+        Set<Trade> instances = Collections.newSetFromMap(Collections.synchronizedMap(new IdentityHashMap<>()));
+        AtomicInteger delivered = new AtomicInteger();
+
+        Annapurna.builder()
+                .count(20_000)
+                .parallelism(3)
+                .build()
+                .generateFlyweights(trade -> {
+                    instances.add(trade);
+                    delivered.incrementAndGet();
+                });
+
+        assertEquals(20_000, delivered.get());
+        assertTrue(instances.size() <= 3 * TradeType.values().length,
+                "Expected at most one instance per type per worker, got: " + instances.size());
+    }
+
+    @Test
+    void testPublisherGeneratesOnlyWhatIsRequested() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        Annapurna.builder()
+                .unbounded()
+                .chunkSize(100)
+                .parallelism(2)
+                .build()
+                .publisher()
+                .subscribe(subscriber);
+
+        assertTrue(subscriber.trades.isEmpty());
+        subscriber.subscription.request(10);
+        subscriber.awaitTrades(10);
+        subscriber.subscription.request(250);
+        subscriber.awaitTrades(260);
+        Thread.sleep(100);
+        assertEquals(260, subscriber.trades.size(), "Only requested trades may be delivered");
+        assertFalse(subscriber.completed);
+
+        subscriber.subscription.cancel();
+        subscriber.subscription.request(10);
+        Thread.sleep(100);
+        assertEquals(260, subscriber.trades.size(), "Nothing may be delivered after cancel");
+        assertNull(subscriber.error);
+        assertFalse(subscriber.threads.contains(Thread.currentThread()), "Signals must not run on the requesting thread");
+    }
+
+    @Test
+    void testPublisherGivesEverySubscriberTheSeededDataset() throws IOException, InterruptedException {
+        AnnapurnaBuilder.BulkTradeGenerator generator = seeded(37L).build();
+        List<String> expected = toJson(generator.generate());
+
+        // Subscribers that request more from inside onNext, as most reactive operators do
+        RecordingSubscriber first = new RecordingSubscriber(64);
+        RecordingSubscriber second = new RecordingSubscriber(1);
+        generator.publisher().subscribe(first);
+        generator.publisher().subscribe(second);
+
+        first.awaitTermination();
+        second.awaitTermination();
+        assertTrue(first.completed);
+        assertTrue(second.completed);
+        assertEquals(expected, toJson(first.trades));
+        assertEquals(expected, toJson(second.trades));
+    }
+
+    @Test
+    void testSharedPublisherIsPacedBySlowestSubscriber() throws IOException, InterruptedException {
+        AnnapurnaBuilder.BulkTradeGenerator generator = seeded(53L).build();
+        List<String> expected = toJson(generator.generate());
+
+        Flow.Publisher<Trade> publisher = generator.publisher(2);
+        RecordingSubscriber fast = new RecordingSubscriber(0);
+        RecordingSubscriber slow = new RecordingSubscriber(0);
+        publisher.subscribe(fast);
+        fast.subscription.request(Long.MAX_VALUE);
+        Thread.sleep(100);
+        assertTrue(fast.trades.isEmpty(), "Generation waits for both subscribers");
+
+        publisher.subscribe(slow);
+        slow.subscription.request(10);
+        slow.awaitTrades(10);
+        fast.awaitTrades(10 + TradePublisher.DEFAULT_BUFFER_SIZE);
+        Thread.sleep(100);
+        // The fast subscriber is held one buffer ahead of the slow one
+        assertEquals(10 + TradePublisher.DEFAULT_BUFFER_SIZE, fast.trades.size());
+        assertEquals(10, slow.trades.size());
+
+        // Exactly the rest: completion is signalled without further demand
+        slow.subscription.request(expected.size() - 10);
+        fast.awaitTermination();
+        slow.awaitTermination();
+        assertEquals(expected, toJson(fast.trades));
+        assertEquals(expected, toJson(slow.trades));
+        assertTrue(fast.completed && slow.completed);
+
+        // The run has ended, so a late subscriber is completed straight away
+        RecordingSubscriber late = new RecordingSubscriber(1);
+        publisher.subscribe(late);
+        late.awaitTermination();
+        assertTrue(late.completed);
+        assertTrue(late.trades.isEmpty());
+    }
+
+    @Test
+    void testPublisherSignalsErrorForNonPositiveRequest() throws InterruptedException {
+        RecordingSubscriber subscriber = new RecordingSubscriber(0);
+        Annapurna.builder().count(100).build().publisher().subscribe(subscriber);
+
+        subscriber.subscription.request(0);
+
+        subscriber.awaitTermination();
+        assertInstanceOf(IllegalArgumentException.class, subscriber.error);
+        assertTrue(subscriber.trades.isEmpty());
+        assertFalse(subscriber.completed);
+    }
+
+    @Test
+    void testShardsConcatenateToUnshardedRun() throws IOException {
+        List<String> expected = toJson(seeded(43L).stratified().build().generate());
+
+        List<Trade> union = new ArrayList<>();
+        for (int shard = 0; shard < 3; shard++) {
+            union.addAll(seeded(43L).stratified().shard(shard, 3).build().generate());
+        }
+
+        assertEquals(expected, toJson(union));
+    }
+
+    @Test
+    void testShardedStratifiedCountsAddUpExactly() {
+        AnnapurnaBuilder.BulkTradeGenerator whole = seeded(47L).stratified().build();
+        Map<TradeType, Long> typeTotals = new EnumMap<>(TradeType.class);
+        Map<DataProfile, Long> profileTotals = new EnumMap<>(DataProfile.class);
+
+        for (int shard = 0; shard < 4; shard++) {
+            AnnapurnaBuilder.BulkTradeGenerator generator = seeded(47L).stratified().shard(shard, 4).build();
+            Map<TradeType, Long> counts = generator.tradeTypeCounts();
+
+            Map<TradeType, Long> actual = generator.stream()
+                    .collect(Collectors.groupingBy(Trade::getTradeType, () -> new EnumMap<>(TradeType.class),
+                            Collectors.counting()));
+            for (TradeType type : counts.keySet()) {
+                assertEquals(counts.get(type), actual.getOrDefault(type, 0L), "Shard " + shard + " " + type);
+            }
+
+            counts.forEach((type, count) -> typeTotals.merge(type, count, Long::sum));
+            generator.profileCounts().forEach((profile, count) -> profileTotals.merge(profile, count, Long::sum));
+        }
+
+        assertEquals(whole.tradeTypeCounts(), typeTotals);
+        assertEquals(whole.profileCounts(), profileTotals);
+    }
+
+    @Test
+    void testShardRequiresSeedBoundedCountAndValidIndex() {
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().shard(2, 2));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().shard(-1, 2));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().shard(0, 2).build());
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().unbounded().seed(1L).shard(0, 2).build());
+
+        // More shards than trades leaves some shards empty
+        assertEquals(0, Annapurna.builder().count(3).seed(1L).shard(4, 5).build().stream().count());
+    }
+
+    @Test
+    void testTimeOrderedRunHasExactDayCountsInDateOrder() {
+        AnnapurnaBuilder.BulkTradeGenerator generator = timeOrdered(61L).build();
+        List<Trade> trades = generator.generate();
+
+        // 23 business days in May 2024: 4000 trades is 173 or 174 per day
+        Map<LocalDate, Long> perDay = new TreeMap<>();
+        LocalDate previous = LocalDate.MIN;
+        for (Trade trade : trades) {
+            assertFalse(trade.getTradeDate().isBefore(previous));
+            previous = trade.getTradeDate();
+            perDay.merge(trade.getTradeDate(), 1L, Long::sum);
+        }
+        assertEquals(23, perDay.size());
+        assertTrue(perDay.values().stream().allMatch(n -> n == 173 || n == 174), perDay.toString());
+
+        // Random access agrees with the bulk run
+        assertEquals(trades.get(1_234).getTradeId(), generator.generateAt(1_234).getTradeId());
+    }
+
+    @Test
+    void testTimeOrderedStreamSortsByExecutionTime() throws IOException {
+        List<Trade> streamed;
+        try (Stream<Trade> stream = timeOrdered(67L).executionTimes().parallelism(3).build().stream()) {
+            streamed = stream.collect(Collectors.toList());
+        }
+
+        // Sessions of all venues fit in one UTC day, so instants increase across days too
+        for (int i = 1; i < streamed.size(); i++) {
+            assertFalse(streamed.get(i).getExecutionTime().isBefore(streamed.get(i - 1).getExecutionTime()),
+                    "Out of order at " + i);
+        }
+        assertEquals(toJson(streamed), toJson(timeOrdered(67L).executionTimes().build().generate()));
+    }
+
+    @Test
+    void testUnseededRunsNeverShareTradeIds() {
+        Set<String> ids = new HashSet<>();
+        for (int run = 0; run < 3; run++) {
+            for (Trade trade : Annapurna.builder().count(500).build().generate()) {
+                assertTrue(ids.add(trade.getTradeId()), "Repeated ID " + trade.getTradeId());
+            }
+        }
+        assertTrue(ids.add(Annapurna.generateOne().getTradeId()));
+
+        // Seeded IDs are the trade's index, so they are reproducible but only unique within the dataset
+        Trade seeded = Annapurna.builder().count(500).seed(79L).build().generateAt(42);
+        assertTrue(seeded.getTradeId().endsWith("-00000042"), seeded.getTradeId());
+    }
+
+    @Test
+    void testTimeOrderedDaysLargerThanAChunkAreMerged() throws Exception {
+        // Two days of 1,500 trades each, generated in chunks of 64
+        AnnapurnaBuilder builder = Annapurna.builder()
+                .count(3_000)
+                .dateRange(LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 3))
+                .seed(73L)
+                .executionTimes()
+                .timeOrdered()
+                .chunkSize(64)
+                .parallelism(3);
+        List<String> expected = toJson(builder.build().generate());
+
+        List<Trade> streamed;
+        try (Stream<Trade> stream = builder.build().stream()) {
+            streamed = stream.collect(Collectors.toList());
+        }
+        for (int i = 1; i < streamed.size(); i++) {
+            assertFalse(streamed.get(i).getExecutionTime().isBefore(streamed.get(i - 1).getExecutionTime()),
+                    "Out of order at " + i);
+        }
+        assertEquals(expected, toJson(streamed));
+
+        RecordingSubscriber subscriber = new RecordingSubscriber(100);
+        builder.build().publisher().subscribe(subscriber);
+        subscriber.awaitTermination();
+        assertTrue(subscriber.completed);
+        assertEquals(expected, toJson(subscriber.trades));
+    }
+
+    @Test
+    void testTimeOrderedShardsSplitAtDayBoundaries() throws IOException {
+        List<String> expected = toJson(timeOrdered(71L).executionTimes().build().generate());
+
+        List<Trade> union = new ArrayList<>();
+        for (int shard = 0; shard < 4; shard++) {
+            List<Trade> trades = timeOrdered(71L).executionTimes().shard(shard, 4).build().generate();
+            if (!union.isEmpty()) {
+                assertNotEquals(union.get(union.size() - 1).getTradeDate(), trades.get(0).getTradeDate());
+            }
+            union.addAll(trades);
+        }
+
+        assertEquals(expected, toJson(union));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().unbounded().timeOrdered().build());
+    }
+
+    @Test
+    void testTypedRunIsSeededAndMatchesTypedStream() throws IOException {
+        List<FXForward> single = typed(73L).parallelism(1).build().generate(FXForward.class);
+        List<FXForward> parallel = typed(73L).parallelism(4).chunkSize(128).build().generate(FXForward.class);
+        List<FXForward> streamed;
+        try (Stream<FXForward> trades = typed(73L).parallelism(3).build().stream(FXForward.class)) {
+            streamed = trades.collect(Collectors.toList());
+        }
+
+        assertEquals(3_000, single.size());
+        for (FXForward forward : single) {
+            assertEquals(TradeType.FX_FORWARD, forward.getTradeType());
+            assertNotNull(forward.getCurrencyPair());
+        }
+        assertEquals(toJson(single), toJson(parallel));
+        assertEquals(toJson(single), toJson(streamed));
+        assertEquals(3_000, single.stream().map(Trade::getTradeId).distinct().count());
+    }
+
+    @Test
+    void testTypedRunMatchesUntypedRunOfSameSeed() throws IOException {
+        AnnapurnaBuilder.BulkTradeGenerator mixed = typed(89L).dataProfile().clean(60).edgeCase(20).stress(20).build();
+        assertEquals(toJson(mixed.generate()), toJson(mixed.generate(FXForward.class)));
+
+        // Stratified runs draw no type on either path
+        AnnapurnaBuilder.BulkTradeGenerator stratified = typed(97L).stratified().build();
+        assertEquals(toJson(stratified.generate()), toJson(stratified.generate(FXForward.class)));
+        try (Stream<FXForward> streamed = stratified.stream(FXForward.class)) {
+            assertEquals(toJson(stratified.generate()), toJson(streamed.collect(Collectors.toList())));
+        }
+    }
+
+    @Test
+    void testTypedRunKeepsProfilesAndTimeOrder() {
+        List<EquityOption> options = Annapurna.builder()
+                .tradeTypes().option(100)
+                .dataProfile().clean(50).stress(50)
+                .count(2_000)
+                .dateRange(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31))
+                .seed(79L)
+                .stratified()
+                .timeOrdered()
+                .executionTimes()
+                .build()
+                .generate(EquityOption.class);
+
+        assertEquals(2_000, options.size());
+        for (int i = 1; i < options.size(); i++) {
+            assertFalse(options.get(i).getExecutionTime().isBefore(options.get(i - 1).getExecutionTime()));
+        }
+    }
+
+    @Test
+    void testByteBudgetStreamStopsAtSameTradeJustUnderTarget() {
+        long budget = 300_000;
+        List<Trade> streamed;
+        try (Stream<Trade> trades = budgeted(89L).parallelism(4).chunkSize(64).build().stream()) {
+            streamed = trades.collect(Collectors.toList());
+        }
+        long total = streamed.stream().mapToLong(TradeFormat.JSON_LINES::byteSize).sum();
+        Trade next = budgeted(89L).build().generateAt(streamed.size());
+
+        assertTrue(total <= budget, "Streamed " + total + " bytes");
+        assertTrue(total + TradeFormat.JSON_LINES.byteSize(next) > budget, "Stopped a trade early at " + total);
+
+        try (Stream<Trade> trades = budgeted(89L).parallelism(1).chunkSize(500).build().stream()) {
+            assertEquals(streamed.size(), trades.count());
+        }
+    }
+
+    @Test
+    void testByteBudgetSinkNeverExceedsTarget() {
+        long budget = 250_000;
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong largest = new AtomicLong();
+        Annapurna.builder()
+                .untilBytes(budget, TradeFormat.CSV)
+                .parallelism(4)
+                .chunkSize(128)
+                .build()
+                .generateInto(trade -> {
+                    long size = TradeFormat.CSV.byteSize(trade);
+                    bytes.addAndGet(size);
+                    largest.accumulateAndGet(size, Math::max);
+                });
+
+        assertTrue(bytes.get() <= budget, "Delivered " + bytes.get() + " bytes");
+        // Short of the target by less than one trade, not by a chunk per worker
+        assertTrue(bytes.get() > budget - 2 * largest.get(), "Delivered only " + bytes.get() + " bytes");
+    }
+
+    @Test
+    void testTimeBudgetStopsUnboundedRuns() {
+        AtomicLong delivered = new AtomicLong();
+        long start = System.nanoTime();
+        Annapurna.builder()
+                .untilDuration(Duration.ofMillis(300))
+                .parallelism(2)
+                .build()
+                .generateInto(trade -> delivered.incrementAndGet());
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(delivered.get() > 0);
+        assertTrue(elapsedMillis < 5_000, "Ran for " + elapsedMillis + " ms");
+
+        try (Stream<Trade> trades = Annapurna.builder().untilDuration(Duration.ofMillis(200)).build().stream()) {
+            assertTrue(trades.count() > 0);
+        }
+    }
+
+    @Test
+    void testBudgetWithCountStopsAtFirstLimitAndBoundedPathsReject() {
+        try (Stream<Trade> trades = Annapurna.builder().count(700).untilBytes(1L << 40, TradeFormat.CSV).build().stream()) {
+            assertEquals(700, trades.count());
+        }
+
+        AnnapurnaBuilder.BulkTradeGenerator budgeted = Annapurna.builder().count(700)
+                .untilDuration(Duration.ofMinutes(1)).build();
+        assertThrows(IllegalStateException.class, budgeted::generate);
+        assertThrows(IllegalStateException.class, () -> budgeted.generateFlyweights(trade -> { }));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().untilBytes(0, TradeFormat.CSV));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().untilBytes(100, null));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().untilDuration(Duration.ZERO));
+    }
+
+    @Test
+    void testTypedRunRequiresSingleMatchingType() {
+        AnnapurnaBuilder.BulkTradeGenerator mixed = seeded(83L).build();
+        assertThrows(IllegalStateException.class, () -> mixed.generate(EquitySwap.class));
+        assertThrows(IllegalStateException.class, () -> typed(83L).build().generate(EquitySwap.class));
+        assertThrows(IllegalStateException.class, () -> typed(83L).build().stream(EquitySwap.class));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.generate(Trade.class, 10));
+    }
+
+    private static AnnapurnaBuilder timeOrdered(long seed) {
+        return Annapurna.builder()
+                .count(4_000)
+                .dateRange(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 31))
+                .seed(seed)
+                .timeOrdered();
+    }
+
+    private static AnnapurnaBuilder budgeted(long seed) {
+        return Annapurna.builder()
+                .untilBytes(300_000, TradeFormat.JSON_LINES)
+                .seed(seed);
+    }
+
+    private static AnnapurnaBuilder typed(long seed) {
+        return Annapurna.builder()
+                .tradeTypes()
+                    .fxForward(100)
+                .count(3_000)
+                .seed(seed);
+    }
+
+    private static List<String> toJson(List<? extends Trade> trades) throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        List<String> json = new ArrayList<>();
+        for (Trade trade : trades) {
+            json.add(serializer.toJson(trade));
+        }
+        return json;
+    }
+
+    /**
+     * Records every signal; requests {@code batch} trades up front and again each time
+     * a batch has been received, or nothing when {@code batch} is 0.
+     */
+    private static final class RecordingSubscriber implements Flow.Subscriber<Trade> {
+        private final int batch;
+        private final List<Trade> trades = Collections.synchronizedList(new ArrayList<>());
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch terminated = new CountDownLatch(1);
+        private volatile Flow.Subscription subscription;
+        private volatile boolean completed;
+        private volatile Throwable error;
+
+        RecordingSubscriber(int batch) {
+            this.batch = batch;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (batch > 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onNext(Trade trade) {
+            threads.add(Thread.currentThread());
+            trades.add(trade);
+            if (batch > 0 && trades.size() % batch == 0) {
+                subscription.request(batch);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error = throwable;
+            terminated.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            terminated.countDown();
+        }
+
+        void awaitTrades(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (trades.size() < count) {
+                assertTrue(System.nanoTime() < deadline, "Received " + trades.size() + " of " + count + " trades");
+                Thread.sleep(1);
+            }
+        }
+
+        void awaitTermination() throws InterruptedException {
+            assertTrue(terminated.await(10, TimeUnit.SECONDS), "Subscriber was not completed");
+        }
+    }
+
+    private static long countWorkerThreads() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("annapurna-"))
+                .count();
+    }
+}
@@ -1,11 +1,29 @@
 package io.annapurna;
 
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.execution.GenerationExecutor;
+import io.annapurna.feed.FeedReport;
+import io.annapurna.feed.LoadShape;
+import io.annapurna.feed.TradeFeed;
+import io.annapurna.generator.EquitySwapGenerator;
+import io.annapurna.generator.TradeBuffer;
+import io.annapurna.model.EquitySwap;
 import io.annapurna.model.Trade;
+import io.annapurna.model.TradeType;
+import io.annapurna.sink.TradeSink;
+import io.annapurna.util.RandomSource;
+import io.annapurna.util.SplitMixRandom;
 import org.junit.jupiter.api.Test;
 
+import java.time.Duration;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
  * Performance benchmarks for Annapurna trade generation.
@@ -82,6 +100,147 @@ class PerformanceBenchmarkTest {
         }
     }
 
+    @Test
+    void benchmarkRandomAlgorithms() {
+        System.out.println("\n=== Benchmark: Random Algorithms (median of 15 interleaved rounds after warm-up) ===");
+
+        String[] algorithms = {
+                RandomSource.SPLIT_MIX_64,
+                RandomSource.L64X128_MIX_RANDOM,
+                RandomSource.XOROSHIRO_128_PLUS_PLUS
+        };
+        int rounds = 15;
+        int warmUpRounds = 5;
+        long[][] drawNanos = new long[algorithms.length][rounds];
+        long[][] tradeNanos = new long[algorithms.length][rounds];
+        long checksum = 0;
+
+        // All algorithms run in the same JVM, as in practice, so draw call sites see every receiver type
+        for (int round = -warmUpRounds; round < rounds; round++) {
+            for (int k = 0; k < algorithms.length; k++) {
+                // Rotate the order every round so no algorithm always runs first
+                int a = Math.floorMod(k + round, algorithms.length);
+                RandomSource random = RandomSource.of(algorithms[a], 1L);
+
+                long start = System.nanoTime();
+                for (long index = 0; index < 200_000; index++) {
+                    // A seeded trade: reseed, then a typical handful of draws
+                    random.reseed(SplitMixRandom.seedFor(7L, index));
+                    checksum += random.nextInt(100) + random.nextLong() + (long) random.nextDouble();
+                }
+                long draws = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                List<Trade> trades = Annapurna.builder()
+                        .randomAlgorithm(algorithms[a])
+                        .seed(11L)
+                        .count(20_000)
+                        .build()
+                        .generate();
+                long generation = System.nanoTime() - start;
+                assertEquals(20_000, trades.size());
+
+                if (round >= 0) {
+                    drawNanos[a][round] = draws;
+                    tradeNanos[a][round] = generation;
+                }
+            }
+        }
+
+        assertTrue(checksum != 0);
+        for (int a = 0; a < algorithms.length; a++) {
+            long draws = median(drawNanos[a]);
+            long generation = median(tradeNanos[a]);
+            System.out.printf("%-22s reseed + 3 draws: %5.1f ns   seeded generation: %,7d trades/sec%n",
+                    algorithms[a], draws / 200_000.0, 20_000L * 1_000_000_000L / generation);
+        }
+    }
+
+    private static long median(long[] samples) {
+        long[] sorted = samples.clone();
+        Arrays.sort(sorted);
+        return sorted[sorted.length / 2];
+    }
+
+    @Test
+    void benchmarkFlyweightGeneration() {
+        System.out.println("\n=== Benchmark: Flyweight vs Allocating Generation (200,000 trades) ===");
+
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder().count(200_000).build();
+        AtomicLong checksum = new AtomicLong();
+
+        // Warm-up
+        generator.generateFlyweights(trade -> checksum.addAndGet(trade.getTradeId().length()));
+        generator.generateInto(trade -> checksum.addAndGet(trade.getTradeId().length()));
+
+        long start = System.currentTimeMillis();
+        generator.generateInto(trade -> checksum.addAndGet(trade.getTradeId().length()));
+        long allocating = Math.max(1, System.currentTimeMillis() - start);
+
+        start = System.currentTimeMillis();
+        generator.generateFlyweights(trade -> checksum.addAndGet(trade.getTradeId().length()));
+        long flyweight = Math.max(1, System.currentTimeMillis() - start);
+
+        assertTrue(checksum.get() > 0);
+        System.out.printf("Allocating: %,5d ms = %,7d trades/sec%n", allocating, 200_000 * 1000L / allocating);
+        System.out.printf("Flyweight:  %,5d ms = %,7d trades/sec%n", flyweight, 200_000 * 1000L / flyweight);
+    }
+
+    @Test
+    void benchmarkTypedGeneration() {
+        System.out.println("\n=== Benchmark: Typed vs Polymorphic Single-Type Generation "
+                + "(50,000 trades, 1 thread, median of 11 interleaved rounds) ===");
+
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder()
+                .tradeTypes()
+                    .equitySwap(100)
+                .count(50_000)
+                .parallelism(1)
+                .build();
+
+        // The mixed run makes the shared generate() call site megamorphic, as in a real JVM
+        Annapurna.generate(10_000);
+
+        int rounds = 11;
+        long[] polymorphicNanos = new long[rounds];
+        long[] typedNanos = new long[rounds];
+        for (int round = -3; round < rounds; round++) {
+            // Alternate which path runs first, so neither is always the warmer one
+            boolean typedFirst = (round & 1) == 0;
+            long typed = typedFirst ? timeTyped(generator) : 0;
+            long polymorphic = timePolymorphic(generator);
+            if (!typedFirst) {
+                typed = timeTyped(generator);
+            }
+            if (round >= 0) {
+                polymorphicNanos[round] = polymorphic;
+                typedNanos[round] = typed;
+            }
+        }
+
+        long polymorphic = median(polymorphicNanos);
+        long typed = median(typedNanos);
+        System.out.printf("Polymorphic: %,7d trades/sec (median)%n", 50_000L * 1_000_000_000L / polymorphic);
+        System.out.printf("Typed:       %,7d trades/sec (median)%n", 50_000L * 1_000_000_000L / typed);
+        System.out.printf("Difference:  %+,d ns/trade%n", (polymorphic - typed) / 50_000);
+    }
+
+    private static long timePolymorphic(AnnapurnaBuilder.BulkTradeGenerator generator) {
+        long start = System.nanoTime();
+        List<Trade> trades = generator.generate();
+        long elapsed = System.nanoTime() - start;
+        assertEquals(50_000, trades.size());
+        return elapsed;
+    }
+
+    private static long timeTyped(AnnapurnaBuilder.BulkTradeGenerator generator) {
+        long start = System.nanoTime();
+        List<EquitySwap> trades = generator.generate(EquitySwap.class);
+        long elapsed = System.nanoTime() - start;
+        assertEquals(50_000, trades.size());
+        return elapsed;
+    }
+
     @Test
     void benchmarkStressProfileGeneration() {
         System.out.println("\n=== Benchmark: 100% Stress Profile ===");
@@ -261,4 +420,98 @@ class PerformanceBenchmarkTest {
                     threads, duration, rate);
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    void benchmarkVirtualThreadsOnBlockingSink() {
+        System.out.println("\n=== Benchmark: Blocking Sink, Platform Pool vs Virtual Threads (50,000 trades, 10 ms per batch) ===");
+        System.out.println("Virtual threads supported: " + GenerationExecutor.virtualThreadsSupported());
+
+        // Each batch of 100 trades waits 10 ms, like a JDBC batch insert round trip
+        for (int inFlight : new int[]{0, 64, 512}) {
+            AtomicLong delivered = new AtomicLong();
+            AnnapurnaBuilder builder = Annapurna.builder()
+                    .count(50_000)
+                    .chunkSize(100)
+                    .parallelism(4);
+            if (inFlight > 0) {
+                builder.virtualThreads(inFlight);
+            }
+
+            long start = System.nanoTime();
+            builder.build().generateInto(new TradeSink() {
+                @Override
+                public void accept(Trade trade) {
+                    delivered.incrementAndGet();
+                }
+
+                @Override
+                public void acceptBatch(Trade[] batch, int length) {
+                    LockSupport.parkNanos(10_000_000);
+                    TradeSink.super.acceptBatch(batch, length);
+                }
+            });
+            long duration = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+
+            assertEquals(50_000, delivered.get());
+            System.out.printf("%-22s %,5d ms = %,7d trades/sec%n",
+                    inFlight == 0 ? "Platform pool (4)" : "Virtual, " + inFlight + " in flight",
+                    duration, 50_000 * 1000L / duration);
+        }
+    }
+
+    @Test
+    void benchmarkShapedFeedPacing() {
+        System.out.println("\n=== Benchmark: Shaped Feed Pacing (pre-generated trade, no-op sink) ===");
+
+        // Isolates the scheduler: every index maps to the same trade
+        Trade trade = Annapurna.generateOne();
+        GeneratorConfig config = GeneratorConfig.builder().build();
+        double[] rates = {100_000, 500_000, 1_000_000};
+
+        for (double rate : rates) {
+            LoadShape shape = LoadShape.diurnal(rate / 2, rate, Duration.ofSeconds(1), Duration.ofMillis(500));
+            FeedReport report = new TradeFeed(config, index -> trade, Long.MAX_VALUE, shape)
+                    .threads(1)
+                    .duration(Duration.ofSeconds(1))
+                    .run(t -> { });
+
+            assertTrue(report.getTrades() > 0);
+            System.out.printf("peak %,9.0f/s: %,7d trades, achieved %,9.0f/s, lag p50=%,dns p99=%,dns%n",
+                    rate, report.getTrades(), report.getAchievedRate(),
+                    report.getLagNanos(50), report.getLagNanos(99));
+        }
+    }
+
+    @Test
+    void benchmarkBufferedGenerateOne() throws InterruptedException {
+        System.out.println("\n=== Benchmark: generateOne from a Pre-Generated Buffer vs a New Generator ===");
+
+        int calls = 2_000;
+        long[] buffered = new long[calls];
+        try (TradeBuffer buffer = TradeBuffer.start(4096)) {
+            assertTrue(buffer.awaitFilled(60, TimeUnit.SECONDS));
+            TradeType[] types = TradeType.values();
+            for (int i = 0; i < calls; i++) {
+                long start = System.nanoTime();
+                Trade trade = buffer.next(types[i % types.length]);
+                buffered[i] = System.nanoTime() - start;
+                assertTrue(trade.getTradeId() != null);
+            }
+            System.out.println(buffer.getMetrics());
+        }
+
+        // What every call used to cost: a new generator, and its Faker, per trade
+        long[] inline = new long[200];
+        for (int i = 0; i < inline.length; i++) {
+            long start = System.nanoTime();
+            new EquitySwapGenerator().generate();
+            inline[i] = System.nanoTime() - start;
+        }
+
+        Arrays.sort(buffered);
+        Arrays.sort(inline);
+        System.out.printf("Buffered:      p50=%,dns p99=%,dns%n", buffered[calls / 2], buffered[calls * 99 / 100]);
+        System.out.printf("New generator: p50=%,dns p99=%,dns%n", inline[inline.length / 2], inline[inline.length * 99 / 100]);
+        assertTrue(buffered[calls * 99 / 100] < inline[inline.length / 2]);
+    }
+}
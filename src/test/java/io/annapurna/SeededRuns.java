@@ -0,0 +1,36 @@
+package io.annapurna;
+
+import java.time.LocalDate;
+
+/**
+ * Seeded run configuration shared by the tests of bulk generation, jobs and pipelines.
+ */
+public final class SeededRuns {
+
+    private SeededRuns() {
+    }
+
+    /**
+     * 5,000 trades of every type over 2024, 30% of them corrupted, in chunks of 256.
+     *
+     * @param seed Run seed
+     * @return Builder to adjust further
+     */
+    public static AnnapurnaBuilder seeded(long seed) {
+        return Annapurna.builder()
+                .tradeTypes()
+                    .equitySwap(30)
+                    .interestRateSwap(20)
+                    .fxForward(20)
+                    .option(20)
+                    .cds(10)
+                .dataProfile()
+                    .clean(70)
+                    .edgeCase(20)
+                    .stress(10)
+                .count(5_000)
+                .chunkSize(256)
+                .dateRange(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31))
+                .seed(seed);
+    }
+}
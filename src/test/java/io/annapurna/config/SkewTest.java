@@ -0,0 +1,141 @@
+package io.annapurna.config;
+
+import io.annapurna.Annapurna;
+import io.annapurna.model.CreditDefaultSwap;
+import io.annapurna.model.EquityOption;
+import io.annapurna.model.EquitySwap;
+import io.annapurna.model.FXForward;
+import io.annapurna.model.Trade;
+import io.annapurna.model.TradeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for skewed key distributions.
+ */
+class SkewTest {
+
+    @Test
+    void testRankWeights() {
+        assertArrayEquals(new double[]{1, 0.5, 1.0 / 3, 0.25}, Skew.zipf(1).weights(4), 1e-12);
+        assertArrayEquals(new double[]{1, 1, 1}, Skew.uniform().weights(3), 0);
+        assertArrayEquals(new double[]{1, 1, 1}, Skew.zipf(0).weights(3), 0);
+
+        // The 50% left over is split over the three keys outside the top two
+        assertArrayEquals(new double[]{0.4, 0.1, 0.5 / 3, 0.5 / 3, 0.5 / 3}, Skew.topK(0.4, 0.1).weights(5), 1e-12);
+        // Shares for keys the pool does not have are dropped
+        assertArrayEquals(new double[]{0.4, 0.1}, Skew.topK(0.4, 0.1, 0.2).weights(2), 0);
+    }
+
+    @Test
+    void testTopKBookShareWithinEachType() {
+        List<Trade> trades = Annapurna.builder()
+                .count(20_000)
+                .seed(1L)
+                .skew(SkewedField.BOOK, Skew.topK(0.4))
+                .build()
+                .generate();
+
+        Map<TradeType, String> hottest = Map.of(
+                TradeType.EQUITY_SWAP, "EQ_DERIV_NY",
+                TradeType.INTEREST_RATE_SWAP, "RATES_NY",
+                TradeType.FX_FORWARD, "FX_LON",
+                TradeType.EQUITY_OPTION, "EQ_OPTIONS_NY",
+                TradeType.CREDIT_DEFAULT_SWAP, "CREDIT_IG_NY"
+        );
+        Map<TradeType, List<Trade>> byType = trades.stream().collect(Collectors.groupingBy(Trade::getTradeType));
+        for (Map.Entry<TradeType, List<Trade>> entry : byType.entrySet()) {
+            List<Trade> ofType = entry.getValue();
+            long hot = ofType.stream().filter(t -> t.getBook().equals(hottest.get(entry.getKey()))).count();
+            assertEquals(0.4, hot / (double) ofType.size(), 0.03, "Hottest book share of " + entry.getKey());
+        }
+    }
+
+    @Test
+    void testZipfCounterpartiesAndTraderRoster() {
+        List<Trade> trades = Annapurna.builder()
+                .count(20_000)
+                .seed(2L)
+                .skew(SkewedField.COUNTERPARTY, Skew.zipf(1.2))
+                .skew(SkewedField.TRADER, Skew.uniform())
+                .traderPool(40)
+                .build()
+                .generate();
+
+        Map<String, Long> counterparties = count(trades, Trade::getCounterparty);
+        double harmonic = 0;
+        for (int rank = 1; rank <= 14; rank++) {
+            harmonic += 1 / Math.pow(rank, 1.2);
+        }
+        assertEquals(14, counterparties.size());
+        assertEquals(1 / harmonic, counterparties.get("JP Morgan") / 20_000.0, 0.02);
+        assertTrue(counterparties.get("JP Morgan") > counterparties.get("Goldman Sachs"));
+        assertTrue(counterparties.get("Goldman Sachs") > counterparties.get("TD Securities"));
+
+        assertEquals(40, count(trades, Trade::getTrader).size());
+    }
+
+    @Test
+    void testUnderlyingSkewPerType() {
+        List<Trade> trades = Annapurna.builder()
+                .count(2_000)
+                .seed(3L)
+                .skew(SkewedField.UNDERLYING, Skew.topK(1.0))
+                .build()
+                .generate();
+
+        for (Trade trade : trades) {
+            if (trade instanceof EquityOption) {
+                assertEquals("SPX", ((EquityOption) trade).getUnderlyingAsset());
+            } else if (trade instanceof EquitySwap) {
+                assertEquals("AAPL", ((EquitySwap) trade).getReferenceAsset());
+            } else if (trade instanceof FXForward) {
+                assertEquals("EUR/USD", ((FXForward) trade).getCurrencyPair());
+            } else if (trade instanceof CreditDefaultSwap) {
+                assertEquals("Apple Inc", ((CreditDefaultSwap) trade).getReferenceEntity());
+            }
+        }
+    }
+
+    @Test
+    void testSkewedRunsAreReproducible() {
+        GeneratorConfig plain = GeneratorConfig.builder().seed(4L).build();
+        GeneratorConfig skewed = GeneratorConfig.builder().seed(4L).skew(SkewedField.BOOK, Skew.zipf(1)).build();
+        assertNotEquals(plain.fingerprint(), skewed.fingerprint());
+
+        List<Trade> first = Annapurna.builder().count(500).seed(4L)
+                .skew(SkewedField.TRADER, Skew.zipf(1)).skew(SkewedField.BOOK, Skew.zipf(1)).build().generate();
+        List<Trade> second = Annapurna.builder().count(500).seed(4L).parallelism(1)
+                .skew(SkewedField.TRADER, Skew.zipf(1)).skew(SkewedField.BOOK, Skew.zipf(1)).build().generate();
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getTrader(), second.get(i).getTrader());
+            assertEquals(first.get(i).getBook(), second.get(i).getBook());
+            assertEquals(first.get(i).getNotional(), second.get(i).getNotional());
+        }
+    }
+
+    @Test
+    void testInvalidSkewsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Skew.zipf(-1));
+        assertThrows(IllegalArgumentException.class, () -> Skew.zipf(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Skew.topK());
+        assertThrows(IllegalArgumentException.class, () -> Skew.topK(0.8, 0.3));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().traderPool(0));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().skew(SkewedField.BOOK, null));
+    }
+
+    private static Map<String, Long> count(List<Trade> trades, Function<Trade, String> key) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Trade trade : trades) {
+            counts.merge(key.apply(trade), 1L, Long::sum);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,243 @@
+package io.annapurna.feed;
+
+import io.annapurna.Annapurna;
+import io.annapurna.config.GeneratorConfig;
+import io.annapurna.model.Trade;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for rate-paced feeds.
+ */
+class TradeFeedTest {
+
+    @Test
+    void testFeedHoldsTargetRateAcrossThreads() {
+        AtomicInteger sent = new AtomicInteger();
+
+        FeedReport report = Annapurna.builder()
+                .count(4_000)
+                .build()
+                .feed(20_000)
+                .threads(3)
+                .run(trade -> sent.incrementAndGet());
+
+        assertEquals(4_000, sent.get());
+        assertEquals(4_000, report.getTrades());
+        // The last trade is due 3999 / 20000 s after the start and may not be sent earlier
+        assertTrue(report.getElapsed().toNanos() >= 199_950_000L, "Feed ran ahead of schedule: " + report);
+        assertTrue(report.getElapsed().toMillis() < 2_000, "Feed fell far behind schedule: " + report);
+    }
+
+    @Test
+    void testStalledSinkIsChargedToEveryDelayedTrade() {
+        // 10k/s with a single 50 ms stall: the ~500 trades due during the stall are all late
+        AtomicInteger received = new AtomicInteger();
+        FeedReport report = Annapurna.builder()
+                .count(2_000)
+                .build()
+                .feed(10_000)
+                .threads(1)
+                .run(trade -> {
+                    if (received.incrementAndGet() == 100) {
+                        sleep(50);
+                    }
+                });
+
+        assertTrue(report.getMaxResponseNanos() >= 50_000_000L, report.toString());
+        assertTrue(report.getLagNanos(90) >= 5_000_000L,
+                "Trades queued behind the stall must report their lag: " + report);
+    }
+
+    @Test
+    void testDurationAndListener() {
+        Set<Long> indices = ConcurrentHashMap.newKeySet();
+
+        FeedReport report = Annapurna.builder()
+                .unbounded()
+                .build()
+                .feed(5_000)
+                .threads(2)
+                .duration(Duration.ofMillis(200))
+                .lagListener((index, lag, response) -> {
+                    assertTrue(response >= lag);
+                    indices.add(index);
+                })
+                .run(trade -> { });
+
+        // Trades due in [0, 200 ms) at one every 200 us
+        assertEquals(1_000, report.getTrades());
+        assertEquals(1_000, indices.size());
+        assertTrue(indices.stream().allMatch(i -> i < 1_000));
+    }
+
+    @Test
+    void testSinkFailureStopsFeed() {
+        AtomicInteger sent = new AtomicInteger();
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () ->
+                Annapurna.builder().unbounded().build().feed(50_000).threads(2).run(trade -> {
+                    if (sent.incrementAndGet() == 100) {
+                        throw new IllegalStateException("connection reset");
+                    }
+                }));
+        assertEquals("connection reset", failure.getMessage());
+    }
+
+    @Test
+    void testInvalidRateRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().build().feed(0));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().build().feed(Double.NaN));
+    }
+
+    @Test
+    void testHistogramPercentilesWithinPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 100_000; value++) {
+            histogram.record(value * 1_000);
+        }
+
+        assertEquals(100_000, histogram.count());
+        assertEquals(100_000_000L, histogram.max());
+        assertEquals(50_000_000L, histogram.percentile(50), 50_000_000L * 0.07);
+        assertEquals(99_000_000L, histogram.percentile(99), 99_000_000L * 0.07);
+        assertEquals(100_000_000L, histogram.percentile(100));
+    }
+
+    @Test
+    void testPiecewiseShapeInterpolatesAndSteps() {
+        LoadShape shape = LoadShape.piecewise()
+                .point(Duration.ofSeconds(1), 1_000)
+                .point(Duration.ofSeconds(3), 5_000)
+                .point(Duration.ofSeconds(3), 500)
+                .build();
+
+        assertEquals(1_000, shape.rateAt(0));
+        assertEquals(3_000, shape.rateAt(Duration.ofSeconds(2).toNanos()), 1e-9);
+        assertEquals(500, shape.rateAt(Duration.ofSeconds(3).toNanos()));
+        assertEquals(500, shape.rateAt(Long.MAX_VALUE));
+
+        assertThrows(IllegalArgumentException.class, () ->
+                LoadShape.piecewise().point(Duration.ofSeconds(2), 1).point(Duration.ofSeconds(1), 1));
+        assertThrows(IllegalArgumentException.class, () -> LoadShape.piecewise().build());
+    }
+
+    @Test
+    void testDiurnalBurstAndCompression() {
+        Duration day = Duration.ofHours(24);
+        LoadShape shape = LoadShape.diurnal(1_000, 9_000, day, Duration.ofHours(12))
+                .withBurst(Duration.ofHours(8), Duration.ofMinutes(5), 20);
+
+        assertEquals(1_000, shape.rateAt(0), 1e-6);
+        assertEquals(9_000, shape.rateAt(Duration.ofHours(12).toNanos()), 1e-6);
+        assertEquals(20 * 7_000, shape.rateAt(Duration.ofHours(8).toNanos()), 1e-6);
+        assertEquals(7_000, shape.rateAt(Duration.ofHours(16).toNanos()), 1e-6);
+
+        LoadShape compressed = shape.compressed(day, Duration.ofMinutes(24));
+        assertEquals(9_000, compressed.rateAt(Duration.ofMinutes(12).toNanos()), 1e-6);
+        assertEquals(20 * 7_000, compressed.rateAt(Duration.ofMinutes(8).toNanos()), 1e-6);
+    }
+
+    @Test
+    void testShapedFeedFollowsBurst() {
+        // 100 ms at 5k/s, a 4x burst for 100 ms, then 100 ms at 5k/s
+        LoadShape shape = LoadShape.constant(5_000)
+                .withBurst(Duration.ofMillis(100), Duration.ofMillis(100), 4);
+        Set<Long> indices = ConcurrentHashMap.newKeySet();
+
+        FeedReport report = Annapurna.builder()
+                .unbounded()
+                .build()
+                .feed(shape)
+                .threads(2)
+                .duration(Duration.ofMillis(300))
+                .lagListener((index, lag, response) -> indices.add(index))
+                .run(trade -> { });
+
+        assertEquals(500 + 2_000 + 500, report.getTrades(), 2);
+        assertEquals(report.getTrades(), indices.size());
+        assertTrue(Double.isNaN(report.getTargetRate()));
+    }
+
+    @Test
+    void testIdleShapePausesFeed() {
+        // An hour-long session replayed in 200 ms that stops trading after 30 minutes
+        LoadShape shape = LoadShape.piecewise()
+                .point(Duration.ZERO, 10_000)
+                .point(Duration.ofMinutes(30), 10_000)
+                .point(Duration.ofMinutes(30), 0)
+                .build()
+                .compressed(Duration.ofHours(1), Duration.ofMillis(200));
+
+        FeedReport report = Annapurna.builder()
+                .unbounded()
+                .build()
+                .feed(shape)
+                .threads(1)
+                .duration(Duration.ofMillis(200))
+                .lagListener((index, lag, response) -> assertTrue(index < 1_000))
+                .run(trade -> { });
+
+        // Only the first 100 ms has a rate; the feed idles out the rest of the duration
+        assertEquals(1_000, report.getTrades(), 2);
+    }
+
+    @Test
+    void testSeededPoissonArrivalsAreReproducible() {
+        long[] trades = new long[2];
+        for (int run = 0; run < trades.length; run++) {
+            trades[run] = Annapurna.builder()
+                    .unbounded()
+                    .seed(17L)
+                    .build()
+                    .feed(LoadShape.constant(20_000))
+                    .poissonArrivals()
+                    .threads(2)
+                    .duration(Duration.ofMillis(200))
+                    .run(trade -> { })
+                    .getTrades();
+        }
+
+        // 4000 expected, with a standard deviation of about 63
+        assertEquals(4_000, trades[0], 300);
+        assertEquals(trades[0], trades[1]);
+    }
+
+    @Test
+    void testScheduleDoesNotAllocatePerTrade() {
+        // Run the feed inline on this thread with a far-off rate so nothing waits
+        GeneratorConfig config = GeneratorConfig.builder().executor(Runnable::run).build();
+        Trade trade = Annapurna.generateOne();
+        LoadShape shape = LoadShape.diurnal(5e8, 1e9, Duration.ofMillis(1), Duration.ZERO)
+                .withBurst(Duration.ZERO, Duration.ofMillis(1), 2);
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+
+        long[] allocated = new long[2];
+        long[] counts = {10_000, 1_000_000};
+        for (int run = 0; run < counts.length; run++) {
+            TradeFeed feed = new TradeFeed(config, index -> trade, counts[run], shape).threads(1);
+            long before = threads.getThreadAllocatedBytes(thread);
+            assertEquals(counts[run], feed.run(t -> { }).getTrades());
+            allocated[run] = threads.getThreadAllocatedBytes(thread) - before;
+        }
+
+        assertTrue(allocated[1] - allocated[0] < 256 * 1024,
+                "Allocated " + (allocated[1] - allocated[0]) + " bytes for 990k extra trades");
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package io.annapurna.generator;
+
+import io.annapurna.Annapurna;
+import io.annapurna.AnnapurnaBuilder;
+import io.annapurna.model.Trade;
+import io.annapurna.model.TradingVenue;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZonedDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for intraday execution timestamps.
+ */
+class ExecutionClockTest {
+
+    private static final LocalDate START = LocalDate.of(2024, 1, 1);
+    private static final LocalDate END = LocalDate.of(2024, 12, 31);
+
+    @Test
+    void testTimestampsFallInVenueSessionOnTradeDate() {
+        List<Trade> trades = Annapurna.builder()
+                .count(2_000)
+                .dateRange(START, END)
+                .seed(7L)
+                .executionTimes()
+                .build()
+                .generate();
+
+        for (Trade trade : trades) {
+            TradingVenue venue = TradingVenue.forBook(trade.getBook());
+            ZonedDateTime local = trade.getExecutionTime().atZone(venue.getZone());
+
+            assertEquals(trade.getTradeDate(), local.toLocalDate());
+            assertFalse(local.toLocalTime().isBefore(venue.getOpen()), trade.getBook() + " " + local);
+            assertTrue(local.toLocalTime().isBefore(venue.getClose()), trade.getBook() + " " + local);
+        }
+        assertEquals(3, trades.stream().map(t -> TradingVenue.forBook(t.getBook())).distinct().count());
+    }
+
+    @Test
+    void testTimestampsLeaveOtherFieldsUnchanged() {
+        List<Trade> plain = Annapurna.builder().count(200).dateRange(START, END).seed(11L).build().generate();
+        List<Trade> timed = Annapurna.builder().count(200).dateRange(START, END).seed(11L)
+                .executionTimes().build().generate();
+        List<Trade> again = Annapurna.builder().count(200).dateRange(START, END).seed(11L)
+                .executionTimes().parallelism(1).build().generate();
+
+        for (int i = 0; i < plain.size(); i++) {
+            assertNull(plain.get(i).getExecutionTime());
+            assertEquals(plain.get(i).getTradeId(), timed.get(i).getTradeId());
+            assertEquals(plain.get(i).getNotional(), timed.get(i).getNotional());
+            assertEquals(plain.get(i).getBook(), timed.get(i).getBook());
+            assertEquals(timed.get(i).getExecutionTime(), again.get(i).getExecutionTime());
+        }
+    }
+
+    @Test
+    void testMonotonicPerBookAndDate() {
+        List<Trade> trades = Annapurna.builder()
+                .count(5_000)
+                .dateRange(LocalDate.of(2024, 3, 4), LocalDate.of(2024, 3, 8))
+                .seed(3L)
+                .monotonicExecutionTimes()
+                .build()
+                .generate();
+
+        Map<String, Instant> last = new HashMap<>();
+        int outOfOrderAcrossBooks = 0;
+        Instant previous = Instant.MIN;
+        for (Trade trade : trades) {
+            String key = trade.getBook() + "/" + trade.getTradeDate();
+            Instant time = trade.getExecutionTime();
+            Instant before = last.put(key, time);
+            assertTrue(before == null || !time.isBefore(before), key + " went back from " + before + " to " + time);
+            if (time.isBefore(previous)) {
+                outOfOrderAcrossBooks++;
+            }
+            previous = time;
+        }
+        assertTrue(outOfOrderAcrossBooks > 0, "Books should still interleave out of order");
+    }
+
+    @Test
+    void testTimeOrderedMonotonicDaysCoverTheSession() {
+        List<Trade> trades = Annapurna.builder()
+                .count(26_000)
+                .dateRange(START, END)
+                .seed(3L)
+                .timeOrdered()
+                .monotonicExecutionTimes()
+                .build()
+                .generate();
+
+        // Earliest and latest New York time of each trade date, as a fraction of the session
+        TradingVenue newYork = TradingVenue.forBook("FX_NY");
+        Map<LocalDate, double[]> spans = new HashMap<>();
+        Map<String, Instant> last = new HashMap<>();
+        for (Trade trade : trades) {
+            Instant time = trade.getExecutionTime();
+            Instant before = last.put(trade.getBook() + "/" + trade.getTradeDate(), time);
+            assertTrue(before == null || !time.isBefore(before), trade.getBook() + " went back to " + time);
+            if (TradingVenue.forBook(trade.getBook()) != newYork) {
+                continue;
+            }
+            Instant open = trade.getTradeDate().atTime(newYork.getOpen()).atZone(newYork.getZone()).toInstant();
+            double fraction = (double) Duration.between(open, time).toNanos() / newYork.getSessionNanos();
+            double[] span = spans.computeIfAbsent(trade.getTradeDate(), date -> new double[]{1, 0});
+            span[0] = Math.min(span[0], fraction);
+            span[1] = Math.max(span[1], fraction);
+        }
+
+        for (LocalDate date : List.of(LocalDate.of(2024, 1, 2), LocalDate.of(2024, 7, 1), LocalDate.of(2024, 12, 16))) {
+            double[] span = spans.get(date);
+            assertTrue(span[0] < 0.1, date + " starts at " + span[0] + " of the session");
+            assertTrue(span[1] > 0.9, date + " ends at " + span[1] + " of the session");
+        }
+    }
+
+    @Test
+    void testMonotonicWithoutTimeOrderRequiresWholeDataset() {
+        AnnapurnaBuilder.BulkTradeGenerator generator = Annapurna.builder().count(100).seed(3L).monotonicExecutionTimes().build();
+
+        assertThrows(IllegalStateException.class, generator::stream);
+        assertThrows(IllegalStateException.class, () -> generator.generateAt(0));
+        assertThrows(IllegalArgumentException.class, () ->
+                Annapurna.builder().count(100).seed(3L).shard(0, 2).monotonicExecutionTimes().build());
+        assertEquals(100, Annapurna.builder().count(100).seed(3L).timeOrdered().monotonicExecutionTimes()
+                .build().stream().count());
+    }
+
+    @Test
+    void testCustomCurveConcentratesActivity() {
+        // All activity in the first and last quarter of the session
+        ExecutionClock clock = new ExecutionClock(new double[]{1, 0, 0, 1}, 5L, null);
+        for (int i = 0; i <= 1_000; i++) {
+            double fraction = clock.sessionFraction(i / 1_000.0 * 0.999_999);
+            assertTrue(fraction <= 0.25 || fraction >= 0.75, "Fraction " + fraction + " is in a quiet slice");
+        }
+
+        // The default curve trades more in the opening half hour than at lunch
+        ExecutionClock standard = new ExecutionClock(null, 5L, null);
+        double opening = standard.sessionFraction(0.1);
+        double midday = standard.sessionFraction(0.5);
+        assertTrue(opening < 1.0 / 13, "10% of activity should be done within the first slice");
+        assertTrue(midday > 0.4 && midday < 0.6);
+    }
+
+    @Test
+    void testInvalidSettingsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().executionTimes(new double[0]));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().executionTimes(1, -1));
+        assertThrows(IllegalArgumentException.class, () -> Annapurna.builder().executionTimes(0, 0));
+        assertThrows(IllegalArgumentException.class, () ->
+                Annapurna.builder().unbounded().monotonicExecutionTimes().build());
+    }
+}
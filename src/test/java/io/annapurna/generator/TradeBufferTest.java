@@ -0,0 +1,189 @@
+package io.annapurna.generator;
+
+import io.annapurna.model.Trade;
+import io.annapurna.model.TradeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for the pre-generated trade buffer.
+ */
+class TradeBufferTest {
+
+    @Test
+    void testServesRequestedTypeFromBuffer() throws InterruptedException {
+        try (TradeBuffer buffer = TradeBuffer.start(64)) {
+            assertTrue(buffer.awaitFilled(30, TimeUnit.SECONDS));
+            assertEquals(64L * TradeType.values().length, buffer.getMetrics().getBuffered());
+
+            for (TradeType type : TradeType.values()) {
+                for (int i = 0; i < 10; i++) {
+                    Trade trade = buffer.next(type);
+                    assertEquals(type, trade.getTradeType());
+                    assertInstanceOf(type.getTradeClass(), trade);
+                }
+            }
+
+            TradeBuffer.Metrics metrics = buffer.getMetrics();
+            assertEquals(50, metrics.getHits());
+            assertEquals(0, metrics.getMisses());
+            assertEquals(1.0, metrics.getHitRate());
+            assertTrue(metrics.getRefilled() >= 64L * TradeType.values().length);
+            assertTrue(metrics.getRefillRate() > 0);
+        }
+    }
+
+    @Test
+    void testFallsBackInlineWhenEmpty() throws InterruptedException {
+        TradeBuffer buffer = TradeBuffer.start(8);
+        assertTrue(buffer.awaitFilled(30, TimeUnit.SECONDS));
+        // With the refill thread stopped, the eight buffered swaps are served first
+        buffer.close();
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(TradeType.CREDIT_DEFAULT_SWAP, buffer.next(TradeType.CREDIT_DEFAULT_SWAP).getTradeType());
+        }
+
+        TradeBuffer.Metrics metrics = buffer.getMetrics();
+        assertEquals(8, metrics.getHits());
+        assertEquals(12, metrics.getMisses());
+        assertEquals(0.4, metrics.getHitRate(), 1e-9);
+    }
+
+    @Test
+    void testConcurrentMissesShareOneGeneratorSafely() {
+        TradeBuffer buffer = TradeBuffer.start(2);
+        buffer.close();
+        int threads = 4;
+        int perThread = 500;
+        List<CompletableFuture<List<Trade>>> callers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            callers.add(CompletableFuture.supplyAsync(() -> {
+                List<Trade> taken = new ArrayList<>(perThread);
+                for (int i = 0; i < perThread; i++) {
+                    taken.add(buffer.next(TradeType.EQUITY_OPTION));
+                }
+                return taken;
+            }));
+        }
+
+        Set<String> ids = new HashSet<>();
+        for (CompletableFuture<List<Trade>> caller : callers) {
+            for (Trade trade : caller.join()) {
+                assertEquals(TradeType.EQUITY_OPTION, trade.getTradeType());
+                assertNotNull(trade.getCounterparty());
+                ids.add(trade.getTradeId());
+            }
+        }
+        assertEquals(threads * perThread, ids.size());
+        assertTrue(buffer.getMetrics().getMisses() >= threads * perThread - 2);
+    }
+
+    @Test
+    void testConcurrentCallersNeverShareATrade() {
+        int threads = 4;
+        int perThread = 5_000;
+        try (TradeBuffer buffer = TradeBuffer.start(256)) {
+            List<CompletableFuture<List<Trade>>> callers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                callers.add(CompletableFuture.supplyAsync(() -> {
+                    List<Trade> taken = new ArrayList<>(perThread);
+                    for (int i = 0; i < perThread; i++) {
+                        taken.add(buffer.next(TradeType.FX_FORWARD));
+                    }
+                    return taken;
+                }));
+            }
+
+            Set<Trade> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (CompletableFuture<List<Trade>> caller : callers) {
+                distinct.addAll(caller.join());
+            }
+            assertEquals(threads * perThread, distinct.size());
+
+            TradeBuffer.Metrics metrics = buffer.getMetrics();
+            assertEquals(threads * perThread, metrics.getHits() + metrics.getMisses());
+            assertTrue(metrics.getHits() > 0);
+        }
+    }
+
+    @Test
+    void testDateChangeRebuildsRangeAndDropsBufferedTrades() throws InterruptedException {
+        ZoneId zone = ZoneId.of("Europe/London");
+        MovableClock clock = new MovableClock(LocalDate.of(2024, 3, 15).atTime(23, 0).atZone(zone).toInstant(), zone);
+        try (TradeBuffer buffer = TradeBuffer.start(16, clock)) {
+            assertTrue(buffer.awaitFilled(30, TimeUnit.SECONDS));
+            assertFalse(buffer.next(TradeType.FX_FORWARD).getTradeDate().isAfter(LocalDate.of(2024, 3, 15)));
+
+            clock.instant = LocalDate.of(2025, 6, 2).atTime(0, 1).atZone(zone).toInstant();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (buffer.getMetrics().getDropped() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertTrue(buffer.awaitFilled(30, TimeUnit.SECONDS));
+
+            TradeBuffer.Metrics metrics = buffer.getMetrics();
+            assertEquals(16L * TradeType.values().length - 1, metrics.getDropped());
+            assertEquals(1, metrics.getHits());
+            for (TradeType type : TradeType.values()) {
+                for (int i = 0; i < 16; i++) {
+                    LocalDate tradeDate = buffer.next(type).getTradeDate();
+                    assertFalse(tradeDate.isBefore(LocalDate.of(2024, 6, 2)), type + " traded on " + tradeDate);
+                    assertFalse(tradeDate.isAfter(LocalDate.of(2025, 6, 2)), type + " traded on " + tradeDate);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testInvalidArgumentsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> TradeBuffer.start(0));
+        assertThrows(IllegalArgumentException.class, () -> TradeBuffer.start(100));
+        try (TradeBuffer buffer = TradeBuffer.start(2)) {
+            assertThrows(IllegalArgumentException.class, () -> buffer.next(null));
+        }
+        assertThrows(IllegalArgumentException.class, () -> TradeBuffer.start(2, null));
+    }
+
+    /**
+     * Clock whose time a test sets.
+     */
+    private static final class MovableClock extends Clock {
+        private final ZoneId zone;
+        private volatile Instant instant;
+
+        MovableClock(Instant instant, ZoneId zone) {
+            this.instant = instant;
+            this.zone = zone;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return zone;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return new MovableClock(instant, zone);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package io.annapurna.generator;
+
+import io.annapurna.model.Trade;
+import io.annapurna.model.TradeType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TradeFactoryTest {
+
+    private static Map<TradeType, Integer> only(TradeType type) {
+        Map<TradeType, Integer> distribution = new EnumMap<>(TradeType.class);
+        distribution.put(type, 100);
+        return distribution;
+    }
+
+    @Test
+    void testGeneratorsAreReusedWithinThread() {
+        TradeFactory factory = new TradeFactory(only(TradeType.FX_FORWARD));
+
+        TradeGenerator first = factory.generatorFor(TradeType.FX_FORWARD);
+        TradeGenerator second = factory.createGenerator();
+
+        assertSame(first, second, "Same thread should get the same cached generator");
+        assertEquals(TradeType.FX_FORWARD, first.getTradeType());
+    }
+
+    @Test
+    void testGeneratorsAreNotSharedAcrossThreads() {
+        TradeFactory factory = new TradeFactory(only(TradeType.CREDIT_DEFAULT_SWAP));
+
+        TradeGenerator local = factory.generatorFor(TradeType.CREDIT_DEFAULT_SWAP);
+        TradeGenerator other = CompletableFuture
+                .supplyAsync(() -> factory.generatorFor(TradeType.CREDIT_DEFAULT_SWAP))
+                .join();
+
+        assertNotSame(local, other, "Each thread should own its generators");
+    }
+
+    @Test
+    void testGenerateHonoursDistribution() {
+        TradeFactory factory = new TradeFactory(only(TradeType.EQUITY_OPTION));
+
+        for (int i = 0; i < 100; i++) {
+            Trade trade = factory.generate();
+            assertEquals(TradeType.EQUITY_OPTION, trade.getTradeType());
+        }
+    }
+
+    @Test
+    void testRejectsDistributionNotSummingTo100() {
+        Map<TradeType, Integer> distribution = new EnumMap<>(TradeType.class);
+        distribution.put(TradeType.EQUITY_SWAP, 50);
+
+        assertThrows(IllegalArgumentException.class, () -> new TradeFactory(distribution));
+    }
+}
@@ -0,0 +1,93 @@
+package io.annapurna.generator;
+
+import io.annapurna.model.TradeType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for TradeIdGenerator.
+ */
+class TradeIdGeneratorTest {
+
+    @Test
+    void testFormat() {
+        LocalDate date = LocalDate.of(2024, 1, 5);
+
+        assertEquals("ANNAPURNA-EQS-20240105-00000042", TradeIdGenerator.format(TradeType.EQUITY_SWAP, date, 42));
+        assertEquals("ANNAPURNA-CDS-20240105-00000000", TradeIdGenerator.format(TradeType.CREDIT_DEFAULT_SWAP, date, 0));
+        assertEquals("ANNAPURNA-FXF-20240105-123456789012",
+                TradeIdGenerator.format(TradeType.FX_FORWARD, date, 123_456_789_012L));
+        assertThrows(IllegalArgumentException.class, () -> TradeIdGenerator.format(TradeType.FX_FORWARD, date, -1));
+    }
+
+    @Test
+    void testUniqueAcrossThreads() throws InterruptedException {
+        TradeIdGenerator ids = new TradeIdGenerator();
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        LocalDate date = LocalDate.of(2024, 6, 3);
+        int threads = 8;
+        int perThread = 20_000;
+        CountDownLatch done = new CountDownLatch(threads);
+
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    seen.add(ids.next(TradeType.EQUITY_SWAP, date));
+                }
+                done.countDown();
+            });
+            workers.add(worker);
+            worker.start();
+        }
+        done.await();
+
+        assertEquals(threads * perThread, seen.size(), "Every ID should be unique");
+    }
+
+    @Test
+    void testSequenceSpacesAreDisjoint() {
+        LocalDate date = LocalDate.of(2024, 6, 3);
+        assertEquals("ANNAPURNA-FXF-20240603-8500000000000000000",
+                new TradeIdGenerator().next(TradeType.FX_FORWARD, date));
+        // A new generator of its own space repeats the same IDs, as seeded generators need
+        assertEquals("ANNAPURNA-FXF-20240603-8500000000000000000",
+                new TradeIdGenerator().next(TradeType.FX_FORWARD, date));
+
+        String shared = TradeIdGenerator.shared().next(TradeType.FX_FORWARD, date);
+        assertTrue(Long.parseLong(shared.substring(shared.lastIndexOf('-') + 1)) >= TradeIdGenerator.SHARED_START);
+
+        long first = TradeIdGenerator.reserveRun(1_000);
+        long second = TradeIdGenerator.reserveRun(Long.MAX_VALUE);
+        long third = TradeIdGenerator.reserveRun(10);
+        assertTrue(first >= TradeIdGenerator.UNSEEDED_RUNS_START);
+        assertTrue(second >= first + 1_000);
+        assertTrue(third > second + 1_000_000_000L);
+        assertTrue(third < TradeIdGenerator.OWN_SPACE_START);
+        assertThrows(IllegalArgumentException.class, () -> TradeIdGenerator.reserveRun(-1));
+    }
+
+    @Test
+    void testPositionedUsesPositionOnce() {
+        TradeIdGenerator.Positioned ids = TradeIdGenerator.positioned();
+        LocalDate date = LocalDate.of(2024, 6, 3);
+
+        ids.position(7);
+        assertEquals("ANNAPURNA-IRS-20240603-00000007", ids.next(TradeType.INTEREST_RATE_SWAP, date));
+
+        // Without a new position the next ID falls back to the shared sequence
+        Set<String> fallback = new HashSet<>();
+        fallback.add(ids.next(TradeType.INTEREST_RATE_SWAP, date));
+        fallback.add(ids.next(TradeType.INTEREST_RATE_SWAP, date));
+        assertEquals(2, fallback.size());
+    }
+}
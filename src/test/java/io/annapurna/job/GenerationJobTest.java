@@ -0,0 +1,106 @@
+package io.annapurna.job;
+
+import io.annapurna.Annapurna;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.annapurna.SeededRuns.seeded;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for checkpointed generation jobs.
+ */
+class GenerationJobTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testJobWritesOneLinePerTradeAndFinalCheckpoint() throws IOException {
+        Path output = dir.resolve("trades.jsonl");
+        Path checkpointPath = dir.resolve("trades.checkpoint");
+
+        Checkpoint result = seeded(5L).build().job(output, checkpointPath).run();
+
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(5_000, lines.size());
+        assertTrue(lines.stream().allMatch(line -> line.startsWith("{") && line.endsWith("}")));
+
+        Checkpoint saved = Checkpoint.read(checkpointPath);
+        assertTrue(result.isComplete());
+        assertTrue(saved.isComplete());
+        assertEquals(5_000, saved.getCompletedTrades());
+        assertEquals(Files.size(output), saved.getOutputOffset());
+        assertEquals(5L, saved.getSeed());
+    }
+
+    @Test
+    void testResumedJobMatchesUninterruptedRun() throws IOException {
+        Path reference = dir.resolve("reference.jsonl");
+        seeded(7L).build().job(reference, dir.resolve("reference.checkpoint")).run();
+
+        // Simulate a crash: the executor starts rejecting work partway through the run
+        Path output = dir.resolve("trades.jsonl");
+        Path checkpointPath = dir.resolve("trades.checkpoint");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        AtomicInteger submitted = new AtomicInteger();
+        Executor crashing = task -> {
+            if (submitted.incrementAndGet() > 12) {
+                throw new RejectedExecutionException("process killed");
+            }
+            pool.execute(task);
+        };
+        try {
+            GenerationJob job = seeded(7L).executor(crashing).build()
+                    .job(output, checkpointPath)
+                    .checkpointInterval(Duration.ZERO);
+            assertThrows(RejectedExecutionException.class, job::run);
+        } finally {
+            pool.shutdown();
+        }
+
+        Checkpoint interrupted = Checkpoint.read(checkpointPath);
+        assertTrue(interrupted.getCompletedChunks() > 0);
+        assertFalse(interrupted.isComplete());
+        // Bytes written after the last checkpoint must be discarded on resume
+        Files.write(output, "{\"partial".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+
+        Checkpoint resumed = seeded(7L).parallelism(3).build().resume(checkpointPath);
+
+        assertTrue(resumed.isComplete());
+        assertArrayEquals(Files.readAllBytes(reference), Files.readAllBytes(output));
+    }
+
+    @Test
+    void testResumeRejectsDifferentConfiguration() throws IOException {
+        Path checkpointPath = dir.resolve("trades.checkpoint");
+        seeded(9L).build().job(dir.resolve("trades.jsonl"), checkpointPath).run();
+
+        assertThrows(IllegalStateException.class, () -> seeded(10L).build().resume(checkpointPath));
+        assertThrows(IllegalStateException.class, () -> seeded(9L).count(5_001).build().resume(checkpointPath));
+    }
+
+    @Test
+    void testJobRequiresSeededBoundedRun() {
+        Path output = dir.resolve("trades.jsonl");
+        Path checkpointPath = dir.resolve("trades.checkpoint");
+
+        assertThrows(IllegalStateException.class, () ->
+                Annapurna.builder().count(100).build().job(output, checkpointPath));
+        assertThrows(IllegalStateException.class, () ->
+                Annapurna.builder().unbounded().seed(1L).build().job(output, checkpointPath));
+    }
+}
@@ -0,0 +1,210 @@
+package io.annapurna.job;
+
+import io.annapurna.Annapurna;
+import io.annapurna.model.Trade;
+import io.annapurna.sink.TradeSink;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for scheduling many generation jobs on one shared pool.
+ */
+class GenerationSchedulerTest {
+
+    @Test
+    void testScheduledRunMatchesGenerate() {
+        List<Trade> expected = Annapurna.builder().count(2_500).seed(11L).chunkSize(256).build().generate();
+
+        try (GenerationScheduler scheduler = GenerationScheduler.create(2)) {
+            ScheduledJob<List<Trade>> job = Annapurna.builder().count(2_500).seed(11L).chunkSize(256).build()
+                    .submit(scheduler);
+            List<Trade> actual = job.result().join();
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                assertEquals(expected.get(i).getTradeId(), actual.get(i).getTradeId());
+                assertEquals(expected.get(i).getNotional(), actual.get(i).getNotional());
+            }
+            assertEquals(1.0, job.getProgress());
+            assertTrue(job.isDone());
+        }
+    }
+
+    @Test
+    void testSmallJobIsNotStuckBehindLargeJob() {
+        AtomicLong bigDelivered = new AtomicLong();
+        try (GenerationScheduler scheduler = GenerationScheduler.create(1)) {
+            ScheduledJob<Void> big = Annapurna.builder().count(200_000).seed(1L).chunkSize(500).build()
+                    .submitInto(scheduler, trade -> bigDelivered.incrementAndGet());
+            ScheduledJob<List<Trade>> small = Annapurna.builder().count(2_000).seed(2L).chunkSize(500).build()
+                    .submit(scheduler);
+
+            assertEquals(2_000, small.result().join().size());
+            // With equal weights the small job's four chunks interleave with the big job's
+            assertTrue(bigDelivered.get() < 100_000, "Big job had delivered " + bigDelivered.get());
+            big.result().join();
+            assertEquals(200_000, bigDelivered.get());
+        }
+    }
+
+    @Test
+    void testHigherPriorityRunsFirst() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StringBuilder order = new StringBuilder();
+        try (GenerationScheduler scheduler = GenerationScheduler.create(1)) {
+            // Hold the only thread so both jobs below are queued before either starts
+            ScheduledJob<Void> gate = scheduler.submit(new FixedTask(1, 1, () -> awaitQuietly(release)));
+            ScheduledJob<Void> low = scheduler.submit(new FixedTask(3, 3, () -> append(order, 'l')), 1, 0);
+            ScheduledJob<Void> high = scheduler.submit(new FixedTask(3, 3, () -> append(order, 'h')), 1, 5);
+            release.countDown();
+
+            CompletableFuture.allOf(gate.result(), low.result(), high.result()).join();
+            assertEquals("hhhlll", order.toString());
+        }
+    }
+
+    @Test
+    void testWeightsShareThreadsProportionally() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        StringBuilder order = new StringBuilder();
+        try (GenerationScheduler scheduler = GenerationScheduler.create(1)) {
+            ScheduledJob<Void> gate = scheduler.submit(new FixedTask(1, 1, () -> awaitQuietly(release)));
+            ScheduledJob<Void> heavy = scheduler.submit(new FixedTask(300, 300, () -> append(order, 'a')), 3, 0);
+            ScheduledJob<Void> light = scheduler.submit(new FixedTask(300, 300, () -> append(order, 'b')), 1, 0);
+            release.countDown();
+
+            CompletableFuture.allOf(gate.result(), heavy.result(), light.result()).join();
+            String firstHundred = order.substring(0, 100);
+            long light100 = firstHundred.chars().filter(c -> c == 'b').count();
+            assertEquals(25, light100, 2, "Light job's share of the first 100 chunks");
+        }
+    }
+
+    @Test
+    void testProgressMilestonesComplete() {
+        try (GenerationScheduler scheduler = GenerationScheduler.create(2)) {
+            ScheduledJob<Void> job = Annapurna.builder().count(5_000).seed(3L).chunkSize(100).build()
+                    .submitInto(scheduler, trade -> { });
+            CompletableFuture<Void> half = job.progress(0.5);
+            CompletableFuture<Void> done = job.progress(1.0);
+
+            half.join();
+            assertTrue(job.getCompletedTrades() >= 2_500);
+            job.result().join();
+            done.join();
+            // Milestones asked for after the fact are already complete
+            assertTrue(job.progress(0.9).isDone());
+        }
+        assertThrows(IllegalArgumentException.class, () -> {
+            try (GenerationScheduler scheduler = GenerationScheduler.create(1)) {
+                scheduler.submit(new FixedTask(1, 1, () -> { })).progress(1.5);
+            }
+        });
+    }
+
+    @Test
+    void testCancelStopsJobAndFailsMilestones() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicLong ran = new AtomicLong();
+        try (GenerationScheduler scheduler = GenerationScheduler.create(1)) {
+            ScheduledJob<Void> gate = scheduler.submit(new FixedTask(1, 1, () -> awaitQuietly(release)));
+            ScheduledJob<Void> job = scheduler.submit(new FixedTask(100, 100, ran::incrementAndGet));
+            CompletableFuture<Void> half = job.progress(0.5);
+
+            assertTrue(job.cancel());
+            release.countDown();
+            gate.result().join();
+
+            assertThrows(CancellationException.class, () -> job.result().join());
+            assertTrue(half.isCompletedExceptionally());
+            // The scheduler is free for other jobs
+            ScheduledJob<Void> next = scheduler.submit(new FixedTask(5, 5, () -> { }));
+            next.result().join();
+            assertEquals(0, ran.get());
+        }
+    }
+
+    @Test
+    void testSinkFailureFailsJob() {
+        TradeSink failing = trade -> {
+            throw new IllegalStateException("disk full");
+        };
+        try (GenerationScheduler scheduler = GenerationScheduler.create(2)) {
+            ScheduledJob<Void> job = Annapurna.builder().count(1_000).seed(4L).chunkSize(100).build()
+                    .submitInto(scheduler, failing);
+            CompletionException thrown = assertThrows(CompletionException.class, () -> job.result().join());
+            assertInstanceOf(IllegalStateException.class, thrown.getCause());
+            assertTrue(job.progress(1.0).isCompletedExceptionally());
+        }
+    }
+
+    @Test
+    void testInvalidSubmissionsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> GenerationScheduler.create(0));
+        GenerationScheduler scheduler = GenerationScheduler.create(1);
+        assertThrows(IllegalArgumentException.class, () -> scheduler.submit(null));
+        assertThrows(IllegalArgumentException.class, () -> scheduler.submit(new FixedTask(1, 1, () -> { }), 0, 0));
+        scheduler.close();
+        assertThrows(IllegalStateException.class, () -> scheduler.submit(new FixedTask(1, 1, () -> { })));
+    }
+
+    private static void append(StringBuilder order, char c) {
+        // Chunks run on the scheduler's single thread, one at a time
+        synchronized (order) {
+            order.append(c);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(10, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Task of fixed size whose chunks each run the same action and count one trade.
+     */
+    private static final class FixedTask implements GenerationScheduler.Task<Void> {
+        private final long chunks;
+        private final long trades;
+        private final Runnable action;
+
+        FixedTask(long chunks, long trades, Runnable action) {
+            this.chunks = chunks;
+            this.trades = trades;
+            this.action = action;
+        }
+
+        @Override
+        public long chunkCount() {
+            return chunks;
+        }
+
+        @Override
+        public long tradeCount() {
+            return trades;
+        }
+
+        @Override
+        public long runChunk(long chunk) {
+            action.run();
+            return trades / chunks;
+        }
+
+        @Override
+        public Void finish() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package io.annapurna.pipeline;
+
+import io.annapurna.Annapurna;
+import io.annapurna.model.EquitySwap;
+import io.annapurna.model.Trade;
+import io.annapurna.serialization.JsonSerializer;
+import io.annapurna.sink.TradeSink;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static io.annapurna.SeededRuns.seeded;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for TradePipeline.
+ */
+class TradePipelineTest {
+
+    @Test
+    void testEveryWaitStrategyDeliversEachTradeOnceAfterCorruption() {
+        int count = 10_000;
+        for (WaitStrategy strategy : WaitStrategy.values()) {
+            AtomicLongArray deliveries = new AtomicLongArray(count);
+            AtomicInteger nonConsecutive = new AtomicInteger();
+
+            TradePipeline.builder(count, TradePipelineTest::indexedTrade)
+                    .corruption((trade, index) -> {
+                        trade.setBook("corrupted-" + index);
+                        return trade;
+                    })
+                    .generationThreads(3)
+                    .corruptionThreads(2)
+                    .sinkThreads(2)
+                    // A small ring forces generation to wait for the sink
+                    .bufferSize(64)
+                    .batchSize(8)
+                    .waitStrategy(strategy)
+                    .run(new TradeSink() {
+                        @Override
+                        public void accept(Trade trade) {
+                            throw new AssertionError("Pipeline should deliver batches");
+                        }
+
+                        @Override
+                        public void acceptBatch(Trade[] batch, int length) {
+                            long first = Long.parseLong(batch[0].getTradeId());
+                            for (int i = 0; i < length; i++) {
+                                long index = Long.parseLong(batch[i].getTradeId());
+                                if (index != first + i || !batch[i].getBook().equals("corrupted-" + index)) {
+                                    nonConsecutive.incrementAndGet();
+                                }
+                                deliveries.incrementAndGet((int) index);
+                            }
+                        }
+                    });
+
+            assertEquals(0, nonConsecutive.get(), strategy + ": batches must hold consecutive corrupted trades");
+            for (int i = 0; i < count; i++) {
+                assertEquals(1, deliveries.get(i), strategy + ": trade " + i);
+            }
+        }
+    }
+
+    @Test
+    void testSeededPipelineMatchesGenerateInOrder() throws IOException {
+        JsonSerializer serializer = new JsonSerializer();
+        List<String> expected = new ArrayList<>();
+        for (Trade trade : seeded(41L).build().generate()) {
+            expected.add(serializer.toJson(trade));
+        }
+
+        // One sink thread receives batches in index order
+        List<String> delivered = new ArrayList<>();
+        seeded(41L).build()
+                .pipeline()
+                .generationThreads(3)
+                .corruptionThreads(2)
+                .sinkThreads(1)
+                .bufferSize(256)
+                .run(trade -> {
+                    try {
+                        delivered.add(serializer.toJson(trade));
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+
+        assertEquals(expected, delivered);
+    }
+
+    @Test
+    void testStageFailureStopsPipeline() {
+        AtomicInteger accepted = new AtomicInteger();
+        TradePipeline pipeline = TradePipeline.builder(Long.MAX_VALUE, TradePipelineTest::indexedTrade)
+                .generationThreads(2)
+                .build();
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () ->
+                pipeline.run(trade -> {
+                    if (accepted.incrementAndGet() == 5_000) {
+                        throw new IllegalStateException("disk full");
+                    }
+                }));
+        assertEquals("disk full", failure.getMessage());
+        assertEquals(0, Thread.getAllStackTraces().keySet().stream()
+                .filter(t -> t.getName().startsWith("annapurna-pipeline-") && t.isAlive())
+                .count(), "All stage threads should have stopped");
+    }
+
+    @Test
+    void testInvalidConfigurationRejected() {
+        TradePipeline.Builder builder = TradePipeline.builder(10, TradePipelineTest::indexedTrade);
+
+        assertThrows(IllegalArgumentException.class, () -> builder.bufferSize(1000));
+        assertThrows(IllegalArgumentException.class, () -> builder.batchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.sinkThreads(0));
+        assertThrows(IllegalArgumentException.class, () -> builder.bufferSize(16).batchSize(32).build());
+        assertThrows(IllegalArgumentException.class, () -> TradePipeline.builder(0, TradePipelineTest::indexedTrade));
+    }
+
+    private static Trade indexedTrade(long index) {
+        EquitySwap trade = new EquitySwap();
+        trade.setTradeId(Long.toString(index));
+        return trade;
+    }
+}
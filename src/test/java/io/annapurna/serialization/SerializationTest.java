@@ -1,12 +1,14 @@
 package io.annapurna.serialization;
 
 import io.annapurna.Annapurna;
+import io.annapurna.model.FXForward;
 import io.annapurna.model.Trade;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -156,6 +158,32 @@ class SerializationTest {
         System.out.println("FX Forwards file: " + fxFile.length() + " bytes");
     }
 
+    @Test
+    void testExecutionTimeSerialized() throws IOException {
+        List<Trade> trades = Annapurna.builder()
+                .tradeTypes()
+                .fxForward(100)
+                .count(10)
+                .executionTimes()
+                .build()
+                .generate();
+        Trade trade = trades.get(0);
+
+        JsonSerializer json = new JsonSerializer();
+        File jsonFile = tempDir.resolve("timed.json").toFile();
+        json.write(trade, jsonFile.getAbsolutePath());
+        assertTrue(json.toJsonLine(trade).contains("\"executionTime\":\"" + trade.getExecutionTime() + "\""));
+        assertEquals(trade.getExecutionTime(), json.read(jsonFile.getAbsolutePath(), FXForward.class).getExecutionTime());
+        assertFalse(json.toJson(Annapurna.generateOne()).contains("executionTime"));
+
+        File csvFile = tempDir.resolve("timed.csv").toFile();
+        new CsvSerializer().write(trades, csvFile.getAbsolutePath());
+        List<String> lines = Files.readAllLines(csvFile.toPath());
+        assertTrue(lines.get(0).startsWith("tradeId,tradeDate,settlementDate,"));
+        assertTrue(lines.get(0).endsWith(",executionTime"));
+        assertTrue(lines.get(1).endsWith("," + trade.getExecutionTime()));
+    }
+
     @Test
     void testCsvHandlesNullValues() throws IOException {
         // Generate trades with edge cases (some nulls)
@@ -221,4 +249,30 @@ class SerializationTest {
         assertTrue(jsonFile.exists());
         assertTrue(jsonFile.length() > 100000); // Should be > 100KB
     }
-}
\ No newline at end of file
+
+    @Test
+    void testTradeFormatSizesMatchWrittenLines() throws IOException {
+        List<FXForward> forwards = Annapurna.generate(FXForward.class, 50);
+        List<Trade> trades = List.copyOf(forwards);
+
+        File csvFile = tempDir.resolve("forwards.csv").toFile();
+        new CsvSerializer().write(trades, csvFile.getAbsolutePath());
+        List<String> rows = Files.readAllLines(csvFile.toPath());
+        assertEquals(trades.size() + 1, rows.size()); // Header is not a trade
+
+        // The file is exactly the header line plus the counted trade sizes, whatever the platform's line separator
+        long sized = rows.get(0).getBytes(StandardCharsets.UTF_8).length + 1
+                + trades.stream().mapToLong(TradeFormat.CSV::byteSize).sum();
+        assertEquals(sized, csvFile.length());
+
+        JsonSerializer json = new JsonSerializer();
+        for (int i = 0; i < trades.size(); i++) {
+            Trade trade = trades.get(i);
+            assertEquals(rows.get(i + 1), TradeFormat.CSV.format(trade));
+            assertEquals(rows.get(i + 1).getBytes(StandardCharsets.UTF_8).length + 1, TradeFormat.CSV.byteSize(trade));
+            assertEquals(json.toJsonLine(trade).getBytes(StandardCharsets.UTF_8).length + 1,
+                    TradeFormat.JSON_LINES.byteSize(trade));
+        }
+        assertEquals("résumé €".getBytes(StandardCharsets.UTF_8).length, TradeFormat.utf8Length("résumé €"));
+    }
+}
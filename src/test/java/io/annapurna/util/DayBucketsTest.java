@@ -0,0 +1,51 @@
+package io.annapurna.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for DayBuckets.
+ */
+class DayBucketsTest {
+
+    @Test
+    void testCountsAreExactAndEven() {
+        // March 2024 has 21 business days
+        DayBuckets buckets = DayBuckets.of(LocalDate.of(2024, 3, 1), LocalDate.of(2024, 3, 31), 1_000);
+
+        assertEquals(21, buckets.size());
+        assertEquals(1_000, buckets.start(buckets.size()));
+        long previous = -1;
+        for (int day = 0; day < buckets.size(); day++) {
+            assertTrue(buckets.count(day) == 47 || buckets.count(day) == 48);
+            DayOfWeek weekday = buckets.day(day).getDayOfWeek();
+            assertNotEquals(DayOfWeek.SATURDAY, weekday);
+            assertNotEquals(DayOfWeek.SUNDAY, weekday);
+            assertTrue(buckets.start(day) > previous);
+            previous = buckets.start(day);
+        }
+    }
+
+    @Test
+    void testEveryPositionFallsInItsDay() {
+        DayBuckets buckets = DayBuckets.of(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 31), 10);
+
+        // Fewer trades than days leaves some days empty
+        for (long position = 0; position < 10; position++) {
+            int day = buckets.bucketOf(position);
+            assertTrue(buckets.start(day) <= position && position < buckets.start(day + 1));
+            assertEquals(buckets.day(day), buckets.dateAt(position));
+        }
+        assertThrows(IndexOutOfBoundsException.class, () -> buckets.bucketOf(10));
+    }
+
+    @Test
+    void testRangeWithoutBusinessDayRejected() {
+        assertThrows(IllegalArgumentException.class, () ->
+                DayBuckets.of(LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 3), 10));
+    }
+}
@@ -0,0 +1,63 @@
+package io.annapurna.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for IndexPermutation.
+ */
+class IndexPermutationTest {
+
+    @Test
+    void testIsBijectionForAwkwardSizes() {
+        for (long size : new long[]{1, 2, 3, 7, 100, 1_000, 65_537}) {
+            IndexPermutation permutation = new IndexPermutation(size, 42L);
+            BitSet seen = new BitSet();
+
+            for (long i = 0; i < size; i++) {
+                long image = permutation.apply(i);
+                assertTrue(image >= 0 && image < size, "Image out of range for size " + size);
+                assertFalse(seen.get((int) image), "Duplicate image for size " + size);
+                seen.set((int) image);
+                assertEquals(i, permutation.inverse(image));
+            }
+        }
+    }
+
+    @Test
+    void testHugeDomainRoundTrips() {
+        IndexPermutation permutation = new IndexPermutation(Long.MAX_VALUE, 7L);
+
+        for (long index : new long[]{0, 1, 123_456_789_012L, Long.MAX_VALUE - 1}) {
+            long image = permutation.apply(index);
+            assertTrue(image >= 0);
+            assertEquals(index, permutation.inverse(image));
+        }
+    }
+
+    @Test
+    void testKeyChangesPermutation() {
+        IndexPermutation first = new IndexPermutation(10_000, 1L);
+        IndexPermutation second = new IndexPermutation(10_000, 2L);
+
+        int same = 0;
+        for (long i = 0; i < 10_000; i++) {
+            if (first.apply(i) == second.apply(i)) {
+                same++;
+            }
+        }
+        assertTrue(same < 100, "Different keys should give unrelated permutations, " + same + " matched");
+    }
+
+    @Test
+    void testRejectsOutOfRange() {
+        IndexPermutation permutation = new IndexPermutation(10, 0L);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.apply(10));
+        assertThrows(IndexOutOfBoundsException.class, () -> permutation.inverse(-1));
+        assertThrows(IllegalArgumentException.class, () -> new IndexPermutation(0, 0L));
+    }
+}
@@ -0,0 +1,103 @@
+package io.annapurna.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RandomSourceTest {
+
+    private static final long[] SEEDS = {0L, 1L, -1L, 42L, Long.MIN_VALUE, 0x6A09E667F3BCC909L};
+
+    @Test
+    void testInPlaceAlgorithmsMatchJdk() {
+        for (String algorithm : new String[] {RandomSource.L64X128_MIX_RANDOM, RandomSource.XOROSHIRO_128_PLUS_PLUS}) {
+            RandomGeneratorFactory<RandomGenerator> factory = RandomGeneratorFactory.of(algorithm);
+            RandomSource source = RandomSource.of(algorithm, 7L);
+            for (long seed : SEEDS) {
+                // Reseeding the same instance must give the stream of a fresh JDK instance
+                source.reseed(seed);
+                RandomGenerator jdk = factory.create(seed);
+                for (int i = 0; i < 100; i++) {
+                    assertEquals(jdk.nextLong(), source.nextLong(), algorithm + " seed " + seed + " draw " + i);
+                    assertEquals(jdk.nextInt(1_000), source.nextInt(1_000));
+                    assertEquals(jdk.nextDouble(), source.nextDouble());
+                    assertEquals(jdk.nextBoolean(), source.nextBoolean());
+                    assertEquals(jdk.nextInt(-50, 1_000_000_007), source.nextInt(-50, 1_000_000_007));
+                    assertEquals(jdk.nextLong(3_000_000_000_000L), source.nextLong(3_000_000_000_000L));
+                    assertEquals(jdk.nextFloat(), source.nextFloat());
+                    assertEquals(jdk.nextGaussian(), source.nextGaussian());
+                    assertBytesEqual(jdk, source);
+                }
+            }
+        }
+    }
+
+    @Test
+    void testSplitMixMatchesSplitMixRandom() {
+        RandomSource source = RandomSource.of(RandomSource.SPLIT_MIX_64, 7L);
+        for (long seed : SEEDS) {
+            source.reseed(seed);
+            SplitMixRandom expected = new SplitMixRandom(seed);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(expected.nextLong(), source.nextLong(), "seed " + seed + " draw " + i);
+                assertEquals(expected.nextInt(1_000), source.nextInt(1_000));
+                assertEquals(expected.nextInt(64), source.nextInt(64));
+                assertEquals(expected.nextInt(-50, 1_000_000_007), source.nextInt(-50, 1_000_000_007));
+                assertEquals(expected.nextLong(3_000_000_000_000L), source.nextLong(3_000_000_000_000L));
+                assertEquals(expected.nextDouble(), source.nextDouble());
+                assertEquals(expected.nextFloat(), source.nextFloat());
+                assertEquals(expected.nextBoolean(), source.nextBoolean());
+                assertEquals(expected.nextGaussian(), source.nextGaussian());
+                assertBytesEqual(expected, source);
+            }
+        }
+    }
+
+    private static void assertBytesEqual(RandomGenerator expected, RandomGenerator actual) {
+        byte[] want = new byte[13];
+        byte[] got = new byte[13];
+        expected.nextBytes(want);
+        actual.nextBytes(got);
+        assertArrayEquals(want, got);
+    }
+
+    @Test
+    void testJavaUtilRandomMatchesRandom() {
+        RandomSource source = RandomSource.of(RandomSource.JAVA_UTIL_RANDOM, 7L);
+        for (long seed : SEEDS) {
+            source.reseed(seed);
+            Random expected = new Random(seed);
+            for (int i = 0; i < 100; i++) {
+                assertEquals(expected.nextLong(), source.nextLong(), "seed " + seed + " draw " + i);
+                assertEquals(expected.nextInt(1_000), source.nextInt(1_000));
+                assertEquals(expected.nextDouble(), source.nextDouble());
+                assertEquals(expected.nextBoolean(), source.nextBoolean());
+                assertEquals(expected.nextGaussian(), source.nextGaussian());
+            }
+        }
+        assertTrue(RandomSource.isReseedable(RandomSource.JAVA_UTIL_RANDOM));
+    }
+
+    @Test
+    void testReseedRestartsStream() {
+        RandomSource source = RandomSource.of(RandomSource.SPLIT_MIX_64, 3L);
+        long first = source.nextLong();
+        source.nextLong();
+        source.reseed(3L);
+        assertEquals(first, source.nextLong());
+    }
+
+    @Test
+    void testOtherAlgorithmsCannotBeReseeded() {
+        assertTrue(RandomSource.isReseedable(RandomSource.XOROSHIRO_128_PLUS_PLUS));
+        assertFalse(RandomSource.isReseedable("L128X256MixRandom"));
+
+        RandomSource source = RandomSource.of("L128X256MixRandom", 1L);
+        assertThrows(UnsupportedOperationException.class, () -> source.reseed(2L));
+        assertThrows(UnsupportedOperationException.class, () -> RandomSource.threadLocal().reseed(2L));
+    }
+}
@@ -0,0 +1,63 @@
+package io.annapurna.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for Strata.
+ */
+class StrataTest {
+
+    @Test
+    void testApportionSumsExactly() {
+        assertArrayEquals(new long[]{4, 3, 3}, Strata.apportion(10, new int[]{34, 33, 33}));
+        assertArrayEquals(new long[]{0, 1}, Strata.apportion(1, new int[]{40, 60}));
+        assertArrayEquals(new long[]{200, 200, 200, 200, 200}, Strata.apportion(1_000, new int[]{20, 20, 20, 20, 20}));
+
+        long huge = Long.MAX_VALUE - 1;
+        long[] counts = Strata.apportion(huge, new int[]{30, 20, 20, 20, 10});
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        assertEquals(huge, sum);
+    }
+
+    @Test
+    void testPositionsMatchCounts() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("A", 50);
+        weights.put("EMPTY", 0);
+        weights.put("B", 30);
+        weights.put("C", 20);
+
+        Strata<String> strata = Strata.of(weights, 997, 11L);
+        Map<String, Long> seen = new LinkedHashMap<>();
+        for (long position = 0; position < 997; position++) {
+            seen.merge(strata.at(position), 1L, Long::sum);
+        }
+
+        assertNull(seen.get("EMPTY"));
+        for (int i = 0; i < strata.size(); i++) {
+            assertEquals(strata.count(i), seen.getOrDefault(strata.get(i), 0L).longValue(), strata.get(i));
+        }
+    }
+
+    @Test
+    void testSlotsAndPositionsAgree() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("X", 1);
+        weights.put("Y", 3);
+
+        Strata<String> strata = Strata.of(weights, 400, 5L);
+        for (long slot = 0; slot < 400; slot++) {
+            String expected = strata.get(strata.stratumOfSlot(slot));
+            assertEquals(expected, strata.at(strata.positionOfSlot(slot)));
+        }
+        assertEquals(100, strata.slotEnd(0));
+    }
+}
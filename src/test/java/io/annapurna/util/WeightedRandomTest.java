@@ -0,0 +1,93 @@
+package io.annapurna.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Test suite for WeightedRandom.
+ */
+class WeightedRandomTest {
+
+    @Test
+    void testSelectionFollowsWeights() {
+        WeightedRandom<String> sampler = WeightedRandom.<String>builder()
+                .add("A", 50)
+                .add("B", 30)
+                .add("C", 15)
+                .add("D", 5)
+                .build();
+
+        RandomSource random = RandomSource.of(RandomSource.SPLIT_MIX_64, 1L);
+        int samples = 200_000;
+        int[] counts = new int[sampler.size()];
+        for (int i = 0; i < samples; i++) {
+            counts[sampler.nextIndex(random)]++;
+        }
+
+        double[] expected = {0.50, 0.30, 0.15, 0.05};
+        for (int i = 0; i < expected.length; i++) {
+            double actual = counts[i] / (double) samples;
+            assertEquals(expected[i], actual, 0.01, "Share of " + sampler.get(i));
+        }
+    }
+
+    @Test
+    void testZeroWeightNeverSelected() {
+        WeightedRandom<String> sampler = WeightedRandom.<String>builder()
+                .add("never", 0)
+                .add("always", 1)
+                .add("never-either", 0)
+                .build();
+
+        RandomSource random = RandomSource.of(RandomSource.SPLIT_MIX_64, 2L);
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals("always", sampler.next(random));
+        }
+    }
+
+    @Test
+    void testLargeSkewedTable() {
+        WeightedRandom.Builder<Integer> builder = WeightedRandom.builder();
+        for (int i = 0; i < 5_000; i++) {
+            builder.add(i, i == 0 ? 5_000 : 1);
+        }
+        WeightedRandom<Integer> sampler = builder.build();
+
+        RandomSource random = RandomSource.of(RandomSource.SPLIT_MIX_64, 3L);
+        int hits = 0;
+        int samples = 100_000;
+        for (int i = 0; i < samples; i++) {
+            if (sampler.next(random) == 0) {
+                hits++;
+            }
+        }
+
+        // Item 0 holds 5000 / 9999 of the total weight
+        assertEquals(0.5, hits / (double) samples, 0.01);
+    }
+
+    @Test
+    void testMapPreservesIterationOrder() {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        weights.put("first", 1);
+        weights.put("second", 2);
+
+        WeightedRandom<String> sampler = WeightedRandom.of(weights);
+
+        assertEquals(2, sampler.size());
+        assertEquals("first", sampler.get(0));
+        assertEquals("second", sampler.get(1));
+    }
+
+    @Test
+    void testInvalidWeightsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> WeightedRandom.builder().build());
+        assertThrows(IllegalArgumentException.class, () -> WeightedRandom.builder().add("x", -1));
+        assertThrows(IllegalArgumentException.class, () -> WeightedRandom.builder().add("x", Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> WeightedRandom.builder().add("x", 0).build());
+    }
+}